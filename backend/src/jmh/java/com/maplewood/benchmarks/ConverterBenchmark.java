@@ -0,0 +1,98 @@
+package com.maplewood.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.maplewood.domain.CourseHistoryStatus;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.StudentEnrollmentStatus;
+import com.maplewood.domain.StudentStatus;
+import com.maplewood.persistence.converter.CourseTypeConverter;
+import com.maplewood.persistence.converter.InstantStringConverter;
+
+/**
+ * The JPA attribute converters Hibernate calls for every column of every loaded row.
+ * <p>
+ * The {@code instant*} benchmarks parse the three shapes {@link InstantStringConverter} accepts:
+ * SQLite's {@code CURRENT_TIMESTAMP}, which is what the seeded rows hold, a bare date and an ISO
+ * instant. The enum benchmarks read the values the way they appear in the seeded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private final InstantStringConverter instantConverter = new InstantStringConverter();
+    private final CourseTypeConverter courseTypeConverter = new CourseTypeConverter();
+    private final CourseHistoryStatus.CourseHistoryStatusConverter historyStatusConverter =
+            new CourseHistoryStatus.CourseHistoryStatusConverter();
+    private final StudentEnrollmentStatus.StudentEnrollmentStatusConverter
+            enrollmentStatusConverter =
+                    new StudentEnrollmentStatus.StudentEnrollmentStatusConverter();
+    private final StudentStatus.StudentStatusConverter studentStatusConverter =
+            new StudentStatus.StudentStatusConverter();
+    private final SemesterOrder.SemesterOrderConverter semesterOrderConverter =
+            new SemesterOrder.SemesterOrderConverter();
+
+    // Not final, so the JIT cannot constant-fold the inputs
+    private String dateTime = "2026-02-24 06:16:52";
+    private String date = "2024-08-20";
+    private String isoInstant = "2026-02-24T06:16:52Z";
+    private String courseType = "elective";
+    private String historyStatus = "failed";
+    private String enrollmentStatus = "dropped";
+    private String studentStatus = "graduated";
+    private Integer semesterOrder = 2;
+
+    @Benchmark
+    public Instant instantDateTime() {
+        return instantConverter.convertToEntityAttribute(dateTime);
+    }
+
+    @Benchmark
+    public Instant instantDate() {
+        return instantConverter.convertToEntityAttribute(date);
+    }
+
+    @Benchmark
+    public Instant instantIso() {
+        return instantConverter.convertToEntityAttribute(isoInstant);
+    }
+
+    @Benchmark
+    public CourseType courseType() {
+        return courseTypeConverter.convertToEntityAttribute(courseType);
+    }
+
+    @Benchmark
+    public CourseHistoryStatus courseHistoryStatus() {
+        return historyStatusConverter.convertToEntityAttribute(historyStatus);
+    }
+
+    @Benchmark
+    public StudentEnrollmentStatus studentEnrollmentStatus() {
+        return enrollmentStatusConverter.convertToEntityAttribute(enrollmentStatus);
+    }
+
+    @Benchmark
+    public StudentStatus studentStatus() {
+        return studentStatusConverter.convertToEntityAttribute(studentStatus);
+    }
+
+    @Benchmark
+    public SemesterOrder semesterOrder() {
+        return semesterOrderConverter.convertToEntityAttribute(semesterOrder);
+    }
+}
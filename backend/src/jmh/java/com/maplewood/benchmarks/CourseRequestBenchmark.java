@@ -0,0 +1,138 @@
+package com.maplewood.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maplewood.Application;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.controllers.CourseController;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.Student;
+import com.maplewood.repositories.CourseRepository;
+import com.maplewood.repositories.StudentRepository;
+import com.maplewood.services.CourseService;
+import com.maplewood.services.StudentService;
+
+/**
+ * The per-request work behind the course endpoints, through the real Spring beans, Hibernate and
+ * SQLite.
+ * <p>
+ * The seeded database is restored into a shared-cache in-memory SQLite database before the
+ * application starts, so disk I/O stays out of the numbers and nothing is ever written back.
+ * Every invocation moves on to the next student and course, so results are not served from
+ * Hibernate's first-level cache of one student.
+ * <ul>
+ * <li>{@code canTakeCourse}: the per-course rule check of an enrollment request.</li>
+ * <li>{@code findCoursesForStudent}: eligible courses of the active semester for one student.</li>
+ * <li>{@code serializeStudentCourses}: {@code GET /api/courses/student} including the
+ * {@code CourseDTO} mapping and Jackson serialization of the body.</li>
+ * <li>{@code cachedCourses}: {@code GET /api/courses/}, which hands out a body serialized once
+ * per catalog snapshot.</li>
+ * </ul>
+ * The source database is {@code ../maplewood_school.sqlite} unless {@code -Dbenchmark.database}
+ * says otherwise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseRequestBenchmark {
+    private static final String DATABASE_URL =
+            "jdbc:sqlite:file:maplewood-bench?mode=memory&cache=shared";
+
+    // Holds the in-memory database open; it disappears with its last connection
+    private Connection keepAlive;
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private CourseService courseService;
+    private CourseController courseController;
+    private ObjectMapper objectMapper;
+    private List<Student> students;
+    private List<Course> courses;
+    private final Pageable pageable = PageRequest.of(0, 100);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        var source = System.getProperty("benchmark.database", "../maplewood_school.sqlite");
+        keepAlive = DriverManager.getConnection(DATABASE_URL);
+        try (var statement = keepAlive.createStatement()) {
+            statement.executeUpdate("restore from '" + source.replace("'", "''") + "'");
+        }
+
+        context = SpringApplication.run(Application.class,
+                "--spring.datasource.url=" + DATABASE_URL,
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.com.maplewood=WARN",
+                "--app.timetable.generate-on-startup=false");
+        studentService = context.getBean(StudentService.class);
+        courseService = context.getBean(CourseService.class);
+        courseController = context.getBean(CourseController.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        students = context.getBean(StudentRepository.class).findAll(Sort.by("id"));
+        courses = context.getBean(CourseRepository.class)
+                .findAllWithSpecializationAndPrerequisite(Pageable.unpaged(Sort.by("id")))
+                .getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        keepAlive.close();
+    }
+
+    @Benchmark
+    public Object canTakeCourse() {
+        var i = next++;
+        return studentService.canTakeCourse(students.get(i % students.size()),
+                courses.get(i % courses.size()));
+    }
+
+    @Benchmark
+    public Page<CatalogCourse> findCoursesForStudent() {
+        return courseService.findCoursesForStudent(nextStudent().getId(), pageable);
+    }
+
+    @Benchmark
+    public byte[] serializeStudentCourses() throws JsonProcessingException {
+        var response = courseController.getCoursesForStudent(nextStudent().getId(), null,
+                null);
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] cachedCourses() {
+        return (byte[]) courseController.getCourses(null, null).getBody();
+    }
+
+    private Student nextStudent() {
+        return students.get(next++ % students.size());
+    }
+}
@@ -0,0 +1,131 @@
+package com.maplewood.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CatalogSnapshot;
+import com.maplewood.catalog.CourseFilter;
+import com.maplewood.catalog.CourseSearchQuery;
+import com.maplewood.catalog.FacetedCourses;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+
+/**
+ * Course search over the catalog's inverted index: a typed-as-you-go prefix query, a misspelled
+ * one, and a text query narrowed by facets, plus rebuilding the snapshot after one course changed,
+ * with and without the previous index to reuse. {@code facetCounts} filters by several facets at
+ * once and counts every facet value against the others' selections.
+ * <p>
+ * The catalog is synthetic: names and descriptions are drawn from a fixed vocabulary with a
+ * seeded random, so every size has the same word mix. 57 matches the seeded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseSearchBenchmark {
+    private static final String[] SUBJECTS = {"Algebra", "Biology", "Chemistry", "Physics",
+        "Geometry", "Literature", "History", "Economics", "Statistics", "Programming", "Spanish",
+        "French", "Music", "Drawing", "Geography", "Psychology", "Philosophy", "Robotics"};
+    private static final String[] LEVELS = {"Intro", "Applied", "Advanced", "Honors", "Modern",
+        "World", "Foundations of", "Topics in"};
+    private static final String[] WORDS = {"analysis", "lab", "projects", "writing", "theory",
+        "practice", "research", "design", "methods", "data", "culture", "systems", "models",
+        "experiments", "reading", "discussion", "problem", "solving", "history", "society"};
+
+    @Param({"57", "10000"})
+    private int courseCount;
+
+    private List<Course> courses;
+    private List<Specialization> specializations;
+    private CatalogSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        specializations = new ArrayList<>();
+        for (var id = 1; id <= 9; id++) {
+            var specialization = new Specialization();
+            specialization.setId(id);
+            specialization.setName(SUBJECTS[id * 2 - 1] + " Department");
+            specializations.add(specialization);
+        }
+
+        courses = new ArrayList<>(courseCount);
+        for (var id = 1; id <= courseCount; id++) {
+            var subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            var course = new Course();
+            course.setId(id);
+            course.setCode(subject.substring(0, 3).toUpperCase() + (100 + id));
+            course.setName(LEVELS[random.nextInt(LEVELS.length)] + " " + subject);
+            var description = new StringBuilder(subject);
+            for (var word = 0; word < 12; word++) {
+                description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            course.setDescription(description.toString());
+            course.setSpecialization(specializations.get(random.nextInt(specializations.size())));
+            course.setCourseType(id % 4 == 0 ? CourseType.ELECTIVE : CourseType.CORE);
+            course.setCredits(id % 3 == 0 ? 2.0 : 3.0);
+            course.setGradeLevelMin(9 + id % 3);
+            course.setGradeLevelMax(12);
+            course.setSemesterOrder(id % 2 == 0 ? SemesterOrder.SPRING : SemesterOrder.FALL);
+            courses.add(course);
+        }
+        snapshot = CatalogSnapshot.of(1, courses, specializations);
+    }
+
+    @Benchmark
+    public List<CatalogCourse> prefixQuery() {
+        return snapshot.search(new CourseSearchQuery("advanced chem", null, null, null, null),
+                50);
+    }
+
+    @Benchmark
+    public List<CatalogCourse> typoQuery() {
+        return snapshot.search(new CourseSearchQuery("pyschology reserch", null, null, null,
+                null), 50);
+    }
+
+    @Benchmark
+    public List<CatalogCourse> facetedQuery() {
+        return snapshot.search(new CourseSearchQuery("lab", CourseType.ELECTIVE, 11, 3.0,
+                SemesterOrder.FALL), 50);
+    }
+
+    @Benchmark
+    public FacetedCourses facetCounts() {
+        var filter = new CourseFilter(Set.of(CourseType.ELECTIVE), Set.of(1, 3, 5), 10, 11,
+                Set.of(3.0), Set.of());
+        return snapshot.filter(null, filter, 50);
+    }
+
+    @Benchmark
+    public CatalogSnapshot fullRebuild() {
+        courses.get(0).setName("Intro Astronomy " + System.nanoTime());
+        return CatalogSnapshot.of(2, courses, specializations);
+    }
+
+    @Benchmark
+    public CatalogSnapshot incrementalRebuild() {
+        courses.get(0).setName("Intro Astronomy " + System.nanoTime());
+        return CatalogSnapshot.of(2, courses, specializations, snapshot);
+    }
+}
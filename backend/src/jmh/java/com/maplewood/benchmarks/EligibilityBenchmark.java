@@ -0,0 +1,92 @@
+package com.maplewood.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CatalogSnapshot;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.Student;
+import com.maplewood.services.StudentService;
+
+/**
+ * Eligibility of one student against a whole catalog: the per-course rule check over boxed id
+ * sets versus the snapshot's bitmasks.
+ * <p>
+ * The catalog is synthetic; 57 matches the seeded database, the larger sizes show how both paths
+ * scale. Roughly a third of the courses have a prerequisite and a quarter are passed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EligibilityBenchmark {
+
+    @Param({"57", "512", "4096"})
+    private int courseCount;
+
+    // No repositories or metrics: both measured paths run purely on the preloaded context
+    private final StudentService studentService = new StudentService(null, null, null, null, null);
+
+    private CatalogSnapshot snapshot;
+    private Student student;
+    private StudentService.EligibilityContext context;
+
+    @Setup
+    public void setUp() {
+        var courses = new ArrayList<Course>(courseCount);
+        for (var id = 1; id <= courseCount; id++) {
+            var course = new Course();
+            course.setId(id);
+            course.setGradeLevelMin(9 + id % 3);
+            course.setGradeLevelMax(12);
+            if (id % 3 == 0) {
+                course.setPrerequisite(courses.get(id / 2));
+            }
+            courses.add(course);
+        }
+        snapshot = CatalogSnapshot.of(1, courses, List.of());
+
+        var passed = new HashSet<Integer>();
+        var enrolled = new HashSet<Integer>();
+        for (var id = 1; id <= courseCount; id++) {
+            if (id % 4 == 1) {
+                passed.add(id);
+            } else if (id % 17 == 2) {
+                enrolled.add(id);
+            }
+        }
+        context = new StudentService.EligibilityContext(passed, enrolled, 2L);
+
+        student = new Student();
+        student.setId(1);
+        student.setGradeLevel(11);
+    }
+
+    @Benchmark
+    public List<CatalogCourse> perCourseChecks() {
+        return snapshot.courses().stream()
+                .filter(course -> studentService.canTakeCourse(student, course, context).isEmpty())
+                .toList();
+    }
+
+    @Benchmark
+    public List<CatalogCourse> bitsetMasks() {
+        return studentService.filterEligibleCourses(student, snapshot, snapshot.courses(),
+                context);
+    }
+}
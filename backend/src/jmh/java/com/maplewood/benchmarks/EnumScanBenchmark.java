@@ -0,0 +1,106 @@
+package com.maplewood.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.maplewood.domain.CourseHistoryStatus;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.persistence.converter.CourseTypeConverter;
+
+/**
+ * The enum columns of a {@code student_course_history} scan joined to its course and semester:
+ * a status, a course type and a semester order per row. Every status and type is its own
+ * {@code String} instance, as the JDBC driver returns them, so no hash code is cached.
+ * <p>
+ * {@code lookupTable} runs the entity converters; {@code valuesScan} is the loop over
+ * {@code values()} they used before, kept here as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnumScanBenchmark {
+    @Param({"1000000"})
+    private int rows;
+
+    private final CourseHistoryStatus.CourseHistoryStatusConverter statusConverter =
+            new CourseHistoryStatus.CourseHistoryStatusConverter();
+    private final CourseTypeConverter courseTypeConverter = new CourseTypeConverter();
+    private final SemesterOrder.SemesterOrderConverter semesterOrderConverter =
+            new SemesterOrder.SemesterOrderConverter();
+
+    private String[] statuses;
+    private String[] courseTypes;
+    private Integer[] semesterOrders;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        statuses = new String[rows];
+        courseTypes = new String[rows];
+        semesterOrders = new Integer[rows];
+        for (var i = 0; i < rows; i++) {
+            // About one in ten attempts fails, as in the seeded history
+            statuses[i] = new String(random.nextInt(10) == 0 ? "failed" : "passed");
+            courseTypes[i] = new String(random.nextInt(3) == 0 ? "elective" : "core");
+            semesterOrders[i] = 1 + random.nextInt(2);
+        }
+    }
+
+    @Benchmark
+    public void lookupTable(Blackhole blackhole) {
+        for (var i = 0; i < rows; i++) {
+            blackhole.consume(statusConverter.convertToEntityAttribute(statuses[i]));
+            blackhole.consume(courseTypeConverter.convertToEntityAttribute(courseTypes[i]));
+            blackhole.consume(semesterOrderConverter.convertToEntityAttribute(semesterOrders[i]));
+        }
+    }
+
+    @Benchmark
+    public void valuesScan(Blackhole blackhole) {
+        for (var i = 0; i < rows; i++) {
+            blackhole.consume(scanStatus(statuses[i]));
+            blackhole.consume(scanCourseType(courseTypes[i]));
+            blackhole.consume(scanSemesterOrder(semesterOrders[i]));
+        }
+    }
+
+    private static CourseHistoryStatus scanStatus(String value) {
+        for (var status : CourseHistoryStatus.values()) {
+            if (status.getValue().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown course history status: " + value);
+    }
+
+    private static CourseType scanCourseType(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return CourseType.valueOf(value.trim().toUpperCase());
+    }
+
+    private static SemesterOrder scanSemesterOrder(Integer code) {
+        for (var order : SemesterOrder.values()) {
+            if (order.getCode() == code) {
+                return order;
+            }
+        }
+        throw new IllegalArgumentException("Unknown semester order code: " + code);
+    }
+}
@@ -0,0 +1,140 @@
+package com.maplewood.benchmarks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+import com.maplewood.catalog.CatalogSnapshot;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.StudentAcademicSummary;
+import com.maplewood.planning.GraduationPlanner;
+import com.maplewood.services.StudentService;
+
+/**
+ * Graduation plans for every student of the seeded database, as the fall 2024 semester starts.
+ * <p>
+ * {@code coldMemo} plans all 400 students with a new planner, so the first students of each grade
+ * level pay for the search the rest reuse. {@code warmMemo} is one plan against a planner that has
+ * already seen every student, which is what requests cost once the memo is filled; it runs on 4
+ * threads to include contention on the shared memo.
+ * <p>
+ * The source database is {@code ../maplewood_school.sqlite} unless {@code -Dbenchmark.database}
+ * says otherwise; it is opened read-only.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraduationPlannerBenchmark {
+    private static final String COURSES_SQL = """
+            SELECT id, code, name, credits, prerequisite_id, grade_level_min, grade_level_max,
+                   semester_order
+            FROM courses
+            ORDER BY id
+            """;
+    private static final String STUDENTS_SQL = "SELECT id, grade_level FROM students ORDER BY id";
+    private static final String PASSED_SQL =
+            "SELECT student_id, course_id FROM student_course_history WHERE status = 'passed'";
+
+    private CatalogSnapshot snapshot;
+    private List<Plan> plans;
+    private GraduationPlanner warmPlanner;
+
+    private record Plan(GraduationPlanner.Start start, BitSet passed) {
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        var config = new SQLiteConfig();
+        config.setReadOnly(true);
+        var dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl("jdbc:sqlite:"
+                + System.getProperty("benchmark.database", "../maplewood_school.sqlite"));
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+
+        var coursesById = new HashMap<Integer, Course>();
+        var prerequisiteIds = new HashMap<Integer, Integer>();
+        jdbcTemplate.query(COURSES_SQL, rs -> {
+            var course = new Course();
+            course.setId(rs.getInt("id"));
+            course.setCode(rs.getString("code"));
+            course.setName(rs.getString("name"));
+            course.setCredits(rs.getDouble("credits"));
+            course.setGradeLevelMin(rs.getInt("grade_level_min"));
+            course.setGradeLevelMax(rs.getInt("grade_level_max"));
+            course.setSemesterOrder(SemesterOrder.fromCode(rs.getInt("semester_order")));
+            coursesById.put(course.getId(), course);
+            var prerequisiteId = rs.getInt("prerequisite_id");
+            if (!rs.wasNull()) {
+                prerequisiteIds.put(course.getId(), prerequisiteId);
+            }
+        });
+        prerequisiteIds.forEach((courseId, prerequisiteId) -> coursesById.get(courseId)
+                .setPrerequisite(coursesById.get(prerequisiteId)));
+        snapshot = CatalogSnapshot.of(1, new ArrayList<>(coursesById.values()), List.of());
+
+        Map<Integer, Set<Integer>> passedByStudent = new HashMap<>();
+        jdbcTemplate.query(PASSED_SQL, rs -> {
+            passedByStudent.computeIfAbsent(rs.getInt("student_id"), id -> new HashSet<>())
+                    .add(rs.getInt("course_id"));
+        });
+        plans = jdbcTemplate.query(STUDENTS_SQL, (rs, rowNum) -> new Plan(
+                new GraduationPlanner.Start(rs.getInt("grade_level"), SemesterOrder.FALL, 2024),
+                snapshot.maskOf(passedByStudent.getOrDefault(rs.getInt("id"), Set.of()))));
+
+        warmPlanner = newPlanner();
+        plans.forEach(plan -> warmPlanner.plan(snapshot, plan.start(), plan.passed(),
+                new BitSet()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public void coldMemo(Blackhole blackhole) {
+        var planner = newPlanner();
+        for (var plan : plans) {
+            blackhole.consume(planner.plan(snapshot, plan.start(), plan.passed(), new BitSet()));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(4)
+    public GraduationPlanner.GraduationPlan warmMemo(Cursor cursor) {
+        var plan = plans.get(cursor.next++ % plans.size());
+        return warmPlanner.plan(snapshot, plan.start(), plan.passed(), new BitSet());
+    }
+
+    private static GraduationPlanner newPlanner() {
+        return new GraduationPlanner(StudentService.MAX_COURSES_PER_SEMESTER,
+                StudentAcademicSummary.CREDITS_TO_GRADUATE);
+    }
+}
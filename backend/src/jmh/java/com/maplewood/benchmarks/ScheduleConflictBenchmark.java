@@ -0,0 +1,119 @@
+package com.maplewood.benchmarks;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.maplewood.scheduling.MeetingTime;
+import com.maplewood.scheduling.WeeklySlotMask;
+
+/**
+ * Checking a batch of candidate sections against a student's schedule: pairwise interval
+ * comparison of meetings versus one {@link WeeklySlotMask} AND per section.
+ * <p>
+ * Schedules and sections are synthetic, 50-minute meetings on the 5-minute grid. A full load of
+ * five courses meeting three times a week is 15 meetings; the larger sizes show how both paths
+ * scale. {@code maskWithBuild} also pays for building the student's mask, as the enrollment path
+ * does on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleConflictBenchmark {
+    private static final int CANDIDATES = 256;
+    private static final int MEETINGS_PER_SECTION = 3;
+
+    @Param({"15", "60", "240"})
+    private int scheduleSize;
+
+    private List<MeetingTime> schedule;
+    private List<List<MeetingTime>> candidates;
+    private WeeklySlotMask scheduleMask;
+    private WeeklySlotMask[] candidateMasks;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        schedule = randomMeetings(random, scheduleSize);
+        scheduleMask = WeeklySlotMask.of(schedule);
+        candidates = new ArrayList<>(CANDIDATES);
+        candidateMasks = new WeeklySlotMask[CANDIDATES];
+        for (var i = 0; i < CANDIDATES; i++) {
+            var meetings = randomMeetings(random, MEETINGS_PER_SECTION);
+            candidates.add(meetings);
+            candidateMasks[i] = WeeklySlotMask.of(meetings);
+        }
+    }
+
+    @Benchmark
+    public int pairwise() {
+        var conflicts = 0;
+        for (var section : candidates) {
+            if (overlapsAny(section)) {
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+
+    @Benchmark
+    public int mask() {
+        var conflicts = 0;
+        for (var sectionMask : candidateMasks) {
+            if (scheduleMask.intersects(sectionMask)) {
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+
+    @Benchmark
+    public int maskWithBuild() {
+        var studentMask = WeeklySlotMask.of(schedule);
+        var conflicts = 0;
+        for (var sectionMask : candidateMasks) {
+            if (studentMask.intersects(sectionMask)) {
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+
+    private boolean overlapsAny(List<MeetingTime> section) {
+        for (var meeting : section) {
+            for (var taken : schedule) {
+                if (meeting.overlaps(taken)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<MeetingTime> randomMeetings(Random random, int count) {
+        var slotsPerDay = WeeklySlotMask.SLOTS_PER_DAY - 10;
+        var meetings = new ArrayList<MeetingTime>(count);
+        for (var i = 0; i < count; i++) {
+            var day = DayOfWeek.of(1 + random.nextInt(WeeklySlotMask.SCHOOL_DAYS));
+            var start = WeeklySlotMask.DAY_START_MINUTE
+                    + random.nextInt(slotsPerDay) * WeeklySlotMask.SLOT_MINUTES;
+            meetings.add(new MeetingTime(day, start, start + 50));
+        }
+        return meetings;
+    }
+}
@@ -0,0 +1,144 @@
+package com.maplewood.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.maplewood.config.SqlitePerformanceConfig;
+import com.maplewood.config.SqlitePerformanceProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Dashboard-style reads from three threads while a fourth keeps writing enrollments, against a
+ * scratch copy of the seeded database.
+ * <p>
+ * {@code default} is what the application runs with out of the box: one Hikari pool of plain
+ * connections in rollback-journal mode, shared by readers and the writer. {@code sqlite-perf}
+ * uses the pools built by {@link SqlitePerformanceConfig}: WAL and the tuned pragmas, with
+ * readers and the writer on separate pools. Compare the {@code read} scores; every write is its
+ * own commit, the worst case for readers in rollback-journal mode.
+ * <p>
+ * The source database is {@code ../maplewood_school.sqlite} unless {@code -Dbenchmark.database}
+ * says otherwise; it is only ever copied.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqliteReadWriteBenchmark {
+    private static final String READ_SQL = """
+            SELECT c.id, c.name, c.credits, h.status
+            FROM student_course_history h
+            JOIN courses c ON c.id = h.course_id
+            WHERE h.student_id = ?
+            """;
+    // Upsert so the table stays the same size however long the benchmark runs
+    private static final String WRITE_SQL = """
+            INSERT INTO student_enrollments (student_id, course_id, semester_id, status, created_at)
+            VALUES (?, ?, 7, 'dropped', CURRENT_TIMESTAMP)
+            ON CONFLICT (student_id, course_id, semester_id)
+            DO UPDATE SET created_at = excluded.created_at
+            """;
+    private static final int STUDENTS = 400;
+    private static final int COURSES = 57;
+
+    @Param({"default", "sqlite-perf"})
+    private String mode;
+
+    private Path database;
+    private HikariDataSource readDataSource;
+    private HikariDataSource writeDataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        var source = Path.of(System.getProperty("benchmark.database", "../maplewood_school.sqlite"));
+        database = Files.createTempFile("maplewood-bench-", ".sqlite");
+        Files.copy(source, database, StandardCopyOption.REPLACE_EXISTING);
+        var url = "jdbc:sqlite:" + database;
+
+        if ("sqlite-perf".equals(mode)) {
+            var properties = new SqlitePerformanceProperties();
+            writeDataSource = SqlitePerformanceConfig.createPool(url, properties, "bench-write", 1,
+                    false);
+            readDataSource = SqlitePerformanceConfig.createPool(url, properties, "bench-read",
+                    properties.getReadPoolSize(), true);
+            return;
+        }
+
+        var config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setPoolName("bench-default");
+        readDataSource = new HikariDataSource(config);
+        writeDataSource = readDataSource;
+        // WAL is persistent, so undo it in case the source database was ever opened with it
+        try (var connection = readDataSource.getConnection();
+                var statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=DELETE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writeDataSource.close();
+        readDataSource.close();
+        for (var suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+            Files.deleteIfExists(Path.of(database + suffix));
+        }
+    }
+
+    @Benchmark
+    @Group("enrollmentsWhileReading")
+    @GroupThreads(3)
+    public void read(Blackhole blackhole) throws SQLException {
+        query(readDataSource, blackhole);
+    }
+
+    @Benchmark
+    @Group("enrollmentsWhileReading")
+    @GroupThreads(1)
+    public int write() throws SQLException {
+        var random = ThreadLocalRandom.current();
+        try (var connection = writeDataSource.getConnection();
+                var statement = connection.prepareStatement(WRITE_SQL)) {
+            statement.setInt(1, 1 + random.nextInt(STUDENTS));
+            statement.setInt(2, 1 + random.nextInt(COURSES));
+            return statement.executeUpdate();
+        }
+    }
+
+    private static void query(DataSource dataSource, Blackhole blackhole) throws SQLException {
+        try (var connection = dataSource.getConnection();
+                var statement = connection.prepareStatement(READ_SQL)) {
+            statement.setInt(1, 1 + ThreadLocalRandom.current().nextInt(STUDENTS));
+            try (var rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    blackhole.consume(rows.getString(2));
+                    blackhole.consume(rows.getString(4));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.maplewood.benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.maplewood.persistence.converter.InstantStringConverter;
+
+/**
+ * Reading the timestamp columns of a large history load: one {@code created_at} per row, as
+ * SQLite's {@code CURRENT_TIMESTAMP} writes it, and a semester {@code start_date} for every
+ * hundredth row.
+ * <p>
+ * {@code fixedLayout} is {@link InstantStringConverter}; {@code formatter} is the
+ * {@link DateTimeFormatter} path it used for every value before the fixed-layout parser, kept
+ * here as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimestampLoadBenchmark {
+    private static final DateTimeFormatter DATETIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // The seeded database's history and the scale-test data set
+    @Param({"6460", "1000000"})
+    private int rows;
+
+    private final InstantStringConverter converter = new InstantStringConverter();
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        var start = LocalDateTime.of(2019, 9, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        var span = 6L * 365 * 24 * 3600;
+        values = new String[rows];
+        for (var i = 0; i < rows; i++) {
+            var dateTime = LocalDateTime.ofEpochSecond(start + (long) (random.nextDouble() * span),
+                    0, ZoneOffset.UTC);
+            values[i] = i % 100 == 0 ? dateTime.toLocalDate().toString()
+                    : dateTime.format(DATETIME_FORMAT);
+        }
+    }
+
+    @Benchmark
+    public void fixedLayout(Blackhole blackhole) {
+        for (var value : values) {
+            blackhole.consume(converter.convertToEntityAttribute(value));
+        }
+    }
+
+    @Benchmark
+    public void formatter(Blackhole blackhole) {
+        for (var value : values) {
+            blackhole.consume(parseWithFormatter(value));
+        }
+    }
+
+    private static Instant parseWithFormatter(String dbData) {
+        if (dbData == null || dbData.isBlank()) {
+            return null;
+        }
+        var value = dbData.trim();
+        if (value.length() == 10) {
+            return LocalDate.parse(value, DATE_FORMAT).atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+        if (value.contains("T")) {
+            return Instant.parse(value);
+        }
+        return LocalDateTime.parse(value, DATETIME_FORMAT).toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,86 @@
+package com.maplewood.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+import com.maplewood.config.TimetableProperties;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.scheduling.TimetableProblem;
+import com.maplewood.scheduling.TimetableSolution;
+import com.maplewood.scheduling.TimetableSolver;
+import com.maplewood.services.TimetableService;
+
+/**
+ * Time until the solver has placed every section of the fall timetable, one full solve per
+ * measurement.
+ * <p>
+ * Scale 1 is the problem {@link TimetableService} plans from the seeded database: 400 students,
+ * 50 teachers and 60 rooms. Scales 10 and 100 repeat that school 10 and 100 times over. The
+ * solver runs with the application defaults, so restarts are spread over every available core.
+ * {@code unscheduled} counts the sections a solve could not place; it must be 0 for the time to
+ * mean time to a feasible timetable.
+ * <p>
+ * The source database is {@code ../maplewood_school.sqlite} unless {@code -Dbenchmark.database}
+ * says otherwise; it is opened read-only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TimetableSolverBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int scale;
+
+    private final TimetableProperties properties = new TimetableProperties();
+    private TimetableSolver solver;
+    private TimetableProblem problem;
+    private long seed;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+        public long unscheduled;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var config = new SQLiteConfig();
+        config.setReadOnly(true);
+        var dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl("jdbc:sqlite:"
+                + System.getProperty("benchmark.database", "../maplewood_school.sqlite"));
+        // Only loadProblem runs, which needs nothing but the database and the properties
+        var service = new TimetableService(new NamedParameterJdbcTemplate(dataSource), null, null,
+                null, properties);
+        problem = service.loadProblem(SemesterOrder.FALL).scaled(scale);
+        solver = new TimetableSolver(properties.getParallelism());
+    }
+
+    @Benchmark
+    public TimetableSolution solve(Outcome outcome) {
+        // A new seed per solve, so each measurement is a different set of searches
+        var solution = solver.solve(problem, new TimetableSolver.Options(
+                properties.getRestarts(), properties.getMaxIterations(),
+                Duration.ofMinutes(5), seed++));
+        outcome.unscheduled += solution.unscheduled().size();
+        return solution;
+    }
+}
@@ -0,0 +1,21 @@
+package com.maplewood.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/* The --name=value options the load-test mains take */
+final class CommandLineOptions {
+    private CommandLineOptions() {
+    }
+
+    static Map<String, String> parse(String[] args) {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
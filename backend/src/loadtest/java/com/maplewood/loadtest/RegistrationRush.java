@@ -0,0 +1,365 @@
+package com.maplewood.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.core.AppenderBase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maplewood.Application;
+import com.maplewood.services.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registration opening at 8:00: every student logs in, loads their eligible courses and enrolls,
+ * all at once, against the real application over HTTP.
+ * <p>
+ * The application is started on a random port against a scratch copy of the seeded database, with
+ * a synthetic login for each of the first {@code --users} students that do not have one yet. All
+ * users log in first; the rush starts once the last one is in. Each user then loads
+ * {@code /api/courses/student} and fires its enrollments in parallel: the first
+ * {@code --enrollments} eligible courses, one more than the per-semester limit by default, plus
+ * the first course a second time to mimic a double click ({@code --double-submit=false} turns that
+ * off).
+ * <p>
+ * Reported per endpoint: HdrHistogram latency percentiles, throughput over the rush and response
+ * statuses, with the message codes of rejected enrollments. SQLite busy and constraint errors are
+ * counted from the server's log, and the scratch database is checked afterwards for students over
+ * the course limit and duplicate enrollments.
+ * <p>
+ * Options: {@code --users=400 --enrollments=6 --double-submit=true --concurrency=64
+ * --profiles=sqlite-perf --database=../maplewood_school.sqlite}
+ */
+public final class RegistrationRush {
+    private static final String PASSWORD = "rush-password";
+    // Logins hash a password each, so on a small machine the last of them can take minutes
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+    private static final long HIGHEST_LATENCY_MICROS = REQUEST_TIMEOUT.toNanos() / 1000;
+    private static final String OVER_LIMIT_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT se.student_id
+                FROM student_enrollments se
+                JOIN semesters s ON s.id = se.semester_id
+                WHERE s.is_active = 1 AND se.status = 'enrolled'
+                GROUP BY se.student_id
+                HAVING COUNT(*) > ?)
+            """;
+    private static final String DUPLICATES_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT student_id
+                FROM student_enrollments
+                GROUP BY student_id, course_id, semester_id
+                HAVING COUNT(*) > 1)
+            """;
+
+    private enum Endpoint {
+        LOGIN, STUDENT_COURSES, ENROLL
+    }
+
+    private final Map<String, String> options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, ConcurrentMap<String, LongAdder>> outcomes =
+            new EnumMap<>(Endpoint.class);
+    private final ServerErrorCounter serverErrors = new ServerErrorCounter();
+    private URI baseUri;
+
+    private RegistrationRush(Map<String, String> options) {
+        this.options = options;
+        var concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(concurrency))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (var endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3));
+            outcomes.put(endpoint, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools would restart the application by calling this main method again
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new RegistrationRush(CommandLineOptions.parse(args)).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        var source = Path.of(options.getOrDefault("database", "../maplewood_school.sqlite"));
+        var database = Files.createTempFile("maplewood-rush-", ".sqlite");
+        Files.copy(source, database, StandardCopyOption.REPLACE_EXISTING);
+
+        var context = SpringApplication.run(Application.class,
+                "--spring.datasource.url=jdbc:sqlite:" + database,
+                "--spring.profiles.active=" + options.getOrDefault("profiles", ""),
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.com.maplewood=WARN",
+                "--app.timetable.generate-on-startup=false");
+        try {
+            // Attached after startup, since Spring Boot resets the logging configuration
+            serverErrors.setContext((LoggerContext) LoggerFactory.getILoggerFactory());
+            serverErrors.start();
+            ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).addAppender(serverErrors);
+
+            var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUri = URI.create("http://localhost:" + port);
+            var jdbcTemplate = context.getBean(JdbcTemplate.class);
+            // One read-write transaction, so sqlite-perf runs it on the write pool
+            var transactionTemplate =
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            var usernames = transactionTemplate.execute(status -> createUsers(jdbcTemplate,
+                    context.getBean(PasswordEncoder.class),
+                    Integer.parseInt(options.getOrDefault("users", "400"))));
+
+            var sessions = usernames.stream().map(this::login).toList();
+            CompletableFuture.allOf(sessions.toArray(CompletableFuture[]::new)).join();
+
+            var started = System.nanoTime();
+            var rush = sessions.stream()
+                    .map(session -> session.thenCompose(this::register))
+                    .toList();
+            CompletableFuture.allOf(rush.toArray(CompletableFuture[]::new)).join();
+            var elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            report(usernames.size(), elapsed, jdbcTemplate,
+                    context.getBean(MeterRegistry.class));
+        } finally {
+            context.close();
+            for (var suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+                Files.deleteIfExists(Path.of(database + suffix));
+            }
+        }
+    }
+
+    // One login per student that has none yet, all sharing one password hashed once
+    private List<String> createUsers(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+            int count) {
+        var studentIds = jdbcTemplate.queryForList("""
+                SELECT s.id FROM students s
+                WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.student_id = s.id)
+                ORDER BY s.id
+                LIMIT ?
+                """, Integer.class, count);
+        var passwordHash = passwordEncoder.encode(PASSWORD);
+        var usernames = new ArrayList<String>(studentIds.size());
+        for (var studentId : studentIds) {
+            var username = "rush-" + studentId;
+            jdbcTemplate.update("""
+                    INSERT INTO users
+                        (username, password_hash, role, enabled, created_at, student_id)
+                    VALUES (?, ?, 'USER', 1, CURRENT_TIMESTAMP, ?)
+                    """, username, passwordHash, studentId);
+            usernames.add(username);
+        }
+        if (usernames.size() < count) {
+            System.out.printf("Only %d students without a login, running with %d users%n",
+                    usernames.size(), usernames.size());
+        }
+        return usernames;
+    }
+
+    private CompletableFuture<Session> login(String username) {
+        var session = new Session();
+        var form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8);
+        var request = HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        return send(Endpoint.LOGIN, session, request).thenApply(response -> session);
+    }
+
+    private CompletableFuture<Void> register(Session session) {
+        var request = HttpRequest.newBuilder(baseUri.resolve("/api/courses/student")).GET();
+        return send(Endpoint.STUDENT_COURSES, session, request).thenCompose(response -> {
+            if (response.statusCode() != 200) {
+                return CompletableFuture.completedFuture(null);
+            }
+            var courseIds = courseIds(response.body());
+            var count = Math.min(courseIds.size(),
+                    Integer.parseInt(options.getOrDefault("enrollments",
+                            Integer.toString(StudentService.MAX_COURSES_PER_SEMESTER + 1))));
+            var enrollments = new ArrayList<>(courseIds.subList(0, count));
+            if (!enrollments.isEmpty()
+                    && Boolean.parseBoolean(options.getOrDefault("double-submit", "true"))) {
+                enrollments.add(enrollments.get(0));
+            }
+            return CompletableFuture.allOf(enrollments.stream()
+                    .map(courseId -> send(Endpoint.ENROLL, session, HttpRequest
+                            .newBuilder(baseUri.resolve("/api/courses/enroll/c/" + courseId))
+                            .POST(HttpRequest.BodyPublishers.noBody())))
+                    .toArray(CompletableFuture[]::new));
+        });
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(Endpoint endpoint, Session session,
+            HttpRequest.Builder request) {
+        session.apply(request);
+        var started = System.nanoTime();
+        return client.sendAsync(request.timeout(REQUEST_TIMEOUT).build(),
+                HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    latencies.get(endpoint).recordValue(
+                            Math.min((System.nanoTime() - started) / 1000, HIGHEST_LATENCY_MICROS));
+                    if (error != null) {
+                        var cause = error.getCause() == null ? error : error.getCause();
+                        count(endpoint, cause.getClass().getSimpleName());
+                        return null;
+                    }
+                    session.remember(response);
+                    count(endpoint, outcome(response));
+                    return response;
+                });
+    }
+
+    // Rejected enrollments are told apart by their message code
+    private String outcome(HttpResponse<String> response) {
+        if (response.statusCode() == 409) {
+            try {
+                return "409 " + objectMapper.readTree(response.body()).path("messageCode").asText();
+            } catch (IOException e) {
+                return "409";
+            }
+        }
+        return Integer.toString(response.statusCode());
+    }
+
+    private List<Integer> courseIds(String body) {
+        try {
+            var ids = new ArrayList<Integer>();
+            objectMapper.readTree(body).forEach(course -> ids.add(course.path("id").asInt()));
+            return ids;
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private void count(Endpoint endpoint, String outcome) {
+        outcomes.get(endpoint).computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    private void report(int users, Duration elapsed, JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        var seconds = elapsed.toNanos() / 1e9;
+        System.out.printf("%nRegistration rush: %d users, profiles [%s], rush took %.2f s%n%n",
+                users, options.getOrDefault("profiles", ""), seconds);
+        System.out.printf("%-16s %8s %10s %10s %10s %10s %10s%n", "endpoint", "requests",
+                "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (var endpoint : Endpoint.values()) {
+            var histogram = latencies.get(endpoint);
+            // Logins happen before the rush starts, so they have no rush throughput
+            var throughput = endpoint == Endpoint.LOGIN ? "-"
+                    : String.format("%.1f", histogram.getTotalCount() / seconds);
+            System.out.printf("%-16s %8d %10s %10.1f %10.1f %10.1f %10.1f%n", endpoint,
+                    histogram.getTotalCount(), throughput,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+
+        System.out.printf("%nResponses%n");
+        for (var endpoint : Endpoint.values()) {
+            outcomes.get(endpoint).entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> System.out.printf("  %-16s %-32s %8d%n", endpoint,
+                            entry.getKey(), entry.getValue().sum()));
+        }
+
+        var batchSizes = meterRegistry.find("db.write.queue.batch.size").summary();
+        if (batchSizes != null) {
+            System.out.printf("%nWrite queue: %d batches, %.1f writes per batch, at most %.0f%n",
+                    batchSizes.count(), batchSizes.mean(), batchSizes.max());
+        }
+        System.out.printf("%nServer log: %d SQLITE_BUSY errors, %d constraint violations%n",
+                serverErrors.busy.sum(), serverErrors.constraint.sum());
+        System.out.printf(
+                "Database: %d students over the %d-course limit, %d duplicate enrollments%n",
+                jdbcTemplate.queryForObject(OVER_LIMIT_SQL, Integer.class,
+                        StudentService.MAX_COURSES_PER_SEMESTER),
+                StudentService.MAX_COURSES_PER_SEMESTER,
+                jdbcTemplate.queryForObject(DUPLICATES_SQL, Integer.class));
+    }
+
+    /* The cookies of one logged-in user; the CSRF cookie is echoed back as its header */
+    private static final class Session {
+        private final Map<String, String> cookies = new ConcurrentHashMap<>();
+
+        void apply(HttpRequest.Builder request) {
+            if (cookies.isEmpty()) {
+                return;
+            }
+            var header = new StringBuilder();
+            cookies.forEach((name, value) -> header.append(header.isEmpty() ? "" : "; ")
+                    .append(name).append('=').append(value));
+            request.header("Cookie", header.toString());
+            var csrfToken = cookies.get("XSRF-TOKEN");
+            if (csrfToken != null) {
+                request.header("X-XSRF-TOKEN", csrfToken);
+            }
+        }
+
+        void remember(HttpResponse<?> response) {
+            for (var setCookie : response.headers().allValues("Set-Cookie")) {
+                var pair = setCookie.split(";", 2)[0];
+                var separator = pair.indexOf('=');
+                if (separator > 0) {
+                    cookies.put(pair.substring(0, separator), pair.substring(separator + 1));
+                }
+            }
+        }
+    }
+
+    /* Counts SQLite errors anywhere in the server's log events, including their causes */
+    private static final class ServerErrorCounter extends AppenderBase<ILoggingEvent> {
+        private final LongAdder busy = new LongAdder();
+        private final LongAdder constraint = new LongAdder();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            var text = new StringBuilder(String.valueOf(event.getFormattedMessage()));
+            for (IThrowableProxy cause = event.getThrowableProxy(); cause != null;
+                    cause = cause.getCause()) {
+                text.append('\n').append(cause.getMessage());
+            }
+            if (text.indexOf("SQLITE_BUSY") >= 0) {
+                busy.increment();
+            }
+            if (text.indexOf("SQLITE_CONSTRAINT") >= 0) {
+                constraint.increment();
+            }
+        }
+    }
+}
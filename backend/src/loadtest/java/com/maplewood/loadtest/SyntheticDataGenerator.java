@@ -0,0 +1,297 @@
+package com.maplewood.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.maplewood.services.StudentService;
+
+/**
+ * Copies the seeded database and adds synthetic students at a configurable scale, so queries over
+ * {@code student_course_history} and the load tests can be run against 10k to 1M students.
+ * <p>
+ * The catalog, semesters, teachers and rooms are kept as seeded. Each new student gets the same
+ * kind of history {@code populate_database.py} writes: for every past semester of their grade
+ * level, up to three core courses and electives up to five, with an 85% pass rate. The courses
+ * are picked from what is offered to the grade level in that semester with a passed
+ * prerequisite, so every row gets past the prerequisite and duplicate-pass triggers, which stay
+ * on. Students also get enrollments in the active semester and a login whose username is
+ * {@code student<id>}, all sharing one password.
+ * <p>
+ * Rows go through batched prepared statements on one connection, committed every
+ * {@code --commit-every} students. The connection runs with {@code synchronous=OFF}: the output is
+ * a scratch file that can be generated again if the machine goes down mid-run.
+ * <p>
+ * Options: {@code --students=50000 --enrollments=2 --seed=42 --batch-size=1000
+ * --commit-every=10000 --password=student --database=../maplewood_school.sqlite
+ * --output=../maplewood_scale.sqlite}
+ */
+public final class SyntheticDataGenerator {
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert",
+            "Jennifer", "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard",
+            "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen", "Daniel", "Nancy",
+            "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Margaret", "Donald", "Sandra"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones",
+            "Garcia", "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez",
+            "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez",
+            "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson"};
+    private static final int MAX_CORE_COURSES_PER_SEMESTER = 3;
+    private static final double PASS_RATE = 0.85;
+
+    private static final String STUDENT_SQL = """
+            INSERT INTO students (id, first_name, last_name, email, grade_level, enrollment_year,
+                expected_graduation_year, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 'active')
+            """;
+    private static final String HISTORY_SQL = """
+            INSERT INTO student_course_history (student_id, course_id, semester_id, status)
+            VALUES (?, ?, ?, ?)
+            """;
+    private static final String ENROLLMENT_SQL = """
+            INSERT INTO student_enrollments (student_id, course_id, semester_id, status)
+            VALUES (?, ?, ?, 'enrolled')
+            """;
+    private static final String USER_SQL = """
+            INSERT INTO users (username, password_hash, role, enabled, student_id)
+            VALUES (?, ?, 'USER', 1, ?)
+            """;
+
+    private record Course(int id, boolean core, int gradeLevelMin, int gradeLevelMax,
+            int semesterOrder, Integer prerequisiteId) {
+
+        boolean isOpenTo(int gradeLevel, int order, Set<Integer> passed) {
+            return gradeLevel >= gradeLevelMin && gradeLevel <= gradeLevelMax
+                    && semesterOrder == order && !passed.contains(id)
+                    && (prerequisiteId == null || passed.contains(prerequisiteId));
+        }
+    }
+
+    private record Semester(int id, int year, int order) {
+    }
+
+    private final Map<String, String> options;
+    private final SplittableRandom random;
+    private final int batchSize;
+    private List<Course> courses;
+    private List<Semester> pastSemesters;
+    private Semester activeSemester;
+
+    private SyntheticDataGenerator(Map<String, String> options) {
+        this.options = options;
+        this.random = new SplittableRandom(Long.parseLong(options.getOrDefault("seed", "42")));
+        this.batchSize = Integer.parseInt(options.getOrDefault("batch-size", "1000"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new SyntheticDataGenerator(CommandLineOptions.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        var source = Path.of(options.getOrDefault("database", "../maplewood_school.sqlite"));
+        var output = Path.of(options.getOrDefault("output", "../maplewood_scale.sqlite"));
+        Files.copy(source, output, StandardCopyOption.REPLACE_EXISTING);
+
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + output)) {
+            try (var statement = connection.createStatement()) {
+                statement.execute("PRAGMA foreign_keys = ON");
+                statement.execute("PRAGMA synchronous = OFF");
+                statement.execute("PRAGMA cache_size = -262144");
+            }
+            loadCatalog(connection);
+            connection.setAutoCommit(false);
+
+            var started = System.nanoTime();
+            var counts = generate(connection,
+                    Integer.parseInt(options.getOrDefault("students", "50000")));
+            var elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            var seconds = elapsed.toNanos() / 1e9;
+            System.out.printf("Wrote %s in %.1f s: %d students, %d history rows (%.0f/s), "
+                    + "%d enrollments, %d users%n", output, seconds, counts[0], counts[1],
+                    counts[1] / seconds, counts[2], counts[3]);
+        }
+    }
+
+    private void loadCatalog(Connection connection) throws SQLException {
+        courses = new ArrayList<>();
+        try (var statement = connection.createStatement();
+                var rows = statement.executeQuery("""
+                        SELECT id, course_type, grade_level_min, grade_level_max, semester_order,
+                            prerequisite_id
+                        FROM courses
+                        ORDER BY grade_level_min, semester_order, id
+                        """)) {
+            while (rows.next()) {
+                var prerequisiteId = rows.getInt("prerequisite_id");
+                var hasPrerequisite = !rows.wasNull();
+                courses.add(new Course(rows.getInt("id"), "core".equals(rows.getString(2)),
+                        rows.getInt("grade_level_min"), rows.getInt("grade_level_max"),
+                        rows.getInt("semester_order"), hasPrerequisite ? prerequisiteId : null));
+            }
+        }
+
+        var semesters = new ArrayList<Semester>();
+        try (var statement = connection.createStatement();
+                var rows = statement.executeQuery("""
+                        SELECT id, year, order_in_year, is_active
+                        FROM semesters
+                        ORDER BY year, order_in_year
+                        """)) {
+            while (rows.next()) {
+                var semester = new Semester(rows.getInt("id"), rows.getInt("year"),
+                        rows.getInt("order_in_year"));
+                if (rows.getBoolean("is_active")) {
+                    activeSemester = semester;
+                    break;
+                }
+                semesters.add(semester);
+            }
+        }
+        if (activeSemester == null) {
+            throw new IllegalStateException("The source database has no active semester");
+        }
+        pastSemesters = semesters;
+    }
+
+    /* Returns the number of students, history rows, enrollments and users written */
+    private long[] generate(Connection connection, int studentCount) throws SQLException {
+        var counts = new long[4];
+        var commitEvery = Integer.parseInt(options.getOrDefault("commit-every", "10000"));
+        var enrollmentsPerStudent = Math.min(StudentService.MAX_COURSES_PER_SEMESTER,
+                Integer.parseInt(options.getOrDefault("enrollments", "2")));
+        var passwordHash = new BCryptPasswordEncoder()
+                .encode(options.getOrDefault("password", "student"));
+
+        int firstId;
+        try (var statement = connection.createStatement();
+                var rows = statement.executeQuery(
+                        "SELECT COALESCE(MAX(id), 0) + 1 FROM students")) {
+            firstId = rows.getInt(1);
+        }
+
+        try (var students = new Batch(connection.prepareStatement(STUDENT_SQL));
+                var history = new Batch(connection.prepareStatement(HISTORY_SQL));
+                var enrollments = new Batch(connection.prepareStatement(ENROLLMENT_SQL));
+                var users = new Batch(connection.prepareStatement(USER_SQL))) {
+            for (var i = 0; i < studentCount; i++) {
+                var studentId = firstId + i;
+                var gradeLevel = 9 + i % 4;
+                var enrollmentYear = activeSemester.year() - (gradeLevel - 9);
+                var first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                var last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                students.add(studentId, first, last, (first + "." + last + "." + studentId)
+                        .toLowerCase() + "@student.maplewood.edu", gradeLevel, enrollmentYear,
+                        enrollmentYear + 4);
+                counts[0]++;
+
+                var passed = new HashSet<Integer>();
+                // Same span as populate_database.py: one semester per half grade level, plus the
+                // spring before the current grade
+                var completedSemesters = (gradeLevel - 9) * 2 + (gradeLevel > 9 ? 1 : 0);
+                var start = Math.max(0, pastSemesters.size() - completedSemesters);
+                for (var s = start; s < pastSemesters.size(); s++) {
+                    var semester = pastSemesters.get(s);
+                    var gradeDuringSemester = 9 + (s - start) / 2;
+                    var taken = pickCourses(gradeDuringSemester, semester.order(), passed,
+                            StudentService.MAX_COURSES_PER_SEMESTER);
+                    // Statuses are decided only after the semester, so a course cannot unlock
+                    // another in the same semester
+                    var passedThisSemester = new ArrayList<Integer>();
+                    for (var courseId : taken) {
+                        var pass = random.nextDouble() < PASS_RATE;
+                        history.add(studentId, courseId, semester.id(), pass ? "passed" : "failed");
+                        if (pass) {
+                            passedThisSemester.add(courseId);
+                        }
+                    }
+                    passed.addAll(passedThisSemester);
+                    counts[1] += taken.size();
+                }
+
+                for (var courseId : pickCourses(gradeLevel, activeSemester.order(), passed,
+                        enrollmentsPerStudent)) {
+                    enrollments.add(studentId, courseId, activeSemester.id());
+                    counts[2]++;
+                }
+
+                users.add("student" + studentId, passwordHash, studentId);
+                counts[3]++;
+
+                var commit = (i + 1) % commitEvery == 0 || i + 1 == studentCount;
+                if (commit || history.pending >= batchSize) {
+                    // Parents first, so the foreign keys and triggers see them
+                    students.flush();
+                    history.flush();
+                    enrollments.flush();
+                    users.flush();
+                }
+                if (commit) {
+                    connection.commit();
+                }
+            }
+        }
+        return counts;
+    }
+
+    // Up to three core courses, then random electives up to the limit
+    private List<Integer> pickCourses(int gradeLevel, int semesterOrder, Set<Integer> passed,
+            int limit) {
+        var core = new ArrayList<Integer>();
+        var electives = new ArrayList<Integer>();
+        for (var course : courses) {
+            if (course.isOpenTo(gradeLevel, semesterOrder, passed)) {
+                (course.core() ? core : electives).add(course.id());
+            }
+        }
+        var picked = new ArrayList<>(core.subList(0,
+                Math.min(core.size(), Math.min(MAX_CORE_COURSES_PER_SEMESTER, limit))));
+        while (picked.size() < limit && !electives.isEmpty()) {
+            picked.add(electives.remove(random.nextInt(electives.size())));
+        }
+        return picked;
+    }
+
+    /*
+     * Rows of one prepared statement waiting to be sent. History is the largest table, so all
+     * batches are sent together once it holds --batch-size rows.
+     */
+    private static final class Batch implements AutoCloseable {
+        private final PreparedStatement statement;
+        private int pending;
+
+        Batch(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        void add(Object... values) throws SQLException {
+            for (var i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            pending++;
+        }
+
+        void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.maplewood.catalog;
+
+import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+
+/**
+ * Immutable, detached view of a {@link Course} as held by the {@link CourseCatalog}.
+ * <p>
+ * {@code index} is the dense position of the course inside its {@link CatalogSnapshot}, which is
+ * stable for the lifetime of the snapshot.
+ */
+public record CatalogCourse(int index, Integer id, String code, String name, String description,
+        Double credits, Integer hoursPerWeek, Integer specializationId, String specializationName,
+        Integer prerequisiteId, String prerequisiteName, CourseType courseType,
+        Integer gradeLevelMin, Integer gradeLevelMax, SemesterOrder semesterOrder) {
+
+    static CatalogCourse of(int index, Course course) {
+        var specialization = course.getSpecialization();
+        var prerequisite = course.getPrerequisite();
+        return new CatalogCourse(index, course.getId(), course.getCode(), course.getName(),
+                course.getDescription(), course.getCredits(), course.getHoursPerWeek(),
+                specialization == null ? null : specialization.getId(),
+                specialization == null ? null : specialization.getName(),
+                prerequisite == null ? null : prerequisite.getId(),
+                prerequisite == null ? null : prerequisite.getName(),
+                course.getCourseType(), course.getGradeLevelMin(), course.getGradeLevelMax(),
+                course.getSemesterOrder());
+    }
+
+    public boolean hasPrerequisite() {
+        return prerequisiteId != null;
+    }
+
+    public boolean isOfferedToGradeLevel(int gradeLevel) {
+        return gradeLevelMin != null && gradeLevelMax != null && gradeLevel >= gradeLevelMin
+                && gradeLevel <= gradeLevelMax;
+    }
+}
@@ -0,0 +1,395 @@
+package com.maplewood.catalog;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+
+/**
+ * An immutable, indexed copy of the course catalog at one catalog version.
+ * <p>
+ * All lists are built once when the snapshot is created and handed out as-is, so reads never copy
+ * or filter. A snapshot is never modified; the {@link CourseCatalog} swaps in a new one instead.
+ */
+public final class CatalogSnapshot {
+    public static final int MIN_GRADE_LEVEL = 9;
+    public static final int MAX_GRADE_LEVEL = 12;
+
+    private final long version;
+    private final List<CatalogCourse> courses;
+    private final CatalogCourse[] coursesById;
+    // Listing order, see CourseKey
+    private final List<CatalogCourse> coursesInKeyOrder;
+    private final Map<SemesterOrder, List<CatalogCourse>> coursesBySemesterOrder;
+    private final List<List<CatalogCourse>> coursesByGradeLevel;
+    // Bitmasks over dense course indexes, see #eligibleCourses
+    private final BitSet[] gradeLevelMasks;
+    private final BitSet withoutPrerequisiteMask;
+    private final BitSet[] unlockedByCourse;
+    private final PrerequisiteGraph prerequisiteGraph;
+    private final List<CatalogSpecialization> specializations;
+    private final CatalogSpecialization[] specializationsById;
+    private final CourseFacets facets;
+    private final CourseSearchIndex searchIndex;
+
+    private CatalogSnapshot(long version, List<CatalogCourse> courses,
+            List<CatalogSpecialization> specializations, CourseSearchIndex previousSearchIndex) {
+        this.version = version;
+        this.courses = Collections.unmodifiableList(courses);
+        this.specializations = Collections.unmodifiableList(specializations);
+
+        var maxCourseId = courses.stream().mapToInt(CatalogCourse::id).max().orElse(0);
+        this.coursesById = new CatalogCourse[maxCourseId + 1];
+        for (var course : courses) {
+            coursesById[course.id()] = course;
+        }
+
+        this.coursesInKeyOrder = courses.stream()
+                .sorted(Comparator.comparing(CourseKey::of))
+                .toList();
+
+        var maxSpecializationId =
+                specializations.stream().mapToInt(CatalogSpecialization::id).max().orElse(0);
+        this.specializationsById = new CatalogSpecialization[maxSpecializationId + 1];
+        for (var specialization : specializations) {
+            specializationsById[specialization.id()] = specialization;
+        }
+
+        var bySemesterOrder = new EnumMap<SemesterOrder, List<CatalogCourse>>(SemesterOrder.class);
+        for (var order : SemesterOrder.values()) {
+            bySemesterOrder.put(order, courses.stream()
+                    .filter(course -> course.semesterOrder() == order).toList());
+        }
+        this.coursesBySemesterOrder = Collections.unmodifiableMap(bySemesterOrder);
+
+        var byGradeLevel = new ArrayList<List<CatalogCourse>>();
+        for (var gradeLevel = MIN_GRADE_LEVEL; gradeLevel <= MAX_GRADE_LEVEL; gradeLevel++) {
+            var level = gradeLevel;
+            byGradeLevel.add(courses.stream()
+                    .filter(course -> course.isOfferedToGradeLevel(level)).toList());
+        }
+        this.coursesByGradeLevel = Collections.unmodifiableList(byGradeLevel);
+
+        this.gradeLevelMasks = new BitSet[MAX_GRADE_LEVEL - MIN_GRADE_LEVEL + 1];
+        for (var i = 0; i < gradeLevelMasks.length; i++) {
+            gradeLevelMasks[i] = new BitSet(courses.size());
+            for (var course : byGradeLevel.get(i)) {
+                gradeLevelMasks[i].set(course.index());
+            }
+        }
+
+        this.withoutPrerequisiteMask = new BitSet(courses.size());
+        this.unlockedByCourse = new BitSet[courses.size()];
+        for (var course : courses) {
+            if (!course.hasPrerequisite()) {
+                withoutPrerequisiteMask.set(course.index());
+                continue;
+            }
+            // A prerequisite outside the snapshot can never be passed, so the course stays locked
+            var prerequisiteId = course.prerequisiteId();
+            if (prerequisiteId >= 0 && prerequisiteId < coursesById.length
+                    && coursesById[prerequisiteId] != null) {
+                var prerequisiteIndex = coursesById[prerequisiteId].index();
+                if (unlockedByCourse[prerequisiteIndex] == null) {
+                    unlockedByCourse[prerequisiteIndex] = new BitSet(courses.size());
+                }
+                unlockedByCourse[prerequisiteIndex].set(course.index());
+            }
+        }
+
+        this.prerequisiteGraph = new PrerequisiteGraph(this.courses, coursesById);
+        this.facets = CourseFacets.of(this.courses, this.specializations);
+        this.searchIndex = CourseSearchIndex.build(this.courses, previousSearchIndex);
+    }
+
+    /**
+     * Build a snapshot from loaded entities. Courses must have their specialization and
+     * prerequisite associations initialized.
+     */
+    public static CatalogSnapshot of(long version, List<Course> courses,
+            List<Specialization> specializations) {
+        return of(version, courses, specializations, null);
+    }
+
+    /**
+     * Build a snapshot that succeeds {@code previous}, whose search index it reuses for the
+     * courses that did not change, see {@link CourseSearchIndex}.
+     */
+    public static CatalogSnapshot of(long version, List<Course> courses,
+            List<Specialization> specializations, CatalogSnapshot previous) {
+        var sortedCourses = courses.stream()
+                .sorted(Comparator.comparing(Course::getId))
+                .toList();
+        var catalogCourses = new ArrayList<CatalogCourse>(sortedCourses.size());
+        for (var course : sortedCourses) {
+            catalogCourses.add(CatalogCourse.of(catalogCourses.size(), course));
+        }
+
+        var catalogSpecializations = specializations.stream()
+                .sorted(Comparator.comparing(Specialization::getId))
+                .map(CatalogSpecialization::of)
+                .toList();
+
+        return new CatalogSnapshot(version, catalogCourses, catalogSpecializations,
+                previous == null ? null : previous.searchIndex);
+    }
+
+    public static CatalogSnapshot empty() {
+        return new CatalogSnapshot(-1, List.of(), List.of(), null);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /* All courses, ordered by id. */
+    public List<CatalogCourse> courses() {
+        return courses;
+    }
+
+    /* All courses in listing order, see CourseKey. */
+    public List<CatalogCourse> coursesInKeyOrder() {
+        return coursesInKeyOrder;
+    }
+
+    /**
+     * The next page of a keyset-paged listing: up to {@code size} courses in {@link CourseKey}
+     * order that come after {@code after} and pass {@code include}. The start is found by binary
+     * search and the scan stops one match past the page, which tells whether there is a next
+     * page without counting the rest.
+     *
+     * @param after the key of the last course of the previous page, or {@code null} for the first
+     */
+    public Slice<CatalogCourse> coursesAfter(CourseKey after, int size,
+            Predicate<CatalogCourse> include) {
+        var content = new ArrayList<CatalogCourse>(Math.min(size, coursesInKeyOrder.size()));
+        var hasNext = false;
+        for (var i = after == null ? 0 : firstIndexAfter(after); i < coursesInKeyOrder.size();
+                i++) {
+            var course = coursesInKeyOrder.get(i);
+            if (!include.test(course)) {
+                continue;
+            }
+            if (content.size() == size) {
+                hasNext = true;
+                break;
+            }
+            content.add(course);
+        }
+        return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+    }
+
+    private int firstIndexAfter(CourseKey key) {
+        var low = 0;
+        var high = coursesInKeyOrder.size();
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (CourseKey.of(coursesInKeyOrder.get(mid)).compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    /* The course at a dense index, see CatalogCourse#index(). */
+    public CatalogCourse courseAt(int index) {
+        return courses.get(index);
+    }
+
+    public Optional<CatalogCourse> findById(Integer courseId) {
+        if (courseId == null || courseId < 0 || courseId >= coursesById.length) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(coursesById[courseId]);
+    }
+
+    /* The prerequisite of a course, if it has one and it is part of this snapshot. */
+    public Optional<CatalogCourse> prerequisiteOf(CatalogCourse course) {
+        return findById(course.prerequisiteId());
+    }
+
+    public List<CatalogCourse> coursesFor(SemesterOrder semesterOrder) {
+        return coursesBySemesterOrder.getOrDefault(semesterOrder, List.of());
+    }
+
+    /* Courses whose grade-level window contains the given grade level. */
+    public List<CatalogCourse> coursesForGradeLevel(int gradeLevel) {
+        if (gradeLevel < MIN_GRADE_LEVEL || gradeLevel > MAX_GRADE_LEVEL) {
+            return List.of();
+        }
+        return coursesByGradeLevel.get(gradeLevel - MIN_GRADE_LEVEL);
+    }
+
+    /* A mask of the dense indexes of the given course ids; ids not in this snapshot are skipped. */
+    public BitSet maskOf(Collection<Integer> courseIds) {
+        var mask = new BitSet(courses.size());
+        for (var courseId : courseIds) {
+            if (courseId != null && courseId >= 0 && courseId < coursesById.length
+                    && coursesById[courseId] != null) {
+                mask.set(coursesById[courseId].index());
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * The courses a student of the given grade level may take on grade level, history and current
+     * enrollments alone: offered to the grade level, not passed, not enrolled, and either without
+     * a prerequisite or with a passed one. The result is a new mask over dense course indexes; the
+     * per-semester course limit is left to the caller.
+     *
+     * @param passed mask of passed courses, see {@link #maskOf(Collection)}
+     * @param enrolled mask of currently enrolled courses
+     */
+    public BitSet eligibleCourses(int gradeLevel, BitSet passed, BitSet enrolled) {
+        if (gradeLevel < MIN_GRADE_LEVEL || gradeLevel > MAX_GRADE_LEVEL) {
+            return new BitSet();
+        }
+
+        var unlocked = (BitSet) withoutPrerequisiteMask.clone();
+        for (var index = passed.nextSetBit(0); index >= 0 && index < unlockedByCourse.length;
+                index = passed.nextSetBit(index + 1)) {
+            if (unlockedByCourse[index] != null) {
+                unlocked.or(unlockedByCourse[index]);
+            }
+        }
+
+        var eligible = (BitSet) gradeLevelMasks[gradeLevel - MIN_GRADE_LEVEL].clone();
+        eligible.and(unlocked);
+        eligible.andNot(passed);
+        eligible.andNot(enrolled);
+        return eligible;
+    }
+
+    /**
+     * Courses matching a search, best match first, or in listing order when the query has no
+     * text to match. The facets are intersected as bitmaps first, so the text is only matched
+     * among the courses they leave.
+     */
+    public List<CatalogCourse> search(CourseSearchQuery query, int limit) {
+        var within = facets.matching(query.filter(), null);
+        var terms = CourseSearchIndex.queryTerms(query.text());
+        if (!terms.isEmpty()) {
+            return searchIndex.search(terms, within, limit);
+        }
+        return inKeyOrder(within, limit);
+    }
+
+    /**
+     * Courses matching the text, if any, and a facet filter, with the facet counts around that
+     * selection, see {@link CourseFacets}. Courses come best match first when there is text, in
+     * listing order otherwise; the counts and the total cover every match, not just the page.
+     */
+    public FacetedCourses filter(String text, CourseFilter filter, int limit) {
+        var terms = CourseSearchIndex.queryTerms(text);
+        var textMatches = terms.isEmpty() ? null : searchIndex.matching(terms, null);
+        var counted = facets.count(filter, textMatches);
+        var courses = terms.isEmpty() ? inKeyOrder(counted.matching(), limit)
+                : searchIndex.search(terms, counted.matching(), limit);
+        return new FacetedCourses(courses, counted.matching().cardinality(), counted.counts());
+    }
+
+    public CourseFacets facets() {
+        return facets;
+    }
+
+    public CourseSearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    private List<CatalogCourse> inKeyOrder(BitSet mask, int limit) {
+        return coursesInKeyOrder.stream()
+                .filter(course -> mask.get(course.index()))
+                .limit(limit)
+                .toList();
+    }
+
+    public PrerequisiteGraph prerequisiteGraph() {
+        return prerequisiteGraph;
+    }
+
+    /* The course's prerequisite, that one's prerequisite and so on, nearest first */
+    public List<CatalogCourse> prerequisiteChainOf(CatalogCourse course) {
+        var chain = prerequisiteGraph.prerequisiteChain(course.index());
+        var result = new ArrayList<CatalogCourse>(chain.length);
+        for (var index : chain) {
+            result.add(courses.get(index));
+        }
+        return result;
+    }
+
+    /* Every course the course unlocks directly or through a chain, by depth below it, then id */
+    public List<CatalogCourse> coursesUnlockedBy(CatalogCourse course) {
+        var unlocked = prerequisiteGraph.allUnlockedBy(course.index());
+        var result = new ArrayList<CatalogCourse>(unlocked.cardinality());
+        for (var index = unlocked.nextSetBit(0); index >= 0;
+                index = unlocked.nextSetBit(index + 1)) {
+            result.add(courses.get(index));
+        }
+        // Stable sort, so ties keep the id order of the bitset walk
+        result.sort(Comparator.comparingInt(unlockedCourse -> prerequisiteGraph
+                .level(unlockedCourse.index())));
+        return result;
+    }
+
+    /**
+     * Courses that break the rule of the {@code enforce_prerequisite_semester_order} triggers:
+     * same starting grade level as their prerequisite but an earlier semester. The triggers only
+     * check a row against its prerequisite as it is written, so an update of the prerequisite
+     * itself can still leave its dependents out of order.
+     */
+    public List<CatalogCourse> prerequisiteSemesterOrderViolations() {
+        var violations = new ArrayList<CatalogCourse>();
+        for (var course : courses) {
+            var prerequisiteIndex = prerequisiteGraph.prerequisiteOf(course.index());
+            if (prerequisiteIndex < 0) {
+                continue;
+            }
+            var prerequisite = courses.get(prerequisiteIndex);
+            if (course.gradeLevelMin() != null
+                    && course.gradeLevelMin().equals(prerequisite.gradeLevelMin())
+                    && course.semesterOrder() != null && prerequisite.semesterOrder() != null
+                    && prerequisite.semesterOrder().getCode() > course.semesterOrder().getCode()) {
+                violations.add(course);
+            }
+        }
+        return violations;
+    }
+
+    /* Courses on or behind a prerequisite cycle, which no student can ever unlock */
+    public List<CatalogCourse> coursesOnPrerequisiteCycles() {
+        return courses.stream()
+                .filter(course -> prerequisiteGraph.level(course.index()) < 0)
+                .toList();
+    }
+
+    public List<CatalogSpecialization> specializations() {
+        return specializations;
+    }
+
+    public Optional<CatalogSpecialization> findSpecializationById(Integer specializationId) {
+        if (specializationId == null || specializationId < 0
+                || specializationId >= specializationsById.length) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(specializationsById[specializationId]);
+    }
+}
@@ -0,0 +1,14 @@
+package com.maplewood.catalog;
+
+import com.maplewood.domain.Specialization;
+
+/**
+ * Immutable, detached view of a {@link Specialization} as held by the {@link CourseCatalog}.
+ */
+public record CatalogSpecialization(Integer id, String name, String description) {
+
+    static CatalogSpecialization of(Specialization specialization) {
+        return new CatalogSpecialization(specialization.getId(), specialization.getName(),
+                specialization.getDescription());
+    }
+}
@@ -0,0 +1,97 @@
+package com.maplewood.catalog;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.maplewood.repositories.CatalogVersionRepository;
+import com.maplewood.repositories.CourseRepository;
+import com.maplewood.repositories.SpecializationRepository;
+
+/**
+ * Holds the current {@link CatalogSnapshot} of courses, specializations and prerequisite links.
+ * <p>
+ * The courses table rarely changes, so reads are served from an immutable in-memory snapshot
+ * instead of going through Hibernate. Database triggers bump {@code catalog_version} on every
+ * catalog change; {@link #refreshIfChanged()} polls that counter and, when it moved, builds a new
+ * snapshot and swaps it in atomically. Readers holding the previous snapshot keep a consistent
+ * view until they are done with it.
+ */
+@Component
+public class CourseCatalog {
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalog.class);
+
+    private final CourseRepository courseRepository;
+    private final SpecializationRepository specializationRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    public CourseCatalog(CourseRepository courseRepository,
+            SpecializationRepository specializationRepository,
+            CatalogVersionRepository catalogVersionRepository) {
+        this.courseRepository = courseRepository;
+        this.specializationRepository = specializationRepository;
+        this.catalogVersionRepository = catalogVersionRepository;
+    }
+
+    /* The current snapshot, loading it on first use */
+    public CatalogSnapshot snapshot() {
+        var snapshot = current.get();
+        if (snapshot == null) {
+            return refreshIfChanged();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuild the snapshot if the catalog version in the database differs from the one currently
+     * held. Concurrent callers may both rebuild; the last swap wins and both results are equally
+     * valid for the version they read.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval:PT30S}",
+            initialDelayString = "${app.catalog.refresh-interval:PT30S}")
+    public CatalogSnapshot refreshIfChanged() {
+        var version = catalogVersionRepository.findCurrentVersion();
+        var snapshot = current.get();
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot;
+        }
+        return reload(version);
+    }
+
+    /* Unconditionally rebuild the snapshot from the database */
+    public CatalogSnapshot reload() {
+        return reload(catalogVersionRepository.findCurrentVersion());
+    }
+
+    private CatalogSnapshot reload(long version) {
+        // The version is read before the rows, so a change that lands mid-load is picked up by the
+        // next refresh instead of being labelled with the old version.
+        var courses = courseRepository
+                .findAllWithSpecializationAndPrerequisite(Pageable.unpaged(Sort.by("id")))
+                .getContent();
+        var specializations = specializationRepository.findAll(Sort.by("id"));
+        var snapshot = CatalogSnapshot.of(version, courses, specializations, current.get());
+        current.set(snapshot);
+        log.debug("Loaded course catalog version {} with {} courses", version, snapshot.size());
+        checkPrerequisites(snapshot);
+        return snapshot;
+    }
+
+    // Cross-check the prerequisite triggers against the compiled graph; this is a pass over the
+    // in-memory links, so it runs on every reload
+    private void checkPrerequisites(CatalogSnapshot snapshot) {
+        for (var course : snapshot.prerequisiteSemesterOrderViolations()) {
+            log.warn("Course {} is scheduled before its prerequisite {} within grade level {}",
+                    course.code(), course.prerequisiteName(), course.gradeLevelMin());
+        }
+        var unreachable = snapshot.coursesOnPrerequisiteCycles();
+        if (!unreachable.isEmpty()) {
+            log.warn("Courses on or behind a prerequisite cycle can never be unlocked: {}",
+                    unreachable.stream().map(CatalogCourse::code).toList());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.maplewood.catalog;
+
+/**
+ * The course attributes a listing can be filtered and counted by, see {@link CourseFacets}. Each
+ * facet is named by the request parameter that selects it.
+ */
+public enum CourseFacet {
+    COURSE_TYPE("type"),
+    SPECIALIZATION("specialization"),
+    GRADE_LEVEL("gradeLevel"),
+    CREDITS("credits"),
+    SEMESTER("semester");
+
+    private final String parameter;
+
+    CourseFacet(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+}
@@ -0,0 +1,246 @@
+package com.maplewood.catalog;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+
+/**
+ * Per-value course bitmaps of every {@link CourseFacet}, built once per {@link CatalogSnapshot}.
+ * <p>
+ * A bitmap is a {@code long[]} over dense course indexes, all of the same length. A filter is
+ * evaluated by OR-ing the bitmaps of the values selected within each facet and AND-ing the facets
+ * together. Facet counts are disjunctive, the way a filter sidebar shows them: a value's count is
+ * the size of the intersection of its bitmap with every other facet's selection, so picking a
+ * value of one facet narrows the counts of the others but not of its own siblings. Counting is a
+ * popcount over the words of the intersection and allocates nothing per value.
+ */
+public final class CourseFacets {
+    private final int words;
+    private final long[] all;
+    private final Map<CourseFacet, Facet<?>> facets = new EnumMap<>(CourseFacet.class);
+
+    private CourseFacets(List<CatalogCourse> courses,
+            List<CatalogSpecialization> specializations) {
+        this.words = (courses.size() + Long.SIZE - 1) / Long.SIZE;
+        var allCourses = new BitSet(courses.size());
+        allCourses.set(0, courses.size());
+        this.all = toWords(allCourses);
+
+        var courseTypes = new Facet<CourseType>(Enum::name, Enum::name);
+        for (var type : CourseType.values()) {
+            courseTypes.add(type);
+        }
+        var specializationsById = new Facet<Integer>(String::valueOf, String::valueOf);
+        for (var specialization : specializations) {
+            specializationsById.add(specialization.id(), specialization.name());
+        }
+        var gradeLevels = new Facet<Integer>(String::valueOf, String::valueOf);
+        for (var level = CatalogSnapshot.MIN_GRADE_LEVEL; level <= CatalogSnapshot.MAX_GRADE_LEVEL;
+                level++) {
+            gradeLevels.add(level);
+        }
+        var credits = new Facet<Double>(CourseFacets::formatCredits, CourseFacets::formatCredits);
+        var semesterOrders = new Facet<SemesterOrder>(Enum::name, Enum::name);
+        for (var order : SemesterOrder.values()) {
+            semesterOrders.add(order);
+        }
+
+        for (var course : courses) {
+            courseTypes.set(course.courseType(), course.index());
+            specializationsById.set(course.specializationId(), course.index());
+            for (var level = CatalogSnapshot.MIN_GRADE_LEVEL;
+                    level <= CatalogSnapshot.MAX_GRADE_LEVEL; level++) {
+                if (course.isOfferedToGradeLevel(level)) {
+                    gradeLevels.set(level, course.index());
+                }
+            }
+            if (course.credits() != null) {
+                credits.add(course.credits());
+                credits.set(course.credits(), course.index());
+            }
+            semesterOrders.set(course.semesterOrder(), course.index());
+        }
+
+        facets.put(CourseFacet.COURSE_TYPE, courseTypes.seal());
+        facets.put(CourseFacet.SPECIALIZATION, specializationsById.seal());
+        facets.put(CourseFacet.GRADE_LEVEL, gradeLevels.seal());
+        facets.put(CourseFacet.CREDITS, credits.seal());
+        facets.put(CourseFacet.SEMESTER, semesterOrders.seal());
+    }
+
+    static CourseFacets of(List<CatalogCourse> courses,
+            List<CatalogSpecialization> specializations) {
+        return new CourseFacets(courses, specializations);
+    }
+
+    /* A new mask of the courses within {@code base}, or all if it is null, that match the filter */
+    public BitSet matching(CourseFilter filter, BitSet base) {
+        var mask = baseWords(base);
+        for (var selection : selections(filter).values()) {
+            and(mask, selection);
+        }
+        return BitSet.valueOf(mask);
+    }
+
+    /**
+     * The courses within {@code base} that match the filter, and for every facet value the number
+     * of courses within {@code base} that match the other facets' selections and have that value.
+     *
+     * @param base the courses to filter, or {@code null} for all
+     */
+    public Counted count(CourseFilter filter, BitSet base) {
+        var baseWords = baseWords(base);
+        var selections = selections(filter);
+        var counts = new EnumMap<CourseFacet, List<FacetCount>>(CourseFacet.class);
+        var others = new long[words];
+        for (var entry : facets.entrySet()) {
+            System.arraycopy(baseWords, 0, others, 0, words);
+            for (var selection : selections.entrySet()) {
+                if (selection.getKey() != entry.getKey()) {
+                    and(others, selection.getValue());
+                }
+            }
+            counts.put(entry.getKey(), entry.getValue().counts(others));
+        }
+
+        var matching = baseWords;
+        for (var selection : selections.values()) {
+            and(matching, selection);
+        }
+        return new Counted(BitSet.valueOf(matching), counts);
+    }
+
+    // The OR of the selected values' bitmaps for every facet the filter restricts
+    private Map<CourseFacet, long[]> selections(CourseFilter filter) {
+        var selections = new EnumMap<CourseFacet, long[]>(CourseFacet.class);
+        select(selections, CourseFacet.COURSE_TYPE, filter.courseTypes());
+        select(selections, CourseFacet.SPECIALIZATION, filter.specializationIds());
+        if (filter.restrictsGradeLevel()) {
+            var from = filter.gradeLevelMin() == null ? CatalogSnapshot.MIN_GRADE_LEVEL
+                    : Math.max(filter.gradeLevelMin(), CatalogSnapshot.MIN_GRADE_LEVEL);
+            var to = filter.gradeLevelMax() == null ? CatalogSnapshot.MAX_GRADE_LEVEL
+                    : Math.min(filter.gradeLevelMax(), CatalogSnapshot.MAX_GRADE_LEVEL);
+            var levels = new ArrayList<Integer>();
+            for (var level = from; level <= to; level++) {
+                levels.add(level);
+            }
+            // An empty range selects nothing rather than everything
+            selections.put(CourseFacet.GRADE_LEVEL,
+                    facets.get(CourseFacet.GRADE_LEVEL).selection(levels));
+        }
+        select(selections, CourseFacet.CREDITS, filter.credits());
+        select(selections, CourseFacet.SEMESTER, filter.semesterOrders());
+        return selections;
+    }
+
+    private void select(Map<CourseFacet, long[]> selections, CourseFacet facet,
+            Collection<?> values) {
+        if (!values.isEmpty()) {
+            selections.put(facet, facets.get(facet).selection(values));
+        }
+    }
+
+    private long[] baseWords(BitSet base) {
+        return base == null ? all.clone() : toWords(base);
+    }
+
+    private long[] toWords(BitSet mask) {
+        return Arrays.copyOf(mask.toLongArray(), words);
+    }
+
+    private static void and(long[] target, long[] mask) {
+        for (var i = 0; i < target.length; i++) {
+            target[i] &= mask[i];
+        }
+    }
+
+    private static int countAnd(long[] a, long[] b) {
+        var count = 0;
+        for (var i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    // 3.0 as "3", 1.5 as "1.5"
+    private static String formatCredits(Double credits) {
+        return BigDecimal.valueOf(credits).stripTrailingZeros().toPlainString();
+    }
+
+    /* The courses matching a filter and the facet counts around it */
+    public record Counted(BitSet matching, Map<CourseFacet, List<FacetCount>> counts) {
+    }
+
+    // The values of one facet in display order, each with its bitmap and label; built up while
+    // the constructor walks the courses, then sealed into word arrays
+    private final class Facet<V> {
+        private final Function<V, String> valueOf;
+        private final Function<V, String> defaultLabel;
+        private final Map<V, String> labels;
+        private final Map<V, BitSet> building;
+        private final Map<V, long[]> masks;
+
+        Facet(Function<V, String> valueOf, Function<V, String> defaultLabel) {
+            this.valueOf = valueOf;
+            this.defaultLabel = defaultLabel;
+            // By value: numerically, or in declaration order for enums
+            this.labels = new TreeMap<>();
+            this.building = new LinkedHashMap<>();
+            this.masks = new LinkedHashMap<>();
+        }
+
+        void add(V value) {
+            add(value, defaultLabel.apply(value));
+        }
+
+        void add(V value, String label) {
+            labels.putIfAbsent(value, label);
+        }
+
+        void set(V value, int courseIndex) {
+            if (value != null && labels.containsKey(value)) {
+                building.computeIfAbsent(value, v -> new BitSet()).set(courseIndex);
+            }
+        }
+
+        Facet<V> seal() {
+            for (var value : labels.keySet()) {
+                masks.put(value, toWords(building.getOrDefault(value, new BitSet())));
+            }
+            building.clear();
+            return this;
+        }
+
+        long[] selection(Collection<?> values) {
+            var selection = new long[words];
+            for (var value : values) {
+                var mask = masks.get(value);
+                if (mask != null) {
+                    for (var i = 0; i < words; i++) {
+                        selection[i] |= mask[i];
+                    }
+                }
+            }
+            return selection;
+        }
+
+        List<FacetCount> counts(long[] within) {
+            var counts = new ArrayList<FacetCount>(masks.size());
+            for (var entry : masks.entrySet()) {
+                counts.add(new FacetCount(valueOf.apply(entry.getKey()),
+                        labels.get(entry.getKey()), countAnd(within, entry.getValue())));
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.maplewood.catalog;
+
+import java.util.Set;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+
+/**
+ * A selection of facet values, see {@link CourseFacets}. A course matches a facet if it has any of
+ * the values selected for it, and the filter if it matches every facet; a facet with nothing
+ * selected matches every course.
+ *
+ * @param gradeLevelMin lowest grade level of the range a course must be offered to part of, or
+ *        {@code null} for no lower bound
+ * @param gradeLevelMax highest grade level of that range, or {@code null} for no upper bound
+ */
+public record CourseFilter(Set<CourseType> courseTypes, Set<Integer> specializationIds,
+        Integer gradeLevelMin, Integer gradeLevelMax, Set<Double> credits,
+        Set<SemesterOrder> semesterOrders) {
+
+    public static final CourseFilter NONE =
+            new CourseFilter(Set.of(), Set.of(), null, null, Set.of(), Set.of());
+
+    public CourseFilter {
+        courseTypes = courseTypes == null ? Set.of() : Set.copyOf(courseTypes);
+        specializationIds = specializationIds == null ? Set.of() : Set.copyOf(specializationIds);
+        credits = credits == null ? Set.of() : Set.copyOf(credits);
+        semesterOrders = semesterOrders == null ? Set.of() : Set.copyOf(semesterOrders);
+    }
+
+    public boolean restrictsGradeLevel() {
+        return gradeLevelMin != null || gradeLevelMax != null;
+    }
+}
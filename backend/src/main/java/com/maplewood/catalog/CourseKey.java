@@ -0,0 +1,59 @@
+package com.maplewood.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import com.maplewood.domain.SemesterOrder;
+
+/**
+ * Position of a course in keyset order, {@code (semester_order, code, id)}, the order course
+ * listings are paged in. A page ends at a key and the next one starts after it, so pages stay
+ * consistent however the catalog changes in between, and each course is listed exactly once.
+ * <p>
+ * Clients see the key as an opaque cursor, see {@link #encode()}.
+ */
+public record CourseKey(SemesterOrder semesterOrder, String code, int id)
+        implements Comparable<CourseKey> {
+
+    private static final Comparator<CourseKey> ORDER = Comparator
+            .comparing(CourseKey::semesterOrder, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CourseKey::code, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(CourseKey::id);
+
+    public static CourseKey of(CatalogCourse course) {
+        return new CourseKey(course.semesterOrder(), course.code(), course.id());
+    }
+
+    /**
+     * The key a cursor stands for.
+     *
+     * @throws IllegalArgumentException if the cursor was not made by {@link #encode()}
+     */
+    public static CourseKey decode(String cursor) throws IllegalArgumentException {
+        var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed course cursor");
+        }
+        try {
+            var semesterOrder = parts[0].isEmpty() ? null : SemesterOrder.fromCode(
+                    Integer.valueOf(parts[0]));
+            return new CourseKey(semesterOrder, parts[2], Integer.parseInt(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed course cursor", e);
+        }
+    }
+
+    /* An opaque, URL-safe cursor for this key; the code goes last as it may contain anything */
+    public String encode() {
+        var text = (semesterOrder == null ? "" : Integer.toString(semesterOrder.getCode())) + "|"
+                + id + "|" + code;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(CourseKey other) {
+        return ORDER.compare(this, other);
+    }
+}
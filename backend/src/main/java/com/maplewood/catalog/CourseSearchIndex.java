@@ -0,0 +1,427 @@
+package com.maplewood.catalog;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-process inverted index over the searchable text of a {@link CatalogSnapshot}'s courses: code,
+ * name, description and specialization name.
+ * <p>
+ * Text is folded to lowercase without accents and split into terms; a term mixing letters and
+ * digits, like a course code, is indexed whole and by its letter and digit runs. The terms are
+ * kept sorted, so a query term matches a term exactly, as a prefix of longer terms, or, if it has
+ * no digits, within one edit of a word of similar length (two edits from
+ * {@value #MIN_TWO_EDIT_LENGTH} characters on).
+ * Every query term must match; courses rank by how closely and in which field each term matched.
+ * <p>
+ * Like its snapshot the index is immutable. Building it from the previous snapshot's index reuses
+ * the terms of every course whose text did not change, so a catalog update re-tokenizes only the
+ * changed courses.
+ */
+public final class CourseSearchIndex {
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MIN_FUZZY_LENGTH = 4;
+    static final int MIN_TWO_EDIT_LENGTH = 8;
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.6f;
+    private static final float FUZZY = 0.4f;
+
+    // Too common to narrow a search down; dropped from indexed text and queries alike
+    private static final Set<String> STOP_WORDS =
+            Set.of("a", "an", "and", "for", "in", "of", "on", "the", "to", "with");
+
+    private final List<CatalogCourse> courses;
+    private final Map<Integer, Document> documentsByCourseId;
+    // Sorted, with each term's postings: ascending course indexes and the fields matched in each
+    private final String[] terms;
+    private final int[][] postings;
+    private final byte[][] postingFields;
+    // Ids of the terms without digits by term length, for the fuzzy scan
+    private final int[][] termsByLength;
+
+    private CourseSearchIndex(List<CatalogCourse> courses,
+            Map<Integer, Document> documentsByCourseId, String[] terms, int[][] postings,
+            byte[][] postingFields) {
+        this.courses = courses;
+        this.documentsByCourseId = documentsByCourseId;
+        this.terms = terms;
+        this.postings = postings;
+        this.postingFields = postingFields;
+
+        var maxLength = Arrays.stream(terms).mapToInt(String::length).max().orElse(0);
+        var countsByLength = new int[maxLength + 1];
+        for (var term : terms) {
+            if (isFuzzyCandidate(term)) {
+                countsByLength[term.length()]++;
+            }
+        }
+        this.termsByLength = new int[maxLength + 1][];
+        for (var length = 0; length <= maxLength; length++) {
+            termsByLength[length] = new int[countsByLength[length]];
+            countsByLength[length] = 0;
+        }
+        for (var termId = 0; termId < terms.length; termId++) {
+            if (isFuzzyCandidate(terms[termId])) {
+                var length = terms[termId].length();
+                termsByLength[length][countsByLength[length]++] = termId;
+            }
+        }
+    }
+
+    /**
+     * Index the courses of a snapshot, reusing the terms of unchanged courses from the previous
+     * index if there is one.
+     *
+     * @param courses the snapshot's courses in dense index order
+     */
+    static CourseSearchIndex build(List<CatalogCourse> courses, CourseSearchIndex previous) {
+        var documentsByCourseId = new HashMap<Integer, Document>(courses.size() * 2);
+        var postingsByTerm = new HashMap<String, PostingsBuilder>();
+        for (var course : courses) {
+            var document = previous == null ? null : previous.documentsByCourseId.get(course.id());
+            if (document == null || !document.describes(course)) {
+                document = Document.of(course);
+            }
+            documentsByCourseId.put(course.id(), document);
+            for (var entry : document.fieldsByTerm().entrySet()) {
+                postingsByTerm.computeIfAbsent(entry.getKey(), term -> new PostingsBuilder())
+                        .add(course.index(), entry.getValue());
+            }
+        }
+
+        var terms = postingsByTerm.keySet().toArray(String[]::new);
+        Arrays.sort(terms);
+        var postings = new int[terms.length][];
+        var postingFields = new byte[terms.length][];
+        for (var termId = 0; termId < terms.length; termId++) {
+            var builder = postingsByTerm.get(terms[termId]);
+            postings[termId] = Arrays.copyOf(builder.courseIndexes, builder.size);
+            postingFields[termId] = Arrays.copyOf(builder.fields, builder.size);
+        }
+        return new CourseSearchIndex(courses, documentsByCourseId, terms, postings,
+                postingFields);
+    }
+
+    /* The distinct terms of a query, in the order typed; empty if it has nothing to search for */
+    public static List<String> queryTerms(String text) {
+        var terms = new LinkedHashSet<String>();
+        tokenize(text, false, terms::add);
+        return List.copyOf(terms);
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    /**
+     * The courses matching every one of the terms among the courses set in {@code within}, best
+     * match first, then by code. Each term scores the best of its matches in a course: exact over
+     * prefix over fuzzy, weighted by field, code first, then name, specialization and
+     * description.
+     *
+     * @param queryTerms terms from {@link #queryTerms(String)}, at least one
+     * @param within mask of dense course indexes to search among
+     */
+    public List<CatalogCourse> search(List<String> queryTerms, BitSet within, int limit) {
+        var scores = new float[courses.size()];
+        var candidates = score(queryTerms, within, scores);
+        var results = new ArrayList<CatalogCourse>(candidates.cardinality());
+        for (var index = candidates.nextSetBit(0); index >= 0;
+                index = candidates.nextSetBit(index + 1)) {
+            results.add(courses.get(index));
+        }
+        results.sort(Comparator
+                .comparingDouble((CatalogCourse course) -> -scores[course.index()])
+                .thenComparing(CatalogCourse::code, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(CatalogCourse::id));
+        return results.size() > limit ? List.copyOf(results.subList(0, limit)) : results;
+    }
+
+    /**
+     * A new mask of the courses matching every one of the terms, unranked.
+     *
+     * @param within mask of dense course indexes to search among, or {@code null} for all
+     */
+    public BitSet matching(List<String> queryTerms, BitSet within) {
+        return score(queryTerms, within, new float[courses.size()]);
+    }
+
+    // Adds each course's score to scores and returns the courses every term matched
+    private BitSet score(List<String> queryTerms, BitSet within, float[] scores) {
+        var best = new float[courses.size()];
+        BitSet candidates;
+        if (within == null) {
+            candidates = new BitSet(courses.size());
+            candidates.set(0, courses.size());
+        } else {
+            candidates = (BitSet) within.clone();
+        }
+        var distance = new EditDistance(termsByLength.length);
+        for (var queryTerm : queryTerms) {
+            var matched = new BitSet(courses.size());
+            forEachMatch(queryTerm, distance, (termId, weight) -> {
+                var termPostings = postings[termId];
+                var fields = postingFields[termId];
+                for (var i = 0; i < termPostings.length; i++) {
+                    var courseIndex = termPostings[i];
+                    best[courseIndex] = Math.max(best[courseIndex], weight * Field.weightOf(
+                            fields[i]));
+                    matched.set(courseIndex);
+                }
+            });
+            candidates.and(matched);
+            for (var index = matched.nextSetBit(0); index >= 0;
+                    index = matched.nextSetBit(index + 1)) {
+                scores[index] += best[index];
+                best[index] = 0;
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    /* The indexed document of a course, to check reuse across builds */
+    Document documentOf(int courseId) {
+        return documentsByCourseId.get(courseId);
+    }
+
+    private void forEachMatch(String queryTerm, EditDistance distance, TermMatch match) {
+        var start = Arrays.binarySearch(terms, queryTerm);
+        if (start >= 0) {
+            match.accept(start++, EXACT);
+        } else {
+            start = -start - 1;
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            for (var termId = start; termId < terms.length && terms[termId].startsWith(queryTerm);
+                    termId++) {
+                match.accept(termId, PREFIX);
+            }
+        }
+
+        if (queryTerm.length() < MIN_FUZZY_LENGTH || !isFuzzyCandidate(queryTerm)) {
+            return;
+        }
+        var maxEdits = queryTerm.length() >= MIN_TWO_EDIT_LENGTH ? 2 : 1;
+        var maxLength = Math.min(queryTerm.length() + maxEdits, termsByLength.length - 1);
+        for (var length = Math.max(1, queryTerm.length() - maxEdits); length <= maxLength;
+                length++) {
+            for (var termId : termsByLength[length]) {
+                var term = terms[termId];
+                // Exact and prefix matches were taken above
+                if (!term.startsWith(queryTerm) && distance.isWithin(queryTerm, term, maxEdits)) {
+                    match.accept(termId, FUZZY);
+                }
+            }
+        }
+    }
+
+    // Codes and numbers are matched exactly or by prefix only: one digit off is another course,
+    // and every course adds unique ones, which would make most of the fuzzy scan
+    private static boolean isFuzzyCandidate(String term) {
+        for (var i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Splits folded text into terms of letters and digits; with runs, a term mixing both is also
+    // split where letters and digits meet, so "mth201" yields "mth" and "201" too
+    private static void tokenize(String text, boolean withRuns, TermSink sink) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        var folded = fold(text);
+        var start = -1;
+        for (var i = 0; i <= folded.length(); i++) {
+            var inTerm = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                addTerm(folded.substring(start, i), withRuns, sink);
+                start = -1;
+            }
+        }
+    }
+
+    private static void addTerm(String term, boolean withRuns, TermSink sink) {
+        if (STOP_WORDS.contains(term)) {
+            return;
+        }
+        sink.add(term);
+        if (!withRuns) {
+            return;
+        }
+        var runStart = 0;
+        for (var i = 1; i <= term.length(); i++) {
+            if (i == term.length()
+                    || Character.isDigit(term.charAt(i)) != Character.isDigit(term.charAt(i - 1))) {
+                if (runStart > 0 || i < term.length()) {
+                    sink.add(term.substring(runStart, i));
+                }
+                runStart = i;
+            }
+        }
+    }
+
+    private static String fold(String text) {
+        var ascii = true;
+        for (var i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 128;
+        }
+        if (!ascii) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /* The searchable fields, strongest first; a term's field bit is 1 << ordinal */
+    enum Field {
+        CODE(8), NAME(4), SPECIALIZATION(2), DESCRIPTION(1);
+
+        // Weight of the strongest field in each combination of field bits
+        private static final float[] WEIGHT_BY_BITS = new float[1 << values().length];
+
+        static {
+            for (var bits = 1; bits < WEIGHT_BY_BITS.length; bits++) {
+                WEIGHT_BY_BITS[bits] = values()[Integer.numberOfTrailingZeros(bits)].weight;
+            }
+        }
+
+        private final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+
+        static float weightOf(byte bits) {
+            return WEIGHT_BY_BITS[bits];
+        }
+    }
+
+    /* A course's indexed text and the fields each of its terms occurs in */
+    record Document(String code, String name, String description, String specializationName,
+            Map<String, Byte> fieldsByTerm) {
+
+        static Document of(CatalogCourse course) {
+            var fieldsByTerm = new HashMap<String, Byte>();
+            index(course.code(), Field.CODE, fieldsByTerm);
+            index(course.name(), Field.NAME, fieldsByTerm);
+            index(course.specializationName(), Field.SPECIALIZATION, fieldsByTerm);
+            index(course.description(), Field.DESCRIPTION, fieldsByTerm);
+            return new Document(course.code(), course.name(), course.description(),
+                    course.specializationName(), Map.copyOf(fieldsByTerm));
+        }
+
+        private static void index(String text, Field field, Map<String, Byte> fieldsByTerm) {
+            tokenize(text, true, term -> fieldsByTerm.merge(term, (byte) field.bit(),
+                    (bits, bit) -> (byte) (bits | bit)));
+        }
+
+        boolean describes(CatalogCourse course) {
+            return Objects.equals(code, course.code()) && Objects.equals(name, course.name())
+                    && Objects.equals(description, course.description())
+                    && Objects.equals(specializationName, course.specializationName());
+        }
+    }
+
+    @FunctionalInterface
+    private interface TermSink {
+        void add(String term);
+    }
+
+    @FunctionalInterface
+    private interface TermMatch {
+        void accept(int termId, float weight);
+    }
+
+    private static final class PostingsBuilder {
+        private int[] courseIndexes = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void add(int courseIndex, byte fieldBits) {
+            if (size == courseIndexes.length) {
+                courseIndexes = Arrays.copyOf(courseIndexes, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            courseIndexes[size] = courseIndex;
+            fields[size++] = fieldBits;
+        }
+    }
+
+    /**
+     * Bounded optimal string alignment distance: insertions, deletions, substitutions and swaps of
+     * adjacent characters. Rows are reused across calls and a comparison stops as soon as a whole
+     * row exceeds the bound.
+     */
+    private static final class EditDistance {
+        private int[] twoBack;
+        private int[] previous;
+        private int[] current;
+
+        EditDistance(int maxLength) {
+            resize(maxLength + 1);
+        }
+
+        boolean isWithin(String a, String b, int maxEdits) {
+            if (Math.abs(a.length() - b.length()) > maxEdits) {
+                return false;
+            }
+            if (previous.length <= b.length()) {
+                resize(b.length() + 1);
+            }
+            for (var j = 0; j <= b.length(); j++) {
+                previous[j] = j;
+            }
+            for (var i = 1; i <= a.length(); i++) {
+                current[0] = i;
+                var rowMin = i;
+                for (var j = 1; j <= b.length(); j++) {
+                    var cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    var value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1),
+                            previous[j - 1] + cost);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2)
+                            && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        value = Math.min(value, twoBack[j - 2] + 1);
+                    }
+                    current[j] = value;
+                    rowMin = Math.min(rowMin, value);
+                }
+                if (rowMin > maxEdits) {
+                    return false;
+                }
+                var recycled = twoBack;
+                twoBack = previous;
+                previous = current;
+                current = recycled;
+            }
+            return previous[b.length()] <= maxEdits;
+        }
+
+        private void resize(int length) {
+            twoBack = new int[length];
+            previous = new int[length];
+            current = new int[length];
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.maplewood.catalog;
+
+import java.util.Set;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+
+/**
+ * A course search: free text matched against the {@link CourseSearchIndex}, narrowed by facets.
+ * Any part left {@code null} does not restrict the search; without text every course matching the
+ * facets is listed.
+ *
+ * @param gradeLevel a grade level the course must be offered to
+ */
+public record CourseSearchQuery(String text, CourseType courseType, Integer gradeLevel,
+        Double credits, SemesterOrder semesterOrder) {
+
+    /* The facets of this query as a filter of single values */
+    public CourseFilter filter() {
+        return new CourseFilter(setOf(courseType), Set.of(), gradeLevel, gradeLevel,
+                setOf(credits), setOf(semesterOrder));
+    }
+
+    private static <T> Set<T> setOf(T value) {
+        return value == null ? Set.of() : Set.of(value);
+    }
+}
@@ -0,0 +1,11 @@
+package com.maplewood.catalog;
+
+/**
+ * How many courses would match if a facet value were selected, given every other facet's
+ * selection.
+ *
+ * @param value the value as it is passed to select it
+ * @param label the value for display
+ */
+public record FacetCount(String value, String label, int count) {
+}
@@ -0,0 +1,12 @@
+package com.maplewood.catalog;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of the courses matching a {@link CourseFilter}, with how many match in all and the live
+ * counts of every facet value.
+ */
+public record FacetedCourses(List<CatalogCourse> courses, int total,
+        Map<CourseFacet, List<FacetCount>> facets) {
+}
@@ -0,0 +1,164 @@
+package com.maplewood.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The prerequisite links of a {@link CatalogSnapshot} as a DAG over dense course indexes (see
+ * {@link CatalogCourse#index()}), compiled once per snapshot.
+ * <p>
+ * Edges point from a prerequisite to the courses it unlocks. {@link #level(int)} is the length of
+ * the prerequisite chain above a course, {@link #height(int)} the length of the longest chain of
+ * courses it unlocks, both 0 for a course with neither. The data has no cycles, but a broken link
+ * could create one; courses on or behind a cycle can never be unlocked, so they are left out of
+ * the topological order and report a level of {@code -1}.
+ * <p>
+ * The transitive closure is kept as one bitset per course in each direction, every prerequisite
+ * above it and every course below it, so chain and reachability questions are a lookup instead of
+ * a walk that loads one course per hop.
+ */
+public final class PrerequisiteGraph {
+    private static final int[] NONE = new int[0];
+
+    private final int[] prerequisite;
+    private final int[][] unlocks;
+    private final int[] topologicalOrder;
+    private final int[] level;
+    private final int[] height;
+    private final BitSet[] ancestors;
+    private final BitSet[] descendants;
+
+    PrerequisiteGraph(List<CatalogCourse> courses, CatalogCourse[] coursesById) {
+        var size = courses.size();
+        prerequisite = new int[size];
+        Arrays.fill(prerequisite, -1);
+        var dependents = new ArrayList<List<Integer>>(size);
+        for (var i = 0; i < size; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (var course : courses) {
+            var prerequisiteId = course.prerequisiteId();
+            if (prerequisiteId != null && prerequisiteId >= 0
+                    && prerequisiteId < coursesById.length && coursesById[prerequisiteId] != null) {
+                var from = coursesById[prerequisiteId].index();
+                prerequisite[course.index()] = from;
+                dependents.get(from).add(course.index());
+            }
+        }
+        unlocks = new int[size][];
+        for (var i = 0; i < size; i++) {
+            var list = dependents.get(i);
+            unlocks[i] = list.isEmpty() ? NONE
+                    : list.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Kahn's algorithm; with a single prerequisite per course the roots are the courses
+        // without one, and a course joins once its prerequisite has
+        level = new int[size];
+        Arrays.fill(level, -1);
+        var order = new int[size];
+        var count = 0;
+        for (var i = 0; i < size; i++) {
+            if (prerequisite[i] < 0) {
+                level[i] = 0;
+                order[count++] = i;
+            }
+        }
+        for (var next = 0; next < count; next++) {
+            var from = order[next];
+            for (var to : unlocks[from]) {
+                level[to] = level[from] + 1;
+                order[count++] = to;
+            }
+        }
+        topologicalOrder = Arrays.copyOf(order, count);
+
+        height = new int[size];
+        descendants = new BitSet[size];
+        for (var i = count - 1; i >= 0; i--) {
+            var from = topologicalOrder[i];
+            descendants[from] = new BitSet(size);
+            for (var to : unlocks[from]) {
+                height[from] = Math.max(height[from], height[to] + 1);
+                descendants[from].set(to);
+                descendants[from].or(descendants[to]);
+            }
+        }
+
+        ancestors = new BitSet[size];
+        for (var i = 0; i < count; i++) {
+            var to = topologicalOrder[i];
+            var from = prerequisite[to];
+            ancestors[to] = from < 0 ? new BitSet(size) : (BitSet) ancestors[from].clone();
+            if (from >= 0) {
+                ancestors[to].set(from);
+            }
+        }
+        // Courses on or behind a cycle get no closure; their chain never reaches a root
+        for (var i = 0; i < size; i++) {
+            if (ancestors[i] == null) {
+                ancestors[i] = new BitSet();
+                descendants[i] = new BitSet();
+            }
+        }
+    }
+
+    public int size() {
+        return prerequisite.length;
+    }
+
+    /* Index of the course's prerequisite, or -1 if it has none in the snapshot */
+    public int prerequisiteOf(int index) {
+        return prerequisite[index];
+    }
+
+    /* Indexes of the courses that list this course as their prerequisite */
+    public int[] unlocks(int index) {
+        return unlocks[index].clone();
+    }
+
+    /* Every course that can be unlocked, each after its prerequisite */
+    public int[] topologicalOrder() {
+        return topologicalOrder.clone();
+    }
+
+    /*
+     * Indexes of the course's prerequisite, its prerequisite's prerequisite and so on, nearest
+     * first. Empty for a course on or behind a cycle.
+     */
+    public int[] prerequisiteChain(int index) {
+        if (level[index] < 0) {
+            return NONE;
+        }
+        var chain = new int[level[index]];
+        for (int i = 0, at = prerequisite[index]; at >= 0; i++, at = prerequisite[at]) {
+            chain[i] = at;
+        }
+        return chain;
+    }
+
+    /* Every course somewhere above the course in its prerequisite chain */
+    public BitSet allPrerequisitesOf(int index) {
+        return (BitSet) ancestors[index].clone();
+    }
+
+    /* Every course the course unlocks directly or through a chain */
+    public BitSet allUnlockedBy(int index) {
+        return (BitSet) descendants[index].clone();
+    }
+
+    /* Whether passing {@code prerequisite} is needed, directly or transitively, for {@code index} */
+    public boolean isPrerequisiteOf(int prerequisite, int index) {
+        return ancestors[index].get(prerequisite);
+    }
+
+    public int level(int index) {
+        return level[index];
+    }
+
+    public int height(int index) {
+        return height[index];
+    }
+}
@@ -1,11 +1,12 @@
 package com.maplewood.config;
 
+import java.util.Map;
+import com.maplewood.persistence.DatabaseWriteQueue;
 import com.maplewood.repositories.AppUserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -15,7 +16,7 @@ public class AuthBootstrapConfig {
     @Bean
     public CommandLineRunner ensureBootstrapUser(
             AppUserRepository appUserRepository,
-            JdbcTemplate jdbcTemplate,
+            DatabaseWriteQueue databaseWriteQueue,
             PasswordEncoder passwordEncoder,
             AuthBootstrapProperties authBootstrapProperties) {
         return args -> {
@@ -30,11 +31,10 @@ public class AuthBootstrapConfig {
 
             String passwordHash = passwordEncoder.encode(password);
 
-            jdbcTemplate.update(
-                    "INSERT INTO users (username, password_hash, role, enabled, created_at) VALUES (?, ?, ?, 1, CURRENT_TIMESTAMP)",
-                    username,
-                    passwordHash,
-                    role);
+            // Through the writer, since sqlite-perf readers are read-only
+            databaseWriteQueue.execute(writer -> writer.update(
+                    "INSERT INTO users (username, password_hash, role, enabled, created_at) VALUES (:username, :passwordHash, :role, 1, CURRENT_TIMESTAMP)",
+                    Map.of("username", username, "passwordHash", passwordHash, "role", role)));
         };
     }
 }
@@ -0,0 +1,35 @@
+package com.maplewood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Page sizes of the keyset-paged course listings ({@code app.courses.page.*}). A request without
+ * a {@code size} gets the default size; larger sizes are cut down to the maximum.
+ */
+@ConfigurationProperties(prefix = "app.courses.page")
+public class CoursePageProperties {
+    private int defaultSize = 50;
+    private int maxSize = 200;
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public void setDefaultSize(int defaultSize) {
+        this.defaultSize = defaultSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /* The requested size, or the default if none was given, within 1 and the maximum */
+    public int sizeFor(Integer requested) {
+        var size = requested == null ? defaultSize : requested;
+        return Math.max(1, Math.min(size, maxSize));
+    }
+}
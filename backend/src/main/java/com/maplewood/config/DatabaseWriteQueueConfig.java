@@ -0,0 +1,55 @@
+package com.maplewood.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.maplewood.persistence.DatabaseWriteQueue;
+import com.maplewood.persistence.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+@Configuration
+@EnableConfigurationProperties(DatabaseWriteQueueProperties.class)
+public class DatabaseWriteQueueConfig {
+    private HikariDataSource writerDataSource;
+
+    /*
+     * The writer gets a single connection of its own to the application database, or the write
+     * pool's connection when the data source is split into read and write pools
+     */
+    @Bean
+    public DatabaseWriteQueue databaseWriteQueue(DataSourceProperties dataSourceProperties,
+            DatabaseWriteQueueProperties writeQueueProperties,
+            ObjectProvider<ReadWriteRoutingDataSource> readWriteRoutingDataSource,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        var routing = readWriteRoutingDataSource.getIfAvailable();
+        if (routing != null) {
+            return new DatabaseWriteQueue(routing.getWriteDataSource(),
+                    writeQueueProperties.getCapacity(), writeQueueProperties.getMaxBatchSize(),
+                    writeQueueProperties.getWaitTimeout());
+        }
+
+        writerDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        writerDataSource.setPoolName("db-writer");
+        writerDataSource.setMaximumPoolSize(1);
+        writerDataSource.setMinimumIdle(1);
+        // Not a bean, so the pool metrics auto-configuration does not see it
+        meterRegistry.ifAvailable(writerDataSource::setMetricRegistry);
+
+        return new DatabaseWriteQueue(writerDataSource, writeQueueProperties.getCapacity(),
+                writeQueueProperties.getMaxBatchSize(), writeQueueProperties.getWaitTimeout());
+    }
+
+    /* Runs after the queue has stopped, since the queue depends on this configuration */
+    @PreDestroy
+    public void closeWriterDataSource() {
+        if (writerDataSource != null) {
+            writerDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.maplewood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The HTTP Basic account Prometheus scrapes the actuator endpoints with. Without a password
+ * there is no such account and only {@code /actuator/health} answers.
+ */
+@ConfigurationProperties(prefix = "app.metrics.scrape")
+public class MetricsScrapeProperties {
+    private String username = "prometheus";
+    private String password;
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
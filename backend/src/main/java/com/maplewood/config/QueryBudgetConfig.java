@@ -0,0 +1,112 @@
+package com.maplewood.config;
+
+import java.io.IOException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import com.maplewood.persistence.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the statements Hibernate runs for each HTTP request, see {@link QueryCounter}.
+ * <p>
+ * Each request's count is recorded in the {@code http.server.requests.queries} summary, tagged
+ * with the method and path pattern, and logged as a warning when it exceeds the endpoint's budget
+ * ({@code app.query-budget.*}). The count is also left on the request as
+ * {@link #QUERY_COUNT_ATTRIBUTE} for tests. Tasks on the application task executor count towards
+ * the request that submitted them.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig {
+    public static final String QUERY_COUNT_ATTRIBUTE = QueryBudgetConfig.class.getName() + ".count";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetConfig.class);
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new QueryCounter());
+    }
+
+    /* Picked up by the auto-configured application task executor */
+    @Bean
+    public TaskDecorator queryCountingTaskDecorator() {
+        return QueryCounter::propagate;
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(
+            QueryBudgetProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        var registration = new FilterRegistrationBean<>(
+                new QueryBudgetFilter(properties, meterRegistry.getIfAvailable()));
+        // Ahead of Spring Security, so the queries of authentication count too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    static final class QueryBudgetFilter extends OncePerRequestFilter {
+        private final QueryBudgetProperties properties;
+        private final MeterRegistry meterRegistry;
+
+        QueryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+            this.properties = properties;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain filterChain) throws ServletException, IOException {
+            var scope = QueryCounter.open();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                scope.close();
+                record(request, response, scope.count());
+            }
+        }
+
+        private void record(HttpServletRequest request, HttpServletResponse response, int count) {
+            request.setAttribute(QUERY_COUNT_ATTRIBUTE, count);
+            var uri = uriOf(request, response);
+            if (meterRegistry != null) {
+                DistributionSummary.builder("http.server.requests.queries")
+                        .description("Statements run by Hibernate per HTTP request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(count);
+            }
+            var budget = properties.budgetFor(uri);
+            if (count > budget) {
+                log.warn("{} {} ran {} queries, over its budget of {}", request.getMethod(), uri,
+                        count, budget);
+            }
+        }
+
+        // The handler's path pattern; requests Spring Security answers itself, like the login,
+        // have none, so the path stands in when they succeed
+        private static String uriOf(HttpServletRequest request, HttpServletResponse response) {
+            var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                return pattern.toString();
+            }
+            return response.getStatus() < 300 ? request.getRequestURI() : "UNMAPPED";
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.maplewood.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Statement budgets per request, see {@link QueryBudgetConfig}. Endpoints are keyed by their path
+ * pattern in brackets, e.g. {@code app.query-budget.budgets.[/api/courses/student]=5}; any
+ * endpoint without an entry gets the default budget.
+ */
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+    private int defaultBudget = 10;
+    private Map<String, Integer> budgets = new LinkedHashMap<>();
+
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Map<String, Integer> getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(Map<String, Integer> budgets) {
+        this.budgets = budgets;
+    }
+
+    public int budgetFor(String uri) {
+        return budgets.getOrDefault(uri, defaultBudget);
+    }
+}
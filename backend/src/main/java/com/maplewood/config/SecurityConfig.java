@@ -1,21 +1,31 @@
 package com.maplewood.config;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.function.Supplier;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
@@ -28,13 +38,48 @@ import org.springframework.security.web.csrf.XorCsrfTokenRequestAttributeHandler
 import org.springframework.http.HttpStatus;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import com.maplewood.persistence.DatabaseWriteQueue;
 
 @Configuration
+@EnableConfigurationProperties(MetricsScrapeProperties.class)
 public class SecurityConfig {
+        private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+        private static final String METRICS_ROLE = "METRICS";
 
+        // Actuator endpoints other than health need the scraper's HTTP Basic account, which is
+        // kept apart from the users table so a logged-in student cannot read metrics
         @Bean
-        public SecurityFilterChain securityFilterChain(HttpSecurity http, JdbcTemplate jdbcTemplate)
-                        throws Exception {
+        @Order(1)
+        public SecurityFilterChain actuatorFilterChain(HttpSecurity http,
+                        MetricsScrapeProperties metricsScrapeProperties,
+                        PasswordEncoder passwordEncoder) throws Exception {
+                var scrapers = new InMemoryUserDetailsManager();
+                if (StringUtils.hasText(metricsScrapeProperties.getPassword())) {
+                        scrapers.createUser(User.withUsername(metricsScrapeProperties.getUsername())
+                                        .password(passwordEncoder.encode(
+                                                        metricsScrapeProperties.getPassword()))
+                                        .roles(METRICS_ROLE).build());
+                }
+                var scraperAuthentication = new DaoAuthenticationProvider();
+                scraperAuthentication.setUserDetailsService(scrapers);
+                scraperAuthentication.setPasswordEncoder(passwordEncoder);
+
+                http.securityMatcher(EndpointRequest.toAnyEndpoint())
+                                .authorizeHttpRequests(auth -> auth
+                                                .requestMatchers(EndpointRequest.to(HealthEndpoint.class))
+                                                .permitAll().anyRequest().hasRole(METRICS_ROLE))
+                                .authenticationManager(new ProviderManager(scraperAuthentication))
+                                .sessionManagement(session -> session.sessionCreationPolicy(
+                                                SessionCreationPolicy.STATELESS))
+                                .csrf(AbstractHttpConfigurer::disable)
+                                .httpBasic(Customizer.withDefaults());
+
+                return http.build();
+        }
+
+        @Bean
+        public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                        DatabaseWriteQueue databaseWriteQueue) throws Exception {
                 http.cors(Customizer.withDefaults()).csrf(csrf -> csrf
                                 .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
                                 .csrfTokenRequestHandler(new SpaCsrfTokenRequestHandler())
@@ -52,9 +97,17 @@ public class SecurityConfig {
                                 .formLogin(form -> form.loginProcessingUrl("/api/auth/login")
                                                 .successHandler((request, response,
                                                                 authentication) -> {
-                                                        jdbcTemplate.update(
-                                                                        "UPDATE users SET last_login_at = CURRENT_TIMESTAMP WHERE username = ?",
-                                                                        authentication.getName());
+                                                        // Bookkeeping only; the login does not
+                                                        // wait for the write queue
+                                                        var username = authentication.getName();
+                                                        databaseWriteQueue.submit(jdbcTemplate -> jdbcTemplate.update(
+                                                                        "UPDATE users SET last_login_at = CURRENT_TIMESTAMP WHERE username = :username",
+                                                                        Map.of("username", username)))
+                                                                        .exceptionally(e -> {
+                                                                                log.warn("Failed to record login of {}",
+                                                                                                username, e);
+                                                                                return 0;
+                                                                        });
                                                         response.setStatus(
                                                                         HttpServletResponse.SC_OK);
                                                 })
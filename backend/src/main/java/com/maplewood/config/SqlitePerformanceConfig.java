@@ -0,0 +1,84 @@
+package com.maplewood.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+import com.maplewood.persistence.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * SQLite tuned for concurrent readers, enabled with the {@code sqlite-perf} profile.
+ * <p>
+ * Every connection is opened with the {@code app.sqlite.*} pragmas applied, and the application
+ * data source is split into a read pool of read-only connections and a single-connection write
+ * pool, see {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@Profile("sqlite-perf")
+@EnableConfigurationProperties(SqlitePerformanceProperties.class)
+public class SqlitePerformanceConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            DataSourceProperties dataSourceProperties, SqlitePerformanceProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        var url = dataSourceProperties.determineUrl();
+        // The writer first, so the database is in WAL mode before the read-only readers open it
+        var writePool = createPool(url, properties, "sqlite-write", 1, false);
+        var readPool = createPool(url, properties, "sqlite-read", properties.getReadPoolSize(),
+                true);
+        // The pools are not beans, so the pool metrics auto-configuration does not see them
+        meterRegistry.ifAvailable(registry -> {
+            readPool.setMetricRegistry(registry);
+            writePool.setMetricRegistry(registry);
+        });
+        return new ReadWriteRoutingDataSource(readPool, writePool);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    /**
+     * A Hikari pool of {@code size} SQLite connections to {@code url}. The driver runs the pragmas
+     * as each connection is opened, so they hold for every connection the pool hands out.
+     *
+     * @param readOnly Whether the connections are opened read-only, so SQLite refuses any write
+     *        routed to them.
+     */
+    public static HikariDataSource createPool(String url, SqlitePerformanceProperties properties,
+            String poolName, int size, boolean readOnly) {
+        var sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setReadOnly(readOnly);
+        sqliteConfig.setJournalMode(properties.getJournalMode());
+        sqliteConfig.setSynchronous(properties.getSynchronous());
+        sqliteConfig.setPragma(SQLiteConfig.Pragma.MMAP_SIZE,
+                Long.toString(properties.getMmapSize()));
+        sqliteConfig.setCacheSize(properties.getCacheSize());
+        sqliteConfig.setBusyTimeout((int) properties.getBusyTimeout().toMillis());
+
+        var sqliteDataSource = new SQLiteDataSource(sqliteConfig);
+        sqliteDataSource.setUrl(url);
+
+        var hikariConfig = new HikariConfig();
+        hikariConfig.setDataSource(sqliteDataSource);
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setMaximumPoolSize(size);
+        hikariConfig.setMinimumIdle(size);
+        // Otherwise Hikari resets the connections to read-write, which SQLite refuses
+        hikariConfig.setReadOnly(readOnly);
+        return new HikariDataSource(hikariConfig);
+    }
+}
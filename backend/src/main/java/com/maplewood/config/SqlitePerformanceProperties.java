@@ -0,0 +1,66 @@
+package com.maplewood.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+
+@ConfigurationProperties(prefix = "app.sqlite")
+public class SqlitePerformanceProperties {
+    private JournalMode journalMode = JournalMode.WAL;
+    // NORMAL only syncs at WAL checkpoints; a power loss can drop the last commits, not corrupt
+    private SynchronousMode synchronous = SynchronousMode.NORMAL;
+    private long mmapSize = 256L * 1024 * 1024;
+    // Negative values are KiB rather than pages, as in PRAGMA cache_size
+    private int cacheSize = -64 * 1024;
+    private Duration busyTimeout = Duration.ofSeconds(5);
+    private int readPoolSize = 4;
+
+    public JournalMode getJournalMode() {
+        return journalMode;
+    }
+
+    public void setJournalMode(JournalMode journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    public SynchronousMode getSynchronous() {
+        return synchronous;
+    }
+
+    public void setSynchronous(SynchronousMode synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public void setMmapSize(long mmapSize) {
+        this.mmapSize = mmapSize;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public Duration getBusyTimeout() {
+        return busyTimeout;
+    }
+
+    public void setBusyTimeout(Duration busyTimeout) {
+        this.busyTimeout = busyTimeout;
+    }
+
+    public int getReadPoolSize() {
+        return readPoolSize;
+    }
+
+    public void setReadPoolSize(int readPoolSize) {
+        this.readPoolSize = readPoolSize;
+    }
+}
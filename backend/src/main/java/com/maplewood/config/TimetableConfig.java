@@ -0,0 +1,35 @@
+package com.maplewood.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.maplewood.scheduling.TimetableSolver;
+import com.maplewood.services.TimetableService;
+
+@Configuration
+@EnableConfigurationProperties(TimetableProperties.class)
+public class TimetableConfig {
+    private static final Logger log = LoggerFactory.getLogger(TimetableConfig.class);
+
+    @Bean
+    public TimetableSolver timetableSolver(TimetableProperties timetableProperties) {
+        return new TimetableSolver(timetableProperties.getParallelism());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.timetable.generate-on-startup", havingValue = "true")
+    public CommandLineRunner generateTimetable(TimetableService timetableService) {
+        // A missing timetable only disables section enrollment, so it must not stop the app
+        return args -> {
+            try {
+                timetableService.generateForActiveSemester();
+            } catch (RuntimeException e) {
+                log.error("Could not generate the timetable", e);
+            }
+        };
+    }
+}
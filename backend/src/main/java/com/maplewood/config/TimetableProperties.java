@@ -0,0 +1,110 @@
+package com.maplewood.config;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.timetable")
+public class TimetableProperties {
+    // Generate the active semester's timetable at startup if it has no sections yet
+    private boolean generateOnStartup = false;
+    private LocalTime firstPeriodStart = LocalTime.of(8, 0);
+    private int periodMinutes = 50;
+    private int passingMinutes = 10;
+    private int periodsPerDay = 8;
+    // Share of each specialization's teaching periods that sections may be planned for
+    private double teacherLoad = 0.9;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int restarts = 8;
+    private long maxIterations = 2_000_000;
+    private Duration timeLimit = Duration.ofSeconds(10);
+    private long seed = 0;
+
+    public boolean isGenerateOnStartup() {
+        return generateOnStartup;
+    }
+
+    public void setGenerateOnStartup(boolean generateOnStartup) {
+        this.generateOnStartup = generateOnStartup;
+    }
+
+    public LocalTime getFirstPeriodStart() {
+        return firstPeriodStart;
+    }
+
+    public void setFirstPeriodStart(LocalTime firstPeriodStart) {
+        this.firstPeriodStart = firstPeriodStart;
+    }
+
+    public int getPeriodMinutes() {
+        return periodMinutes;
+    }
+
+    public void setPeriodMinutes(int periodMinutes) {
+        this.periodMinutes = periodMinutes;
+    }
+
+    public int getPassingMinutes() {
+        return passingMinutes;
+    }
+
+    public void setPassingMinutes(int passingMinutes) {
+        this.passingMinutes = passingMinutes;
+    }
+
+    public int getPeriodsPerDay() {
+        return periodsPerDay;
+    }
+
+    public void setPeriodsPerDay(int periodsPerDay) {
+        this.periodsPerDay = periodsPerDay;
+    }
+
+    public double getTeacherLoad() {
+        return teacherLoad;
+    }
+
+    public void setTeacherLoad(double teacherLoad) {
+        this.teacherLoad = teacherLoad;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getRestarts() {
+        return restarts;
+    }
+
+    public void setRestarts(int restarts) {
+        this.restarts = restarts;
+    }
+
+    public long getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(long maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    public void setTimeLimit(Duration timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,116 @@
+package com.maplewood.config;
+
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import com.maplewood.persistence.ConnectionLimitingDataSource;
+import com.maplewood.persistence.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Requests on virtual threads, enabled with the {@code virtual-threads} profile.
+ * <p>
+ * The profile turns on {@code spring.threads.virtual.enabled}, so on Java 21 Tomcat handles
+ * each request on a virtual thread and the application task executor, which runs the dashboard
+ * fan-out, starts one per task. On Java 17 Spring Boot ignores the switch and requests stay on
+ * the platform thread pool.
+ * <p>
+ * Either way, the connection pool is wrapped in a {@link ConnectionLimitingDataSource} sized to
+ * it ({@code app.virtual-threads.*}), so however many requests are in flight, only as many as the
+ * pool can serve touch the database at a time. With {@code sqlite-perf} the read and write pools
+ * get a limiter each, inside the routing, so a permit always stands for a connection of the pool
+ * the caller is routed to, and the database writer queues on the write pool's limiter too.
+ */
+@Configuration
+@Profile("virtual-threads")
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+public class VirtualThreadsConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+    // Hikari's own default
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    public VirtualThreadsConfig() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("Virtual threads need Java 21, running on {}; requests stay on platform"
+                    + " threads", Runtime.version());
+        }
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            ObjectProvider<VirtualThreadsProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ReadWriteRoutingDataSource routing) {
+                    var settings = properties.getObject();
+                    var limited = new ReadWriteRoutingDataSource(
+                            limit(routing.getReadDataSource(), "read", settings),
+                            limit(routing.getWriteDataSource(), "write", settings));
+                    limited.afterPropertiesSet();
+                    return limited;
+                }
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        // Already limited per pool
+                        || DataSourceUnwrapper.unwrap(dataSource,
+                                ReadWriteRoutingDataSource.class) != null) {
+                    return bean;
+                }
+                return limit(dataSource, "default", properties.getObject());
+            }
+        };
+    }
+
+    private static ConnectionLimitingDataSource limit(DataSource pool, String name,
+            VirtualThreadsProperties settings) {
+        // The setting caps the reads; the write pool is limited to its single connection
+        var maxConnections = settings.getMaxDatabaseConcurrency() > 0 && !"write".equals(name)
+                ? settings.getMaxDatabaseConcurrency()
+                : hikariPoolSizeOf(pool);
+        log.info("Allowing {} concurrent connections to the {} pool", maxConnections, name);
+        return new ConnectionLimitingDataSource(pool, maxConnections,
+                settings.getAcquireTimeout());
+    }
+
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            var routing =
+                    DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class);
+            if (routing != null) {
+                bindWaiting(registry, routing.getReadDataSource(), "read");
+                bindWaiting(registry, routing.getWriteDataSource(), "write");
+            } else {
+                bindWaiting(registry, DataSourceUnwrapper.unwrap(dataSource,
+                        ConnectionLimitingDataSource.class), "default");
+            }
+        };
+    }
+
+    private static void bindWaiting(MeterRegistry registry, DataSource dataSource, String pool) {
+        if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+            Gauge.builder("db.connections.waiting", limiter,
+                    ConnectionLimitingDataSource::getQueueLength)
+                    .description("Callers waiting for a database connection permit")
+                    .tag("pool", pool)
+                    .register(registry);
+        }
+    }
+
+    private static int hikariPoolSizeOf(DataSource dataSource) {
+        var hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                HikariDataSource.class);
+        return hikari == null ? DEFAULT_POOL_SIZE : hikari.getMaximumPoolSize();
+    }
+}
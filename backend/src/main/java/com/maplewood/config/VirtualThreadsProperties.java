@@ -0,0 +1,27 @@
+package com.maplewood.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.virtual-threads")
+public class VirtualThreadsProperties {
+    // 0 matches the connection pool, or the read pool with sqlite-perf
+    private int maxDatabaseConcurrency = 0;
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+
+    public int getMaxDatabaseConcurrency() {
+        return maxDatabaseConcurrency;
+    }
+
+    public void setMaxDatabaseConcurrency(int maxDatabaseConcurrency) {
+        this.maxDatabaseConcurrency = maxDatabaseConcurrency;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+}
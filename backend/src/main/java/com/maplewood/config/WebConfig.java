@@ -1,14 +1,26 @@
 package com.maplewood.config;
 
+import java.util.List;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.maplewood.repositories.AppUserRepository;
+import com.maplewood.security.AuthenticatedStudentArgumentResolver;
 
 /**
- * Web configuration to enable CORS for frontend communication
+ * Web configuration to enable CORS for frontend communication and resolve
+ * {@link com.maplewood.security.AuthenticatedStudent} parameters
  */
 @Configuration
+@EnableConfigurationProperties(CoursePageProperties.class)
 public class WebConfig implements WebMvcConfigurer {
+    private final AppUserRepository appUserRepository;
+
+    public WebConfig(AppUserRepository appUserRepository) {
+        this.appUserRepository = appUserRepository;
+    }
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -16,6 +28,13 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // Next-page links of the paged course listings
+                .exposedHeaders("Link")
                 .allowCredentials(true);
     }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new AuthenticatedStudentArgumentResolver(appUserRepository));
+    }
 }
@@ -1,122 +1,190 @@
 package com.maplewood.controllers;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
-import com.maplewood.repositories.AppUserRepository;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CourseFilter;
+import com.maplewood.catalog.CourseKey;
+import com.maplewood.catalog.CourseSearchQuery;
+import com.maplewood.catalog.FacetCount;
+import com.maplewood.config.CoursePageProperties;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.security.AuthenticatedStudent;
+import com.maplewood.services.CourseNotFoundException;
 import com.maplewood.services.CourseService;
+import com.maplewood.services.NoActiveSemesterException;
 
 @RestController
 @RequestMapping("/api/courses")
 public class CourseController {
 
         private final CourseService courseService;
-        private final AppUserRepository appUserRepository;
-        // There aren't that many courses in the demo database, so just get all of them.
-        // No pagination of the frontend for now.
-        private final Pageable pageable = PageRequest.of(0, 100);
+        private final CoursePageProperties pageProperties;
 
-        public CourseController(CourseService courseService, AppUserRepository appUserRepository) {
+        private final CourseResponseCache responseCache;
+
+        public CourseController(CourseService courseService, CoursePageProperties pageProperties,
+                        ObjectMapper objectMapper) {
                 this.courseService = courseService;
-                this.appUserRepository = appUserRepository;
+                this.pageProperties = pageProperties;
+                this.responseCache = new CourseResponseCache(objectMapper);
         }
 
+        // The course listings are served whole unless a cursor or size is given; then they are
+        // paged in keyset order (see CourseKey) and a Link header points to the next page.
         @GetMapping("/")
-        public ResponseEntity<List<CourseDTO>> getCourses() {
-                var courses = courseService.findAllCoursesLoaded(this.pageable);
-
-                var courseDTOs = courses.getContent().stream()
-                                .map(course -> new CourseDTO(course.getId(), course.getCode(),
-                                                course.getName(), course.getDescription(),
-                                                course.getCredits(), course.getHoursPerWeek(),
-                                                course.getSpecialization().getName(),
-                                                course.getPrerequisite() != null
-                                                                ? course.getPrerequisite().getName()
-                                                                : null,
-                                                course.getCourseType().name(),
-                                                course.getGradeLevelMin(),
-                                                course.getGradeLevelMax()))
-                                .toList();
-                return ResponseEntity.ok(courseDTOs);
+        public ResponseEntity<?> getCourses(@RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size) {
+                if (cursor == null && size == null) {
+                        var courses = courseService.findAllCourses();
+                        return cachedCourses(CourseResponseCache.View.ALL, courses);
+                }
+
+                var courses = courseService.findCoursesAfter(decodeCursor(cursor),
+                                pageProperties.sizeFor(size));
+                return coursePage(courses);
         }
 
         @GetMapping("/semester")
-        public ResponseEntity<List<CourseDTO>> getCoursesBySemester() {
-                var courses = courseService.findCoursesForActiveSemester(this.pageable);
-
-                var courseDTOs = courses.getContent().stream()
-                                .map(course -> new CourseDTO(course.getId(), course.getCode(),
-                                                course.getName(), course.getDescription(),
-                                                course.getCredits(), course.getHoursPerWeek(),
-                                                course.getSpecialization().getName(),
-                                                course.getPrerequisite() != null
-                                                                ? course.getPrerequisite().getName()
-                                                                : null,
-                                                course.getCourseType().name(),
-                                                course.getGradeLevelMin(),
-                                                course.getGradeLevelMax()))
-                                .toList();
-                return ResponseEntity.ok(courseDTOs);
+        public ResponseEntity<?> getCoursesBySemester(@RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size) {
+                var after = decodeCursor(cursor);
+                try {
+                        if (cursor == null && size == null) {
+                                var courses = courseService.findCoursesForActiveSemester();
+                                return cachedCourses(CourseResponseCache.View.ACTIVE_SEMESTER,
+                                                courses);
+                        }
+
+                        return coursePage(courseService.findCoursesForActiveSemesterAfter(after,
+                                        pageProperties.sizeFor(size)));
+                } catch (NoActiveSemesterException e) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+                }
         }
 
-        @GetMapping("/student")
-        public ResponseEntity<List<CourseDTO>> getCoursesForStudent(Authentication authentication) {
-                var username = authentication.getName();
-
-                var user = appUserRepository.findByUsername(username)
-                                .orElseThrow(() -> new ResponseStatusException(
-                                                HttpStatus.UNAUTHORIZED,
-                                                "Authenticated user not found"));
-                var student = user.getStudent();
-                if (student == null || student.getId() == null) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                                        "Authenticated user is not linked to a student");
+        // Searched in the catalog's in-memory index; with no q, lists the courses matching the
+        // facets. At most the maximum page size is returned.
+        @GetMapping("/search")
+        public ResponseEntity<List<CourseDTO>> searchCourses(
+                        @RequestParam(required = false) String q,
+                        @RequestParam(required = false) CourseType type,
+                        @RequestParam(required = false) Integer gradeLevel,
+                        @RequestParam(required = false) Double credits,
+                        @RequestParam(required = false) SemesterOrder semester,
+                        @RequestParam(required = false) Integer limit) {
+                var query = new CourseSearchQuery(q, type, gradeLevel, credits, semester);
+                var courses = courseService.searchCourses(query, pageProperties.sizeFor(limit));
+
+                return ResponseEntity.ok(courses.stream()
+                                .map(CourseController::toCourseDTO)
+                                .toList());
+        }
+
+        // Any combination of facet values: several values of one facet match any of them, facets
+        // combine with AND. The counts say how many courses each value would leave, given the
+        // other facets' selections, and are keyed by the parameter that selects the facet.
+        @GetMapping("/filter")
+        public ResponseEntity<FacetedCoursesResponse> filterCourses(
+                        @RequestParam(required = false) String q,
+                        @RequestParam(required = false) List<CourseType> type,
+                        @RequestParam(required = false) List<Integer> specialization,
+                        @RequestParam(required = false) Integer gradeLevelMin,
+                        @RequestParam(required = false) Integer gradeLevelMax,
+                        @RequestParam(required = false) List<Double> credits,
+                        @RequestParam(required = false) List<SemesterOrder> semester,
+                        @RequestParam(required = false) Integer limit) {
+                var filter = new CourseFilter(toSet(type), toSet(specialization), gradeLevelMin,
+                                gradeLevelMax, toSet(credits), toSet(semester));
+                var result = courseService.filterCourses(q, filter,
+                                pageProperties.sizeFor(limit));
+
+                var facets = new LinkedHashMap<String, List<FacetCountDTO>>();
+                result.facets().forEach((facet, counts) -> facets.put(facet.parameter(),
+                                counts.stream().map(CourseController::toFacetCountDTO).toList()));
+                return ResponseEntity.ok(new FacetedCoursesResponse(result.courses().stream()
+                                .map(CourseController::toCourseDTO)
+                                .toList(), result.total(), facets));
+        }
+
+        // Prerequisite chains are answered from the catalog's compiled prerequisite graph instead
+        // of walking the lazy Course.prerequisite association one query per hop
+        @GetMapping("/{id}/prerequisites")
+        public ResponseEntity<List<CourseDTO>> getPrerequisiteChain(@PathVariable Integer id) {
+                List<CatalogCourse> courses;
+                try {
+                        courses = courseService.findPrerequisiteChain(id);
+                } catch (CourseNotFoundException e) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
                 }
 
-                var courses = courseService.findCoursesForStudent(student.getId(), this.pageable);
+                return ResponseEntity.ok(courses.stream()
+                                .map(CourseController::toCourseDTO)
+                                .toList());
+        }
+
+        @GetMapping("/{id}/unlocks")
+        public ResponseEntity<List<CourseDTO>> getUnlockedCourses(@PathVariable Integer id) {
+                List<CatalogCourse> courses;
+                try {
+                        courses = courseService.findCoursesUnlockedBy(id);
+                } catch (CourseNotFoundException e) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+                }
 
-                var courseDTOs = courses.getContent().stream()
-                                .map(course -> new CourseDTO(course.getId(), course.getCode(),
-                                                course.getName(), course.getDescription(),
-                                                course.getCredits(), course.getHoursPerWeek(),
-                                                course.getSpecialization().getName(),
-                                                course.getPrerequisite() != null
-                                                                ? course.getPrerequisite().getName()
-                                                                : null,
-                                                course.getCourseType().name(),
-                                                course.getGradeLevelMin(),
-                                                course.getGradeLevelMax()))
-                                .toList();
-                return ResponseEntity.ok(courseDTOs);
+                return ResponseEntity.ok(courses.stream()
+                                .map(CourseController::toCourseDTO)
+                                .toList());
         }
 
-        @PostMapping("/enroll/c/{id}")
-        public ResponseEntity<EnrollmentErrorResponse> enrollInCourse(Authentication authentication,
-                        @PathVariable Integer id) {
-                var username = authentication.getName();
-                var user = appUserRepository.findByUsername(username)
-                                .orElseThrow(() -> new ResponseStatusException(
-                                                HttpStatus.UNAUTHORIZED,
-                                                "Authenticated user not found"));
-                var student = user.getStudent();
-                if (student == null || student.getId() == null) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                                        "Authenticated user is not linked to a student");
+        @GetMapping("/student")
+        public ResponseEntity<List<CourseDTO>> getCoursesForStudent(
+                        @AuthenticatedStudent Integer studentId,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size) {
+                if (cursor == null && size == null) {
+                        var courses = courseService.findCoursesForStudent(studentId,
+                                        Pageable.unpaged());
+                        return ResponseEntity.ok(courses.getContent().stream()
+                                        .map(CourseController::toCourseDTO)
+                                        .toList());
                 }
 
+                var courses = courseService.findCoursesForStudentAfter(studentId,
+                                decodeCursor(cursor), pageProperties.sizeFor(size));
+                return coursePage(courses);
+        }
+
+        @PostMapping("/enroll/c/{id}")
+        public ResponseEntity<EnrollmentErrorResponse> enrollInCourse(
+                        @AuthenticatedStudent Integer studentId, @PathVariable Integer id) {
                 Optional<String> messageCode;
                 try {
-                        messageCode = courseService.enrollStudentInCourse(student, id);
+                        messageCode = courseService.enrollStudentInCourse(studentId, id);
+                } catch (RejectedExecutionException e) {
+                        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                        e.getMessage());
                 } catch (RuntimeException e) {
                         throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
                 }
@@ -129,6 +197,85 @@ public class CourseController {
                 return ResponseEntity.ok().build();
         }
 
+        @PostMapping("/enroll/s/{sectionId}")
+        public ResponseEntity<SectionEnrollmentErrorResponse> enrollInSection(
+                        @AuthenticatedStudent Integer studentId, @PathVariable Integer sectionId) {
+                Optional<String> messageCode;
+                try {
+                        messageCode = courseService.enrollStudentInSection(studentId, sectionId);
+                } catch (RejectedExecutionException e) {
+                        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                        e.getMessage());
+                } catch (RuntimeException e) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+                }
+
+                if (messageCode.isPresent()) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                                        new SectionEnrollmentErrorResponse(messageCode.get(),
+                                                        sectionId));
+                }
+
+                return ResponseEntity.ok().build();
+        }
+
+        // Every browser polls these views during registration, so the JSON is serialized once per
+        // catalog snapshot and revalidated with If-None-Match; a matching ETag is answered with
+        // 304 Not Modified by Spring before the body is written.
+        private ResponseEntity<byte[]> cachedCourses(CourseResponseCache.View view,
+                        List<CatalogCourse> courses) {
+                var cached = responseCache.get(view, courses, CourseController::toCourseDTO);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .cacheControl(CacheControl.noCache())
+                                .eTag(cached.etag())
+                                .body(cached.body());
+        }
+
+        private static CourseKey decodeCursor(String cursor) {
+                if (cursor == null) {
+                        return null;
+                }
+                try {
+                        return CourseKey.decode(cursor);
+                } catch (IllegalArgumentException e) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                }
+        }
+
+        // The body stays a plain array; the next page, if any, is linked as in RFC 8288
+        private static ResponseEntity<List<CourseDTO>> coursePage(Slice<CatalogCourse> courses) {
+                var response = ResponseEntity.ok();
+                if (courses.hasNext()) {
+                        var last = courses.getContent().get(courses.getNumberOfElements() - 1);
+                        var next = ServletUriComponentsBuilder.fromCurrentRequest()
+                                        .replaceQueryParam("cursor", CourseKey.of(last).encode())
+                                        .replaceQueryParam("size", courses.getSize())
+                                        .build()
+                                        .toUriString();
+                        response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                }
+                return response.body(courses.getContent().stream()
+                                .map(CourseController::toCourseDTO)
+                                .toList());
+        }
+
+        private static <T> Set<T> toSet(List<T> values) {
+                return values == null ? Set.of() : Set.copyOf(values);
+        }
+
+        private static FacetCountDTO toFacetCountDTO(FacetCount count) {
+                return new FacetCountDTO(count.value(), count.label(), count.count());
+        }
+
+        private static CourseDTO toCourseDTO(CatalogCourse course) {
+                return new CourseDTO(course.id(), course.code(), course.name(),
+                                course.description(), course.credits(), course.hoursPerWeek(),
+                                course.specializationName(), course.prerequisiteName(),
+                                course.courseType().name(), course.gradeLevelMin(),
+                                course.gradeLevelMax());
+        }
+
 }
 
 
@@ -136,7 +283,20 @@ record EnrollmentErrorResponse(String messageCode, Integer courseId) {
 }
 
 
+record SectionEnrollmentErrorResponse(String messageCode, Integer sectionId) {
+}
+
+
 record CourseDTO(Integer id, String code, String name, String description, Double credits,
                 Integer hoursPerWeek, String specialization, String prerequisite, String courseType,
                 Integer gradeLevelMin, Integer gradeLevelMax) {
 }
+
+
+record FacetedCoursesResponse(List<CourseDTO> courses, int total,
+                Map<String, List<FacetCountDTO>> facets) {
+}
+
+
+record FacetCountDTO(String value, String label, int count) {
+}
@@ -0,0 +1,81 @@
+package com.maplewood.controllers;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maplewood.catalog.CatalogCourse;
+
+/**
+ * Serialized JSON bodies for the shared course catalog views.
+ * <p>
+ * The catalog lists handed out by the course catalog are immutable and replaced wholesale on
+ * refresh, so a cached body stays valid for as long as the service returns the very same list
+ * instance. The ETag is a hash of the bytes, which keeps it stable across refreshes that did not
+ * change what the view renders to.
+ */
+class CourseResponseCache {
+
+    enum View {
+        ALL, ACTIVE_SEMESTER
+    }
+
+    record CachedBody(byte[] body, String etag) {
+    }
+
+    private record Entry(List<CatalogCourse> source, CachedBody cached) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<View, Entry> entries = new EnumMap<>(View.class);
+
+    CourseResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The cached body for the view, serializing the courses only if they are not the list the
+     * current entry was built from.
+     */
+    CachedBody get(View view, List<CatalogCourse> courses,
+            Function<CatalogCourse, CourseDTO> mapper) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(view);
+        }
+        if (entry != null && entry.source() == courses) {
+            return entry.cached();
+        }
+
+        // Built outside the lock; two requests racing on a fresh snapshot produce identical bytes
+        var cached = serialize(courses.stream().map(mapper).toList());
+        synchronized (entries) {
+            entries.put(view, new Entry(courses, cached));
+        }
+        return cached;
+    }
+
+    private CachedBody serialize(List<CourseDTO> courseDTOs) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(courseDTOs);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize course catalog", e);
+        }
+        return new CachedBody(body, "\"" + contentHash(body) + "\"");
+    }
+
+    private static String contentHash(byte[] body) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -3,15 +3,20 @@ package com.maplewood.controllers;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.List;
-import org.springframework.http.HttpStatus;
-import com.maplewood.repositories.AppUserRepository;
-import org.springframework.security.core.Authentication;
+import com.maplewood.security.AuthenticatedStudent;
+import com.maplewood.services.GraduationPlanService;
 import com.maplewood.services.StudentCourseHistoryService;
 import com.maplewood.services.StudentEnrollmentService;
+import com.maplewood.services.StudentDashboardService;
 import com.maplewood.services.StudentService;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.Student;
+import com.maplewood.domain.StudentAcademicSummary;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.planning.GraduationPlanner.PlannedSemester;
+import com.maplewood.repositories.StudentCourseHistoryRepository.CourseWithStatusProjection;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.server.ResponseStatusException;
 
 
 
@@ -22,45 +27,40 @@ public class StudentDashboardController {
         private final StudentCourseHistoryService studentCourseHistoryService;
         private final StudentEnrollmentService studentEnrollmentService;
         private final StudentService studentService;
-        private final AppUserRepository appUserRepository;
+        private final StudentDashboardService studentDashboardService;
+        private final GraduationPlanService graduationPlanService;
 
         public StudentDashboardController(StudentCourseHistoryService studentCourseHistoryService,
                         StudentEnrollmentService studentEnrollmentService,
                         StudentService studentService,
-                        AppUserRepository appUserRepository) {
+                        StudentDashboardService studentDashboardService,
+                        GraduationPlanService graduationPlanService) {
                 this.studentCourseHistoryService = studentCourseHistoryService;
                 this.studentEnrollmentService = studentEnrollmentService;
                 this.studentService = studentService;
-                this.appUserRepository = appUserRepository;
+                this.studentDashboardService = studentDashboardService;
+                this.graduationPlanService = graduationPlanService;
         }
 
         @GetMapping("/info")
-        public ResponseEntity<StudentInformationResponse> getMetrics(Authentication authentication) {
-                var studentId = getAuthenticatedStudentId(authentication);
+        public ResponseEntity<StudentInformationResponse> getMetrics(
+                        @AuthenticatedStudent Integer studentId) {
                 var studentDashboardInformation = studentService
                                 .getStudentDashboardInformation(studentId);
-                var student = studentDashboardInformation.student();
 
-                return ResponseEntity.ok(new StudentInformationResponse(
-                                student.getFirstName(),
-                                student.getLastName(),
-                                student.getEmail(),
-                                student.getGradeLevel(),
-                                student.getStatus() == null ? null : student.getStatus().name(),
-                                studentDashboardInformation.earnedCredits()));
+                return ResponseEntity.ok(toStudentInformationResponse(
+                                studentDashboardInformation.student(),
+                                studentDashboardInformation.academicSummary()));
         }
 
 
         @GetMapping("/course-history")
         public ResponseEntity<CourseHistoryResponse> getCourseHistory(
-                        Authentication authentication) {
-                var studentId = getAuthenticatedStudentId(authentication);
+                        @AuthenticatedStudent Integer studentId) {
 
                 var courseHistory = studentCourseHistoryService.getStudentCourseHistory(studentId)
                                 .stream()
-                                .map(ch -> new CourseHistoryDTO(ch.getCourse().getName(),
-                                                String.valueOf(ch.getCourse().getCredits()),
-                                                ch.getStatus().name()))
+                                .map(StudentDashboardController::toCourseHistoryDTO)
                                 .toList();
 
                 return ResponseEntity.ok(new CourseHistoryResponse(courseHistory));
@@ -69,36 +69,91 @@ public class StudentDashboardController {
 
         @GetMapping("/enrolled-courses")
         public ResponseEntity<EnrolledCoursesResponse> getEnrolledCourses(
-                        Authentication authentication) {
-                var studentId = getAuthenticatedStudentId(authentication);
+                        @AuthenticatedStudent Integer studentId) {
 
                 var enrolledCourses = studentEnrollmentService
                                 .getActiveSemesterEnrollments(studentId).stream()
-                                .map(course -> new EnrolledCourseDTO(course.getName(),
-                                                String.valueOf(course.getCredits())))
+                                .map(StudentDashboardController::toEnrolledCourseDTO)
                                 .toList();
 
                 return ResponseEntity.ok(new EnrolledCoursesResponse(enrolledCourses));
         }
 
-        private Integer getAuthenticatedStudentId(Authentication authentication) {
-                var username = authentication.getName();
+        /* The three views above in one response, loaded concurrently */
+        @GetMapping("/summary")
+        public ResponseEntity<StudentSummaryResponse> getSummary(
+                        @AuthenticatedStudent Integer studentId) {
+                var summary = studentDashboardService.getStudentDashboardSummary(studentId);
+
+                return ResponseEntity.ok(new StudentSummaryResponse(
+                                toStudentInformationResponse(summary.student(),
+                                                summary.academicSummary()),
+                                summary.courseHistory().stream()
+                                                .map(StudentDashboardController::toCourseHistoryDTO)
+                                                .toList(),
+                                summary.enrolledCourses().stream()
+                                                .map(StudentDashboardController::toEnrolledCourseDTO)
+                                                .toList()));
+        }
+
+        @GetMapping("/graduation-plan")
+        public ResponseEntity<GraduationPlanResponse> getGraduationPlan(
+                        @AuthenticatedStudent Integer studentId) {
+                var plan = graduationPlanService.getGraduationPlan(studentId);
+
+                return ResponseEntity.ok(new GraduationPlanResponse(plan.reachesGoal(),
+                                plan.creditsRequired(), plan.creditsEarned(),
+                                plan.creditsPlanned(),
+                                plan.semesters().stream()
+                                                .map(StudentDashboardController::toPlannedSemesterDTO)
+                                                .toList()));
+        }
+
+        private static StudentInformationResponse toStudentInformationResponse(Student student,
+                        StudentAcademicSummary academicSummary) {
+                return new StudentInformationResponse(
+                                student.getFirstName(),
+                                student.getLastName(),
+                                student.getEmail(),
+                                student.getGradeLevel(),
+                                student.getStatus() == null ? null : student.getStatus().name(),
+                                academicSummary.getEarnedCredits(),
+                                academicSummary.getAttemptedCredits(),
+                                academicSummary.getGpa(),
+                                academicSummary.getPassedCount(),
+                                academicSummary.getFailedCount(),
+                                academicSummary.getGraduationProgress(),
+                                academicSummary.getEnrolledCredits());
+        }
+
+        private static CourseHistoryDTO toCourseHistoryDTO(CourseWithStatusProjection ch) {
+                return new CourseHistoryDTO(ch.getCourse().getName(),
+                                String.valueOf(ch.getCourse().getCredits()),
+                                ch.getStatus().name());
+        }
 
-                var user = appUserRepository.findByUsername(username)
-                                .orElseThrow(() -> new ResponseStatusException(
-                                                HttpStatus.UNAUTHORIZED,
-                                                "Authenticated user not found"));
-                var student = user.getStudent();
-                if (student == null || student.getId() == null) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                                        "Authenticated user is not linked to a student");
-                }
+        private static PlannedSemesterDTO toPlannedSemesterDTO(PlannedSemester semester) {
+                return new PlannedSemesterDTO(semester.semesterOrder().name(), semester.year(),
+                                semester.gradeLevel(), semester.credits(),
+                                semester.courses().stream()
+                                                .map(StudentDashboardController::toPlannedCourseDTO)
+                                                .toList());
+        }
 
-                return student.getId();
+        private static PlannedCourseDTO toPlannedCourseDTO(CatalogCourse course) {
+                return new PlannedCourseDTO(course.id(), course.code(), course.name(),
+                                course.credits());
+        }
+
+        private static EnrolledCourseDTO toEnrolledCourseDTO(Course course) {
+                return new EnrolledCourseDTO(course.getName(), String.valueOf(course.getCredits()));
         }
 
         record StudentInformationResponse(String firstName, String lastName, String email,
-                        Integer gradeLevel, String status, Double earnedCredits) {
+                        Integer gradeLevel, String status, Double earnedCredits,
+                        Double attemptedCredits, Double gpa, Integer passedCourses,
+                        Integer failedCourses, Double graduationProgress,
+                        Double enrolledCredits) {
         }
 
         record CourseHistoryResponse(List<CourseHistoryDTO> courseHistory) {
@@ -113,6 +168,23 @@ public class StudentDashboardController {
         record EnrolledCourseDTO(String courseName, String credits) {
         }
 
+        record StudentSummaryResponse(StudentInformationResponse info,
+                        List<CourseHistoryDTO> courseHistory,
+                        List<EnrolledCourseDTO> enrolledCourses) {
+        }
+
+        record GraduationPlanResponse(boolean reachesGoal, double creditsRequired,
+                        double creditsEarned, double creditsPlanned,
+                        List<PlannedSemesterDTO> semesters) {
+        }
+
+        record PlannedSemesterDTO(String semester, int year, int gradeLevel, double credits,
+                        List<PlannedCourseDTO> courses) {
+        }
+
+        record PlannedCourseDTO(Integer id, String code, String name, Double credits) {
+        }
+
 
 
 }
@@ -0,0 +1,54 @@
+package com.maplewood.domain;
+
+import java.time.Instant;
+import com.maplewood.persistence.converter.InstantStringConverter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Single-row counter bumped by database triggers whenever courses or specializations change.
+ */
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion {
+    public static final Integer SINGLETON_ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Column(name = "updated_at")
+    @Convert(converter = InstantStringConverter.class)
+    private Instant updatedAt;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -7,6 +7,9 @@ public enum CourseHistoryStatus {
     PASSED("passed"),
     FAILED("failed");
 
+    private static final ValueLookup<CourseHistoryStatus> BY_VALUE =
+            new ValueLookup<>(values(), CourseHistoryStatus::getValue);
+
     private final String value;
 
     CourseHistoryStatus(String value) {
@@ -21,12 +24,11 @@ public enum CourseHistoryStatus {
         if (value == null) {
             return null;
         }
-        for (CourseHistoryStatus status : values()) {
-            if (status.value.equalsIgnoreCase(value)) {
-                return status;
-            }
+        var status = BY_VALUE.find(value);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown course history status: " + value);
         }
-        throw new IllegalArgumentException("Unknown course history status: " + value);
+        return status;
     }
 
     @Converter(autoApply = false)
@@ -0,0 +1,103 @@
+package com.maplewood.domain;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import com.maplewood.persistence.converter.InstantStringConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+@Entity
+@Table(
+    name = "course_sections",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_course_sections_course_semester_code",
+            columnNames = {"course_id", "semester_id", "section_code"}
+        )
+    }
+)
+public class CourseSection {
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "semester_id", nullable = false)
+    private Semester semester;
+
+    @Column(name = "section_code", nullable = false, length = 10)
+    private String sectionCode;
+
+    @OneToMany(mappedBy = "section")
+    @OrderBy("dayOfWeek, startMinute")
+    private List<SectionMeeting> meetings = new ArrayList<>();
+
+    @Column(name = "created_at")
+    @Convert(converter = InstantStringConverter.class)
+    private Instant createdAt;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public void setCourse(Course course) {
+        this.course = course;
+    }
+
+    public Semester getSemester() {
+        return semester;
+    }
+
+    public void setSemester(Semester semester) {
+        this.semester = semester;
+    }
+
+    public String getSectionCode() {
+        return sectionCode;
+    }
+
+    public void setSectionCode(String sectionCode) {
+        this.sectionCode = sectionCode;
+    }
+
+    public List<SectionMeeting> getMeetings() {
+        return meetings;
+    }
+
+    public void setMeetings(List<SectionMeeting> meetings) {
+        this.meetings = meetings;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
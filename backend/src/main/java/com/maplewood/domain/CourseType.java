@@ -7,12 +7,20 @@ public enum CourseType {
     CORE,
     ELECTIVE;
 
+    private static final ValueLookup<CourseType> BY_VALUE =
+            new ValueLookup<>(values(), CourseType::toValue);
+
     @JsonCreator
     public static CourseType fromValue(String value) {
         if (value == null) {
             return null;
         }
-        return CourseType.valueOf(value.trim().toUpperCase());
+        var type = BY_VALUE.find(value);
+        if (type == null) {
+            // Padded or unknown values; valueOf reports the unknown ones
+            type = CourseType.valueOf(value.trim().toUpperCase());
+        }
+        return type;
     }
 
     @JsonValue
@@ -6,6 +6,9 @@ import jakarta.persistence.Converter;
 public enum SemesterOrder {
     FALL(1), SPRING(2);
 
+    // Indexed by code
+    private static final SemesterOrder[] BY_CODE = {null, FALL, SPRING};
+
     private final int code;
 
     SemesterOrder(int code) {
@@ -20,10 +23,8 @@ public enum SemesterOrder {
         if (code == null) {
             return null;
         }
-        for (SemesterOrder value : values()) {
-            if (value.code == code) {
-                return value;
-            }
+        if (code > 0 && code < BY_CODE.length) {
+            return BY_CODE[code];
         }
         throw new IllegalArgumentException("Unknown semester order code: " + code);
     }
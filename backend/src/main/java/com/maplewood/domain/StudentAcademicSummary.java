@@ -0,0 +1,130 @@
+package com.maplewood.domain;
+
+import java.time.Instant;
+import org.hibernate.annotations.Immutable;
+import com.maplewood.persistence.converter.InstantStringConverter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Per-student credits, GPA and graduation progress, maintained by database triggers on
+ * {@code student_course_history} and {@code student_enrollments}. Read-only from the application.
+ */
+@Entity
+@Immutable
+@Table(name = "student_academic_summary")
+public class StudentAcademicSummary {
+    public static final double CREDITS_TO_GRADUATE = 30.0;
+
+    @Id
+    @Column(name = "student_id")
+    private Integer studentId;
+
+    @Column(name = "earned_credits", nullable = false)
+    private Double earnedCredits = 0.0;
+
+    @Column(name = "attempted_credits", nullable = false)
+    private Double attemptedCredits = 0.0;
+
+    @Column(name = "passed_count", nullable = false)
+    private Integer passedCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount = 0;
+
+    @Column(name = "gpa", nullable = false)
+    private Double gpa = 0.0;
+
+    @Column(name = "graduation_progress", nullable = false)
+    private Double graduationProgress = 0.0;
+
+    @Column(name = "enrolled_credits", nullable = false)
+    private Double enrolledCredits = 0.0;
+
+    @Column(name = "updated_at")
+    @Convert(converter = InstantStringConverter.class)
+    private Instant updatedAt;
+
+    /* The summary of a student with no history and no enrollments yet */
+    public static StudentAcademicSummary empty(Integer studentId) {
+        var summary = new StudentAcademicSummary();
+        summary.setStudentId(studentId);
+        return summary;
+    }
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    public Double getEarnedCredits() {
+        return earnedCredits;
+    }
+
+    public void setEarnedCredits(Double earnedCredits) {
+        this.earnedCredits = earnedCredits;
+    }
+
+    public Double getAttemptedCredits() {
+        return attemptedCredits;
+    }
+
+    public void setAttemptedCredits(Double attemptedCredits) {
+        this.attemptedCredits = attemptedCredits;
+    }
+
+    public Integer getPassedCount() {
+        return passedCount;
+    }
+
+    public void setPassedCount(Integer passedCount) {
+        this.passedCount = passedCount;
+    }
+
+    public Integer getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(Integer failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public Double getGpa() {
+        return gpa;
+    }
+
+    public void setGpa(Double gpa) {
+        this.gpa = gpa;
+    }
+
+    public Double getGraduationProgress() {
+        return graduationProgress;
+    }
+
+    public void setGraduationProgress(Double graduationProgress) {
+        this.graduationProgress = graduationProgress;
+    }
+
+    public Double getEnrolledCredits() {
+        return enrolledCredits;
+    }
+
+    public void setEnrolledCredits(Double enrolledCredits) {
+        this.enrolledCredits = enrolledCredits;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -42,6 +42,11 @@ public class StudentEnrollment {
     @JoinColumn(name = "semester_id", nullable = false)
     private Semester semester;
 
+    // Set for enrollments made through a section
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "section_id")
+    private CourseSection section;
+
     @Column(name = "status", nullable = false, length = 20)
     @Convert(converter = StudentEnrollmentStatus.StudentEnrollmentStatusConverter.class)
     private StudentEnrollmentStatus status;
@@ -82,6 +87,14 @@ public class StudentEnrollment {
         this.semester = semester;
     }
 
+    public CourseSection getSection() {
+        return section;
+    }
+
+    public void setSection(CourseSection section) {
+        this.section = section;
+    }
+
     public StudentEnrollmentStatus getStatus() {
         return status;
     }
@@ -8,6 +8,9 @@ public enum StudentEnrollmentStatus {
     COMPLETED("completed"),
     DROPPED("dropped");
 
+    private static final ValueLookup<StudentEnrollmentStatus> BY_VALUE =
+            new ValueLookup<>(values(), StudentEnrollmentStatus::getValue);
+
     private final String value;
 
     StudentEnrollmentStatus(String value) {
@@ -22,12 +25,11 @@ public enum StudentEnrollmentStatus {
         if (value == null) {
             return null;
         }
-        for (var status : values()) {
-            if (status.value.equalsIgnoreCase(value)) {
-                return status;
-            }
+        var status = BY_VALUE.find(value);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown student enrollment status: " + value);
         }
-        throw new IllegalArgumentException("Unknown student enrollment status: " + value);
+        return status;
     }
 
     @Converter(autoApply = false)
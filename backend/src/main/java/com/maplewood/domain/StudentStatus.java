@@ -8,6 +8,9 @@ public enum StudentStatus {
     INACTIVE("inactive"),
     GRADUATED("graduated");
 
+    private static final ValueLookup<StudentStatus> BY_VALUE =
+            new ValueLookup<>(values(), StudentStatus::getValue);
+
     private final String value;
 
     StudentStatus(String value) {
@@ -22,12 +25,11 @@ public enum StudentStatus {
         if (value == null) {
             return null;
         }
-        for (StudentStatus status : values()) {
-            if (status.value.equalsIgnoreCase(value)) {
-                return status;
-            }
+        var status = BY_VALUE.find(value);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown student status: " + value);
         }
-        throw new IllegalArgumentException("Unknown student status: " + value);
+        return status;
     }
 
     @Converter(autoApply = false)
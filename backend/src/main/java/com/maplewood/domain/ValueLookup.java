@@ -0,0 +1,34 @@
+package com.maplewood.domain;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Finds the enum constant stored as a string value with one hash lookup, instead of scanning
+ * {@code values()}, which clones the constants array on every call. Converters run this for
+ * every loaded row.
+ * <p>
+ * Values match ignoring case. The database holds them in their canonical case, which is found
+ * directly; other cases cost one extra lookup after lower-casing.
+ */
+final class ValueLookup<E extends Enum<E>> {
+    private final Map<String, E> byValue = new HashMap<>();
+
+    /* The constants' values must be lower case */
+    ValueLookup(E[] constants, Function<E, String> value) {
+        for (var constant : constants) {
+            byValue.put(value.apply(constant), constant);
+        }
+    }
+
+    /* The constant whose value equals the given one ignoring case, or null if there is none */
+    E find(String value) {
+        var constant = byValue.get(value);
+        if (constant == null) {
+            constant = byValue.get(value.toLowerCase(Locale.ROOT));
+        }
+        return constant;
+    }
+}
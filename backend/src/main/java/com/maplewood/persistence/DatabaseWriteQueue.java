@@ -0,0 +1,285 @@
+package com.maplewood.persistence;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Funnels database writes through a single writer thread.
+ * <p>
+ * SQLite allows one writer at a time, so concurrent request threads writing directly end up
+ * waiting on the database lock and, past the busy timeout, failing with {@code SQLITE_BUSY}.
+ * Writes submitted here are queued instead, and the writer thread drains up to
+ * {@code app.write-queue.max-batch-size} of them into one transaction (group commit), paying for
+ * one commit per batch rather than one per request.
+ * <p>
+ * Each write runs inside its own savepoint, so a write that throws is rolled back on its own and
+ * only its future fails. If the batch transaction itself cannot commit, every write in it is
+ * replayed in a transaction of its own so the outcome of each request is still reported
+ * individually. Every future is completed, whatever the writer throws, and writes still queued
+ * when the queue stops are rejected.
+ * <p>
+ * The writer owns a dedicated connection rather than borrowing from the application pool, so it
+ * never waits behind the requests it is serving. Open session in view is off, so a request
+ * waiting for its write holds no pooled connection either, and the number of writes in flight,
+ * which bounds the batch size, is not capped by the pool. A request must therefore not wait on
+ * the queue from inside a transaction. Writes are plain SQL against the writer's connection and
+ * must not use entities loaded by the calling request. When the data source is split into read
+ * and write pools the writer uses the write pool instead.
+ * <p>
+ * As a {@link MeterBinder} it publishes its depth ({@code db.write.queue.size}), how long writes
+ * wait for the writer ({@code db.write.queue.wait}) and the size of the batches it commits
+ * ({@code db.write.queue.batch.size}).
+ */
+public class DatabaseWriteQueue implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseWriteQueue.class);
+
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final int maxBatchSize;
+    private final Duration waitTimeout;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile Timer waitTimer;
+    private volatile DistributionSummary batchSizes;
+
+    /**
+     * @param dataSource The writer's data source; it is left open when the queue stops.
+     * @param waitTimeout How long {@link #execute} waits for a write's outcome.
+     */
+    public DatabaseWriteQueue(DataSource dataSource, int capacity, int maxBatchSize,
+            Duration waitTimeout) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.waitTimeout = waitTimeout;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.writer = new Thread(this::drain, "db-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    /*
+     * Stop accepting writes and let the writer finish what is already queued; whatever it has not
+     * picked up by the time it is given up on is rejected
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        rejectQueued();
+    }
+
+    /**
+     * Queue a write. The returned future completes with the write's result once the batch it ran
+     * in has committed, or exceptionally with whatever the write threw. It fails immediately with
+     * a {@link RejectedExecutionException} if the queue is full or shutting down.
+     */
+    public <T> CompletableFuture<T> submit(Function<NamedParameterJdbcTemplate, T> write) {
+        return enqueue(write).result();
+    }
+
+    /**
+     * Queue a write and wait for its outcome, rethrowing what the write threw on the calling
+     * thread. A write the writer has not started within the wait timeout is withdrawn and
+     * rejected; one it has started may still commit after the caller is told it timed out.
+     *
+     * @throws RejectedExecutionException If the queue is full or shutting down, or on timeout.
+     */
+    public <T> T execute(Function<NamedParameterJdbcTemplate, T> write) {
+        var pending = enqueue(write);
+        try {
+            return pending.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw pending.withdraw()
+                    ? new RejectedExecutionException("Timed out waiting for the database writer")
+                    : new RejectedExecutionException(
+                            "Timed out waiting for a database write that may still commit");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.withdraw();
+            throw new RejectedExecutionException("Interrupted waiting for the database writer");
+        }
+    }
+
+    private <T> PendingWrite<T> enqueue(Function<NamedParameterJdbcTemplate, T> write) {
+        var pending = new PendingWrite<T>(write, new CompletableFuture<>(), System.nanoTime(),
+                new AtomicBoolean());
+        if (!running) {
+            pending.result().completeExceptionally(shutDown());
+        } else if (!queue.offer(pending)) {
+            pending.result().completeExceptionally(
+                    new RejectedExecutionException("Database write queue is full"));
+        } else if (!running && queue.remove(pending)) {
+            // stop() ran between the check and the offer, maybe after the writer's last poll
+            pending.result().completeExceptionally(shutDown());
+        }
+        return pending;
+    }
+
+    /* Writes waiting for the writer thread */
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.write.queue.size", this, DatabaseWriteQueue::size)
+                .description("Writes waiting for the database writer")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("db.write.queue.batch.size")
+                .description("Writes committed per batch")
+                .register(registry);
+        // Set last: the writer records once the timer is there
+        waitTimer = Timer.builder("db.write.queue.wait")
+                .description("Time writes spend queued before the writer picks them up")
+                .register(registry);
+    }
+
+    private void drain() {
+        var batch = new ArrayList<PendingWrite<?>>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            Throwable failure = null;
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                // Writes withdrawn by callers that gave up waiting are dropped
+                batch.removeIf(pending -> !pending.start());
+                recordDequeued(batch);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+                break;
+            } catch (Throwable e) {
+                // Including errors, so the writer outlives a write that overflows its stack
+                log.error("Database writer failed to complete a batch", e);
+                failure = e;
+            } finally {
+                for (var pending : batch) {
+                    pending.result().completeExceptionally(new IllegalStateException(
+                            "Database writer did not complete the write", failure));
+                }
+                batch.clear();
+            }
+        }
+        rejectQueued();
+    }
+
+    private void rejectQueued() {
+        PendingWrite<?> abandoned;
+        while ((abandoned = queue.poll()) != null) {
+            abandoned.result().completeExceptionally(shutDown());
+        }
+    }
+
+    private static RejectedExecutionException shutDown() {
+        return new RejectedExecutionException("Database write queue was shut down");
+    }
+
+    private void recordDequeued(List<PendingWrite<?>> batch) {
+        var timer = waitTimer;
+        if (timer == null) {
+            return;
+        }
+        var now = System.nanoTime();
+        for (var pending : batch) {
+            timer.record(now - pending.submittedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(batch.size());
+    }
+
+    private void writeBatch(List<PendingWrite<?>> batch) {
+        var outcomes = new ArrayList<Runnable>(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (var pending : batch) {
+                    var savepoint = status.createSavepoint();
+                    try {
+                        outcomes.add(pending.run(jdbcTemplate));
+                        status.releaseSavepoint(savepoint);
+                    } catch (Throwable e) {
+                        status.rollbackToSavepoint(savepoint);
+                        outcomes.add(() -> pending.result().completeExceptionally(e));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Batch of {} database writes failed to commit, replaying them one by one",
+                    batch.size(), e);
+            for (var pending : batch) {
+                writeBatch(List.of(pending));
+            }
+            return;
+        }
+
+        // Only report outcomes once the batch is durable
+        outcomes.forEach(Runnable::run);
+    }
+
+    /* started is claimed once, by the writer to run the write or by its caller to withdraw it */
+    private record PendingWrite<T>(Function<NamedParameterJdbcTemplate, T> write,
+            CompletableFuture<T> result, long submittedAt, AtomicBoolean started) {
+        boolean start() {
+            return started.compareAndSet(false, true);
+        }
+
+        /* Reject the write if the writer has not started it */
+        boolean withdraw() {
+            if (!start()) {
+                return false;
+            }
+            result.completeExceptionally(
+                    new RejectedExecutionException("Database write was withdrawn"));
+            return true;
+        }
+
+        /* Run the write and return the action that reports its result */
+        Runnable run(NamedParameterJdbcTemplate jdbcTemplate) {
+            var value = write.apply(jdbcTemplate);
+            return () -> result.complete(value);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.maplewood.persistence;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a {@link Scope} is open on the current
+ * thread.
+ * <p>
+ * Registered as Hibernate's {@link StatementInspector}, so it sees every statement Hibernate
+ * sends, lazy association loads included, and leaves the SQL unchanged. Statements sent with
+ * plain JDBC, such as the writes of the {@link DatabaseWriteQueue}, are not counted. Work handed
+ * to another thread is counted only if the task is wrapped with {@link #propagate(Runnable)}.
+ */
+public class QueryCounter implements StatementInspector {
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        var count = CURRENT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /* Start counting on the current thread; scopes nest, and closing one restores the outer */
+    public static Scope open() {
+        var scope = new Scope(CURRENT.get());
+        CURRENT.set(scope.count);
+        return scope;
+    }
+
+    /* Count the task's statements into the scope open on the submitting thread, if any */
+    public static Runnable propagate(Runnable task) {
+        var count = CURRENT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            var previous = CURRENT.get();
+            CURRENT.set(count);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(AtomicInteger previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicInteger outer;
+
+        private Scope(AtomicInteger outer) {
+            this.outer = outer;
+        }
+
+        /* Statements counted so far */
+        public int count() {
+            return count.get();
+        }
+
+        @Override
+        public void close() {
+            // An outer scope covers everything an inner one counted
+            if (outer != null) {
+                outer.addAndGet(count.get());
+            }
+            restore(outer);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.maplewood.persistence;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections between a read pool and a write pool.
+ * <p>
+ * Read-write transactions get a connection from the write pool, which holds a single connection
+ * because SQLite only ever lets one connection write at a time. Everything else, i.e.
+ * {@code @Transactional(readOnly = true)} work and statements outside a transaction, is served by
+ * the read pool; in WAL mode those readers do not block, and are not blocked by, the writer.
+ * The read pool's connections are opened read-only, so a write routed there fails instead of
+ * competing with the write pool for the database lock.
+ * <p>
+ * The lookup happens when a connection is obtained, so wrap this in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} to defer it until
+ * the transaction's read-only flag has been set. Open session in view must stay off: with it, a
+ * request keeps the connection its first statement was routed to, and a later read-write
+ * transaction of the same request would run on a reader.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource
+        implements AutoCloseable {
+
+    enum Route {
+        READ, WRITE
+    }
+
+    private final DataSource readDataSource;
+    private final DataSource writeDataSource;
+
+    public ReadWriteRoutingDataSource(DataSource readDataSource, DataSource writeDataSource) {
+        this.readDataSource = readDataSource;
+        this.writeDataSource = writeDataSource;
+        setTargetDataSources(Map.of(Route.READ, readDataSource, Route.WRITE, writeDataSource));
+        setDefaultTargetDataSource(readDataSource);
+    }
+
+    public DataSource getReadDataSource() {
+        return readDataSource;
+    }
+
+    public DataSource getWriteDataSource() {
+        return writeDataSource;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.WRITE;
+        }
+        return Route.READ;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (var pool : new DataSource[] {readDataSource, writeDataSource}) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -9,6 +9,14 @@ import java.time.format.DateTimeFormatter;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
+/**
+ * Stores instants as UTC text, the way SQLite's {@code CURRENT_TIMESTAMP} writes them.
+ * <p>
+ * Reading runs for every timestamp column of every loaded row, so the two layouts the database
+ * holds, {@code yyyy-MM-dd HH:mm:ss} and {@code yyyy-MM-dd}, are parsed straight from their
+ * digits into epoch seconds. Anything else, including out-of-range fields, goes through
+ * {@link DateTimeFormatter} or {@link Instant#parse}, which also report malformed values.
+ */
 @Converter(autoApply = false)
 public class InstantStringConverter implements AttributeConverter<Instant, String> {
     private static final DateTimeFormatter DATETIME_FORMAT =
@@ -16,6 +24,11 @@ public class InstantStringConverter implements AttributeConverter<Instant, Strin
     private static final DateTimeFormatter DATE_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final int DATE_LENGTH = 10;
+    private static final int DATETIME_LENGTH = 19;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+    private static final int SECONDS_PER_DAY = 86_400;
+
     @Override
     public String convertToDatabaseColumn(Instant attribute) {
         if (attribute == null) {
@@ -26,12 +39,24 @@ public class InstantStringConverter implements AttributeConverter<Instant, Strin
 
     @Override
     public Instant convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isBlank()) {
+        if (dbData == null) {
+            return null;
+        }
+
+        var epochSecond = parseEpochSecond(dbData);
+        if (epochSecond != Long.MIN_VALUE) {
+            return Instant.ofEpochSecond(epochSecond);
+        }
+        return parseWithFormatter(dbData);
+    }
+
+    private static Instant parseWithFormatter(String dbData) {
+        if (dbData.isBlank()) {
             return null;
         }
 
         String value = dbData.trim();
-        if (value.length() == 10) {
+        if (value.length() == DATE_LENGTH) {
             LocalDate localDate = LocalDate.parse(value, DATE_FORMAT);
             return localDate.atStartOfDay().toInstant(ZoneOffset.UTC);
         }
@@ -43,4 +68,75 @@ public class InstantStringConverter implements AttributeConverter<Instant, Strin
         LocalDateTime localDateTime = LocalDateTime.parse(value, DATETIME_FORMAT);
         return localDateTime.toInstant(ZoneOffset.UTC);
     }
+
+    /* Epoch seconds of an exact yyyy-MM-dd[ HH:mm:ss] value, or Long.MIN_VALUE for anything else */
+    private static long parseEpochSecond(String value) {
+        var length = value.length();
+        if (length != DATE_LENGTH && length != DATETIME_LENGTH) {
+            return Long.MIN_VALUE;
+        }
+        if (value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        var year = digits(value, 0, 4);
+        var month = digits(value, 5, 2);
+        var day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+
+        var seconds = 0;
+        if (length == DATETIME_LENGTH) {
+            if (value.charAt(10) != ' ' || value.charAt(13) != ':' || value.charAt(16) != ':') {
+                return Long.MIN_VALUE;
+            }
+            var hour = digits(value, 11, 2);
+            var minute = digits(value, 14, 2);
+            var second = digits(value, 17, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return Long.MIN_VALUE;
+            }
+            seconds = hour * 3600 + minute * 60 + second;
+        }
+        return epochDay(year, month, day) * SECONDS_PER_DAY + seconds;
+    }
+
+    /* The decimal value of count digits starting at offset, or -1 if any of them is not a digit */
+    private static int digits(String value, int offset, int count) {
+        var result = 0;
+        for (var i = offset; i < offset + count; i++) {
+            var digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /* Same arithmetic as LocalDate.toEpochDay, for a non-negative year */
+    private static long epochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
 }
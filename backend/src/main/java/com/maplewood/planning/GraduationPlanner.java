@@ -0,0 +1,375 @@
+package com.maplewood.planning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CatalogSnapshot;
+import com.maplewood.domain.SemesterOrder;
+
+/**
+ * Plans the semesters a student has left until the end of grade 12, choosing courses so the
+ * student reaches the credits needed to graduate as early as possible, or gets as close as the
+ * remaining semesters allow.
+ * <p>
+ * Each semester offers the courses of its semester order and grade level whose prerequisite is
+ * passed by then; up to {@code maxCoursesPerSemester} of them are taken, assuming they are
+ * passed. The search tries the combinations of the most valuable offered courses, ranked by how
+ * long a prerequisite chain they open (their height in the
+ * {@link CatalogSnapshot#prerequisiteGraph() prerequisite graph}), then by credits, with a couple
+ * of alternatives beyond what fits. A combination is skipped only when swapping one of its
+ * courses for an omitted higher ranked one gives a plan at least as good.
+ * <p>
+ * The best plan from a semester on depends only on the grade level, the semester order and the
+ * set of passed courses, so results are memoized on exactly that, as a bitset over the catalog's
+ * dense course indexes. The memo is shared by all requests against the same catalog version;
+ * students of a grade level converge on the same passed sets within a semester or two, so most
+ * requests only search their first semesters.
+ * <p>
+ * A plan expands at most {@value #SEARCH_BUDGET} unmemoized semesters with every combination;
+ * past that it keeps the highest ranked courses of each semester, which is what the search
+ * picks most of the time anyway. Results that depend on such a shortcut are not memoized.
+ */
+public class GraduationPlanner {
+    // Offered courses considered beyond the ones a semester has room for
+    private static final int ALTERNATIVES = 2;
+    private static final int SEARCH_BUDGET = 2_000;
+    private static final int MAX_MEMO_ENTRIES = 500_000;
+
+    private final int maxCoursesPerSemester;
+    private final int creditUnitsRequired;
+    private final double creditsRequired;
+    private final AtomicReference<Compiled> compiled = new AtomicReference<>();
+
+    public GraduationPlanner(int maxCoursesPerSemester, double creditsRequired) {
+        this.maxCoursesPerSemester = maxCoursesPerSemester;
+        this.creditsRequired = creditsRequired;
+        this.creditUnitsRequired = toUnits(creditsRequired);
+    }
+
+    /* The semester a plan starts with: the active semester and the student's grade level in it */
+    public record Start(int gradeLevel, SemesterOrder semesterOrder, int year) {
+    }
+
+    public record PlannedSemester(SemesterOrder semesterOrder, int year, int gradeLevel,
+            List<CatalogCourse> courses) {
+
+        public double credits() {
+            return courses.stream()
+                    .mapToDouble(course -> course.credits() == null ? 0 : course.credits())
+                    .sum();
+        }
+    }
+
+    /**
+     * @param creditsPlanned Credits after every planned semester, including earned credits.
+     */
+    public record GraduationPlan(double creditsRequired, double creditsEarned,
+            double creditsPlanned, boolean reachesGoal, List<PlannedSemester> semesters) {
+    }
+
+    /**
+     * Plan from {@code start} on. Courses the student is enrolled in are kept in the first
+     * semester, which is filled up to the limit around them.
+     *
+     * @param passed Mask of passed courses, see {@link CatalogSnapshot#maskOf}.
+     * @param enrolled Mask of the courses enrolled in for the start semester.
+     */
+    public GraduationPlan plan(CatalogSnapshot snapshot, Start start, BitSet passed,
+            BitSet enrolled) {
+        var search = new Search(compiledFor(snapshot));
+        var earned = search.units(passed);
+        if (start.gradeLevel() < CatalogSnapshot.MIN_GRADE_LEVEL
+                || start.gradeLevel() > CatalogSnapshot.MAX_GRADE_LEVEL) {
+            return new GraduationPlan(creditsRequired, toCredits(earned), toCredits(earned),
+                    earned >= creditUnitsRequired, List.of());
+        }
+
+        var eligible = search.offered(start.gradeLevel(), start.semesterOrder(), passed);
+        eligible.andNot(enrolled);
+        var slots = Math.max(0, maxCoursesPerSemester - enrolled.cardinality());
+        var first = earned >= creditUnitsRequired ? Suffix.GOAL
+                : search.bestChoice(start.gradeLevel(), start.semesterOrder(), passed, earned,
+                        enrolled, eligible, slots);
+
+        var semesters = new ArrayList<PlannedSemester>();
+        var gradeLevel = start.gradeLevel();
+        var semesterOrder = start.semesterOrder();
+        var year = start.year();
+        for (var step = first; step.courses() != null; step = step.next()) {
+            semesters.add(new PlannedSemester(semesterOrder, year, gradeLevel,
+                    step.courses().stream().mapToObj(snapshot::courseAt).toList()));
+            if (semesterOrder == SemesterOrder.SPRING) {
+                gradeLevel++;
+                year++;
+            }
+            semesterOrder = next(semesterOrder);
+        }
+        // Semesters at the end with nothing left to take are not part of the plan
+        while (!semesters.isEmpty() && semesters.get(semesters.size() - 1).courses().isEmpty()) {
+            semesters.remove(semesters.size() - 1);
+        }
+
+        return new GraduationPlan(creditsRequired, toCredits(earned),
+                toCredits(earned + first.gainedUnits()), first.reachesGoal(), semesters);
+    }
+
+    private Compiled compiledFor(CatalogSnapshot snapshot) {
+        var current = compiled.get();
+        if (current != null && current.snapshot() == snapshot) {
+            return current;
+        }
+        var fresh = Compiled.of(snapshot);
+        compiled.set(fresh);
+        return fresh;
+    }
+
+    private static SemesterOrder next(SemesterOrder semesterOrder) {
+        return semesterOrder == SemesterOrder.FALL ? SemesterOrder.SPRING : SemesterOrder.FALL;
+    }
+
+    /* Credits in half-credit units, so sums are exact */
+    private static int toUnits(double credits) {
+        return (int) Math.round(credits * 2);
+    }
+
+    private static double toCredits(int units) {
+        return units / 2.0;
+    }
+
+    /* Per-snapshot tables and the memo of best plans */
+    private record Compiled(CatalogSnapshot snapshot, int[] units, int[] byPriority,
+            BitSet[] semesterOrderMasks, ConcurrentHashMap<Key, Suffix> memo) {
+
+        static Compiled of(CatalogSnapshot snapshot) {
+            var graph = snapshot.prerequisiteGraph();
+            var size = snapshot.size();
+            var units = new int[size];
+            for (var i = 0; i < size; i++) {
+                var credits = snapshot.courseAt(i).credits();
+                units[i] = credits == null ? 0 : toUnits(credits);
+            }
+            var byPriority = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.<Integer>comparingInt(i -> -graph.height(i))
+                            .thenComparingInt(i -> -units[i])
+                            .thenComparingInt(i -> i))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            var semesterOrderMasks = new BitSet[SemesterOrder.values().length];
+            for (var order : SemesterOrder.values()) {
+                var mask = new BitSet(size);
+                snapshot.coursesFor(order).forEach(course -> mask.set(course.index()));
+                semesterOrderMasks[order.ordinal()] = mask;
+            }
+            return new Compiled(snapshot, units, byPriority, semesterOrderMasks,
+                    new ConcurrentHashMap<>());
+        }
+    }
+
+    /* Memo key: everything the best plan from a semester on depends on */
+    private record Key(int gradeLevel, SemesterOrder semesterOrder, long[] passed) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && gradeLevel == key.gradeLevel
+                    && semesterOrder == key.semesterOrder && Arrays.equals(passed, key.passed);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * gradeLevel + semesterOrder.hashCode()) + Arrays.hashCode(passed);
+        }
+    }
+
+    /**
+     * The best plan from a semester on, as a chain of semesters. {@code courses} is null at the
+     * end of the chain.
+     *
+     * @param semesters Semesters until the goal is reached, or until the end of grade 12.
+     * @param exhaustive Whether every semester in the chain was searched with every combination.
+     */
+    private record Suffix(BitSet courses, Suffix next, boolean reachesGoal, int semesters,
+            int gainedUnits, boolean exhaustive) {
+        static final Suffix GOAL = new Suffix(null, null, true, 0, 0, true);
+        static final Suffix END = new Suffix(null, null, false, 0, 0, true);
+
+        static Suffix of(BitSet courses, int units, Suffix next) {
+            return new Suffix(courses, next, next.reachesGoal, next.semesters + 1,
+                    next.gainedUnits + units, next.exhaustive);
+        }
+
+        Suffix withExhaustive(boolean exhaustive) {
+            return exhaustive == this.exhaustive ? this
+                    : new Suffix(courses, next, reachesGoal, semesters, gainedUnits, exhaustive);
+        }
+
+        boolean isBetterThan(Suffix other) {
+            if (other == null) {
+                return true;
+            }
+            if (reachesGoal != other.reachesGoal) {
+                return reachesGoal;
+            }
+            if (reachesGoal && semesters != other.semesters) {
+                return semesters < other.semesters;
+            }
+            if (gainedUnits != other.gainedUnits) {
+                return gainedUnits > other.gainedUnits;
+            }
+            return semesters < other.semesters;
+        }
+    }
+
+    private final class Search {
+        private final Compiled compiled;
+        private int budget = SEARCH_BUDGET;
+
+        Search(Compiled compiled) {
+            this.compiled = compiled;
+        }
+
+        int units(BitSet courses) {
+            var total = 0;
+            for (var i = courses.nextSetBit(0); i >= 0 && i < compiled.units().length;
+                    i = courses.nextSetBit(i + 1)) {
+                total += compiled.units()[i];
+            }
+            return total;
+        }
+
+        /* Courses of the semester the student could take, given what is passed by then */
+        BitSet offered(int gradeLevel, SemesterOrder semesterOrder, BitSet passed) {
+            var offered = compiled.snapshot().eligibleCourses(gradeLevel, passed, new BitSet());
+            offered.and(compiled.semesterOrderMasks()[semesterOrder.ordinal()]);
+            return offered;
+        }
+
+        Suffix best(int gradeLevel, SemesterOrder semesterOrder, BitSet passed, int earned) {
+            if (earned >= creditUnitsRequired) {
+                return Suffix.GOAL;
+            }
+            if (gradeLevel > CatalogSnapshot.MAX_GRADE_LEVEL) {
+                return Suffix.END;
+            }
+            var key = new Key(gradeLevel, semesterOrder, passed.toLongArray());
+            var memoized = compiled.memo().get(key);
+            if (memoized != null) {
+                return memoized;
+            }
+
+            var result = bestChoice(gradeLevel, semesterOrder, passed, earned, new BitSet(),
+                    offered(gradeLevel, semesterOrder, passed), maxCoursesPerSemester);
+            // Concurrent requests may compute the same entry; both results are the same
+            if (result.exhaustive() && compiled.memo().size() < MAX_MEMO_ENTRIES) {
+                compiled.memo().put(key, result);
+            }
+            return result;
+        }
+
+        /*
+         * Try every way of filling the semester's free slots from its most valuable offered
+         * courses, on top of the courses already fixed for it; only the first once the budget is
+         * spent
+         */
+        Suffix bestChoice(int gradeLevel, SemesterOrder semesterOrder, BitSet passed, int earned,
+                BitSet fixed, BitSet offered, int slots) {
+            var exhaustive = budget > 0;
+            budget--;
+            var candidates = candidates(offered, exhaustive ? slots + ALTERNATIVES : slots);
+            var take = Math.min(slots, candidates.length);
+            var nextGradeLevel =
+                    semesterOrder == SemesterOrder.SPRING ? gradeLevel + 1 : gradeLevel;
+            var nextSemesterOrder = next(semesterOrder);
+
+            Suffix best = null;
+            var combination = IntStream.range(0, take).toArray();
+            do {
+                if (isDominated(combination, candidates, gradeLevel)) {
+                    continue;
+                }
+                var courses = (BitSet) fixed.clone();
+                for (var i : combination) {
+                    courses.set(candidates[i]);
+                }
+                var units = units(courses);
+                var passedAfter = (BitSet) passed.clone();
+                passedAfter.or(courses);
+                var suffix = Suffix.of(courses, units,
+                        best(nextGradeLevel, nextSemesterOrder, passedAfter, earned + units));
+                exhaustive &= suffix.exhaustive();
+                if (suffix.isBetterThan(best)) {
+                    best = suffix;
+                }
+            } while (nextCombination(combination, candidates.length));
+            return best.withExhaustive(exhaustive);
+        }
+
+        /*
+         * Whether the combination takes a course where an omitted higher ranked candidate would
+         * do at least as well: the swapped combination earns as much now, and every later
+         * semester of the original plan stays open to it
+         */
+        private boolean isDominated(int[] combination, int[] candidates, int gradeLevel) {
+            for (var c = 0; c < combination.length; c++) {
+                var lower = candidates[combination[c]];
+                var chosen = 0;
+                for (var j = 0; j < combination[c]; j++) {
+                    if (chosen < c && combination[chosen] == j) {
+                        chosen++;
+                    } else if (dominates(candidates[j], lower, gradeLevel)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /*
+         * Taking higher instead of lower loses nothing when it is worth as many credits, unlocks
+         * everything lower does, and cannot be taken later, so no later semester of a plan with
+         * lower needs it. With a single prerequisite per course, two courses offered together
+         * never share an unlocked course, so the second condition means lower unlocks nothing
+         */
+        private boolean dominates(int higher, int lower, int gradeLevel) {
+            var units = compiled.units();
+            // Offered in this semester order, so next offered a grade level later
+            return units[higher] >= units[lower]
+                    && compiled.snapshot().prerequisiteGraph().height(lower) == 0
+                    && (gradeLevel >= CatalogSnapshot.MAX_GRADE_LEVEL || !compiled.snapshot()
+                            .courseAt(higher).isOfferedToGradeLevel(gradeLevel + 1));
+        }
+
+        private int[] candidates(BitSet offered, int limit) {
+            var candidates = new int[Math.min(limit, offered.cardinality())];
+            var count = 0;
+            for (var i = 0; count < candidates.length; i++) {
+                var index = compiled.byPriority()[i];
+                if (offered.get(index)) {
+                    candidates[count++] = index;
+                }
+            }
+            return candidates;
+        }
+    }
+
+    /* Advance to the next k-combination of 0..n-1 in lexicographic order */
+    private static boolean nextCombination(int[] combination, int n) {
+        var k = combination.length;
+        var i = k - 1;
+        while (i >= 0 && combination[i] == n - k + i) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        combination[i]++;
+        for (var j = i + 1; j < k; j++) {
+            combination[j] = combination[j - 1] + 1;
+        }
+        return true;
+    }
+}
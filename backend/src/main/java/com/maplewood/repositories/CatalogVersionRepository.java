@@ -0,0 +1,12 @@
+package com.maplewood.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import com.maplewood.domain.CatalogVersion;
+
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Integer> {
+
+    /* Current catalog version, or 0 when the version row has not been seeded yet */
+    @Query("SELECT COALESCE(MAX(cv.version), 0) FROM CatalogVersion cv")
+    int findCurrentVersion();
+}
@@ -22,7 +22,4 @@ public interface CourseRepository extends JpaRepository<Course, Integer> {
     /* Get all courses for a specific semester (no pagination) */
     @EntityGraph(attributePaths = {"specialization", "prerequisite"})
     public List<Course> findAllCoursesBySemesterOrder(@NonNull SemesterOrder semesterOrder);
-
-    @EntityGraph(attributePaths = {"specialization", "prerequisite"})
-    Page<Course> findByIdIn(List<Integer> courseIds, Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package com.maplewood.repositories;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.lang.NonNull;
+import com.maplewood.domain.CourseSection;
+
+public interface CourseSectionRepository extends JpaRepository<CourseSection, Integer> {
+
+    @EntityGraph(attributePaths = {"course", "semester", "meetings"})
+    @Query("SELECT cs FROM CourseSection cs WHERE cs.id = ?1")
+    Optional<CourseSection> findWithMeetingsById(@NonNull Integer id);
+}
@@ -0,0 +1,21 @@
+package com.maplewood.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import com.maplewood.domain.SectionMeeting;
+
+public interface SectionMeetingRepository extends JpaRepository<SectionMeeting, Integer> {
+
+    /**
+     * Day, start and end of every meeting of the sections {@code :studentId} is enrolled in
+     * for the active semester. Plain SQL so it can run on the database write queue.
+     */
+    String ACTIVE_SCHEDULE_SQL = """
+            SELECT sm.day_of_week, sm.start_minute, sm.end_minute
+            FROM student_enrollments se
+            JOIN semesters s ON s.id = se.semester_id
+            JOIN section_meetings sm ON sm.section_id = se.section_id
+            WHERE se.student_id = :studentId
+                    AND se.status = 'enrolled'
+                    AND s.is_active = true
+            """;
+}
@@ -0,0 +1,8 @@
+package com.maplewood.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import com.maplewood.domain.Specialization;
+
+public interface SpecializationRepository extends JpaRepository<Specialization, Integer> {
+
+}
@@ -0,0 +1,8 @@
+package com.maplewood.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import com.maplewood.domain.StudentAcademicSummary;
+
+public interface StudentAcademicSummaryRepository
+        extends JpaRepository<StudentAcademicSummary, Integer> {
+}
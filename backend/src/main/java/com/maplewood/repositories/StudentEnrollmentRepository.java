@@ -1,11 +1,10 @@
 package com.maplewood.repositories;
 
 import java.util.List;
-import org.springframework.data.jpa.repository.Modifying;
+import java.util.Set;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.lang.NonNull;
-import org.springframework.transaction.annotation.Transactional;
 import com.maplewood.domain.Course;
 import com.maplewood.domain.StudentEnrollment;
 import com.maplewood.domain.StudentEnrollmentStatus;
@@ -14,17 +13,66 @@ public interface StudentEnrollmentRepository extends JpaRepository<StudentEnroll
         boolean existsByStudentIdAndCourseIdAndStatus(Integer studentId, Integer courseId,
                         StudentEnrollmentStatus status);
 
-        @Modifying
-        @Transactional
-        @Query(value = """
+        @Query("""
+                        SELECT DISTINCT se.course.id
+                        FROM StudentEnrollment se
+                        WHERE se.student.id = ?1
+                                AND se.status = com.maplewood.domain.StudentEnrollmentStatus.ENROLLED
+                        """)
+        Set<Integer> findEnrolledCourseIdsByStudentId(@NonNull Integer studentId);
+
+        /**
+         * Conditions shared by the enrollment inserts, appended to a {@code SELECT} from the
+         * active semester {@code s}: the student is not already enrolled in the course and has
+         * fewer than {@code :maxActiveCourses} enrolled courses in the active semester.
+         */
+        String ENROLLMENT_GUARDS = """
+                        AND NOT EXISTS (
+                                SELECT 1
+                                FROM student_enrollments se
+                                WHERE se.student_id = :studentId
+                                        AND se.course_id = :courseId
+                                        AND se.status = 'enrolled')
+                        AND (
+                                SELECT COUNT(se.id)
+                                FROM student_enrollments se
+                                JOIN semesters active ON active.id = se.semester_id
+                                WHERE se.student_id = :studentId
+                                        AND active.is_active = true
+                                        AND se.status = 'enrolled') < :maxActiveCourses
+                        LIMIT 1
+                        """;
+
+        /**
+         * Enroll {@code :studentId} in {@code :courseId} for the active semester, as a single
+         * statement that only inserts while the {@link #ENROLLMENT_GUARDS} hold. Because the
+         * guards and the insert run in one statement, concurrent calls cannot both pass the
+         * checks. Affects one row on success and none if there is no active semester or a guard
+         * failed.
+         * <p>
+         * Shared with the enrollment path that runs on the database write queue.
+         */
+        String ADD_ENROLLMENT_SQL = """
                         INSERT INTO student_enrollments (student_id, course_id, semester_id, status, created_at)
                         SELECT :studentId, :courseId, s.id, 'enrolled', CURRENT_TIMESTAMP
                         FROM semesters s
                         WHERE s.is_active = true
-                        LIMIT 1
-                        """,
-                        nativeQuery = true)
-        int addEnrollment(Integer studentId, Integer courseId);
+                        """ + ENROLLMENT_GUARDS;
+
+        /**
+         * Like {@link #ADD_ENROLLMENT_SQL}, enrolling through section {@code :sectionId} of
+         * {@code :courseId}. Inserts nothing unless the section belongs to the course in the
+         * active semester.
+         */
+        String ADD_SECTION_ENROLLMENT_SQL = """
+                        INSERT INTO student_enrollments (student_id, course_id, semester_id, section_id, status, created_at)
+                        SELECT :studentId, :courseId, s.id, cs.id, 'enrolled', CURRENT_TIMESTAMP
+                        FROM semesters s
+                        JOIN course_sections cs ON cs.semester_id = s.id
+                        WHERE s.is_active = true
+                                AND cs.id = :sectionId
+                                AND cs.course_id = :courseId
+                        """ + ENROLLMENT_GUARDS;
 
         @Query("""
                         SELECT se.course
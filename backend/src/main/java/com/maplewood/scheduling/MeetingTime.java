@@ -0,0 +1,22 @@
+package com.maplewood.scheduling;
+
+import java.time.DayOfWeek;
+
+/**
+ * One weekly meeting of a section, {@code [startMinute, endMinute)} in minutes since midnight.
+ */
+public record MeetingTime(DayOfWeek day, int startMinute, int endMinute) {
+
+    public MeetingTime {
+        if (day == null || startMinute >= endMinute) {
+            throw new IllegalArgumentException(
+                    "Invalid meeting " + day + " " + startMinute + "-" + endMinute);
+        }
+    }
+
+    /* Plain interval comparison, what WeeklySlotMask replaces */
+    public boolean overlaps(MeetingTime other) {
+        return day == other.day && startMinute < other.endMinute
+                && other.startMinute < endMinute;
+    }
+}
@@ -0,0 +1,97 @@
+package com.maplewood.scheduling;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the {@link TimetableSolver} needs: the sections to place, who can teach them and
+ * where. Ids are database ids and are only carried through to the solution.
+ * <p>
+ * A section needs one teacher of its specialization for all of its meetings and, for each
+ * meeting, a room of its room type. Meetings last one period of the {@link PeriodGrid}.
+ */
+public record TimetableProblem(List<Section> sections, List<Teacher> teachers, List<Room> rooms,
+        PeriodGrid grid) {
+
+    public TimetableProblem {
+        sections = List.copyOf(sections);
+        teachers = List.copyOf(teachers);
+        rooms = List.copyOf(rooms);
+    }
+
+    /**
+     * @param code Distinguishes sections of the same course, e.g. {@code "02"}.
+     * @param meetingsPerWeek One meeting per period, the course's hours per week.
+     */
+    public record Section(int courseId, String code, int specializationId, int roomTypeId,
+            int meetingsPerWeek) {
+    }
+
+    public record Teacher(int id, int specializationId, int maxDailyPeriods) {
+    }
+
+    public record Room(int id, int roomTypeId, int capacity) {
+    }
+
+    /**
+     * The school day as equal periods: {@code periodsPerDay} periods of {@code periodMinutes}
+     * from {@code firstPeriodStartMinute}, {@code passingMinutes} apart. The whole week must fit
+     * in a {@code long}, one bit per period.
+     */
+    public record PeriodGrid(int firstPeriodStartMinute, int periodMinutes, int passingMinutes,
+            int periodsPerDay) {
+
+        public PeriodGrid {
+            var lastEnd = firstPeriodStartMinute
+                    + periodsPerDay * (periodMinutes + passingMinutes) - passingMinutes;
+            if (periodsPerDay < 1 || periodsPerDay * WeeklySlotMask.SCHOOL_DAYS > Long.SIZE
+                    || periodMinutes < 1 || passingMinutes < 0
+                    || firstPeriodStartMinute < WeeklySlotMask.DAY_START_MINUTE
+                    || lastEnd > WeeklySlotMask.DAY_END_MINUTE) {
+                throw new IllegalArgumentException("Invalid period grid " + firstPeriodStartMinute
+                        + "+" + periodsPerDay + "x" + periodMinutes + "/" + passingMinutes);
+            }
+        }
+
+        public int periodsPerWeek() {
+            return periodsPerDay * WeeklySlotMask.SCHOOL_DAYS;
+        }
+
+        /* Week period 0 is the first period on Monday */
+        public MeetingTime meetingTime(int weekPeriod) {
+            var day = DayOfWeek.of(1 + weekPeriod / periodsPerDay);
+            var start = firstPeriodStartMinute
+                    + (weekPeriod % periodsPerDay) * (periodMinutes + passingMinutes);
+            return new MeetingTime(day, start, start + periodMinutes);
+        }
+    }
+
+    /**
+     * This problem repeated {@code factor} times, as a school that many times larger: every
+     * teacher, room and section is copied, with ids offset so the copies stay distinct.
+     */
+    public TimetableProblem scaled(int factor) {
+        var maxTeacherId = teachers.stream().mapToInt(Teacher::id).max().orElse(0);
+        var maxRoomId = rooms.stream().mapToInt(Room::id).max().orElse(0);
+        var scaledSections = new ArrayList<Section>(sections.size() * factor);
+        var scaledTeachers = new ArrayList<Teacher>(teachers.size() * factor);
+        var scaledRooms = new ArrayList<Room>(rooms.size() * factor);
+        for (var copy = 0; copy < factor; copy++) {
+            for (var section : sections) {
+                scaledSections.add(new Section(section.courseId(), copy + "-" + section.code(),
+                        section.specializationId(), section.roomTypeId(),
+                        section.meetingsPerWeek()));
+            }
+            for (var teacher : teachers) {
+                scaledTeachers.add(new Teacher(teacher.id() + copy * maxTeacherId,
+                        teacher.specializationId(), teacher.maxDailyPeriods()));
+            }
+            for (var room : rooms) {
+                scaledRooms.add(new Room(room.id() + copy * maxRoomId, room.roomTypeId(),
+                        room.capacity()));
+            }
+        }
+        return new TimetableProblem(scaledSections, scaledTeachers, scaledRooms, grid);
+    }
+}
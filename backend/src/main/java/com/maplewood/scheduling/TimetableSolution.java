@@ -0,0 +1,36 @@
+package com.maplewood.scheduling;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The best timetable a {@link TimetableSolver} run found.
+ *
+ * @param unscheduled Sections that could not be placed; empty when the timetable is feasible.
+ * @param elapsed Time from the start of the run until this solution was found.
+ * @param restarts Searches started before the run stopped.
+ */
+public record TimetableSolution(List<Placement> placements,
+        List<TimetableProblem.Section> unscheduled, Duration elapsed, int restarts) {
+
+    public TimetableSolution {
+        placements = List.copyOf(placements);
+        unscheduled = List.copyOf(unscheduled);
+    }
+
+    public boolean isFeasible() {
+        return unscheduled.isEmpty();
+    }
+
+    public record Placement(TimetableProblem.Section section, int teacherId,
+            List<Meeting> meetings) {
+
+        public Placement {
+            meetings = List.copyOf(meetings);
+        }
+    }
+
+    /* One period of the week, see TimetableProblem.PeriodGrid#meetingTime */
+    public record Meeting(int weekPeriod, int roomId) {
+    }
+}
@@ -0,0 +1,480 @@
+package com.maplewood.scheduling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Places the sections of a {@link TimetableProblem} on teachers, rooms and periods.
+ * <p>
+ * Each search builds a timetable greedily, hardest sections first, then repairs it with a local
+ * search: an unplaced section is given a random qualified teacher, and if that teacher has no
+ * room left in their week one of their sections is evicted to make space and re-placed wherever
+ * it fits. A move never increases the number of unplaced sections, but it may leave it unchanged,
+ * which lets the search walk across plateaus.
+ * <p>
+ * Searches are randomized and independent, so a run starts {@link Options#restarts()} of them
+ * with different seeds on a fork-join pool and keeps the best. The first search to place every
+ * section stops the others.
+ * <p>
+ * Hard constraints:
+ * <ul>
+ * <li>a section is taught by one teacher of its specialization, each meeting in a room of its
+ * room type;</li>
+ * <li>no teacher or room is in two places in the same period;</li>
+ * <li>a teacher teaches at most their {@code maxDailyPeriods} a day;</li>
+ * <li>a section meets at most once a day, or twice when it meets more than five times a
+ * week.</li>
+ * </ul>
+ * Periods are bits of a {@code long} per teacher and per room, so every check is a mask
+ * operation.
+ */
+public class TimetableSolver {
+    private final int parallelism;
+
+    public TimetableSolver(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param restarts Independent searches to run, at most {@code parallelism} at a time.
+     * @param maxIterations Local search moves per search.
+     * @param timeLimit Wall-clock budget of the whole run.
+     * @param seed Seed of the first search; search {@code i} uses {@code seed + i}.
+     */
+    public record Options(int restarts, long maxIterations, Duration timeLimit, long seed) {
+    }
+
+    public TimetableSolution solve(TimetableProblem problem, Options options) {
+        var start = System.nanoTime();
+        var deadline = start + options.timeLimit().toNanos();
+        var index = new Index(problem);
+        var solved = new AtomicBoolean();
+        var started = new AtomicInteger();
+
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            var best = pool.submit(() -> IntStream.range(0, options.restarts()).parallel()
+                    .mapToObj(restart -> {
+                        if (solved.get() || System.nanoTime() > deadline) {
+                            return null;
+                        }
+                        started.incrementAndGet();
+                        var search = new Search(index, options.seed() + restart);
+                        search.run(options.maxIterations(), deadline, solved);
+                        if (search.unscheduledCount() == 0) {
+                            solved.set(true);
+                        }
+                        return search;
+                    })
+                    .filter(Objects::nonNull)
+                    .min(Comparator.comparingInt(Search::unscheduledCount)
+                            .thenComparingLong(Search::bestFoundAt)))
+                    .join();
+
+            if (best.isEmpty()) {
+                return new TimetableSolution(List.of(), problem.sections(),
+                        Duration.ofNanos(System.nanoTime() - start), 0);
+            }
+            var search = best.get();
+            return new TimetableSolution(search.placements(), search.unscheduled(),
+                    Duration.ofNanos(search.bestFoundAt() - start), started.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /* The problem as arrays of indexes, shared read-only by all searches */
+    private static final class Index {
+        final TimetableProblem problem;
+        final int periodsPerDay;
+        final long weekMask;
+        final long[] dayMasks = new long[WeeklySlotMask.SCHOOL_DAYS];
+        final int[] meetingsPerWeek;
+        final int[][] teachersOf;
+        final int[][] roomsOf;
+        final boolean[] placeable;
+        // Demand over capacity of the section's teachers or rooms, whichever is scarcer
+        final double[] pressure;
+        final int[] teacherMaxDaily;
+        final int teacherCount;
+        final int roomCount;
+
+        Index(TimetableProblem problem) {
+            this.problem = problem;
+            this.periodsPerDay = problem.grid().periodsPerDay();
+            var periodsPerWeek = problem.grid().periodsPerWeek();
+            this.weekMask = periodsPerWeek == Long.SIZE ? -1L : (1L << periodsPerWeek) - 1;
+            var dayMask = (1L << periodsPerDay) - 1;
+            for (var day = 0; day < dayMasks.length; day++) {
+                dayMasks[day] = dayMask << (day * periodsPerDay);
+            }
+
+            var teachers = problem.teachers();
+            teacherCount = teachers.size();
+            teacherMaxDaily = new int[teacherCount];
+            var teachersBySpecialization = new HashMap<Integer, List<Integer>>();
+            var teacherCapacity = new HashMap<Integer, Integer>();
+            for (var t = 0; t < teacherCount; t++) {
+                var teacher = teachers.get(t);
+                teacherMaxDaily[t] = Math.min(teacher.maxDailyPeriods(), periodsPerDay);
+                teachersBySpecialization
+                        .computeIfAbsent(teacher.specializationId(), key -> new ArrayList<>())
+                        .add(t);
+                teacherCapacity.merge(teacher.specializationId(),
+                        teacherMaxDaily[t] * WeeklySlotMask.SCHOOL_DAYS, Integer::sum);
+            }
+
+            var rooms = problem.rooms();
+            roomCount = rooms.size();
+            var roomsByType = new HashMap<Integer, List<Integer>>();
+            for (var r = 0; r < roomCount; r++) {
+                roomsByType.computeIfAbsent(rooms.get(r).roomTypeId(), key -> new ArrayList<>())
+                        .add(r);
+            }
+
+            var sections = problem.sections();
+            var count = sections.size();
+            meetingsPerWeek = new int[count];
+            teachersOf = new int[count][];
+            roomsOf = new int[count][];
+            placeable = new boolean[count];
+            pressure = new double[count];
+            var teacherDemand = new HashMap<Integer, Integer>();
+            var roomDemand = new HashMap<Integer, Integer>();
+            for (var section : sections) {
+                teacherDemand.merge(section.specializationId(), section.meetingsPerWeek(),
+                        Integer::sum);
+                roomDemand.merge(section.roomTypeId(), section.meetingsPerWeek(), Integer::sum);
+            }
+            var teacherArrays = new HashMap<Integer, int[]>();
+            var roomArrays = new HashMap<Integer, int[]>();
+            for (var s = 0; s < count; s++) {
+                var section = sections.get(s);
+                meetingsPerWeek[s] = section.meetingsPerWeek();
+                teachersOf[s] = teacherArrays.computeIfAbsent(section.specializationId(),
+                        key -> toArray(teachersBySpecialization.get(key)));
+                roomsOf[s] = roomArrays.computeIfAbsent(section.roomTypeId(),
+                        key -> toArray(roomsByType.get(key)));
+                placeable[s] = teachersOf[s].length > 0 && roomsOf[s].length > 0
+                        && meetingsPerWeek[s] > 0
+                        && meetingsPerWeek[s] <= 2 * WeeklySlotMask.SCHOOL_DAYS;
+                var teacherPressure = teacherDemand.get(section.specializationId())
+                        / (double) Math.max(1, teacherCapacity.getOrDefault(
+                                section.specializationId(), 0));
+                var roomPressure = roomDemand.get(section.roomTypeId())
+                        / (double) Math.max(1, roomsOf[s].length * periodsPerWeek);
+                pressure[s] = Math.max(teacherPressure, roomPressure);
+            }
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values == null ? new int[0]
+                    : values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /* One randomized search: greedy construction followed by local search */
+    private static final class Search {
+        private final Index index;
+        private final SplittableRandom random;
+        private final long[] teacherBusy;
+        private final long[] roomBusy;
+        private final int[] teacherOf;
+        private final long[] periodsOf;
+        private final int[][] roomsOf;
+        private final List<List<Integer>> taughtBy;
+        // Unplaced placeable sections, with each one's position for O(1) removal
+        private final int[] unscheduled;
+        private final int[] unscheduledPosition;
+        private int unscheduledCount;
+        private long bestFoundAt;
+        // Scratch for place(), the room chosen for each week period
+        private final int[] chosenRooms;
+
+        Search(Index index, long seed) {
+            this.index = index;
+            this.random = new SplittableRandom(seed);
+            var sectionCount = index.meetingsPerWeek.length;
+            teacherBusy = new long[index.teacherCount];
+            roomBusy = new long[index.roomCount];
+            teacherOf = new int[sectionCount];
+            periodsOf = new long[sectionCount];
+            roomsOf = new int[sectionCount][];
+            taughtBy = new ArrayList<>(index.teacherCount);
+            for (var t = 0; t < index.teacherCount; t++) {
+                taughtBy.add(new ArrayList<>());
+            }
+            unscheduled = new int[sectionCount];
+            unscheduledPosition = new int[sectionCount];
+            chosenRooms = new int[Long.SIZE];
+            Arrays.fill(teacherOf, -1);
+            Arrays.fill(unscheduledPosition, -1);
+            for (var s = 0; s < sectionCount; s++) {
+                if (index.placeable[s]) {
+                    unscheduledPosition[s] = unscheduledCount;
+                    unscheduled[unscheduledCount++] = s;
+                }
+            }
+        }
+
+        int unscheduledCount() {
+            return unscheduledCount;
+        }
+
+        long bestFoundAt() {
+            return bestFoundAt;
+        }
+
+        void run(long maxIterations, long deadline, AtomicBoolean solved) {
+            construct();
+            bestFoundAt = System.nanoTime();
+            for (var iteration = 0L; unscheduledCount > 0 && iteration < maxIterations;
+                    iteration++) {
+                if ((iteration & 0xFF) == 0
+                        && (solved.get() || System.nanoTime() > deadline)) {
+                    break;
+                }
+                var before = unscheduledCount;
+                improve();
+                if (unscheduledCount < before) {
+                    bestFoundAt = System.nanoTime();
+                }
+            }
+        }
+
+        /* Hardest sections first, each on its least busy teacher that can take it */
+        private void construct() {
+            var order = Arrays.copyOf(unscheduled, unscheduledCount);
+            var keys = new double[index.pressure.length];
+            for (var s : order) {
+                keys[s] = index.pressure[s] * index.meetingsPerWeek[s]
+                        * (1 + 0.25 * random.nextDouble());
+            }
+            var sorted = Arrays.stream(order).boxed()
+                    .sorted(Comparator.comparingDouble(s -> -keys[s]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (var s : sorted) {
+                var teachers = shuffled(index.teachersOf[s]);
+                var load = new int[teachers.length];
+                for (var i = 0; i < teachers.length; i++) {
+                    load[i] = Long.bitCount(teacherBusy[teachers[i]]);
+                }
+                var byLoad = IntStream.range(0, teachers.length).boxed()
+                        .sorted(Comparator.comparingInt(i -> load[i]))
+                        .mapToInt(i -> teachers[i])
+                        .toArray();
+                for (var t : byLoad) {
+                    if (place(s, t)) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        /*
+         * Try to place a random unplaced section on a random qualified teacher, evicting one of
+         * that teacher's sections if needed. The evicted section is re-placed anywhere it fits,
+         * or takes the other's place among the unplaced.
+         */
+        private void improve() {
+            var section = unscheduled[random.nextInt(unscheduledCount)];
+            var teachers = index.teachersOf[section];
+            var teacher = teachers[random.nextInt(teachers.length)];
+            if (place(section, teacher)) {
+                return;
+            }
+            var taught = taughtBy.get(teacher);
+            if (taught.isEmpty()) {
+                return;
+            }
+            var evicted = taught.get(random.nextInt(taught.size()));
+            var evictedPeriods = periodsOf[evicted];
+            var evictedRooms = roomsOf[evicted];
+            unplace(evicted);
+            if (!place(section, teacher)) {
+                assign(evicted, teacher, evictedPeriods, evictedRooms);
+                return;
+            }
+            var candidates = index.teachersOf[evicted];
+            var offset = random.nextInt(candidates.length);
+            for (var i = 0; i < candidates.length; i++) {
+                if (place(evicted, candidates[(offset + i) % candidates.length])) {
+                    return;
+                }
+            }
+        }
+
+        /*
+         * Place the section on the teacher, spreading its meetings over the teacher's least busy
+         * days. Leaves the state untouched and returns false if the section does not fit.
+         */
+        private boolean place(int section, int teacher) {
+            var meetings = index.meetingsPerWeek[section];
+            var perDay = (meetings + WeeklySlotMask.SCHOOL_DAYS - 1) / WeeklySlotMask.SCHOOL_DAYS;
+            var busy = teacherBusy[teacher];
+            var free = ~busy & index.weekMask;
+            var days = daysByLoad(busy);
+            var chosen = 0L;
+            var placed = 0;
+            for (var round = 0; round < perDay && placed < meetings; round++) {
+                for (var day : days) {
+                    if (placed == meetings) {
+                        break;
+                    }
+                    var dayMask = index.dayMasks[day];
+                    var dayLoad = Long.bitCount((busy | chosen) & dayMask);
+                    if (dayLoad >= index.teacherMaxDaily[teacher]) {
+                        continue;
+                    }
+                    var candidates = free & ~chosen & dayMask;
+                    while (candidates != 0) {
+                        var period = randomBit(candidates);
+                        var room = freeRoom(section, period);
+                        if (room >= 0) {
+                            chosen |= 1L << period;
+                            chosenRooms[period] = room;
+                            placed++;
+                            break;
+                        }
+                        candidates &= ~(1L << period);
+                    }
+                }
+            }
+            if (placed < meetings) {
+                return false;
+            }
+
+            var rooms = new int[meetings];
+            var i = 0;
+            for (var periods = chosen; periods != 0; periods &= periods - 1) {
+                rooms[i++] = chosenRooms[Long.numberOfTrailingZeros(periods)];
+            }
+            assign(section, teacher, chosen, rooms);
+            return true;
+        }
+
+        /* Rooms are listed in the order of the periods' bits */
+        private void assign(int section, int teacher, long periods, int[] rooms) {
+            teacherBusy[teacher] |= periods;
+            var i = 0;
+            for (var remaining = periods; remaining != 0; remaining &= remaining - 1) {
+                roomBusy[rooms[i++]] |= Long.lowestOneBit(remaining);
+            }
+            teacherOf[section] = teacher;
+            periodsOf[section] = periods;
+            roomsOf[section] = rooms;
+            taughtBy.get(teacher).add(section);
+
+            var position = unscheduledPosition[section];
+            var last = unscheduled[--unscheduledCount];
+            unscheduled[position] = last;
+            unscheduledPosition[last] = position;
+            unscheduledPosition[section] = -1;
+        }
+
+        private void unplace(int section) {
+            var teacher = teacherOf[section];
+            var periods = periodsOf[section];
+            teacherBusy[teacher] &= ~periods;
+            var i = 0;
+            for (var remaining = periods; remaining != 0; remaining &= remaining - 1) {
+                roomBusy[roomsOf[section][i++]] &= ~Long.lowestOneBit(remaining);
+            }
+            teacherOf[section] = -1;
+            periodsOf[section] = 0;
+            roomsOf[section] = null;
+            taughtBy.get(teacher).remove(Integer.valueOf(section));
+
+            unscheduledPosition[section] = unscheduledCount;
+            unscheduled[unscheduledCount++] = section;
+        }
+
+        /* A random room of the section's type free in the period, or -1 */
+        private int freeRoom(int section, int period) {
+            var rooms = index.roomsOf[section];
+            var bit = 1L << period;
+            var offset = random.nextInt(rooms.length);
+            for (var i = 0; i < rooms.length; i++) {
+                var room = rooms[(offset + i) % rooms.length];
+                if ((roomBusy[room] & bit) == 0) {
+                    return room;
+                }
+            }
+            return -1;
+        }
+
+        /* School days, least busy first, ties in random order */
+        private int[] daysByLoad(long busy) {
+            var days = shuffled(IntStream.range(0, WeeklySlotMask.SCHOOL_DAYS).toArray());
+            var load = new int[days.length];
+            for (var day = 0; day < days.length; day++) {
+                load[day] = Long.bitCount(busy & index.dayMasks[day]);
+            }
+            return Arrays.stream(days).boxed()
+                    .sorted(Comparator.comparingInt(day -> load[day]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private int randomBit(long bits) {
+            for (var skip = random.nextInt(Long.bitCount(bits)); skip > 0; skip--) {
+                bits &= bits - 1;
+            }
+            return Long.numberOfTrailingZeros(bits);
+        }
+
+        private int[] shuffled(int[] values) {
+            var copy = values.clone();
+            for (var i = copy.length - 1; i > 0; i--) {
+                var j = random.nextInt(i + 1);
+                var swap = copy[i];
+                copy[i] = copy[j];
+                copy[j] = swap;
+            }
+            return copy;
+        }
+
+        List<TimetableSolution.Placement> placements() {
+            var sections = index.problem.sections();
+            var teachers = index.problem.teachers();
+            var rooms = index.problem.rooms();
+            var placements = new ArrayList<TimetableSolution.Placement>();
+            for (var s = 0; s < sections.size(); s++) {
+                if (teacherOf[s] < 0) {
+                    continue;
+                }
+                var meetings = new ArrayList<TimetableSolution.Meeting>();
+                var i = 0;
+                for (var periods = periodsOf[s]; periods != 0; periods &= periods - 1) {
+                    meetings.add(new TimetableSolution.Meeting(
+                            Long.numberOfTrailingZeros(periods), rooms.get(roomsOf[s][i++]).id()));
+                }
+                placements.add(new TimetableSolution.Placement(sections.get(s),
+                        teachers.get(teacherOf[s]).id(), meetings));
+            }
+            return placements;
+        }
+
+        List<TimetableProblem.Section> unscheduled() {
+            var sections = index.problem.sections();
+            return IntStream.range(0, sections.size())
+                    .filter(s -> teacherOf[s] < 0)
+                    .mapToObj(sections::get)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.maplewood.scheduling;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A school week as a bitmask of 5-minute slots, one bit per slot from 07:00 to 19:00 Monday to
+ * Friday: 720 bits in 12 {@code long}s.
+ * <p>
+ * Two schedules conflict exactly when their masks share a bit, so checking a section against a
+ * student's whole schedule is an AND over the few words the section touches, independent of how
+ * many meetings the schedule holds. Meetings are rounded outwards to whole slots, so meetings
+ * that merely touch inside a slot, e.g. one ending at 09:02 and one starting at 09:03, conflict.
+ * <p>
+ * Instances are immutable.
+ */
+public final class WeeklySlotMask {
+    public static final int SLOT_MINUTES = 5;
+    public static final int DAY_START_MINUTE = 7 * 60;
+    public static final int DAY_END_MINUTE = 19 * 60;
+    public static final int SLOTS_PER_DAY = (DAY_END_MINUTE - DAY_START_MINUTE) / SLOT_MINUTES;
+    public static final int SCHOOL_DAYS = 5;
+    static final int WORDS = (SLOTS_PER_DAY * SCHOOL_DAYS + Long.SIZE - 1) / Long.SIZE;
+
+    private static final WeeklySlotMask EMPTY = new WeeklySlotMask(new long[WORDS], WORDS, -1);
+
+    private final long[] words;
+    // Range of words with any bit set, so sparse masks only AND what they cover
+    private final int firstWord;
+    private final int lastWord;
+
+    private WeeklySlotMask(long[] words, int firstWord, int lastWord) {
+        this.words = words;
+        this.firstWord = firstWord;
+        this.lastWord = lastWord;
+    }
+
+    public static WeeklySlotMask empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a meeting falls on a weekend or outside school hours
+     */
+    public static WeeklySlotMask of(Collection<MeetingTime> meetings) {
+        var words = new long[WORDS];
+        for (var meeting : meetings) {
+            setSlots(words, meeting);
+        }
+        return of(words);
+    }
+
+    public static WeeklySlotMask of(MeetingTime... meetings) {
+        return of(Arrays.asList(meetings));
+    }
+
+    public boolean isEmpty() {
+        return firstWord > lastWord;
+    }
+
+    /* Whether any slot is taken in both masks */
+    public boolean intersects(WeeklySlotMask other) {
+        var from = Math.max(firstWord, other.firstWord);
+        var to = Math.min(lastWord, other.lastWord);
+        for (var i = from; i <= to; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* The slots taken in either mask */
+    public WeeklySlotMask or(WeeklySlotMask other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        var union = words.clone();
+        for (var i = other.firstWord; i <= other.lastWord; i++) {
+            union[i] |= other.words[i];
+        }
+        return new WeeklySlotMask(union, Math.min(firstWord, other.firstWord),
+                Math.max(lastWord, other.lastWord));
+    }
+
+    /* Number of taken slots */
+    public int slotCount() {
+        var count = 0;
+        for (var i = firstWord; i <= lastWord; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof WeeklySlotMask mask && Arrays.equals(words, mask.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    private static WeeklySlotMask of(long[] words) {
+        var first = 0;
+        while (first < WORDS && words[first] == 0) {
+            first++;
+        }
+        if (first == WORDS) {
+            return EMPTY;
+        }
+        var last = WORDS - 1;
+        while (words[last] == 0) {
+            last--;
+        }
+        return new WeeklySlotMask(words, first, last);
+    }
+
+    private static void setSlots(long[] words, MeetingTime meeting) {
+        var dayIndex = meeting.day().getValue() - DayOfWeek.MONDAY.getValue();
+        if (dayIndex >= SCHOOL_DAYS || meeting.startMinute() < DAY_START_MINUTE
+                || meeting.endMinute() > DAY_END_MINUTE) {
+            throw new IllegalArgumentException("Meeting outside school hours: " + meeting);
+        }
+        var dayOffset = dayIndex * SLOTS_PER_DAY;
+        var fromSlot = dayOffset + (meeting.startMinute() - DAY_START_MINUTE) / SLOT_MINUTES;
+        var toSlot = dayOffset
+                + (meeting.endMinute() - DAY_START_MINUTE + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        for (var slot = fromSlot; slot < toSlot; slot++) {
+            words[slot >>> 6] |= 1L << slot;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.maplewood.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds an {@code Integer} controller parameter to the id of the student linked to the
+ * authenticated user. Requests whose user is unknown are answered with 401, and requests whose
+ * user is not linked to a student with 400.
+ *
+ * @see AuthenticatedStudentArgumentResolver
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AuthenticatedStudent {
+}
@@ -0,0 +1,55 @@
+package com.maplewood.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+import com.maplewood.repositories.AppUserRepository;
+
+/**
+ * Resolves {@link AuthenticatedStudent} parameters from the student id stored in the
+ * {@link StudentUserDetails} principal at login, so no query is needed. Any other principal, such
+ * as one authenticated before the student id was stored, is looked up by username instead.
+ */
+public class AuthenticatedStudentArgumentResolver implements HandlerMethodArgumentResolver {
+    private final AppUserRepository appUserRepository;
+
+    public AuthenticatedStudentArgumentResolver(AppUserRepository appUserRepository) {
+        this.appUserRepository = appUserRepository;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(AuthenticatedStudent.class)
+                && Integer.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Integer resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not authenticated");
+        }
+
+        Integer studentId;
+        if (authentication.getPrincipal() instanceof StudentUserDetails studentUserDetails) {
+            studentId = studentUserDetails.getStudentId();
+        } else {
+            var user = appUserRepository.findByUsername(authentication.getName())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                            "Authenticated user not found"));
+            studentId = user.getStudent() == null ? null : user.getStudent().getId();
+        }
+
+        if (studentId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Authenticated user is not linked to a student");
+        }
+        return studentId;
+    }
+}
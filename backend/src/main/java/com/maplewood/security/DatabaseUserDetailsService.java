@@ -21,11 +21,14 @@ public class DatabaseUserDetailsService implements UserDetailsService {
         AppUser user = appUserRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return User.builder()
+        var userDetails = User.builder()
                 .username(user.getUsername())
                 .password(user.getPasswordHash())
                 .roles(user.getRole())
                 .disabled(!Boolean.TRUE.equals(user.getEnabled()))
                 .build();
+        // Reading the id off the lazy student reference does not load the student
+        var studentId = user.getStudent() == null ? null : user.getStudent().getId();
+        return new StudentUserDetails(userDetails, studentId);
     }
 }
@@ -0,0 +1,25 @@
+package com.maplewood.security;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * The logged-in user, carrying the id of the student it is linked to so requests can act on the
+ * student without looking the user up again. It lives in the session's security context for as
+ * long as the login does.
+ */
+public class StudentUserDetails extends User {
+    private final Integer studentId;
+
+    public StudentUserDetails(UserDetails user, Integer studentId) {
+        super(user.getUsername(), user.getPassword(), user.isEnabled(),
+                user.isAccountNonExpired(), user.isCredentialsNonExpired(),
+                user.isAccountNonLocked(), user.getAuthorities());
+        this.studentId = studentId;
+    }
+
+    /* Null when the user is not linked to a student */
+    public Integer getStudentId() {
+        return studentId;
+    }
+}
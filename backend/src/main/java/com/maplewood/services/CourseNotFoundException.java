@@ -0,0 +1,10 @@
+package com.maplewood.services;
+
+/**
+ * Thrown when a course id is not in the catalog.
+ */
+public class CourseNotFoundException extends RuntimeException {
+    public CourseNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,19 +1,36 @@
 package com.maplewood.services;
 
 import org.springframework.stereotype.Service;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CourseCatalog;
+import com.maplewood.catalog.CourseFilter;
+import com.maplewood.catalog.CourseKey;
+import com.maplewood.catalog.CourseSearchQuery;
+import com.maplewood.catalog.FacetedCourses;
+import com.maplewood.domain.SectionMeeting;
 import com.maplewood.domain.Semester;
+import com.maplewood.persistence.DatabaseWriteQueue;
 import com.maplewood.repositories.CourseRepository;
+import com.maplewood.repositories.CourseSectionRepository;
+import com.maplewood.repositories.SectionMeetingRepository;
 import com.maplewood.repositories.SemesterRepository;
 import com.maplewood.repositories.StudentEnrollmentRepository;
-import jakarta.transaction.Transactional;
-import com.maplewood.domain.Course;
 import com.maplewood.domain.SemesterOrder;
-import com.maplewood.domain.Student;
+import com.maplewood.scheduling.MeetingTime;
+import com.maplewood.scheduling.WeeklySlotMask;
+import com.maplewood.services.StudentService.EnrollmentErrorCode;
+import java.time.DayOfWeek;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CourseService {
@@ -21,81 +38,244 @@ public class CourseService {
     private final SemesterRepository semesterRepository;
     private final StudentService studentService;
     private final StudentEnrollmentRepository studentEnrollmentRepository;
+    private final CourseCatalog courseCatalog;
+    private final DatabaseWriteQueue databaseWriteQueue;
+    private final CourseSectionRepository courseSectionRepository;
+    private final EnrollmentMetrics enrollmentMetrics;
 
     public CourseService(
             CourseRepository courseRepository,
             SemesterRepository semesterRepository,
             StudentService studentService,
-            StudentEnrollmentRepository studentEnrollmentRepository) {
+            StudentEnrollmentRepository studentEnrollmentRepository,
+            CourseCatalog courseCatalog,
+            DatabaseWriteQueue databaseWriteQueue,
+            CourseSectionRepository courseSectionRepository,
+            EnrollmentMetrics enrollmentMetrics) {
         this.courseRepository = courseRepository;
         this.semesterRepository = semesterRepository;
         this.studentService = studentService;
         this.studentEnrollmentRepository = studentEnrollmentRepository;
+        this.courseCatalog = courseCatalog;
+        this.databaseWriteQueue = databaseWriteQueue;
+        this.courseSectionRepository = courseSectionRepository;
+        this.enrollmentMetrics = enrollmentMetrics;
     }
 
-    /* Get all courses */
-    public Page<Course> findAllCoursesLoaded(@NonNull Pageable pageable) {
-        return courseRepository.findAllWithSpecializationAndPrerequisite(pageable);
+    /* Get all courses, straight from the catalog snapshot */
+    public List<CatalogCourse> findAllCourses() {
+        return courseCatalog.snapshot().courses();
     }
 
-    /* Get courses for the active semester */
-    public Page<Course> findCoursesForActiveSemester(@NonNull Pageable pageable) {
+    /* Get courses for the active semester, straight from the catalog snapshot */
+    public List<CatalogCourse> findCoursesForActiveSemester() {
         var activeSemesterOrder = getActiveSemesterOrder();
-        return courseRepository.findAllBySemesterOrder(activeSemesterOrder, pageable);
+        return courseCatalog.snapshot().coursesFor(activeSemesterOrder);
     }
 
+    /* A page of all courses in keyset order, after the given key or from the start if null */
+    public Slice<CatalogCourse> findCoursesAfter(CourseKey after, int size) {
+        return courseCatalog.snapshot().coursesAfter(after, size, course -> true);
+    }
+
+    /* A page of the active semester's courses in keyset order, after the given key */
+    public Slice<CatalogCourse> findCoursesForActiveSemesterAfter(CourseKey after, int size) {
+        var activeSemesterOrder = getActiveSemesterOrder();
+        return courseCatalog.snapshot().coursesAfter(after, size,
+                course -> course.semesterOrder() == activeSemesterOrder);
+    }
+
+    /* Search the catalog's courses by text and facets, best match first */
+    public List<CatalogCourse> searchCourses(CourseSearchQuery query, int limit) {
+        return courseCatalog.snapshot().search(query, limit);
+    }
+
+    /* Filter the catalog's courses by facets and optional text, with the live facet counts */
+    public FacetedCourses filterCourses(String text, CourseFilter filter, int limit) {
+        return courseCatalog.snapshot().filter(text, filter, limit);
+    }
+
+    /* The course's full prerequisite chain, nearest first, from the catalog's prerequisite graph */
+    public List<CatalogCourse> findPrerequisiteChain(@NonNull Integer courseId)
+            throws CourseNotFoundException {
+        var snapshot = courseCatalog.snapshot();
+        var course = snapshot.findById(courseId)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found"));
+        return snapshot.prerequisiteChainOf(course);
+    }
+
+    /* Every course the course unlocks directly or through a chain, nearest first */
+    public List<CatalogCourse> findCoursesUnlockedBy(@NonNull Integer courseId)
+            throws CourseNotFoundException {
+        var snapshot = courseCatalog.snapshot();
+        var course = snapshot.findById(courseId)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found"));
+        return snapshot.coursesUnlockedBy(course);
+    }
 
     /**
      * Get courses for a specific student.
      * <p>
      * This returns all the courses a user can take, depending on the business logic defined in the
-     * student service.
+     * student service. Eligibility is evaluated in memory against one load of the student's
+     * history and enrollments, and the page is cut from the catalog's active-semester list.
      */
-    public Page<Course> findCoursesForStudent(@NonNull Integer studentId,
+    @Transactional(readOnly = true)
+    public Page<CatalogCourse> findCoursesForStudent(@NonNull Integer studentId,
             @NonNull Pageable pageable) {
         var student = studentService.findStudentById(studentId);
         var activeSemesterOrder = getActiveSemesterOrder();
-        var activeSemesterCourses = courseRepository.findAllCoursesBySemesterOrder(
-                activeSemesterOrder);
-        var eligibleCoursesIds = activeSemesterCourses.stream()
-                .filter(course -> studentService.canTakeCourse(student, course).isEmpty())
-                .map(Course::getId).toList();
+        var snapshot = courseCatalog.snapshot();
+        var activeSemesterCourses = snapshot.coursesFor(activeSemesterOrder);
+        var eligibleCourses =
+                studentService.findEligibleCourses(student, snapshot, activeSemesterCourses);
 
-        return courseRepository.findByIdIn(eligibleCoursesIds, pageable);
+        return toPage(eligibleCourses, pageable);
     }
 
-    @Transactional
-    public Optional<String> enrollStudentInCourse(Student student, Integer courseId)
+    /**
+     * A page of the courses a student can take, in keyset order, after the given key or from the
+     * start if it is null. Eligibility is evaluated as in
+     * {@link #findCoursesForStudent(Integer, Pageable)}; the page is then cut from the catalog's
+     * keyset order, so no count of the eligible courses is needed.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CatalogCourse> findCoursesForStudentAfter(@NonNull Integer studentId,
+            CourseKey after, int size) {
+        var student = studentService.findStudentById(studentId);
+        var activeSemesterOrder = getActiveSemesterOrder();
+        var snapshot = courseCatalog.snapshot();
+        var eligibleCourses = studentService.findEligibleCourses(student, snapshot,
+                snapshot.coursesFor(activeSemesterOrder));
+
+        var eligible = new BitSet(snapshot.size());
+        eligibleCourses.forEach(course -> eligible.set(course.index()));
+        return snapshot.coursesAfter(after, size, course -> eligible.get(course.index()));
+    }
+
+    /**
+     * Enroll a student in a course for the active semester.
+     * <p>
+     * The eligibility rules are checked first to give a precise error code, then the row is
+     * inserted through the {@link DatabaseWriteQueue} by a guarded statement that re-checks the
+     * duplicate and per-semester limit rules atomically. The writer thread applies inserts one at
+     * a time, so of two concurrent requests that both passed the checks only the first can insert.
+     */
+    public Optional<String> enrollStudentInCourse(@NonNull Integer studentId, Integer courseId)
             throws RuntimeException {
+        return enrollmentMetrics.recordEnrollment("course",
+                () -> enrollInCourse(studentId, courseId));
+    }
+
+    private Optional<String> enrollInCourse(@NonNull Integer studentId, Integer courseId) {
         var course = courseRepository.findById(Objects.requireNonNull(courseId));
         if (course.isEmpty()) {
             throw new RuntimeException("Course not found");
         }
+        var student = studentService.findStudentById(studentId);
 
         var messageCodeOpt = studentService.canTakeCourse(student, course.get());
-
         if (messageCodeOpt.isPresent()) {
             return messageCodeOpt.map(Enum::name); // Convert the EnrollmentErrorCode to its name as
                                                    // a string
-        } else {
-            var affectedRows = studentEnrollmentRepository.addEnrollment(
-                    Objects.requireNonNull(student.getId()),
-                    Objects.requireNonNull(course.get().getId()));
-            if (affectedRows == 0) {
-                throw new RuntimeException("No active semester found for enrollment");
+        }
+
+        var enrolledCourseId = Objects.requireNonNull(course.get().getId());
+        int affectedRows = databaseWriteQueue.execute(jdbcTemplate -> jdbcTemplate.update(
+                StudentEnrollmentRepository.ADD_ENROLLMENT_SQL,
+                Map.of("studentId", studentId, "courseId", enrolledCourseId,
+                        "maxActiveCourses", StudentService.MAX_COURSES_PER_SEMESTER)));
+        if (affectedRows == 0) {
+            // A guard failed because another enrollment landed in between; report which rule
+            var rejection = studentService.canTakeCourse(student, course.get());
+            if (rejection.isPresent()) {
+                return rejection.map(Enum::name);
             }
+            throw new RuntimeException("No active semester found for enrollment");
+        }
 
-            return Optional.empty();
+        return Optional.empty();
+    }
+
+    /**
+     * Enroll a student in a section of a course for the active semester.
+     * <p>
+     * Same rules as {@link #enrollStudentInCourse}, and the section's meetings must not overlap
+     * the meetings of the sections the student is already enrolled in. Both schedules are encoded
+     * as {@link WeeklySlotMask}s, so the overlap check is a few word-wise ANDs. The student's
+     * schedule is read on the writer thread right before the insert, so two concurrent requests
+     * for overlapping sections cannot both get in.
+     */
+    public Optional<String> enrollStudentInSection(@NonNull Integer studentId, Integer sectionId)
+            throws RuntimeException {
+        return enrollmentMetrics.recordEnrollment("section",
+                () -> enrollInSection(studentId, sectionId));
+    }
+
+    private Optional<String> enrollInSection(@NonNull Integer studentId, Integer sectionId) {
+        var section = courseSectionRepository
+                .findWithMeetingsById(Objects.requireNonNull(sectionId))
+                .orElseThrow(() -> new RuntimeException("Section not found"));
+        var course = section.getCourse();
+        var student = studentService.findStudentById(studentId);
+
+        var messageCodeOpt = studentService.canTakeCourse(student, course);
+        if (messageCodeOpt.isPresent()) {
+            return messageCodeOpt.map(Enum::name);
         }
 
+        var sectionMask = WeeklySlotMask.of(section.getMeetings().stream()
+                .map(SectionMeeting::toMeetingTime)
+                .toList());
+        var params = Map.of("studentId", studentId,
+                "courseId", Objects.requireNonNull(course.getId()), "sectionId", sectionId,
+                "maxActiveCourses", StudentService.MAX_COURSES_PER_SEMESTER);
+        var outcome = databaseWriteQueue.execute(jdbcTemplate -> {
+            var schedule = WeeklySlotMask.of(jdbcTemplate.query(
+                    SectionMeetingRepository.ACTIVE_SCHEDULE_SQL, Map.of("studentId", studentId),
+                    (rs, rowNum) -> new MeetingTime(DayOfWeek.of(rs.getInt(1)), rs.getInt(2),
+                            rs.getInt(3))));
+            if (schedule.intersects(sectionMask)) {
+                return SectionWriteOutcome.SCHEDULE_CONFLICT;
+            }
+            var affectedRows = jdbcTemplate.update(
+                    StudentEnrollmentRepository.ADD_SECTION_ENROLLMENT_SQL, params);
+            return affectedRows == 0 ? SectionWriteOutcome.REJECTED : SectionWriteOutcome.ENROLLED;
+        });
 
+        switch (outcome) {
+            case SCHEDULE_CONFLICT:
+                return Optional.of(EnrollmentErrorCode.SCHEDULE_CONFLICT.name());
+            case REJECTED:
+                // A guard failed because another enrollment landed in between; report which rule
+                var rejection = studentService.canTakeCourse(student, course);
+                if (rejection.isPresent()) {
+                    return rejection.map(Enum::name);
+                }
+                throw new RuntimeException("Section is not offered in the active semester");
+            default:
+                return Optional.empty();
+        }
+    }
 
+    private enum SectionWriteOutcome {
+        ENROLLED, SCHEDULE_CONFLICT, REJECTED
+    }
+
+    private static <T> Page<T> toPage(List<T> items, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(items);
+        }
+        var fromIndex = (int) Math.min(pageable.getOffset(), items.size());
+        var toIndex = Math.min(fromIndex + pageable.getPageSize(), items.size());
+        return new PageImpl<>(items.subList(fromIndex, toIndex), pageable, items.size());
     }
 
     private SemesterOrder getActiveSemesterOrder() {
         return semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc()
                 .map(Semester::getOrderInYear)
                 .filter(Objects::nonNull)
-                .orElseThrow(() -> new RuntimeException("No active semester found for courses"));
+                .orElseThrow(() -> new NoActiveSemesterException(
+                        "No active semester found for courses"));
     }
 }
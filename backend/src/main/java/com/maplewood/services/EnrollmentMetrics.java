@@ -0,0 +1,73 @@
+package com.maplewood.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import com.maplewood.services.StudentService.EnrollmentErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for the enrollment paths.
+ * <ul>
+ * <li>{@code enrollment.eligibility}: a counter per outcome of the enrollment eligibility check,
+ * {@code ELIGIBLE} or the {@link EnrollmentErrorCode} it was rejected with.</li>
+ * <li>{@code enrollment.requests}: a timer per enrollment target ({@code course} or
+ * {@code section}) and outcome, {@code ENROLLED}, the message code it was refused with, or
+ * {@code FAILED} when it threw. Its counts give the success and failure rates.</li>
+ * </ul>
+ */
+@Component
+public class EnrollmentMetrics {
+    static final String ELIGIBLE = "ELIGIBLE";
+    static final String ENROLLED = "ENROLLED";
+    static final String FAILED = "FAILED";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter eligible;
+    private final Map<EnrollmentErrorCode, Counter> rejected =
+            new EnumMap<>(EnrollmentErrorCode.class);
+
+    public EnrollmentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.eligible = eligibilityCounter(ELIGIBLE);
+        for (var code : EnrollmentErrorCode.values()) {
+            rejected.put(code, eligibilityCounter(code.name()));
+        }
+    }
+
+    /* Count the outcome of an eligibility check and pass it through */
+    public Optional<EnrollmentErrorCode> recordEligibility(Optional<EnrollmentErrorCode> outcome) {
+        outcome.map(rejected::get).orElse(eligible).increment();
+        return outcome;
+    }
+
+    /* Time an enrollment returning an optional message code, tagged with how it ended */
+    public Optional<String> recordEnrollment(String target, Supplier<Optional<String>> enrollment) {
+        var start = System.nanoTime();
+        var outcome = FAILED;
+        try {
+            var messageCode = enrollment.get();
+            outcome = messageCode.orElse(ENROLLED);
+            return messageCode;
+        } finally {
+            Timer.builder("enrollment.requests")
+                    .description("Enrollment requests by target and outcome")
+                    .tag("target", target)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Counter eligibilityCounter(String outcome) {
+        return Counter.builder("enrollment.eligibility")
+                .description("Outcomes of the enrollment eligibility check")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.maplewood.services;
+
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.maplewood.catalog.CourseCatalog;
+import com.maplewood.domain.StudentAcademicSummary;
+import com.maplewood.planning.GraduationPlanner;
+import com.maplewood.planning.GraduationPlanner.GraduationPlan;
+import com.maplewood.repositories.SemesterRepository;
+
+@Service
+public class GraduationPlanService {
+    private final StudentService studentService;
+    private final CourseCatalog courseCatalog;
+    private final SemesterRepository semesterRepository;
+    // Holds the memo of best plans, so it lives as long as the service
+    private final GraduationPlanner graduationPlanner = new GraduationPlanner(
+            StudentService.MAX_COURSES_PER_SEMESTER, StudentAcademicSummary.CREDITS_TO_GRADUATE);
+
+    public GraduationPlanService(StudentService studentService, CourseCatalog courseCatalog,
+            SemesterRepository semesterRepository) {
+        this.studentService = studentService;
+        this.courseCatalog = courseCatalog;
+        this.semesterRepository = semesterRepository;
+    }
+
+    /**
+     * The semesters the student has left, from the active one on, with the courses that get them
+     * to the credits needed to graduate soonest. Courses the student is enrolled in stay in the
+     * active semester.
+     */
+    @Transactional(readOnly = true)
+    public GraduationPlan getGraduationPlan(@NonNull Integer studentId) {
+        var student = studentService.findStudentById(studentId);
+        var activeSemester = semesterRepository
+                .findFirstByActiveTrueOrderByYearDescOrderInYearDesc()
+                .orElseThrow(() -> new RuntimeException("No active semester found for planning"));
+        if (student.getGradeLevel() == null) {
+            throw new RuntimeException("Student has no grade level");
+        }
+        var context = studentService.loadEligibilityContext(student);
+        var snapshot = courseCatalog.snapshot();
+
+        return graduationPlanner.plan(snapshot,
+                new GraduationPlanner.Start(student.getGradeLevel(),
+                        activeSemester.getOrderInYear(), activeSemester.getYear()),
+                snapshot.maskOf(context.passedCourseIds()),
+                snapshot.maskOf(context.enrolledCourseIds()));
+    }
+}
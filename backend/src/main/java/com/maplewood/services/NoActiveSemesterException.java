@@ -0,0 +1,10 @@
+package com.maplewood.services;
+
+/**
+ * Thrown when an operation needs the active semester and none is marked active.
+ */
+public class NoActiveSemesterException extends RuntimeException {
+    public NoActiveSemesterException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.maplewood.services;
 
 import java.util.List;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.maplewood.repositories.StudentCourseHistoryRepository;
 import com.maplewood.repositories.StudentCourseHistoryRepository.CourseWithStatusProjection;
 
@@ -14,6 +15,7 @@ public class StudentCourseHistoryService {
         this.studentCourseHistoryRepository = studentCourseHistoryRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<CourseWithStatusProjection> getStudentCourseHistory(Integer studentId) {
         return studentCourseHistoryRepository.findCoursesByStudentId(studentId);
     }
@@ -0,0 +1,73 @@
+package com.maplewood.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.Student;
+import com.maplewood.domain.StudentAcademicSummary;
+import com.maplewood.repositories.StudentCourseHistoryRepository.CourseWithStatusProjection;
+
+@Service
+public class StudentDashboardService {
+    private final StudentService studentService;
+    private final StudentCourseHistoryService studentCourseHistoryService;
+    private final StudentEnrollmentService studentEnrollmentService;
+    private final Executor executor;
+
+    public StudentDashboardService(StudentService studentService,
+            StudentCourseHistoryService studentCourseHistoryService,
+            StudentEnrollmentService studentEnrollmentService,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+            Executor executor) {
+        this.studentService = studentService;
+        this.studentCourseHistoryService = studentCourseHistoryService;
+        this.studentEnrollmentService = studentEnrollmentService;
+        this.executor = executor;
+    }
+
+    /**
+     * Everything the student dashboard shows, for one request instead of three.
+     * <p>
+     * The four reads, student, academic summary, course history and enrollments, are
+     * independent, so they run concurrently on the application task executor, each on its own
+     * connection, and the call takes about as long as the slowest of them.
+     * Entities in the result are detached; only their own columns can be read.
+     */
+    public StudentDashboardSummary getStudentDashboardSummary(@NonNull Integer studentId) {
+        var student = load(() -> studentService.findStudentById(studentId));
+        var academicSummary = load(() -> studentService.getAcademicSummary(studentId));
+        var courseHistory =
+                load(() -> studentCourseHistoryService.getStudentCourseHistory(studentId));
+        var enrolledCourses =
+                load(() -> studentEnrollmentService.getActiveSemesterEnrollments(studentId));
+
+        try {
+            return CompletableFuture.allOf(student, academicSummary, courseHistory, enrolledCourses)
+                    .thenApply(done -> new StudentDashboardSummary(student.join(),
+                            academicSummary.join(), courseHistory.join(),
+                            enrolledCourses.join()))
+                    .join();
+        } catch (CompletionException e) {
+            // Surface what the failing read threw, as the sequential endpoints do
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> load(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    public record StudentDashboardSummary(Student student, StudentAcademicSummary academicSummary,
+            List<CourseWithStatusProjection> courseHistory, List<Course> enrolledCourses) {
+    }
+}
@@ -2,6 +2,7 @@ package com.maplewood.services;
 
 import java.util.List;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.maplewood.domain.Course;
 import com.maplewood.repositories.StudentEnrollmentRepository;
 
@@ -13,6 +14,7 @@ public class StudentEnrollmentService {
         this.studentEnrollmentRepository = studentEnrollmentRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<Course> getActiveSemesterEnrollments(Integer studentId) {
         return studentEnrollmentRepository.findEnrolledCoursesByStudentIdInActiveSemester(studentId);
     }
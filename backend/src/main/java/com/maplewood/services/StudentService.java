@@ -1,30 +1,43 @@
 package com.maplewood.services;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CatalogSnapshot;
 import com.maplewood.domain.Course;
 import com.maplewood.domain.Student;
+import com.maplewood.domain.StudentAcademicSummary;
 import com.maplewood.domain.StudentEnrollmentStatus;
+import com.maplewood.repositories.StudentAcademicSummaryRepository;
 import com.maplewood.repositories.StudentCourseHistoryRepository;
 import com.maplewood.repositories.StudentEnrollmentRepository;
 import com.maplewood.repositories.StudentRepository;
 
 @Service
 public class StudentService {
-    private static final int MAX_COURSES_PER_SEMESTER = 5;
+    public static final int MAX_COURSES_PER_SEMESTER = 5;
 
     private final StudentRepository studentRepository;
     private final StudentCourseHistoryRepository studentCourseHistoryRepository;
     private final StudentEnrollmentRepository studentEnrollmentRepository;
+    private final StudentAcademicSummaryRepository studentAcademicSummaryRepository;
+    private final EnrollmentMetrics enrollmentMetrics;
 
     public StudentService(StudentRepository studentRepository,
             StudentCourseHistoryRepository studentCourseHistoryRepository,
-            StudentEnrollmentRepository studentEnrollmentRepository) {
+            StudentEnrollmentRepository studentEnrollmentRepository,
+            StudentAcademicSummaryRepository studentAcademicSummaryRepository,
+            EnrollmentMetrics enrollmentMetrics) {
         this.studentRepository = studentRepository;
         this.studentCourseHistoryRepository = studentCourseHistoryRepository;
         this.studentEnrollmentRepository = studentEnrollmentRepository;
+        this.studentAcademicSummaryRepository = studentAcademicSummaryRepository;
+        this.enrollmentMetrics = enrollmentMetrics;
     }
 
     public Student findStudentById(@NonNull Integer studentId) throws RuntimeException {
@@ -33,14 +46,23 @@ public class StudentService {
     }
 
 
+    @Transactional(readOnly = true)
     public StudentDashboardInformation getStudentDashboardInformation(@NonNull Integer studentId) {
         var student = findStudentById(studentId);
-        var earnedCredits = studentCourseHistoryRepository.findEarnedCreditsByStudentId(studentId);
-        return new StudentDashboardInformation(student,
-                earnedCredits == null ? 0.0 : earnedCredits);
+        return new StudentDashboardInformation(student, getAcademicSummary(studentId));
     }
 
-    public record StudentDashboardInformation(Student student, Double earnedCredits) {
+    /**
+     * Credits, GPA and graduation progress from the trigger-maintained summary row, a primary key
+     * lookup. A student without a row has no history or enrollments yet.
+     */
+    public StudentAcademicSummary getAcademicSummary(@NonNull Integer studentId) {
+        return studentAcademicSummaryRepository.findById(studentId)
+                .orElseGet(() -> StudentAcademicSummary.empty(studentId));
+    }
+
+    public record StudentDashboardInformation(Student student,
+            StudentAcademicSummary academicSummary) {
     }
 
     /**
@@ -61,34 +83,100 @@ public class StudentService {
      *         if they can.
      */
     public Optional<EnrollmentErrorCode> canTakeCourse(Student student, Course course) {
-        if (student == null || course == null || student.getId() == null || course.getId() == null
-                || student.getGradeLevel() == null || course.getGradeLevelMin() == null
-                || course.getGradeLevelMax() == null) {
+        if (course == null) {
+            return enrollmentMetrics.recordEligibility(
+                    Optional.of(EnrollmentErrorCode.INVALID_INPUT));
+        }
+        return enrollmentMetrics.recordEligibility(evaluate(student, CourseRequirements.of(course),
+                new RepositoryEligibilitySource(student)));
+    }
+
+    /**
+     * Load everything {@link #canTakeCourse(Student, CatalogCourse, EligibilityContext)} needs for a
+     * student in three queries, so a whole course list can be checked in memory.
+     */
+    @Transactional(readOnly = true)
+    public EligibilityContext loadEligibilityContext(@NonNull Student student) {
+        var studentId = Objects.requireNonNull(student.getId());
+        return new EligibilityContext(
+                studentCourseHistoryRepository.findPassedCourseIdsByStudentId(studentId),
+                studentEnrollmentRepository.findEnrolledCourseIdsByStudentId(studentId),
+                studentEnrollmentRepository
+                        .countEnrolledCoursesByStudentIdInActiveSemester(studentId));
+    }
+
+    /**
+     * Same rules as {@link #canTakeCourse(Student, Course)} for a catalog course, evaluated
+     * against a preloaded {@link EligibilityContext} instead of querying the database per course.
+     */
+    public Optional<EnrollmentErrorCode> canTakeCourse(Student student, CatalogCourse course,
+            EligibilityContext context) {
+        if (course == null) {
+            return Optional.of(EnrollmentErrorCode.INVALID_INPUT);
+        }
+        return evaluate(student, CourseRequirements.of(course), context);
+    }
+
+    /**
+     * Filter the given courses down to the ones the student can take, preserving their order. The
+     * student's history and enrollments are loaded once for the whole list.
+     *
+     * @param snapshot The catalog snapshot the courses were taken from.
+     */
+    public List<CatalogCourse> findEligibleCourses(@NonNull Student student,
+            CatalogSnapshot snapshot, List<CatalogCourse> courses) {
+        return filterEligibleCourses(student, snapshot, courses, loadEligibilityContext(student));
+    }
+
+    /**
+     * Same result as checking every course with
+     * {@link #canTakeCourse(Student, CatalogCourse, EligibilityContext)}, but the student's passed
+     * and enrolled courses are turned into bitmasks once and combined with the snapshot's
+     * precomputed grade-level and prerequisite masks, so each course costs a single bit test.
+     */
+    public List<CatalogCourse> filterEligibleCourses(Student student, CatalogSnapshot snapshot,
+            List<CatalogCourse> courses, EligibilityContext context) {
+        if (student == null || student.getGradeLevel() == null
+                || context.activeSemesterEnrollmentCount() >= MAX_COURSES_PER_SEMESTER) {
+            return List.of();
+        }
+
+        var eligible = snapshot.eligibleCourses(student.getGradeLevel(),
+                snapshot.maskOf(context.passedCourseIds()),
+                snapshot.maskOf(context.enrolledCourseIds()));
+        return courses.stream()
+                .filter(course -> eligible.get(course.index()))
+                .toList();
+    }
+
+    private Optional<EnrollmentErrorCode> evaluate(Student student, CourseRequirements course,
+            EligibilitySource source) {
+        if (student == null || student.getId() == null || course.courseId() == null
+                || student.getGradeLevel() == null || course.gradeLevelMin() == null
+                || course.gradeLevelMax() == null) {
             return Optional.of(EnrollmentErrorCode.INVALID_INPUT);
         }
 
         // Check if the student has the required grade level
-        if (student.getGradeLevel() < course.getGradeLevelMin()
-                || student.getGradeLevel() > course.getGradeLevelMax()) {
+        if (student.getGradeLevel() < course.gradeLevelMin()
+                || student.getGradeLevel() > course.gradeLevelMax()) {
             return Optional.of(EnrollmentErrorCode.GRADE_LEVEL_MISMATCH);
         }
 
         // Check if the student has already passed this course
-        var passedCourseIds = studentCourseHistoryRepository
-                .findPassedCourseIdsByStudentId(Objects.requireNonNull(student.getId()));
-        if (passedCourseIds.contains(course.getId())) {
+        var passedCourseIds = source.passedCourseIds();
+        if (passedCourseIds.contains(course.courseId())) {
             return Optional.of(EnrollmentErrorCode.COURSE_ALREADY_PASSED);
         }
 
         // Check if the student is already enrolled in this course
-        if (studentEnrollmentRepository.existsByStudentIdAndCourseIdAndStatus(student.getId(),
-                course.getId(), StudentEnrollmentStatus.ENROLLED)) {
+        if (source.isEnrolledIn(course.courseId())) {
             return Optional.of(EnrollmentErrorCode.COURSE_ALREADY_ENROLLED);
         }
 
         // Check if the student has taken the prerequisite course
-        if (course.getPrerequisite() != null) {
-            var prerequisiteCourseId = course.getPrerequisite().getId();
+        if (course.hasPrerequisite()) {
+            var prerequisiteCourseId = course.prerequisiteId();
 
             if (prerequisiteCourseId == null || !passedCourseIds.contains(prerequisiteCourseId)) {
                 return Optional.of(EnrollmentErrorCode.PREREQUISITE_NOT_MET);
@@ -96,17 +184,84 @@ public class StudentService {
         }
 
         // Check if the student is already at the max number of courses in the active semester.
-        if (studentEnrollmentRepository.countEnrolledCoursesByStudentIdInActiveSemester(
-                Objects.requireNonNull(student.getId())) >= MAX_COURSES_PER_SEMESTER) {
+        if (source.activeSemesterEnrollmentCount() >= MAX_COURSES_PER_SEMESTER) {
             return Optional.of(EnrollmentErrorCode.MAX_COURSES_REACHED);
         }
 
-        // Time-slot conflicts are not validated here yet because the current domain model does not
-        // include section/time-slot enrollment entities for active-semester schedules.
+        // Time-slot conflicts depend on the section, not the course; section enrollments check
+        // them against the student's schedule when writing (CourseService.enrollStudentInSection).
         return Optional.empty();
     }
 
+    /* The course attributes the eligibility rules depend on, from an entity or the catalog. */
+    private record CourseRequirements(Integer courseId, Integer gradeLevelMin,
+            Integer gradeLevelMax, boolean hasPrerequisite, Integer prerequisiteId) {
+        static CourseRequirements of(Course course) {
+            var prerequisite = course.getPrerequisite();
+            return new CourseRequirements(course.getId(), course.getGradeLevelMin(),
+                    course.getGradeLevelMax(), prerequisite != null,
+                    prerequisite == null ? null : prerequisite.getId());
+        }
+
+        static CourseRequirements of(CatalogCourse course) {
+            return new CourseRequirements(course.id(), course.gradeLevelMin(),
+                    course.gradeLevelMax(), course.hasPrerequisite(), course.prerequisiteId());
+        }
+    }
+
+    /* The per-student facts the eligibility rules depend on. */
+    private interface EligibilitySource {
+        Set<Integer> passedCourseIds();
+
+        boolean isEnrolledIn(Integer courseId);
+
+        long activeSemesterEnrollmentCount();
+    }
+
+    /**
+     * A student's passed courses, currently enrolled courses and active-semester course count,
+     * loaded once and reused across eligibility checks.
+     */
+    public record EligibilityContext(Set<Integer> passedCourseIds, Set<Integer> enrolledCourseIds,
+            long activeSemesterEnrollmentCount) implements EligibilitySource {
+        @Override
+        public boolean isEnrolledIn(Integer courseId) {
+            return enrolledCourseIds.contains(courseId);
+        }
+    }
+
+    /* Queries lazily, so a course rejected early never touches the later tables. */
+    private final class RepositoryEligibilitySource implements EligibilitySource {
+        private final Integer studentId;
+        private Set<Integer> passedCourseIds;
+
+        private RepositoryEligibilitySource(Student student) {
+            this.studentId = student == null ? null : student.getId();
+        }
+
+        @Override
+        public Set<Integer> passedCourseIds() {
+            if (passedCourseIds == null) {
+                passedCourseIds = studentCourseHistoryRepository
+                        .findPassedCourseIdsByStudentId(Objects.requireNonNull(studentId));
+            }
+            return passedCourseIds;
+        }
+
+        @Override
+        public boolean isEnrolledIn(Integer courseId) {
+            return studentEnrollmentRepository.existsByStudentIdAndCourseIdAndStatus(studentId,
+                    courseId, StudentEnrollmentStatus.ENROLLED);
+        }
+
+        @Override
+        public long activeSemesterEnrollmentCount() {
+            return studentEnrollmentRepository.countEnrolledCoursesByStudentIdInActiveSemester(
+                    Objects.requireNonNull(studentId));
+        }
+    }
+
     public enum EnrollmentErrorCode {
-        INVALID_INPUT, GRADE_LEVEL_MISMATCH, COURSE_ALREADY_PASSED, COURSE_ALREADY_ENROLLED, PREREQUISITE_NOT_MET, MAX_COURSES_REACHED
+        INVALID_INPUT, GRADE_LEVEL_MISMATCH, COURSE_ALREADY_PASSED, COURSE_ALREADY_ENROLLED, PREREQUISITE_NOT_MET, MAX_COURSES_REACHED, SCHEDULE_CONFLICT
     }
 }
@@ -0,0 +1,303 @@
+package com.maplewood.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import com.maplewood.config.TimetableProperties;
+import com.maplewood.domain.CourseHistoryStatus;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.StudentStatus;
+import com.maplewood.persistence.DatabaseWriteQueue;
+import com.maplewood.repositories.SemesterRepository;
+import com.maplewood.scheduling.TimetableProblem;
+import com.maplewood.scheduling.TimetableSolution;
+import com.maplewood.scheduling.TimetableSolver;
+import com.maplewood.scheduling.WeeklySlotMask;
+
+/**
+ * Generates the timetable of the active semester: how many sections each course needs, and for
+ * each section a teacher, rooms and meeting periods.
+ * <p>
+ * Section counts follow demand. Every active student who can take a course counts towards it,
+ * weighted so a student counts for at most {@link StudentService#MAX_COURSES_PER_SEMESTER}
+ * courses in total, and a course gets enough sections of room capacity for its demand. Where a
+ * specialization's teachers cannot cover that many periods, the most over-provisioned courses
+ * give up sections until they can. The sections are then placed by the {@link TimetableSolver}.
+ */
+@Service
+public class TimetableService {
+    private static final Logger log = LoggerFactory.getLogger(TimetableService.class);
+
+    static final String COURSES_SQL = """
+            SELECT c.id, c.specialization_id, sp.room_type_id, c.hours_per_week
+            FROM courses c
+            JOIN specializations sp ON sp.id = c.specialization_id
+            WHERE c.semester_order = :semesterOrder
+            ORDER BY c.id
+            """;
+
+    static final String TEACHERS_SQL = """
+            SELECT id, specialization_id, COALESCE(max_daily_hours, 4) AS max_daily_hours
+            FROM teachers
+            ORDER BY id
+            """;
+
+    static final String ROOMS_SQL = """
+            SELECT id, room_type_id, COALESCE(capacity, 10) AS capacity
+            FROM classrooms
+            ORDER BY id
+            """;
+
+    /* Active students and the courses of the semester they could enroll in */
+    static final String CANDIDATES_SQL = """
+            SELECT s.id AS student_id, c.id AS course_id
+            FROM students s
+            JOIN courses c
+                    ON s.grade_level BETWEEN c.grade_level_min AND c.grade_level_max
+            WHERE s.status = :activeStatus
+                    AND c.semester_order = :semesterOrder
+                    AND NOT EXISTS (
+                            SELECT 1 FROM student_course_history h
+                            WHERE h.student_id = s.id
+                                    AND h.course_id = c.id
+                                    AND h.status = :passedStatus)
+                    AND (c.prerequisite_id IS NULL OR EXISTS (
+                            SELECT 1 FROM student_course_history h
+                            WHERE h.student_id = s.id
+                                    AND h.course_id = c.prerequisite_id
+                                    AND h.status = :passedStatus))
+            """;
+
+    static final String COUNT_SECTIONS_SQL =
+            "SELECT COUNT(*) FROM course_sections WHERE semester_id = :semesterId";
+
+    static final String INSERT_SECTION_SQL = """
+            INSERT INTO course_sections (course_id, semester_id, section_code, created_at)
+            VALUES (:courseId, :semesterId, :sectionCode, CURRENT_TIMESTAMP)
+            """;
+
+    // The SQLite driver does not return generated keys, so sections are found by their unique key
+    static final String SECTION_ID_SQL = """
+            SELECT id FROM course_sections
+            WHERE course_id = :courseId
+                    AND semester_id = :semesterId
+                    AND section_code = :sectionCode
+            """;
+
+    static final String INSERT_MEETING_SQL = """
+            INSERT INTO section_meetings
+                    (section_id, day_of_week, start_minute, end_minute, classroom_id, teacher_id)
+            VALUES (:sectionId, :dayOfWeek, :startMinute, :endMinute, :classroomId, :teacherId)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SemesterRepository semesterRepository;
+    private final DatabaseWriteQueue databaseWriteQueue;
+    private final TimetableSolver timetableSolver;
+    private final TimetableProperties timetableProperties;
+
+    public TimetableService(NamedParameterJdbcTemplate jdbcTemplate,
+            SemesterRepository semesterRepository,
+            DatabaseWriteQueue databaseWriteQueue,
+            TimetableSolver timetableSolver,
+            TimetableProperties timetableProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.semesterRepository = semesterRepository;
+        this.databaseWriteQueue = databaseWriteQueue;
+        this.timetableSolver = timetableSolver;
+        this.timetableProperties = timetableProperties;
+    }
+
+    /**
+     * Generate and store the timetable of the active semester. Sections that could not be placed
+     * are logged and left out.
+     *
+     * @return The stored solution, or empty if the semester already has sections.
+     */
+    public Optional<TimetableSolution> generateForActiveSemester() throws RuntimeException {
+        var semester = semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc()
+                .orElseThrow(() -> new RuntimeException("No active semester found for timetable"));
+        var semesterId = semester.getId();
+        if (countSections(jdbcTemplate, semesterId) > 0) {
+            return Optional.empty();
+        }
+
+        var problem = loadProblem(semester.getOrderInYear());
+        var solution = timetableSolver.solve(problem, new TimetableSolver.Options(
+                timetableProperties.getRestarts(), timetableProperties.getMaxIterations(),
+                timetableProperties.getTimeLimit(), timetableProperties.getSeed()));
+        log.info("Timetable for semester {}: {} of {} sections placed in {} ms ({} searches)",
+                semesterId, solution.placements().size(), problem.sections().size(),
+                solution.elapsed().toMillis(), solution.restarts());
+        if (!solution.isFeasible()) {
+            log.warn("Could not place {} sections: {}", solution.unscheduled().size(),
+                    solution.unscheduled());
+        }
+
+        // Re-checked on the writer, so a concurrent generation cannot store a second timetable
+        boolean stored = databaseWriteQueue.execute(writer -> {
+            if (countSections(writer, semesterId) > 0) {
+                return false;
+            }
+            storeSolution(writer, semesterId, problem.grid(), solution);
+            return true;
+        });
+        return stored ? Optional.of(solution) : Optional.empty();
+    }
+
+    /**
+     * The sections the courses of {@code semesterOrder} need, and the school's teachers and
+     * rooms.
+     */
+    public TimetableProblem loadProblem(SemesterOrder semesterOrder) {
+        var semesterParams = Map.of("semesterOrder", semesterOrder.getCode());
+        var courses = jdbcTemplate.query(COURSES_SQL, semesterParams,
+                (rs, rowNum) -> new CourseDemand(rs.getInt("id"), rs.getInt("specialization_id"),
+                        rs.getInt("room_type_id"), rs.getInt("hours_per_week")));
+        var teachers = jdbcTemplate.query(TEACHERS_SQL,
+                (rs, rowNum) -> new TimetableProblem.Teacher(rs.getInt("id"),
+                        rs.getInt("specialization_id"), rs.getInt("max_daily_hours")));
+        var rooms = jdbcTemplate.query(ROOMS_SQL,
+                (rs, rowNum) -> new TimetableProblem.Room(rs.getInt("id"),
+                        rs.getInt("room_type_id"), rs.getInt("capacity")));
+
+        var candidateCourses = new HashMap<Integer, List<Integer>>();
+        jdbcTemplate.query(CANDIDATES_SQL, Map.of("semesterOrder", semesterOrder.getCode(),
+                "activeStatus", StudentStatus.ACTIVE.getValue(),
+                "passedStatus", CourseHistoryStatus.PASSED.getValue()),
+                rs -> {
+                    candidateCourses.computeIfAbsent(rs.getInt("student_id"),
+                            key -> new ArrayList<>()).add(rs.getInt("course_id"));
+                });
+        var demand = new HashMap<Integer, Double>();
+        for (var courseIds : candidateCourses.values()) {
+            var share = Math.min(StudentService.MAX_COURSES_PER_SEMESTER, courseIds.size())
+                    / (double) courseIds.size();
+            for (var courseId : courseIds) {
+                demand.merge(courseId, share, Double::sum);
+            }
+        }
+
+        var grid = new TimetableProblem.PeriodGrid(
+                timetableProperties.getFirstPeriodStart().toSecondOfDay() / 60,
+                timetableProperties.getPeriodMinutes(), timetableProperties.getPassingMinutes(),
+                timetableProperties.getPeriodsPerDay());
+        var sections = planSections(courses, demand, teachers, rooms, grid,
+                timetableProperties.getTeacherLoad());
+        return new TimetableProblem(sections, teachers, rooms, grid);
+    }
+
+    record CourseDemand(int courseId, int specializationId, int roomTypeId, int hoursPerWeek) {
+    }
+
+    /*
+     * At least one section per course, enough for the course's demand, then trimmed per
+     * specialization to teacherLoad of its teachers' periods
+     */
+    static List<TimetableProblem.Section> planSections(List<CourseDemand> courses,
+            Map<Integer, Double> demand, List<TimetableProblem.Teacher> teachers,
+            List<TimetableProblem.Room> rooms, TimetableProblem.PeriodGrid grid,
+            double teacherLoad) {
+        var roomCapacity = new HashMap<Integer, Integer>();
+        for (var room : rooms) {
+            roomCapacity.merge(room.roomTypeId(), room.capacity(), Math::max);
+        }
+        var teacherPeriods = new HashMap<Integer, Integer>();
+        for (var teacher : teachers) {
+            teacherPeriods.merge(teacher.specializationId(),
+                    Math.min(teacher.maxDailyPeriods(), grid.periodsPerDay())
+                            * WeeklySlotMask.SCHOOL_DAYS,
+                    Integer::sum);
+        }
+
+        var sectionCounts = new int[courses.size()];
+        var plannedPeriods = new HashMap<Integer, Integer>();
+        for (var i = 0; i < courses.size(); i++) {
+            var course = courses.get(i);
+            var capacity = Math.max(1, roomCapacity.getOrDefault(course.roomTypeId(), 1));
+            sectionCounts[i] = Math.max(1,
+                    (int) Math.ceil(demand.getOrDefault(course.courseId(), 0.0) / capacity));
+            plannedPeriods.merge(course.specializationId(),
+                    sectionCounts[i] * course.hoursPerWeek(), Integer::sum);
+        }
+
+        for (var entry : plannedPeriods.entrySet()) {
+            var specializationId = entry.getKey();
+            var available = (int) (teacherPeriods.getOrDefault(specializationId, 0) * teacherLoad);
+            var planned = entry.getValue();
+            while (planned > available) {
+                // Drop a section from the course with the most seats per unit of demand
+                var trimmed = -1;
+                var mostSlack = Double.NEGATIVE_INFINITY;
+                for (var i = 0; i < courses.size(); i++) {
+                    var course = courses.get(i);
+                    if (course.specializationId() != specializationId || sectionCounts[i] <= 1) {
+                        continue;
+                    }
+                    var slack = sectionCounts[i]
+                            / Math.max(1.0, demand.getOrDefault(course.courseId(), 0.0));
+                    if (slack > mostSlack) {
+                        mostSlack = slack;
+                        trimmed = i;
+                    }
+                }
+                if (trimmed < 0) {
+                    break;
+                }
+                sectionCounts[trimmed]--;
+                planned -= courses.get(trimmed).hoursPerWeek();
+            }
+        }
+
+        var sections = new ArrayList<TimetableProblem.Section>();
+        for (var i = 0; i < courses.size(); i++) {
+            var course = courses.get(i);
+            for (var number = 1; number <= sectionCounts[i]; number++) {
+                sections.add(new TimetableProblem.Section(course.courseId(),
+                        String.format("%02d", number), course.specializationId(),
+                        course.roomTypeId(), course.hoursPerWeek()));
+            }
+        }
+        return sections;
+    }
+
+    private static int countSections(NamedParameterJdbcTemplate jdbcTemplate, Integer semesterId) {
+        var count = jdbcTemplate.queryForObject(COUNT_SECTIONS_SQL,
+                Map.of("semesterId", semesterId), Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static void storeSolution(NamedParameterJdbcTemplate writer, Integer semesterId,
+            TimetableProblem.PeriodGrid grid, TimetableSolution solution) {
+        for (var placement : solution.placements()) {
+            var sectionParams = new MapSqlParameterSource()
+                    .addValue("courseId", placement.section().courseId())
+                    .addValue("semesterId", semesterId)
+                    .addValue("sectionCode", placement.section().code());
+            writer.update(INSERT_SECTION_SQL, sectionParams);
+            var sectionId = writer.queryForObject(SECTION_ID_SQL, sectionParams, Integer.class);
+
+            var meetings = placement.meetings().stream()
+                    .map(meeting -> {
+                        var time = grid.meetingTime(meeting.weekPeriod());
+                        return (SqlParameterSource) new MapSqlParameterSource()
+                                .addValue("sectionId", sectionId)
+                                .addValue("dayOfWeek", time.day().getValue())
+                                .addValue("startMinute", time.startMinute())
+                                .addValue("endMinute", time.endMinute())
+                                .addValue("classroomId", meeting.roomId())
+                                .addValue("teacherId", placement.teacherId());
+                    })
+                    .toArray(SqlParameterSource[]::new);
+            writer.batchUpdate(INSERT_MEETING_SQL, meetings);
+        }
+    }
+}
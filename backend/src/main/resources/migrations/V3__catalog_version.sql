@@ -0,0 +1,47 @@
+-- Single-row counter the backend polls to detect catalog changes.
+-- Every write to courses or specializations bumps it, so the in-memory course catalog
+-- can rebuild its snapshot without re-reading the tables on every request.
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    version INTEGER NOT NULL DEFAULT 0,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT OR IGNORE INTO catalog_version (id, version, updated_at)
+VALUES (1, 0, CURRENT_TIMESTAMP);
+
+CREATE TRIGGER IF NOT EXISTS bump_catalog_version_course_insert
+    AFTER INSERT ON courses
+BEGIN
+    UPDATE catalog_version SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = 1;
+END;
+
+CREATE TRIGGER IF NOT EXISTS bump_catalog_version_course_update
+    AFTER UPDATE ON courses
+BEGIN
+    UPDATE catalog_version SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = 1;
+END;
+
+CREATE TRIGGER IF NOT EXISTS bump_catalog_version_course_delete
+    AFTER DELETE ON courses
+BEGIN
+    UPDATE catalog_version SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = 1;
+END;
+
+CREATE TRIGGER IF NOT EXISTS bump_catalog_version_specialization_insert
+    AFTER INSERT ON specializations
+BEGIN
+    UPDATE catalog_version SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = 1;
+END;
+
+CREATE TRIGGER IF NOT EXISTS bump_catalog_version_specialization_update
+    AFTER UPDATE ON specializations
+BEGIN
+    UPDATE catalog_version SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = 1;
+END;
+
+CREATE TRIGGER IF NOT EXISTS bump_catalog_version_specialization_delete
+    AFTER DELETE ON specializations
+BEGIN
+    UPDATE catalog_version SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = 1;
+END;
@@ -0,0 +1,162 @@
+-- Per-student academic read model, so the dashboard reads one row by primary key instead of
+-- aggregating the course history on every request.
+--
+-- Triggers keep it current as history rows and enrollments are written: each write adds or
+-- subtracts its own course's credits, then the derived columns are recomputed from the counters.
+-- GPA follows the convention in DATABASE.md, (earned credits / attempted credits) * 4.0, since the
+-- history only records pass or fail. Graduation requires 30 credits.
+CREATE TABLE IF NOT EXISTS student_academic_summary (
+    student_id INTEGER PRIMARY KEY,
+    earned_credits REAL NOT NULL DEFAULT 0,
+    attempted_credits REAL NOT NULL DEFAULT 0,
+    passed_count INTEGER NOT NULL DEFAULT 0,
+    failed_count INTEGER NOT NULL DEFAULT 0,
+    gpa REAL NOT NULL DEFAULT 0,
+    graduation_progress REAL NOT NULL DEFAULT 0,
+    enrolled_credits REAL NOT NULL DEFAULT 0,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES students(id)
+);
+
+-- History
+
+CREATE TRIGGER IF NOT EXISTS academic_summary_history_insert
+    AFTER INSERT ON student_course_history
+BEGIN
+    INSERT INTO student_academic_summary (student_id) VALUES (NEW.student_id)
+        ON CONFLICT (student_id) DO NOTHING;
+    UPDATE student_academic_summary
+    SET attempted_credits = attempted_credits
+            + (SELECT credits FROM courses WHERE id = NEW.course_id),
+        earned_credits = earned_credits + CASE WHEN NEW.status = 'passed'
+            THEN (SELECT credits FROM courses WHERE id = NEW.course_id) ELSE 0 END,
+        passed_count = passed_count + (NEW.status = 'passed'),
+        failed_count = failed_count + (NEW.status = 'failed')
+    WHERE student_id = NEW.student_id;
+    UPDATE student_academic_summary
+    SET gpa = CASE WHEN attempted_credits > 0
+            THEN ROUND(earned_credits / attempted_credits * 4.0, 2) ELSE 0 END,
+        graduation_progress = MIN(earned_credits / 30.0, 1.0),
+        updated_at = CURRENT_TIMESTAMP
+    WHERE student_id = NEW.student_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS academic_summary_history_delete
+    AFTER DELETE ON student_course_history
+BEGIN
+    UPDATE student_academic_summary
+    SET attempted_credits = attempted_credits
+            - (SELECT credits FROM courses WHERE id = OLD.course_id),
+        earned_credits = earned_credits - CASE WHEN OLD.status = 'passed'
+            THEN (SELECT credits FROM courses WHERE id = OLD.course_id) ELSE 0 END,
+        passed_count = passed_count - (OLD.status = 'passed'),
+        failed_count = failed_count - (OLD.status = 'failed')
+    WHERE student_id = OLD.student_id;
+    UPDATE student_academic_summary
+    SET gpa = CASE WHEN attempted_credits > 0
+            THEN ROUND(earned_credits / attempted_credits * 4.0, 2) ELSE 0 END,
+        graduation_progress = MIN(earned_credits / 30.0, 1.0),
+        updated_at = CURRENT_TIMESTAMP
+    WHERE student_id = OLD.student_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS academic_summary_history_update
+    AFTER UPDATE OF student_id, course_id, status ON student_course_history
+BEGIN
+    UPDATE student_academic_summary
+    SET attempted_credits = attempted_credits
+            - (SELECT credits FROM courses WHERE id = OLD.course_id),
+        earned_credits = earned_credits - CASE WHEN OLD.status = 'passed'
+            THEN (SELECT credits FROM courses WHERE id = OLD.course_id) ELSE 0 END,
+        passed_count = passed_count - (OLD.status = 'passed'),
+        failed_count = failed_count - (OLD.status = 'failed')
+    WHERE student_id = OLD.student_id;
+    INSERT INTO student_academic_summary (student_id) VALUES (NEW.student_id)
+        ON CONFLICT (student_id) DO NOTHING;
+    UPDATE student_academic_summary
+    SET attempted_credits = attempted_credits
+            + (SELECT credits FROM courses WHERE id = NEW.course_id),
+        earned_credits = earned_credits + CASE WHEN NEW.status = 'passed'
+            THEN (SELECT credits FROM courses WHERE id = NEW.course_id) ELSE 0 END,
+        passed_count = passed_count + (NEW.status = 'passed'),
+        failed_count = failed_count + (NEW.status = 'failed')
+    WHERE student_id = NEW.student_id;
+    UPDATE student_academic_summary
+    SET gpa = CASE WHEN attempted_credits > 0
+            THEN ROUND(earned_credits / attempted_credits * 4.0, 2) ELSE 0 END,
+        graduation_progress = MIN(earned_credits / 30.0, 1.0),
+        updated_at = CURRENT_TIMESTAMP
+    WHERE student_id IN (OLD.student_id, NEW.student_id);
+END;
+
+-- Enrollments: credits the student is currently enrolled in. Completing or dropping an
+-- enrollment takes its credits out; the grade arrives as a history row.
+
+CREATE TRIGGER IF NOT EXISTS academic_summary_enrollment_insert
+    AFTER INSERT ON student_enrollments
+    WHEN NEW.status = 'enrolled'
+BEGIN
+    INSERT INTO student_academic_summary (student_id) VALUES (NEW.student_id)
+        ON CONFLICT (student_id) DO NOTHING;
+    UPDATE student_academic_summary
+    SET enrolled_credits = enrolled_credits
+            + (SELECT credits FROM courses WHERE id = NEW.course_id),
+        updated_at = CURRENT_TIMESTAMP
+    WHERE student_id = NEW.student_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS academic_summary_enrollment_delete
+    AFTER DELETE ON student_enrollments
+    WHEN OLD.status = 'enrolled'
+BEGIN
+    UPDATE student_academic_summary
+    SET enrolled_credits = enrolled_credits
+            - (SELECT credits FROM courses WHERE id = OLD.course_id),
+        updated_at = CURRENT_TIMESTAMP
+    WHERE student_id = OLD.student_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS academic_summary_enrollment_update
+    AFTER UPDATE OF student_id, course_id, status ON student_enrollments
+    WHEN OLD.status = 'enrolled' OR NEW.status = 'enrolled'
+BEGIN
+    UPDATE student_academic_summary
+    SET enrolled_credits = enrolled_credits
+            - (SELECT credits FROM courses WHERE id = OLD.course_id),
+        updated_at = CURRENT_TIMESTAMP
+    WHERE student_id = OLD.student_id AND OLD.status = 'enrolled';
+    INSERT INTO student_academic_summary (student_id) VALUES (NEW.student_id)
+        ON CONFLICT (student_id) DO NOTHING;
+    UPDATE student_academic_summary
+    SET enrolled_credits = enrolled_credits
+            + (SELECT credits FROM courses WHERE id = NEW.course_id),
+        updated_at = CURRENT_TIMESTAMP
+    WHERE student_id = NEW.student_id AND NEW.status = 'enrolled';
+END;
+
+-- Backfill every existing student
+
+INSERT OR REPLACE INTO student_academic_summary (student_id, earned_credits, attempted_credits,
+        passed_count, failed_count, gpa, graduation_progress, enrolled_credits, updated_at)
+SELECT totals.student_id, totals.earned, totals.attempted, totals.passed, totals.failed,
+    CASE WHEN totals.attempted > 0 THEN ROUND(totals.earned / totals.attempted * 4.0, 2) ELSE 0 END,
+    MIN(totals.earned / 30.0, 1.0),
+    totals.enrolled,
+    CURRENT_TIMESTAMP
+FROM (
+    SELECT s.id AS student_id,
+        COALESCE((SELECT SUM(c.credits) FROM student_course_history sch
+            JOIN courses c ON c.id = sch.course_id
+            WHERE sch.student_id = s.id AND sch.status = 'passed'), 0) AS earned,
+        COALESCE((SELECT SUM(c.credits) FROM student_course_history sch
+            JOIN courses c ON c.id = sch.course_id
+            WHERE sch.student_id = s.id), 0) AS attempted,
+        (SELECT COUNT(*) FROM student_course_history sch
+            WHERE sch.student_id = s.id AND sch.status = 'passed') AS passed,
+        (SELECT COUNT(*) FROM student_course_history sch
+            WHERE sch.student_id = s.id AND sch.status = 'failed') AS failed,
+        COALESCE((SELECT SUM(c.credits) FROM student_enrollments se
+            JOIN courses c ON c.id = se.course_id
+            WHERE se.student_id = s.id AND se.status = 'enrolled'), 0) AS enrolled
+    FROM students s
+) totals;
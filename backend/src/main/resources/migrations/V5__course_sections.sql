@@ -0,0 +1,35 @@
+-- Sections of a course in a semester and their weekly meetings, so enrollments can be checked
+-- for time conflicts. Times are minutes since midnight on 5-minute boundaries within the
+-- 07:00-19:00 school day; day_of_week is ISO, 1 = Monday to 5 = Friday.
+CREATE TABLE IF NOT EXISTS course_sections (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    course_id INTEGER NOT NULL,
+    semester_id INTEGER NOT NULL,
+    section_code VARCHAR(10) NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (course_id) REFERENCES courses(id),
+    FOREIGN KEY (semester_id) REFERENCES semesters(id),
+    UNIQUE(course_id, semester_id, section_code)
+);
+
+CREATE TABLE IF NOT EXISTS section_meetings (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    section_id INTEGER NOT NULL,
+    day_of_week INTEGER NOT NULL CHECK (day_of_week BETWEEN 1 AND 5),
+    start_minute INTEGER NOT NULL CHECK (start_minute >= 420 AND start_minute % 5 = 0),
+    end_minute INTEGER NOT NULL CHECK (end_minute <= 1140 AND end_minute % 5 = 0),
+    classroom_id INTEGER,
+    teacher_id INTEGER,
+    FOREIGN KEY (section_id) REFERENCES course_sections(id) ON DELETE CASCADE,
+    FOREIGN KEY (classroom_id) REFERENCES classrooms(id),
+    FOREIGN KEY (teacher_id) REFERENCES teachers(id),
+    CHECK (end_minute > start_minute)
+);
+
+CREATE INDEX IF NOT EXISTS idx_course_sections_semester
+    ON course_sections(semester_id);
+CREATE INDEX IF NOT EXISTS idx_section_meetings_section
+    ON section_meetings(section_id);
+
+-- Enrollments made through a section remember it; course-level enrollments leave it null
+ALTER TABLE student_enrollments ADD COLUMN section_id INTEGER REFERENCES course_sections(id);
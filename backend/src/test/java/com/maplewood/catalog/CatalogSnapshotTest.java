@@ -0,0 +1,158 @@
+package com.maplewood.catalog;
+
+import static com.maplewood.catalog.TestCourses.course;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+
+class CatalogSnapshotTest {
+
+    /**
+     * Given: courses passed out of id order with a prerequisite link and mixed semesters
+     *
+     * When: a snapshot is built
+     *
+     * Then: courses should be indexed densely by id and grouped by semester and grade level
+     */
+    @Test
+    void ofIndexesCoursesAndPrecomputesGroupings() {
+        var science = new Specialization();
+        science.setId(1);
+        science.setName("Science");
+        var biology = course(20).specialization(science).grades(9, 10).build();
+        var advancedBiology = course(5).specialization(science).prerequisite(biology)
+                .semester(SemesterOrder.SPRING).grades(11, 12).build();
+
+        var snapshot = CatalogSnapshot.of(7, List.of(biology, advancedBiology), List.of(science));
+
+        assertThat(snapshot.version()).isEqualTo(7);
+        assertThat(snapshot.courses()).extracting(CatalogCourse::id).containsExactly(5, 20);
+        assertThat(snapshot.courseAt(1).index()).isEqualTo(1);
+        var advanced = snapshot.findById(5).orElseThrow();
+        assertThat(advanced.specializationName()).isEqualTo("Science");
+        assertThat(snapshot.prerequisiteOf(advanced)).map(CatalogCourse::id).contains(20);
+        assertThat(snapshot.findById(6)).isEmpty();
+        assertThat(snapshot.coursesFor(SemesterOrder.FALL)).extracting(CatalogCourse::id)
+                .containsExactly(20);
+        assertThat(snapshot.coursesForGradeLevel(12)).extracting(CatalogCourse::id)
+                .containsExactly(5);
+        assertThat(snapshot.findSpecializationById(1)).map(CatalogSpecialization::name)
+                .contains("Science");
+        assertThatThrownBy(() -> snapshot.courses().add(advanced))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    /**
+     * Given: a chain of three courses, an unrelated course and two courses that list each other as
+     * their prerequisite
+     *
+     * When: a snapshot is built
+     *
+     * Then: the prerequisite graph should order the chain, report levels and heights along it, and
+     * leave the cycle out of the topological order
+     */
+    @Test
+    void ofCompilesPrerequisiteGraph() {
+        var algebra = course(1).build();
+        var geometry = course(2).prerequisite(algebra).semester(SemesterOrder.SPRING).build();
+        var calculus = course(3).prerequisite(geometry).grades(10, 12).build();
+        var art = course(4).build();
+        var chicken = course(5).build();
+        var egg = course(6).prerequisite(chicken).build();
+        chicken.setPrerequisite(egg);
+
+        var graph = CatalogSnapshot.of(1, List.of(calculus, art, egg, geometry, algebra, chicken),
+                List.of()).prerequisiteGraph();
+
+        assertThat(graph.size()).isEqualTo(6);
+        assertThat(graph.topologicalOrder()).containsExactly(0, 3, 1, 2);
+        assertThat(graph.prerequisiteOf(2)).isEqualTo(1);
+        assertThat(graph.unlocks(0)).containsExactly(1);
+        assertThat(new int[] {graph.level(0), graph.level(1), graph.level(2), graph.level(3)})
+                .containsExactly(0, 1, 2, 0);
+        assertThat(new int[] {graph.height(0), graph.height(1), graph.height(2), graph.height(3)})
+                .containsExactly(2, 1, 0, 0);
+        assertThat(graph.level(4)).isEqualTo(-1);
+        assertThat(graph.level(5)).isEqualTo(-1);
+        assertThat(graph.prerequisiteChain(2)).containsExactly(1, 0);
+        assertThat(graph.allUnlockedBy(0).stream().toArray()).containsExactly(1, 2);
+        assertThat(graph.isPrerequisiteOf(0, 2)).isTrue();
+        assertThat(graph.isPrerequisiteOf(2, 0)).isFalse();
+        assertThat(graph.prerequisiteChain(4)).isEmpty();
+        assertThat(graph.allPrerequisitesOf(5).isEmpty()).isTrue();
+    }
+
+    /**
+     * Given: a chain of three courses where the last is offered in the fall of the same grade
+     * level as its spring prerequisite, and two courses that list each other as prerequisite
+     *
+     * When: a snapshot is built
+     *
+     * Then: chains and unlocked courses should resolve to catalog courses, and the misordered
+     * course and the cycle should be reported
+     */
+    @Test
+    void ofCrossChecksPrerequisiteLinks() {
+        var algebra = course(1).build();
+        var geometry = course(2).prerequisite(algebra).semester(SemesterOrder.SPRING)
+                .grades(10, 12).build();
+        var calculus = course(3).prerequisite(geometry).grades(10, 12).build();
+        var chicken = course(5).build();
+        var egg = course(6).prerequisite(chicken).build();
+        chicken.setPrerequisite(egg);
+
+        var snapshot = CatalogSnapshot.of(1, List.of(algebra, geometry, calculus, chicken, egg),
+                List.of());
+
+        var first = snapshot.findById(1).orElseThrow();
+        var last = snapshot.findById(3).orElseThrow();
+        assertThat(snapshot.prerequisiteChainOf(last)).extracting(CatalogCourse::id)
+                .containsExactly(2, 1);
+        assertThat(snapshot.coursesUnlockedBy(first)).extracting(CatalogCourse::id)
+                .containsExactly(2, 3);
+        assertThat(snapshot.prerequisiteSemesterOrderViolations()).extracting(CatalogCourse::id)
+                .containsExactly(3);
+        assertThat(snapshot.coursesOnPrerequisiteCycles()).extracting(CatalogCourse::id)
+                .containsExactly(5, 6);
+    }
+
+    /**
+     * Given: spring and fall courses whose codes sort differently from their ids
+     *
+     * When: the catalog is paged in keyset order, once through a cursor and once with a filter
+     *
+     * Then: pages should follow (semester order, code, id), report a next page only when one is
+     * left, and resume after the course the cursor stands for
+     */
+    @Test
+    void coursesAfterPagesInKeysetOrder() {
+        var snapshot = CatalogSnapshot.of(1, List.of(
+                course(2).semester(SemesterOrder.SPRING).build(),
+                course(10).build(),
+                course(3).build(),
+                course(1).semester(SemesterOrder.SPRING).build()), List.of());
+
+        assertThat(snapshot.coursesInKeyOrder()).extracting(CatalogCourse::id)
+                .containsExactly(10, 3, 1, 2);
+
+        var first = snapshot.coursesAfter(null, 3, course -> true);
+        assertThat(first.getContent()).extracting(CatalogCourse::id).containsExactly(10, 3, 1);
+        assertThat(first.hasNext()).isTrue();
+
+        var cursor = CourseKey.of(first.getContent().get(2)).encode();
+        var second = snapshot.coursesAfter(CourseKey.decode(cursor), 3, course -> true);
+        assertThat(second.getContent()).extracting(CatalogCourse::id).containsExactly(2);
+        assertThat(second.hasNext()).isFalse();
+
+        var fall = snapshot.coursesAfter(CourseKey.of(snapshot.findById(10).orElseThrow()), 1,
+                course -> course.semesterOrder() == SemesterOrder.FALL);
+        assertThat(fall.getContent()).extracting(CatalogCourse::id).containsExactly(3);
+        assertThat(fall.hasNext()).isFalse();
+
+        assertThatThrownBy(() -> CourseKey.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.maplewood.catalog;
+
+import static com.maplewood.catalog.TestCourses.course;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Sort;
+import com.maplewood.domain.Specialization;
+import com.maplewood.repositories.CatalogVersionRepository;
+import com.maplewood.repositories.CourseRepository;
+import com.maplewood.repositories.SpecializationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCatalogTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private SpecializationRepository specializationRepository;
+
+    @Mock
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @InjectMocks
+    private CourseCatalog courseCatalog;
+
+    /**
+     * Given: a catalog whose version does not change between calls
+     *
+     * When: snapshot and refreshIfChanged are called repeatedly
+     *
+     * Then: the courses should be loaded once and the same snapshot instance returned
+     */
+    @Test
+    void refreshIfChangedKeepsSnapshotWhenVersionIsUnchanged() {
+        var science = specialization(1, "Science");
+        when(catalogVersionRepository.findCurrentVersion()).thenReturn(3);
+        when(courseRepository.findAllWithSpecializationAndPrerequisite(any()))
+                .thenReturn(new PageImpl<>(List.of(course(10).specialization(science).build())));
+        when(specializationRepository.findAll(any(Sort.class))).thenReturn(List.of(science));
+
+        var first = courseCatalog.snapshot();
+        var refreshed = courseCatalog.refreshIfChanged();
+
+        assertThat(refreshed).isSameAs(first);
+        assertThat(courseCatalog.snapshot()).isSameAs(first);
+        assertThat(first.version()).isEqualTo(3);
+        verify(courseRepository, times(1)).findAllWithSpecializationAndPrerequisite(any());
+    }
+
+    /**
+     * Given: a loaded catalog whose version is bumped in the database
+     *
+     * When: refreshIfChanged is called
+     *
+     * Then: a new snapshot with the new rows should replace the old one
+     */
+    @Test
+    void refreshIfChangedSwapsSnapshotWhenVersionMoves() {
+        var science = specialization(1, "Science");
+        when(catalogVersionRepository.findCurrentVersion()).thenReturn(3, 4);
+        when(courseRepository.findAllWithSpecializationAndPrerequisite(any()))
+                .thenReturn(new PageImpl<>(List.of(course(10).specialization(science).build())))
+                .thenReturn(new PageImpl<>(
+                        List.of(course(10).specialization(science).build(),
+                                course(11).specialization(science).build())));
+        when(specializationRepository.findAll(any(Sort.class))).thenReturn(List.of(science));
+
+        var first = courseCatalog.snapshot();
+        var refreshed = courseCatalog.refreshIfChanged();
+
+        assertThat(refreshed).isNotSameAs(first);
+        assertThat(refreshed.version()).isEqualTo(4);
+        assertThat(refreshed.courses()).extracting(CatalogCourse::id).containsExactly(10, 11);
+        assertThat(first.courses()).extracting(CatalogCourse::id).containsExactly(10);
+        assertThat(courseCatalog.snapshot()).isSameAs(refreshed);
+    }
+
+    private Specialization specialization(Integer id, String name) {
+        var specialization = new Specialization();
+        specialization.setId(id);
+        specialization.setName(name);
+        return specialization;
+    }
+}
@@ -0,0 +1,121 @@
+package com.maplewood.catalog;
+
+import static com.maplewood.catalog.TestCourses.course;
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+
+class CourseFacetsTest {
+
+    /**
+     * Given: a catalog of core and elective courses across two specializations and semesters
+     *
+     * When: filtering without any selection
+     *
+     * Then: every course should match and each facet value should count the courses that have it
+     */
+    @Test
+    void filterWithoutSelectionCountsWholeCatalog() {
+        var result = catalog().filter(null, CourseFilter.NONE, 10);
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.courses()).extracting(CatalogCourse::code)
+                .containsExactly("ART100", "BIO100", "MTH101", "BIO200", "MTH201");
+        assertThat(result.facets().get(CourseFacet.COURSE_TYPE))
+                .containsExactly(new FacetCount("CORE", "CORE", 3),
+                        new FacetCount("ELECTIVE", "ELECTIVE", 2));
+        assertThat(result.facets().get(CourseFacet.SPECIALIZATION))
+                .containsExactly(new FacetCount("1", "Science", 2),
+                        new FacetCount("2", "Mathematics", 2), new FacetCount("3", "Music", 0));
+        assertThat(result.facets().get(CourseFacet.GRADE_LEVEL)).extracting(FacetCount::count)
+                .containsExactly(3, 5, 3, 3);
+        assertThat(result.facets().get(CourseFacet.CREDITS))
+                .containsExactly(new FacetCount("1.5", "1.5", 1), new FacetCount("2", "2", 1),
+                        new FacetCount("3", "3", 3));
+    }
+
+    /**
+     * Given: a catalog of core and elective courses across two specializations and semesters
+     *
+     * When: filtering by one course type and two specializations
+     *
+     * Then: courses should match any selected specialization and the course type, and each
+     * facet's counts should follow the other facets' selections only
+     */
+    @Test
+    void filterCountsEachFacetAgainstTheOthers() {
+        var filter = new CourseFilter(Set.of(CourseType.CORE), Set.of(1, 2), null, null, null,
+                null);
+
+        var result = catalog().filter(null, filter, 10);
+
+        assertThat(result.courses()).extracting(CatalogCourse::code)
+                .containsExactly("BIO100", "MTH101", "MTH201");
+        assertThat(result.facets().get(CourseFacet.COURSE_TYPE)).extracting(FacetCount::count)
+                .containsExactly(3, 1);
+        assertThat(result.facets().get(CourseFacet.SPECIALIZATION)).extracting(FacetCount::count)
+                .containsExactly(1, 2, 0);
+        assertThat(result.facets().get(CourseFacet.SEMESTER))
+                .containsExactly(new FacetCount("FALL", "FALL", 2),
+                        new FacetCount("SPRING", "SPRING", 1));
+    }
+
+    /**
+     * Given: a catalog of courses with different grade-level windows
+     *
+     * When: filtering by a grade-level range, with text, and by a range outside the school
+     *
+     * Then: courses offered to any grade in the range should match, text should narrow matches
+     * and counts alike, and an empty range should match nothing
+     */
+    @Test
+    void filterByGradeLevelRangeAndText() {
+        var snapshot = catalog();
+
+        var upperGrades = snapshot.filter(null,
+                new CourseFilter(null, null, 11, null, null, null), 10);
+        assertThat(upperGrades.courses()).extracting(CatalogCourse::code)
+                .containsExactly("ART100", "BIO200", "MTH201");
+
+        var biology = snapshot.filter("biology",
+                new CourseFilter(null, null, 9, 10, null, null), 1);
+        assertThat(biology.courses()).extracting(CatalogCourse::code).containsExactly("BIO100");
+        assertThat(biology.total()).isEqualTo(2);
+        assertThat(biology.facets().get(CourseFacet.COURSE_TYPE)).extracting(FacetCount::count)
+                .containsExactly(1, 1);
+
+        var none = snapshot.filter(null, new CourseFilter(null, null, 13, 14, null, null), 10);
+        assertThat(none.total()).isZero();
+        assertThat(none.facets().get(CourseFacet.GRADE_LEVEL)).extracting(FacetCount::count)
+                .containsExactly(3, 5, 3, 3);
+    }
+
+    private CatalogSnapshot catalog() {
+        var science = specialization(1, "Science");
+        var math = specialization(2, "Mathematics");
+        var music = specialization(3, "Music");
+        return CatalogSnapshot.of(1, List.of(
+                course(1).code("BIO100").name("Intro Biology").specialization(science)
+                        .credits(3.0).grades(9, 10).build(),
+                course(2).code("BIO200").name("Marine Biology").specialization(science)
+                        .type(CourseType.ELECTIVE).credits(2.0).semester(SemesterOrder.SPRING)
+                        .grades(10, 12).build(),
+                course(3).code("MTH101").name("Algebra I").specialization(math).credits(3.0)
+                        .grades(9, 10).build(),
+                course(4).code("MTH201").name("Algebra II").specialization(math).credits(3.0)
+                        .semester(SemesterOrder.SPRING).grades(10, 12).build(),
+                course(5).code("ART100").name("Drawing").type(CourseType.ELECTIVE).credits(1.5)
+                        .build()), List.of(science, math, music));
+    }
+
+    private Specialization specialization(Integer id, String name) {
+        var specialization = new Specialization();
+        specialization.setId(id);
+        specialization.setName(name);
+        return specialization;
+    }
+}
@@ -0,0 +1,131 @@
+package com.maplewood.catalog;
+
+import static com.maplewood.catalog.TestCourses.course;
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+
+class CourseSearchIndexTest {
+
+    /**
+     * Given: a catalog of science and mathematics courses
+     *
+     * When: searching by whole words, word prefixes and a course code's number
+     *
+     * Then: every query term should have to match, and code matches should rank above name and
+     * description matches
+     */
+    @Test
+    void searchMatchesWordsPrefixesAndCodeParts() {
+        var snapshot = catalog();
+
+        assertThat(search(snapshot, "biology")).containsExactly("BIO100", "BIO200");
+        assertThat(search(snapshot, "intro bio")).containsExactly("BIO100");
+        assertThat(search(snapshot, "201")).containsExactly("MTH201");
+        assertThat(search(snapshot, "mth")).containsExactly("MTH101", "MTH201", "BIO200");
+        assertThat(search(snapshot, "Algèbra")).containsExactly("MTH101", "MTH201");
+        assertThat(search(snapshot, "biology geometry")).isEmpty();
+    }
+
+    /**
+     * Given: a catalog of science and mathematics courses
+     *
+     * When: searching with a typo, a swapped pair of letters and a misspelling two edits away
+     *
+     * Then: the intended courses should still be found, while short terms must match exactly
+     */
+    @Test
+    void searchToleratesTypos() {
+        var snapshot = catalog();
+
+        assertThat(search(snapshot, "biolgy")).containsExactly("BIO100", "BIO200");
+        assertThat(search(snapshot, "algbera")).containsExactly("MTH101", "MTH201");
+        assertThat(search(snapshot, "mathmatcs")).containsExactly("MTH101", "MTH201");
+        assertThat(search(snapshot, "bip")).isEmpty();
+    }
+
+    /**
+     * Given: a catalog of courses of different types, semesters and grade levels
+     *
+     * When: searching with facets, with and without text
+     *
+     * Then: only courses matching every facet should be returned, in listing order without text
+     */
+    @Test
+    void searchFiltersByFacets() {
+        var snapshot = catalog();
+
+        assertThat(snapshot.search(new CourseSearchQuery(null, CourseType.ELECTIVE, null, null,
+                null), 10)).extracting(CatalogCourse::code).containsExactly("BIO200");
+        assertThat(snapshot.search(new CourseSearchQuery("algebra", null, 11, null,
+                SemesterOrder.SPRING), 10)).extracting(CatalogCourse::code)
+                .containsExactly("MTH201");
+        assertThat(snapshot.search(new CourseSearchQuery(" ", null, null, 3.0, null), 10))
+                .extracting(CatalogCourse::code).containsExactly("BIO100", "MTH101", "MTH201");
+        assertThat(snapshot.search(new CourseSearchQuery(null, null, 8, null, null), 10))
+                .isEmpty();
+        assertThat(snapshot.search(new CourseSearchQuery("biology", null, null, null, null), 1))
+                .extracting(CatalogCourse::code).containsExactly("BIO100");
+    }
+
+    /**
+     * Given: a snapshot and a successor in which one course was renamed
+     *
+     * When: the successor is built from the first snapshot
+     *
+     * Then: the unchanged course's document should be reused and the renamed one re-indexed
+     */
+    @Test
+    void rebuildReusesDocumentsOfUnchangedCourses() {
+        var math = specialization(2, "Mathematics");
+        var algebra = course(1).code("MTH101").name("Algebra I").description("Equations")
+                .specialization(math).credits(3.0).build();
+        var geometry = course(2).code("MTH102").name("Geometry").description("Shapes")
+                .specialization(math).credits(3.0).build();
+        var first = CatalogSnapshot.of(1, List.of(algebra, geometry), List.of(math));
+
+        geometry.setName("Euclidean Geometry");
+        var second = CatalogSnapshot.of(2, List.of(algebra, geometry), List.of(math), first);
+
+        assertThat(second.searchIndex().documentOf(1))
+                .isSameAs(first.searchIndex().documentOf(1));
+        assertThat(second.searchIndex().documentOf(2))
+                .isNotSameAs(first.searchIndex().documentOf(2));
+        assertThat(search(second, "euclid")).containsExactly("MTH102");
+        assertThat(search(first, "euclid")).isEmpty();
+    }
+
+    private List<String> search(CatalogSnapshot snapshot, String text) {
+        return snapshot.search(new CourseSearchQuery(text, null, null, null, null), 10).stream()
+                .map(CatalogCourse::code)
+                .toList();
+    }
+
+    private CatalogSnapshot catalog() {
+        var science = specialization(1, "Science");
+        var math = specialization(2, "Mathematics");
+        return CatalogSnapshot.of(1, List.of(
+                course(1).code("BIO100").name("Intro to Biology")
+                        .description("Cells and living things").specialization(science)
+                        .credits(3.0).grades(9, 10).build(),
+                course(2).code("BIO200").name("Marine Biology")
+                        .description("Ocean life, with some MTH review").specialization(science)
+                        .type(CourseType.ELECTIVE).credits(2.0).semester(SemesterOrder.SPRING)
+                        .grades(10, 12).build(),
+                course(3).code("MTH101").name("Algebra I").description("Linear equations")
+                        .specialization(math).credits(3.0).grades(9, 10).build(),
+                course(4).code("MTH201").name("Algebra II").description("Quadratic equations")
+                        .specialization(math).credits(3.0).semester(SemesterOrder.SPRING)
+                        .grades(10, 12).build()), List.of(science, math));
+    }
+
+    private Specialization specialization(Integer id, String name) {
+        var specialization = new Specialization();
+        specialization.setId(id);
+        specialization.setName(name);
+        return specialization;
+    }
+}
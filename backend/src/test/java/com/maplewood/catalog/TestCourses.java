@@ -0,0 +1,80 @@
+package com.maplewood.catalog;
+
+import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+
+/**
+ * Builds unsaved courses for catalog and planning tests. Unless told otherwise a course is a
+ * one credit, four hours a week fall core course named after its id, open to grades 9 to 12.
+ */
+public final class TestCourses {
+    private final Course course = new Course();
+
+    private TestCourses(Integer id) {
+        course.setId(id);
+        course.setCode("C" + id);
+        course.setName("Course " + id);
+        course.setCredits(1.0);
+        course.setHoursPerWeek(4);
+        course.setCourseType(CourseType.CORE);
+        course.setGradeLevelMin(9);
+        course.setGradeLevelMax(12);
+        course.setSemesterOrder(SemesterOrder.FALL);
+    }
+
+    public static TestCourses course(Integer id) {
+        return new TestCourses(id);
+    }
+
+    public TestCourses code(String code) {
+        course.setCode(code);
+        return this;
+    }
+
+    public TestCourses name(String name) {
+        course.setName(name);
+        return this;
+    }
+
+    public TestCourses description(String description) {
+        course.setDescription(description);
+        return this;
+    }
+
+    public TestCourses specialization(Specialization specialization) {
+        course.setSpecialization(specialization);
+        return this;
+    }
+
+    public TestCourses prerequisite(Course prerequisite) {
+        course.setPrerequisite(prerequisite);
+        return this;
+    }
+
+    public TestCourses type(CourseType courseType) {
+        course.setCourseType(courseType);
+        return this;
+    }
+
+    public TestCourses credits(Double credits) {
+        course.setCredits(credits);
+        return this;
+    }
+
+    public TestCourses semester(SemesterOrder semesterOrder) {
+        course.setSemesterOrder(semesterOrder);
+        return this;
+    }
+
+    public TestCourses grades(Integer gradeLevelMin, Integer gradeLevelMax) {
+        course.setGradeLevelMin(gradeLevelMin);
+        course.setGradeLevelMax(gradeLevelMax);
+        return this;
+    }
+
+    public Course build() {
+        return course;
+    }
+}
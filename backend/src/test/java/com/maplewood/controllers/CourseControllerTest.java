@@ -4,14 +4,22 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -20,19 +28,32 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.security.core.userdetails.User;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CourseFacet;
+import com.maplewood.catalog.CourseFilter;
+import com.maplewood.catalog.CourseKey;
+import com.maplewood.catalog.CourseSearchQuery;
+import com.maplewood.catalog.FacetCount;
+import com.maplewood.catalog.FacetedCourses;
 import com.maplewood.config.SecurityConfig;
 import com.maplewood.domain.AppUser;
-import com.maplewood.domain.Course;
 import com.maplewood.domain.CourseType;
 import com.maplewood.domain.SemesterOrder;
 import com.maplewood.domain.Specialization;
 import com.maplewood.domain.Student;
+import com.maplewood.persistence.DatabaseWriteQueue;
 import com.maplewood.repositories.AppUserRepository;
+import com.maplewood.security.StudentUserDetails;
+import com.maplewood.services.CourseNotFoundException;
 import com.maplewood.services.CourseService;
+import com.maplewood.services.NoActiveSemesterException;
 
 @WebMvcTest(CourseController.class)
 @AutoConfigureMockMvc
@@ -47,6 +68,8 @@ class CourseControllerTest {
     private AppUserRepository appUserRepository;
     @MockBean
     private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private DatabaseWriteQueue databaseWriteQueue;
 
     /**
      * Given: no authenticated user
@@ -103,9 +126,7 @@ class CourseControllerTest {
         var algebraTwo = createCourse(2, "MTH201", "Algebra II", "Advanced algebra", 3.0, 4, math,
                 introBiology, CourseType.CORE, 10, 11, SemesterOrder.SPRING);
 
-        when(courseService.findAllCoursesLoaded(any()))
-                .thenReturn(new PageImpl<>(List.of(introBiology, algebraTwo), PageRequest.of(0, 100),
-                        2));
+        when(courseService.findAllCourses()).thenReturn(List.of(introBiology, algebraTwo));
 
         mockMvc.perform(get("/api/courses/").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -135,8 +156,7 @@ class CourseControllerTest {
         var introBiology = createCourse(1, "BIO100", "Intro Biology", "Biology intro", 3.0, 3,
                 science, null, CourseType.CORE, 9, 10, SemesterOrder.FALL);
 
-        when(courseService.findAllCoursesLoaded(any()))
-                .thenReturn(new PageImpl<>(List.of(introBiology), PageRequest.of(0, 100), 1));
+        when(courseService.findAllCourses()).thenReturn(List.of(introBiology));
 
         mockMvc.perform(get("/api/courses/").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -145,6 +165,48 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$[0].prerequisite").value(nullValue()));
     }
 
+    /**
+     * Given: an authenticated user and a course two hops down a prerequisite chain
+     * When: requesting the course's prerequisite chain
+     * Then: the response should list the chain nearest first
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenCourseWithPrerequisitesWhenGettingPrerequisiteChainThenReturnsChain()
+            throws Exception {
+        var math = new Specialization();
+        math.setId(2);
+        math.setName("Mathematics");
+
+        var algebraOne = createCourse(1, "MTH101", "Algebra I", "Algebra", 3.0, 4, math, null,
+                CourseType.CORE, 9, 10, SemesterOrder.FALL);
+        var algebraTwo = createCourse(2, "MTH201", "Algebra II", "Advanced algebra", 3.0, 4, math,
+                algebraOne, CourseType.CORE, 10, 11, SemesterOrder.SPRING);
+
+        when(courseService.findPrerequisiteChain(3)).thenReturn(List.of(algebraTwo, algebraOne));
+
+        mockMvc.perform(get("/api/courses/3/prerequisites").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].code").value("MTH201"))
+                .andExpect(jsonPath("$[1].code").value("MTH101"));
+    }
+
+    /**
+     * Given: an authenticated user and a course id that is not in the catalog
+     * When: requesting the courses it unlocks
+     * Then: the response should be not found (404)
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenUnknownCourseWhenGettingUnlockedCoursesThenNotFound() throws Exception {
+        when(courseService.findCoursesUnlockedBy(99))
+                .thenThrow(new CourseNotFoundException("Course not found"));
+
+        mockMvc.perform(get("/api/courses/99/unlocks").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Given: an authenticated user and semester courses in the service response
      * When: requesting semester-filtered courses from the API
@@ -162,8 +224,7 @@ class CourseControllerTest {
         var introBiology = createCourse(1, "BIO100", "Intro Biology", "Biology intro", 3.0, 3,
                 science, null, CourseType.CORE, 9, 10, SemesterOrder.SPRING);
 
-        when(courseService.findCoursesForActiveSemester(any()))
-                .thenReturn(new PageImpl<>(List.of(introBiology), PageRequest.of(0, 100), 1));
+        when(courseService.findCoursesForActiveSemester()).thenReturn(List.of(introBiology));
 
         mockMvc.perform(get("/api/courses/semester").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -173,7 +234,69 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$[0].specialization").value("Science"))
                 .andExpect(jsonPath("$[0].prerequisite").value(nullValue()));
 
-        verify(courseService).findCoursesForActiveSemester(any());
+        verify(courseService).findCoursesForActiveSemester();
+    }
+
+    /**
+     * Given: an authenticated user and a course catalog
+     * When: requesting all courses, then requesting them again with the returned ETag
+     * Then: the first response should carry a strong ETag and the revalidation should be answered
+     * with 304 Not Modified and no body
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenMatchingIfNoneMatchWhenGettingAllCoursesThenNotModified() throws Exception {
+        var science = new Specialization();
+        science.setId(1);
+        science.setName("Science");
+
+        var introBiology = createCourse(1, "BIO100", "Intro Biology", "Biology intro", 3.0, 3,
+                science, null, CourseType.CORE, 9, 10, SemesterOrder.FALL);
+
+        when(courseService.findAllCourses()).thenReturn(List.of(introBiology));
+
+        var etag = mockMvc.perform(get("/api/courses/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[0-9a-f]{32}\"")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/courses/").accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * Given: an authenticated user and a semester catalog that is replaced with different content
+     * When: revalidating the semester courses with the ETag of the previous catalog
+     * Then: the new body should be returned with a different ETag
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenChangedCatalogWhenRevalidatingSemesterCoursesThenReturnsNewBody() throws Exception {
+        var science = new Specialization();
+        science.setId(1);
+        science.setName("Science");
+
+        var introBiology = createCourse(1, "BIO100", "Intro Biology", "Biology intro", 3.0, 3,
+                science, null, CourseType.CORE, 9, 10, SemesterOrder.FALL);
+        var chemistry = createCourse(3, "CHM100", "Chemistry", "Chemistry intro", 3.0, 3,
+                science, null, CourseType.CORE, 9, 10, SemesterOrder.FALL);
+
+        when(courseService.findCoursesForActiveSemester()).thenReturn(List.of(introBiology),
+                List.of(introBiology, chemistry));
+
+        var etag = mockMvc.perform(get("/api/courses/semester").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/courses/semester").accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].code").value("CHM100"));
     }
 
     /**
@@ -215,6 +338,173 @@ class CourseControllerTest {
         verify(courseService).findCoursesForStudent(eq(7), any());
     }
 
+    /**
+     * Given: an authenticated user and more courses than the requested page size
+     * When: requesting all courses with a size
+     * Then: the response should hold one page and link the next page by its cursor
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenPageSizeWhenGettingAllCoursesThenLinksNextPage() throws Exception {
+        var science = new Specialization();
+        science.setId(1);
+        science.setName("Science");
+
+        var introBiology = createCourse(1, "BIO100", "Intro Biology", "Biology intro", 3.0, 3,
+                science, null, CourseType.CORE, 9, 10, SemesterOrder.FALL);
+        var cursor = CourseKey.of(introBiology).encode();
+
+        when(courseService.findCoursesAfter(null, 1))
+                .thenReturn(new SliceImpl<>(List.of(introBiology), PageRequest.ofSize(1), true));
+
+        mockMvc.perform(get("/api/courses/").param("size", "1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].code").value("BIO100"))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/api/courses/?cursor=" + cursor
+                                + "&size=1>; rel=\"next\""));
+
+        verify(courseService).findCoursesAfter(null, 1);
+    }
+
+    /**
+     * Given: an authenticated user linked to a student and a cursor from a previous page
+     * When: requesting the next page of student-specific courses past the maximum page size
+     * Then: the page should resume after the cursor, be capped at the maximum size, and carry no
+     * next link on the last page
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenCursorWhenGettingStudentCoursesThenReturnsLastPage() throws Exception {
+        var student = new Student();
+        student.setId(7);
+        var user = new AppUser();
+        user.setUsername("test-user");
+        user.setStudent(student);
+        var cursor = new CourseKey(SemesterOrder.FALL, "ENG101", 5);
+
+        when(appUserRepository.findByUsername("test-user")).thenReturn(Optional.of(user));
+        when(courseService.findCoursesForStudentAfter(7, cursor, 200))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(200), false));
+
+        mockMvc.perform(get("/api/courses/student").param("cursor", cursor.encode())
+                .param("size", "1000").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    /**
+     * Given: an authenticated user and no active semester
+     * When: requesting the semester courses whole and as a page
+     * Then: both responses should be 404 Not Found
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenNoActiveSemesterWhenGettingSemesterCoursesThenNotFound() throws Exception {
+        var missing = new NoActiveSemesterException("No active semester found for courses");
+        when(courseService.findCoursesForActiveSemester()).thenThrow(missing);
+        when(courseService.findCoursesForActiveSemesterAfter(null, 10)).thenThrow(missing);
+
+        mockMvc.perform(get("/api/courses/semester").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/courses/semester").param("size", "10")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Given: an authenticated user
+     * When: requesting the semester courses with a cursor the API did not issue
+     * Then: the response should be 400 Bad Request without reaching the service
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenMalformedCursorWhenGettingSemesterCoursesThenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/courses/semester").param("cursor", "not a cursor")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(courseService);
+    }
+
+    /**
+     * Given: an authenticated user and a matching course in the search results
+     * When: searching courses by text and facets
+     * Then: the query should reach the service with the facets parsed and the default limit, and
+     * the matches should be mapped
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenSearchTextAndFacetsWhenSearchingCoursesThenReturnsMatches() throws Exception {
+        var science = new Specialization();
+        science.setId(1);
+        science.setName("Science");
+
+        var introBiology = createCourse(1, "BIO100", "Intro Biology", "Biology intro", 3.0, 3,
+                science, null, CourseType.CORE, 9, 10, SemesterOrder.FALL);
+        var query = new CourseSearchQuery("bio", CourseType.CORE, 10, null, SemesterOrder.FALL);
+
+        when(courseService.searchCourses(query, 50)).thenReturn(List.of(introBiology));
+
+        mockMvc.perform(get("/api/courses/search").param("q", "bio").param("type", "CORE")
+                .param("gradeLevel", "10").param("semester", "FALL")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].code").value("BIO100"));
+    }
+
+    /**
+     * Given: an authenticated user and a filter result with facet counts
+     * When: filtering courses by several course types and a grade-level range
+     * Then: the selection should reach the service as a filter, and the response should hold the
+     * matching courses, their total and the counts keyed by facet parameter
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenFacetSelectionWhenFilteringCoursesThenReturnsCoursesAndCounts() throws Exception {
+        var science = new Specialization();
+        science.setId(1);
+        science.setName("Science");
+
+        var marineBiology = createCourse(2, "BIO200", "Marine Biology", "Oceans", 2.0, 3,
+                science, null, CourseType.ELECTIVE, 10, 12, SemesterOrder.SPRING);
+        var filter = new CourseFilter(Set.of(CourseType.CORE, CourseType.ELECTIVE), Set.of(1),
+                10, 11, Set.of(), Set.of());
+
+        when(courseService.filterCourses(null, filter, 50)).thenReturn(new FacetedCourses(
+                List.of(marineBiology), 1, Map.of(CourseFacet.COURSE_TYPE, List.of(
+                        new FacetCount("CORE", "CORE", 0),
+                        new FacetCount("ELECTIVE", "ELECTIVE", 1)))));
+
+        mockMvc.perform(get("/api/courses/filter").param("type", "CORE", "ELECTIVE")
+                .param("specialization", "1").param("gradeLevelMin", "10")
+                .param("gradeLevelMax", "11").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.courses[0].code").value("BIO200"))
+                .andExpect(jsonPath("$.facets.type[1].value").value("ELECTIVE"))
+                .andExpect(jsonPath("$.facets.type[1].count").value(1));
+    }
+
+    /**
+     * Given: an authenticated user
+     * When: searching courses with a course type that does not exist
+     * Then: the response should be 400 Bad Request without reaching the service
+     */
+    @Test
+    @WithMockUser(username = "test-user")
+    void givenUnknownCourseTypeWhenSearchingCoursesThenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/courses/search").param("type", "SEMINAR")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(courseService);
+    }
+
     /**
      * Given: an authenticated user linked to a student and an enrollable course
      *
@@ -233,7 +523,7 @@ class CourseControllerTest {
         user.setStudent(student);
 
         when(appUserRepository.findByUsername("test-user")).thenReturn(Optional.of(user));
-        when(courseService.enrollStudentInCourse(student, 101)).thenReturn(Optional.empty());
+        when(courseService.enrollStudentInCourse(7, 101)).thenReturn(Optional.empty());
 
         mockMvc.perform(post("/api/courses/enroll/c/101")
                 .with(csrf())
@@ -259,7 +549,7 @@ class CourseControllerTest {
         user.setStudent(student);
 
         when(appUserRepository.findByUsername("test-user")).thenReturn(Optional.of(user));
-        when(courseService.enrollStudentInCourse(student, 101))
+        when(courseService.enrollStudentInCourse(7, 101))
                 .thenReturn(Optional.of("COURSE_ALREADY_ENROLLED"));
 
         mockMvc.perform(post("/api/courses/enroll/c/101")
@@ -270,23 +560,60 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$.courseId").value(101));
     }
 
-    private Course createCourse(Integer id, String code, String name, String description, Double credits,
-            Integer hoursPerWeek, Specialization specialization, Course prerequisite,
-            CourseType courseType, Integer gradeLevelMin, Integer gradeLevelMax,
-            SemesterOrder semesterOrder) {
-        var course = new Course();
-        course.setId(id);
-        course.setCode(code);
-        course.setName(name);
-        course.setDescription(description);
-        course.setCredits(credits);
-        course.setHoursPerWeek(hoursPerWeek);
-        course.setSpecialization(specialization);
-        course.setPrerequisite(prerequisite);
-        course.setCourseType(courseType);
-        course.setGradeLevelMin(gradeLevelMin);
-        course.setGradeLevelMax(gradeLevelMax);
-        course.setSemesterOrder(semesterOrder);
-        return course;
+    /**
+     * Given: a principal that already carries the student id from login
+     *
+     * When: posting to the enroll endpoint
+     *
+     * Then: the student should be enrolled without looking up the user
+     */
+    @Test
+    void givenStudentPrincipalWhenPostingEnrollThenUserIsNotLookedUp() throws Exception {
+        var principal = new StudentUserDetails(
+                User.withUsername("test-user").password("unused").roles("USER").build(), 7);
+        when(courseService.enrollStudentInCourse(7, 101)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/courses/enroll/c/101")
+                .with(user(principal))
+                .with(csrf())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(courseService).enrollStudentInCourse(7, 101);
+        verifyNoInteractions(appUserRepository);
+    }
+
+    /**
+     * Given: a section whose meetings overlap the student's current schedule
+     *
+     * When: posting to the section enroll endpoint
+     *
+     * Then: the response should be 409 with the schedule conflict code and the section id
+     */
+    @Test
+    void givenOverlappingSectionWhenPostingSectionEnrollThenReturnsConflict() throws Exception {
+        var principal = new StudentUserDetails(
+                User.withUsername("test-user").password("unused").roles("USER").build(), 7);
+        when(courseService.enrollStudentInSection(7, 42))
+                .thenReturn(Optional.of("SCHEDULE_CONFLICT"));
+
+        mockMvc.perform(post("/api/courses/enroll/s/42")
+                .with(user(principal))
+                .with(csrf())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.messageCode").value("SCHEDULE_CONFLICT"))
+                .andExpect(jsonPath("$.sectionId").value(42));
+    }
+
+    private CatalogCourse createCourse(Integer id, String code, String name, String description,
+            Double credits, Integer hoursPerWeek, Specialization specialization,
+            CatalogCourse prerequisite, CourseType courseType, Integer gradeLevelMin,
+            Integer gradeLevelMax, SemesterOrder semesterOrder) {
+        return new CatalogCourse(id - 1, id, code, name, description, credits, hoursPerWeek,
+                specialization.getId(), specialization.getName(),
+                prerequisite == null ? null : prerequisite.id(),
+                prerequisite == null ? null : prerequisite.name(), courseType, gradeLevelMin,
+                gradeLevelMax, semesterOrder);
     }
 }
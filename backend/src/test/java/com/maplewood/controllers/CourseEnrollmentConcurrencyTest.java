@@ -0,0 +1,236 @@
+package com.maplewood.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import com.maplewood.domain.AppUser;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.Semester;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+import com.maplewood.domain.Student;
+import com.maplewood.domain.StudentEnrollmentStatus;
+import com.maplewood.repositories.AppUserRepository;
+import com.maplewood.repositories.CourseRepository;
+import com.maplewood.repositories.SemesterRepository;
+import com.maplewood.repositories.SpecializationRepository;
+import com.maplewood.repositories.StudentRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CourseEnrollmentConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private SemesterRepository semesterRepository;
+    @Autowired
+    private SpecializationRepository specializationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Given: a student with no enrollments and eight open courses in the active semester
+     *
+     * When: many threads enroll the student in all eight courses at the same time
+     *
+     * Then: exactly five enrollments should succeed, every other request should be rejected with
+     * 409, and no course should be enrolled twice
+     */
+    @Test
+    void givenConcurrentEnrollmentsWhenHammeringEnrollThenLimitAndDuplicatesHold()
+            throws Exception {
+        ensureActiveSemester();
+        var student = persistStudent("concurrent-limit");
+        var courses = new ArrayList<Course>();
+        for (var i = 0; i < 8; i++) {
+            courses.add(persistCourse("LIM" + i));
+        }
+
+        var statuses = hammer(student, courses, 4);
+
+        assertThat(statuses).filteredOn(status -> status == 200).hasSize(5);
+        assertThat(statuses).filteredOn(status -> status != 200).containsOnly(409);
+        assertThat(enrolledCourseIds(student)).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    /**
+     * Given: a student with no enrollments and one open course
+     *
+     * When: many threads enroll the student in that course at the same time
+     *
+     * Then: exactly one enrollment should succeed and the rest should be rejected with 409
+     */
+    @Test
+    void givenConcurrentEnrollmentsInSameCourseWhenHammeringEnrollThenOnlyOneSucceeds()
+            throws Exception {
+        ensureActiveSemester();
+        var student = persistStudent("concurrent-duplicate");
+        var course = persistCourse("DUP0");
+
+        var statuses = hammer(student, List.of(course), 32);
+
+        assertThat(statuses).filteredOn(status -> status == 200).hasSize(1);
+        assertThat(statuses).filteredOn(status -> status != 200).containsOnly(409);
+        assertThat(enrolledCourseIds(student)).containsExactly(course.getId());
+    }
+
+    /**
+     * Given: a student with no enrollments and two courses whose only sections both meet on
+     * Monday morning
+     *
+     * When: many threads enroll the student in both sections at the same time
+     *
+     * Then: exactly one section enrollment should succeed and the rest should be rejected with
+     * 409, the overlapping section being refused as a schedule conflict
+     */
+    @Test
+    void givenConcurrentOverlappingSectionsWhenHammeringEnrollThenOnlyOneSucceeds()
+            throws Exception {
+        var semesterId = ensureActiveSemester();
+        var student = persistStudent("concurrent-sections");
+        var first = persistSection(persistCourse("SEC0"), semesterId, 9 * 60, 9 * 60 + 50);
+        var second = persistSection(persistCourse("SEC1"), semesterId, 9 * 60 + 30, 10 * 60 + 20);
+
+        var statuses = hammer(student, "/api/courses/enroll/s/{id}", List.of(first, second), 8);
+
+        assertThat(statuses).filteredOn(status -> status == 200).hasSize(1);
+        assertThat(statuses).filteredOn(status -> status != 200).containsOnly(409);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT section_id FROM student_enrollments WHERE student_id = ?",
+                Integer.class, student.getId())).hasSize(1).containsAnyOf(first, second);
+    }
+
+    private List<Integer> hammer(Student student, List<Course> courses, int rounds)
+            throws Exception {
+        return hammer(student, "/api/courses/enroll/c/{id}",
+                courses.stream().map(Course::getId).toList(), rounds);
+    }
+
+    /* Fire rounds x ids enroll requests from THREADS threads released at once */
+    private List<Integer> hammer(Student student, String path, List<Integer> ids, int rounds)
+            throws Exception {
+        var username = "user-" + student.getEmail();
+        var start = new CountDownLatch(1);
+        var tasks = new ArrayList<Callable<Integer>>();
+        for (var round = 0; round < rounds; round++) {
+            for (var id : ids) {
+                tasks.add(() -> {
+                    start.await();
+                    return mockMvc.perform(post(path, id)
+                            .with(user(username))
+                            .with(csrf()))
+                            .andReturn().getResponse().getStatus();
+                });
+            }
+        }
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var futures = new ArrayList<Future<Integer>>();
+            for (var task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            var statuses = new ArrayList<Integer>();
+            for (var future : futures) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Integer> enrolledCourseIds(Student student) {
+        return jdbcTemplate.queryForList(
+                "SELECT course_id FROM student_enrollments WHERE student_id = ? AND status = ?",
+                Integer.class, student.getId(), StudentEnrollmentStatus.ENROLLED.getValue());
+    }
+
+    private Integer ensureActiveSemester() {
+        var active = semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc();
+        if (active.isPresent()) {
+            return active.get().getId();
+        }
+        var semester = new Semester();
+        semester.setName("Fall");
+        semester.setYear(2031);
+        semester.setOrderInYear(SemesterOrder.FALL);
+        semester.setActive(true);
+        return semesterRepository.save(semester).getId();
+    }
+
+    /* A section of the course meeting on Monday between the given minutes of the day */
+    private Integer persistSection(Course course, Integer semesterId, int startMinute,
+            int endMinute) {
+        jdbcTemplate.update("INSERT INTO course_sections (course_id, semester_id, section_code)"
+                + " VALUES (?, ?, ?)", course.getId(), semesterId, "A");
+        var sectionId = jdbcTemplate.queryForObject(
+                "SELECT id FROM course_sections WHERE course_id = ?", Integer.class,
+                course.getId());
+        jdbcTemplate.update("INSERT INTO section_meetings (section_id, day_of_week, start_minute,"
+                + " end_minute) VALUES (?, ?, ?, ?)", sectionId, 1, startMinute, endMinute);
+        return sectionId;
+    }
+
+    private Student persistStudent(String name) {
+        var student = new Student();
+        student.setFirstName("Test");
+        student.setLastName("Student");
+        student.setEmail(name + "@student.test");
+        student.setGradeLevel(10);
+        student.setEnrollmentYear(2024);
+        student.setExpectedGraduationYear(2028);
+        student = studentRepository.save(student);
+
+        var appUser = new AppUser();
+        appUser.setUsername("user-" + student.getEmail());
+        appUser.setPasswordHash("unused");
+        appUser.setStudent(student);
+        appUserRepository.save(appUser);
+        return student;
+    }
+
+    private Course persistCourse(String code) {
+        var specialization = new Specialization();
+        specialization.setName("Concurrency " + code);
+        specialization = specializationRepository.save(specialization);
+
+        var course = new Course();
+        course.setCode(code);
+        course.setName("Course " + code);
+        course.setCredits(1.0);
+        course.setHoursPerWeek(3);
+        course.setCourseType(CourseType.CORE);
+        course.setSemesterOrder(SemesterOrder.FALL);
+        course.setGradeLevelMin(9);
+        course.setGradeLevelMax(12);
+        course.setSpecialization(specialization);
+        return courseRepository.save(course);
+    }
+}
@@ -0,0 +1,148 @@
+package com.maplewood.controllers;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import com.maplewood.domain.AppUser;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.Semester;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+import com.maplewood.domain.Student;
+import com.maplewood.repositories.AppUserRepository;
+import com.maplewood.repositories.CourseRepository;
+import com.maplewood.repositories.SemesterRepository;
+import com.maplewood.repositories.SpecializationRepository;
+import com.maplewood.repositories.StudentRepository;
+
+@SpringBootTest(properties = "app.metrics.scrape.password=scrape-secret")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private SemesterRepository semesterRepository;
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    /**
+     * Given: a student who enrolls in a course
+     *
+     * When: Prometheus scrapes the metrics endpoint with its account
+     *
+     * Then: the scrape should include the enrollment, eligibility, repository, connection pool
+     * and write queue meters
+     */
+    @Test
+    void givenEnrollmentWhenScrapingPrometheusThenEnrollmentMetersArePublished()
+            throws Exception {
+        ensureActiveSemester();
+        var student = persistStudent("metrics");
+        var course = persistCourse("MET0");
+
+        mockMvc.perform(post("/api/courses/enroll/c/{id}", course.getId())
+                .with(user("user-" + student.getEmail()))
+                .with(csrf()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "enrollment_requests_seconds_count{outcome=\"ENROLLED\",target=\"course\"")))
+                .andExpect(content().string(containsString(
+                        "enrollment_eligibility_total{outcome=\"ELIGIBLE\"")))
+                .andExpect(content().string(containsString(
+                        "spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+                .andExpect(content().string(containsString("db_write_queue_size")))
+                .andExpect(content().string(containsString("db_write_queue_wait_seconds_count")));
+    }
+
+    /**
+     * Given: the metrics scraper's account
+     *
+     * When: reading the actuator endpoints anonymously, with a wrong password and as a student
+     *
+     * Then: only the health endpoint should answer
+     */
+    @Test
+    void givenScraperAccountWhenReadingActuatorWithoutItThenOnlyHealthIsOpen() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").with(user("student")))
+                .andExpect(status().isForbidden());
+    }
+
+    private void ensureActiveSemester() {
+        if (semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc().isPresent()) {
+            return;
+        }
+        var semester = new Semester();
+        semester.setName("Fall");
+        semester.setYear(2031);
+        semester.setOrderInYear(SemesterOrder.FALL);
+        semester.setActive(true);
+        semesterRepository.save(semester);
+    }
+
+    private Student persistStudent(String name) {
+        var student = new Student();
+        student.setFirstName("Test");
+        student.setLastName("Student");
+        student.setEmail(name + "@student.test");
+        student.setGradeLevel(10);
+        student.setEnrollmentYear(2024);
+        student.setExpectedGraduationYear(2028);
+        student = studentRepository.save(student);
+
+        var appUser = new AppUser();
+        appUser.setUsername("user-" + student.getEmail());
+        appUser.setPasswordHash("unused");
+        appUser.setStudent(student);
+        appUserRepository.save(appUser);
+        return student;
+    }
+
+    private Course persistCourse(String code) {
+        var specialization = new Specialization();
+        specialization.setName("Metrics " + code);
+        specialization = specializationRepository.save(specialization);
+
+        var course = new Course();
+        course.setCode(code);
+        course.setName("Course " + code);
+        course.setCredits(1.0);
+        course.setHoursPerWeek(3);
+        course.setCourseType(CourseType.CORE);
+        course.setSemesterOrder(SemesterOrder.FALL);
+        course.setGradeLevelMin(9);
+        course.setGradeLevelMax(12);
+        course.setSpecialization(specialization);
+        return courseRepository.save(course);
+    }
+}
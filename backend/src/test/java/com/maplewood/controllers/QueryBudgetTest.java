@@ -0,0 +1,179 @@
+package com.maplewood.controllers;
+
+import static com.maplewood.persistence.QueryCountAssertions.assertQueryCountAtMost;
+import static com.maplewood.persistence.QueryCountAssertions.queryCountAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import com.maplewood.catalog.CourseCatalog;
+import com.maplewood.config.QueryBudgetConfig;
+import com.maplewood.domain.AppUser;
+import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.Semester;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
+import com.maplewood.domain.Student;
+import com.maplewood.repositories.AppUserRepository;
+import com.maplewood.repositories.CourseRepository;
+import com.maplewood.repositories.SemesterRepository;
+import com.maplewood.repositories.SpecializationRepository;
+import com.maplewood.repositories.StudentRepository;
+import com.maplewood.security.StudentUserDetails;
+import com.maplewood.services.CourseService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetTest {
+    private static final int STUDENT_COURSES_BUDGET = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private CourseCatalog courseCatalog;
+    @Autowired
+    private AppUserRepository appUserRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private SemesterRepository semesterRepository;
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    /**
+     * Given: a logged-in student and several loaded catalog courses, each with its own
+     * specialization and some with a prerequisite
+     *
+     * When: the student's courses are requested
+     *
+     * Then: the request should stay within its budget of five statements (the student, the active
+     * semester and the three eligibility lookups), and the count should be recorded against the
+     * endpoint's path pattern
+     */
+    @Test
+    void givenCoursesWithAssociationsWhenListingStudentCoursesThenQueriesStayWithinBudget()
+            throws Exception {
+        ensureActiveSemester();
+        var student = persistStudent("query-budget");
+        var first = persistCourse("QB0", null);
+        for (var i = 1; i < 6; i++) {
+            persistCourse("QB" + i, i % 2 == 0 ? first : null);
+        }
+        courseCatalog.reload();
+        var principal = new StudentUserDetails(User.withUsername("user-" + student.getEmail())
+                .password("unused").roles("USER").build(), student.getId());
+
+        mockMvc.perform(get("/api/courses/student").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.code == 'QB1')]").exists())
+                .andExpect(jsonPath("$[?(@.code == 'QB2')]").doesNotExist())
+                .andExpect(queryCountAtMost(STUDENT_COURSES_BUDGET));
+
+        var summary = meterRegistry.find("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/api/courses/student").summary();
+        assertThat(summary).isNotNull();
+        assertThat(summary.max()).isLessThanOrEqualTo(STUDENT_COURSES_BUDGET);
+    }
+
+    /**
+     * Given: a student and a loaded catalog
+     *
+     * When: the service lists the student's courses outside of any request
+     *
+     * Then: it should run the same statements as the endpoint, less the principal's
+     */
+    @Test
+    void givenStudentWhenFindingCoursesForStudentThenQueriesStayWithinBudget() throws Exception {
+        ensureActiveSemester();
+        var student = persistStudent("query-budget-service");
+        persistCourse("QBS0", null);
+        courseCatalog.reload();
+
+        var courses = assertQueryCountAtMost(STUDENT_COURSES_BUDGET,
+                () -> courseService.findCoursesForStudent(student.getId(), PageRequest.of(0, 100)));
+
+        assertThat(courses.getContent()).isNotEmpty();
+    }
+
+    /**
+     * Given: the query budget filter
+     *
+     * When: a request that touches no entity is made
+     *
+     * Then: its count should still be left on the request
+     */
+    @Test
+    void givenPublicEndpointWhenRequestedThenCountIsRecorded() throws Exception {
+        var result = mockMvc.perform(get("/api/health")).andReturn();
+
+        assertThat(result.getRequest().getAttribute(QueryBudgetConfig.QUERY_COUNT_ATTRIBUTE))
+                .isEqualTo(0);
+    }
+
+    private void ensureActiveSemester() {
+        if (semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc().isPresent()) {
+            return;
+        }
+        var semester = new Semester();
+        semester.setName("Fall");
+        semester.setYear(2031);
+        semester.setOrderInYear(SemesterOrder.FALL);
+        semester.setActive(true);
+        semesterRepository.save(semester);
+    }
+
+    private Student persistStudent(String name) {
+        var student = new Student();
+        student.setFirstName("Test");
+        student.setLastName("Student");
+        student.setEmail(name + "@student.test");
+        student.setGradeLevel(10);
+        student.setEnrollmentYear(2024);
+        student.setExpectedGraduationYear(2028);
+        student = studentRepository.save(student);
+
+        var appUser = new AppUser();
+        appUser.setUsername("user-" + student.getEmail());
+        appUser.setPasswordHash("unused");
+        appUser.setStudent(student);
+        appUserRepository.save(appUser);
+        return student;
+    }
+
+    private Course persistCourse(String code, Course prerequisite) {
+        var specialization = new Specialization();
+        specialization.setName("Query budget " + code);
+        specialization = specializationRepository.save(specialization);
+
+        var course = new Course();
+        course.setCode(code);
+        course.setName("Course " + code);
+        course.setCredits(1.0);
+        course.setHoursPerWeek(3);
+        course.setCourseType(CourseType.CORE);
+        course.setSemesterOrder(SemesterOrder.FALL);
+        course.setGradeLevelMin(9);
+        course.setGradeLevelMax(12);
+        course.setSpecialization(specialization);
+        course.setPrerequisite(prerequisite);
+        return courseRepository.save(course);
+    }
+}
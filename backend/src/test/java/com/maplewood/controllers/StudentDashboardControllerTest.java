@@ -3,6 +3,7 @@ package com.maplewood.controllers;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -19,16 +20,25 @@ import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.security.core.userdetails.User;
+import com.maplewood.catalog.CatalogCourse;
 import com.maplewood.config.SecurityConfig;
 import com.maplewood.domain.AppUser;
 import com.maplewood.domain.Course;
 import com.maplewood.domain.CourseHistoryStatus;
+import com.maplewood.domain.SemesterOrder;
 import com.maplewood.domain.Student;
+import com.maplewood.domain.StudentAcademicSummary;
 import com.maplewood.domain.StudentStatus;
+import com.maplewood.persistence.DatabaseWriteQueue;
+import com.maplewood.planning.GraduationPlanner;
 import com.maplewood.repositories.AppUserRepository;
+import com.maplewood.security.StudentUserDetails;
 import com.maplewood.repositories.StudentCourseHistoryRepository.CourseWithStatusProjection;
+import com.maplewood.services.GraduationPlanService;
 import com.maplewood.services.StudentCourseHistoryService;
 import com.maplewood.services.StudentEnrollmentService;
+import com.maplewood.services.StudentDashboardService;
 import com.maplewood.services.StudentService;
 
 @WebMvcTest(StudentDashboardController.class)
@@ -45,12 +55,18 @@ class StudentDashboardControllerTest {
     private StudentEnrollmentService studentEnrollmentService;
     @MockBean
     private StudentService studentService;
+    @MockBean
+    private StudentDashboardService studentDashboardService;
+    @MockBean
+    private GraduationPlanService graduationPlanService;
 
     @MockBean
     private AppUserRepository appUserRepository;
 
     @MockBean
     private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private DatabaseWriteQueue databaseWriteQueue;
 
     /**
      * Given: no authenticated user When: requesting the student dashboard course history endpoint
@@ -221,7 +237,8 @@ class StudentDashboardControllerTest {
 
         when(appUserRepository.findByUsername("test-user")).thenReturn(Optional.of(user));
         when(studentService.getStudentDashboardInformation(7))
-                .thenReturn(new StudentService.StudentDashboardInformation(student, 18.0));
+                .thenReturn(new StudentService.StudentDashboardInformation(student,
+                        academicSummary(18.0, 3.2)));
 
         mockMvc.perform(get("/api/dashboard/student/info").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -230,11 +247,121 @@ class StudentDashboardControllerTest {
                 .andExpect(jsonPath("$.email").value("emma.wilson@maplewood.edu"))
                 .andExpect(jsonPath("$.gradeLevel").value(10))
                 .andExpect(jsonPath("$.status").value("ACTIVE"))
-                .andExpect(jsonPath("$.earnedCredits").value(18.0));
+                .andExpect(jsonPath("$.earnedCredits").value(18.0))
+                .andExpect(jsonPath("$.gpa").value(3.2))
+                .andExpect(jsonPath("$.graduationProgress").value(0.6));
 
         verify(studentService).getStudentDashboardInformation(7);
     }
 
+    /**
+     * Given: a principal that already carries the student id from login
+     * When: requesting the student dashboard enrolled courses endpoint
+     * Then: the student id should come from the principal without looking up the user
+     */
+    @Test
+    void givenStudentPrincipalWhenGettingEnrolledCoursesThenUserIsNotLookedUp()
+            throws Exception {
+        var principal = new StudentUserDetails(
+                User.withUsername("test-user").password("unused").roles("USER").build(), 7);
+        when(studentEnrollmentService.getActiveSemesterEnrollments(7)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/dashboard/student/enrolled-courses")
+                .with(user(principal))
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrolledCourses.length()").value(0));
+
+        verify(studentEnrollmentService).getActiveSemesterEnrollments(7);
+        verifyNoInteractions(appUserRepository);
+    }
+
+    /**
+     * Given: a student with info, course history and active enrollments
+     * When: requesting the student dashboard summary endpoint
+     * Then: the response should contain all three views in one payload
+     */
+    @Test
+    void givenStudentPrincipalWhenGettingSummaryThenReturnsAllViews() throws Exception {
+        var principal = new StudentUserDetails(
+                User.withUsername("test-user").password("unused").roles("USER").build(), 7);
+        var student = new Student();
+        student.setId(7);
+        student.setFirstName("Emma");
+        student.setGradeLevel(10);
+        student.setStatus(StudentStatus.ACTIVE);
+
+        var english = new Course();
+        english.setName("English Composition");
+        english.setCredits(3.0);
+        var biology = new Course();
+        biology.setName("Biology I");
+        biology.setCredits(2.0);
+
+        when(studentDashboardService.getStudentDashboardSummary(7))
+                .thenReturn(new StudentDashboardService.StudentDashboardSummary(student,
+                        academicSummary(3.0, 4.0),
+                        List.of(courseProjection(english, CourseHistoryStatus.PASSED)),
+                        List.of(biology)));
+
+        mockMvc.perform(get("/api/dashboard/student/summary")
+                .with(user(principal))
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.info.firstName").value("Emma"))
+                .andExpect(jsonPath("$.info.status").value("ACTIVE"))
+                .andExpect(jsonPath("$.info.earnedCredits").value(3.0))
+                .andExpect(jsonPath("$.courseHistory[0].courseName").value("English Composition"))
+                .andExpect(jsonPath("$.courseHistory[0].status").value("PASSED"))
+                .andExpect(jsonPath("$.enrolledCourses[0].courseName").value("Biology I"))
+                .andExpect(jsonPath("$.enrolledCourses[0].credits").value("2.0"));
+
+        verifyNoInteractions(appUserRepository);
+    }
+
+    /**
+     * Given: a student whose plan reaches the credit goal over two semesters
+     * When: requesting the student dashboard graduation plan endpoint
+     * Then: the response should list each semester with its courses and credits
+     */
+    @Test
+    void givenStudentPrincipalWhenGettingGraduationPlanThenReturnsSemesters() throws Exception {
+        var principal = new StudentUserDetails(
+                User.withUsername("test-user").password("unused").roles("USER").build(), 7);
+        var chemistry = new CatalogCourse(0, 12, "SCI201", "Chemistry", null, 1.0, 4, null, null,
+                null, null, null, 11, 12, SemesterOrder.FALL);
+        var physics = new CatalogCourse(1, 13, "SCI301", "Physics", null, 0.5, 4, null, null, 12,
+                "Chemistry", null, 11, 12, SemesterOrder.SPRING);
+
+        when(graduationPlanService.getGraduationPlan(7)).thenReturn(
+                new GraduationPlanner.GraduationPlan(30.0, 28.5, 30.0, true, List.of(
+                        new GraduationPlanner.PlannedSemester(SemesterOrder.FALL, 2024, 12,
+                                List.of(chemistry)),
+                        new GraduationPlanner.PlannedSemester(SemesterOrder.SPRING, 2024, 12,
+                                List.of(physics)))));
+
+        mockMvc.perform(get("/api/dashboard/student/graduation-plan")
+                .with(user(principal))
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reachesGoal").value(true))
+                .andExpect(jsonPath("$.creditsPlanned").value(30.0))
+                .andExpect(jsonPath("$.semesters[0].semester").value("FALL"))
+                .andExpect(jsonPath("$.semesters[0].courses[0].code").value("SCI201"))
+                .andExpect(jsonPath("$.semesters[1].year").value(2024))
+                .andExpect(jsonPath("$.semesters[1].credits").value(0.5));
+
+        verify(graduationPlanService).getGraduationPlan(7);
+    }
+
+    private StudentAcademicSummary academicSummary(double earnedCredits, double gpa) {
+        var summary = StudentAcademicSummary.empty(7);
+        summary.setEarnedCredits(earnedCredits);
+        summary.setGpa(gpa);
+        summary.setGraduationProgress(earnedCredits / StudentAcademicSummary.CREDITS_TO_GRADUATE);
+        return summary;
+    }
+
     private CourseWithStatusProjection courseProjection(Course course, CourseHistoryStatus status) {
         return new CourseWithStatusProjection() {
             @Override
@@ -0,0 +1,59 @@
+package com.maplewood.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+class EnumLookupTest {
+    /**
+     * Given: stored values in their canonical case and in other cases
+     *
+     * When: they are converted to enum constants
+     *
+     * Then: both should match, ignoring case as the value scans did
+     */
+    @Test
+    void stringValuesMatchIgnoringCase() {
+        assertThat(CourseHistoryStatus.fromValue("passed")).isEqualTo(CourseHistoryStatus.PASSED);
+        assertThat(CourseHistoryStatus.fromValue("FAILED")).isEqualTo(CourseHistoryStatus.FAILED);
+        assertThat(StudentEnrollmentStatus.fromValue("Dropped"))
+                .isEqualTo(StudentEnrollmentStatus.DROPPED);
+        assertThat(StudentStatus.fromValue("graduated")).isEqualTo(StudentStatus.GRADUATED);
+        assertThat(CourseType.fromValue("elective")).isEqualTo(CourseType.ELECTIVE);
+        assertThat(CourseType.fromValue(" Core ")).isEqualTo(CourseType.CORE);
+        assertThat(StudentStatus.fromValue(null)).isNull();
+    }
+
+    /**
+     * Given: semester order codes
+     *
+     * When: they are converted
+     *
+     * Then: known codes should map to their constant and others should be rejected
+     */
+    @Test
+    void semesterOrderCodesIndexTheTable() {
+        assertThat(SemesterOrder.fromCode(1)).isEqualTo(SemesterOrder.FALL);
+        assertThat(SemesterOrder.fromCode(2)).isEqualTo(SemesterOrder.SPRING);
+        assertThat(SemesterOrder.fromCode(null)).isNull();
+        assertThatThrownBy(() -> SemesterOrder.fromCode(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SemesterOrder.fromCode(3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Given: values that no constant is stored as
+     *
+     * When: they are converted
+     *
+     * Then: they should be rejected
+     */
+    @Test
+    void unknownValuesAreRejected() {
+        assertThatThrownBy(() -> StudentStatus.fromValue("expelled"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CourseType.fromValue("seminar"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
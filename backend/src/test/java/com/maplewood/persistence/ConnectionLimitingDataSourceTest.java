@@ -0,0 +1,116 @@
+package com.maplewood.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+class ConnectionLimitingDataSourceTest {
+    private final DataSource pool = mock(DataSource.class);
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConnectionLimitingDataSource(pool, 2, Duration.ofMillis(100));
+    }
+
+    /**
+     * Given: a limit of two connections, both taken
+     *
+     * When: a third caller asks for a connection
+     *
+     * Then: it should wait until one of the two is closed, and get it then
+     */
+    @Test
+    void callersOverTheLimitWaitForAClose() throws Exception {
+        dataSource = new ConnectionLimitingDataSource(pool, 2, Duration.ofSeconds(10));
+        var first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        var third = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.getQueueLength() == 0) {
+            Thread.onSpinWait();
+        }
+        assertThat(third).isNotDone();
+
+        first.close();
+
+        assertThat(third.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    /**
+     * Given: a limit of two connections, both taken
+     *
+     * When: a third caller waits past the acquire timeout
+     *
+     * Then: it should fail with a transient connection error
+     */
+    @Test
+    void callersGiveUpAfterTheAcquireTimeout() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    /**
+     * Given: a connection closed twice and a pool that fails to hand out a connection
+     *
+     * When: further connections are asked for
+     *
+     * Then: neither should have used up a permit, and the pool connection is closed once
+     */
+    @Test
+    void permitsAreReturnedOnceAndOnFailure() throws SQLException {
+        var connection = dataSource.getConnection();
+        var target = ((ConnectionProxy) connection).getTargetConnection();
+        connection.close();
+        connection.close();
+        verify(target, times(1)).close();
+
+        when(pool.getConnection()).thenThrow(new SQLException("pool down"))
+                .thenAnswer(invocation -> mock(Connection.class));
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool down");
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+    }
+
+    /**
+     * Given: a limiter around a closeable pool
+     *
+     * When: the limiter is closed
+     *
+     * Then: the pool should be closed with it
+     */
+    @Test
+    void closingTheLimiterClosesThePool() throws Exception {
+        var closeablePool = mock(DataSource.class,
+                withSettings().extraInterfaces(AutoCloseable.class));
+
+        new ConnectionLimitingDataSource(closeablePool, 1, Duration.ofMillis(100)).close();
+
+        verify((AutoCloseable) closeablePool).close();
+    }
+}
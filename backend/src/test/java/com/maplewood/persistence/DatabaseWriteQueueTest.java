@@ -0,0 +1,235 @@
+package com.maplewood.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class DatabaseWriteQueueTest {
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DatabaseWriteQueue writeQueue;
+    // Connection holders of the writer's transactions; a new one is bound per transaction
+    private final Set<Object> transactions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:write-queue-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE writes (id INTEGER PRIMARY KEY)");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writeQueue != null) {
+            writeQueue.stop();
+        }
+    }
+
+    /**
+     * Given: a writer thread busy with one write and ten more writes queued behind it
+     *
+     * When: the busy write finishes
+     *
+     * Then: the queued writes should all be committed in a single transaction
+     */
+    @Test
+    void queuedWritesAreCommittedTogether() throws Exception {
+        startQueue(100, 64);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blocker = writeQueue.submit(writer -> {
+            started.countDown();
+            await(release);
+            return insert(writer, 0);
+        });
+        await(started);
+
+        var futures = new ArrayList<CompletableFuture<Integer>>();
+        for (var id = 1; id <= 10; id++) {
+            var rowId = id;
+            futures.add(writeQueue.submit(writer -> insert(writer, rowId)));
+        }
+        release.countDown();
+
+        assertThat(blocker.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        for (var future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(transactions).hasSize(2);
+        assertThat(rowCount()).isEqualTo(11);
+    }
+
+    /**
+     * Given: a batch where the middle write throws
+     *
+     * When: the batch is written
+     *
+     * Then: only the failing write should be rolled back and reported as failed
+     */
+    @Test
+    void failingWriteDoesNotAffectItsBatch() throws Exception {
+        startQueue(100, 64);
+        var release = blockWriter();
+
+        var first = writeQueue.submit(writer -> insert(writer, 1));
+        var failing = writeQueue.submit(writer -> {
+            insert(writer, 2);
+            throw new IllegalStateException("boom");
+        });
+        var last = writeQueue.submit(writer -> insert(writer, 3));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(last.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThatThrownBy(() -> failing.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM writes ORDER BY id", Integer.class))
+                .containsExactly(1, 3);
+    }
+
+    /**
+     * Given: a queue with capacity one whose writer is busy and whose slot is taken
+     *
+     * When: another write is submitted
+     *
+     * Then: it should be rejected right away
+     */
+    @Test
+    void submitRejectsWhenQueueIsFull() throws Exception {
+        startQueue(1, 64);
+        var release = blockWriter();
+        var queued = writeQueue.submit(writer -> insert(writer, 1));
+
+        var rejected = writeQueue.submit(writer -> insert(writer, 2));
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(() -> writeQueue.execute(writer -> insert(writer, 3)))
+                .isInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    }
+
+    /**
+     * Given: a batch where the middle write throws an error rather than an exception
+     *
+     * When: the batch is written, and another write is submitted after it
+     *
+     * Then: only the failing write should fail, and the writer should keep running
+     */
+    @Test
+    void writeThrowingAnErrorDoesNotStopTheWriter() throws Exception {
+        startQueue(100, 64);
+        var release = blockWriter();
+
+        var first = writeQueue.submit(writer -> insert(writer, 1));
+        var failing = writeQueue.submit(writer -> {
+            throw new AssertionError("boom");
+        });
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThatThrownBy(() -> failing.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AssertionError.class);
+        assertThat(writeQueue.submit(writer -> insert(writer, 2)).get(5, TimeUnit.SECONDS))
+                .isEqualTo(1);
+    }
+
+    /**
+     * Given: a writer busy past the wait timeout
+     *
+     * When: a write is executed behind it
+     *
+     * Then: the caller should be rejected, and the write should not run once the writer is free
+     */
+    @Test
+    void executeWithdrawsWriteNotStartedWithinTimeout() throws Exception {
+        startQueue(100, 64, Duration.ofMillis(100));
+        var release = blockWriter();
+
+        assertThatThrownBy(() -> writeQueue.execute(writer -> insert(writer, 1)))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("Timed out");
+        release.countDown();
+
+        assertThat(writeQueue.submit(writer -> insert(writer, 2)).get(5, TimeUnit.SECONDS))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM writes", Integer.class))
+                .containsExactly(2);
+    }
+
+    /**
+     * Given: a queue that has stopped
+     *
+     * When: a write is submitted
+     *
+     * Then: it should be rejected rather than left waiting
+     */
+    @Test
+    void submitRejectsAfterStop() throws Exception {
+        startQueue(100, 64);
+        writeQueue.stop();
+
+        assertThat(writeQueue.submit(writer -> insert(writer, 1))).isCompletedExceptionally();
+        assertThat(rowCount()).isZero();
+    }
+
+    private void startQueue(int capacity, int maxBatchSize) {
+        startQueue(capacity, maxBatchSize, Duration.ofSeconds(5));
+    }
+
+    private void startQueue(int capacity, int maxBatchSize, Duration waitTimeout) {
+        writeQueue = new DatabaseWriteQueue(dataSource, capacity, maxBatchSize, waitTimeout);
+        writeQueue.start();
+    }
+
+    private int insert(NamedParameterJdbcTemplate writer, int id) {
+        transactions.add(TransactionSynchronizationManager.getResource(dataSource));
+        return writer.update("INSERT INTO writes (id) VALUES (:id)", Map.of("id", id));
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM writes", Integer.class);
+    }
+
+    /* Occupy the writer thread until the returned latch is released */
+    private CountDownLatch blockWriter() {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        writeQueue.submit(writer -> {
+            started.countDown();
+            await(release);
+            return 0;
+        });
+        await(started);
+        return release;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
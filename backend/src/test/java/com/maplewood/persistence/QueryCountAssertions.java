@@ -0,0 +1,36 @@
+package com.maplewood.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.concurrent.Callable;
+import org.springframework.test.web.servlet.ResultMatcher;
+import com.maplewood.config.QueryBudgetConfig;
+
+/**
+ * Pins the number of statements Hibernate runs, see {@link QueryCounter}.
+ */
+public final class QueryCountAssertions {
+    private QueryCountAssertions() {
+    }
+
+    /* For MockMvc: the request ran at most the given number of statements */
+    public static ResultMatcher queryCountAtMost(int budget) {
+        return result -> assertThat(
+                (Integer) result.getRequest().getAttribute(QueryBudgetConfig.QUERY_COUNT_ATTRIBUTE))
+                .as("statements run by %s %s", result.getRequest().getMethod(),
+                        result.getRequest().getRequestURI())
+                .isNotNull()
+                .isLessThanOrEqualTo(budget);
+    }
+
+    /* Run the action, asserting it ran at most the given number of statements */
+    public static <T> T assertQueryCountAtMost(int budget, Callable<T> action) throws Exception {
+        T result;
+        int count;
+        try (var scope = QueryCounter.open()) {
+            result = action.call();
+            count = scope.count();
+        }
+        assertThat(count).as("statements run").isLessThanOrEqualTo(budget);
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+package com.maplewood.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.sql.Connection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.maplewood.config.SqlitePerformanceConfig;
+import com.maplewood.config.SqlitePerformanceProperties;
+
+class ReadWriteRoutingDataSourceTest {
+    private final DataSource readPool = mock(DataSource.class);
+    private final DataSource writePool = mock(DataSource.class);
+    private final Connection readConnection = mock(Connection.class);
+    private final Connection writeConnection = mock(Connection.class);
+    private DataSource dataSource;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(readPool.getConnection()).thenReturn(readConnection);
+        when(writePool.getConnection()).thenReturn(writeConnection);
+        var routing = new ReadWriteRoutingDataSource(readPool, writePool);
+        routing.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Given: a read-only transaction
+     *
+     * When: a statement is run in it
+     *
+     * Then: the connection should come from the read pool
+     */
+    @Test
+    void readOnlyTransactionsUseTheReadPool() throws SQLException {
+        transactionTemplate.setReadOnly(true);
+
+        assertThat(targetConnectionInTransaction()).isSameAs(readConnection);
+    }
+
+    /**
+     * Given: a read-write transaction
+     *
+     * When: a statement is run in it
+     *
+     * Then: the connection should come from the write pool
+     */
+    @Test
+    void readWriteTransactionsUseTheWritePool() throws SQLException {
+        assertThat(targetConnectionInTransaction()).isSameAs(writeConnection);
+    }
+
+    /**
+     * Given: no transaction
+     *
+     * When: a connection is used
+     *
+     * Then: it should come from the read pool
+     */
+    @Test
+    void statementsOutsideTransactionsUseTheReadPool() throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            assertThat(unwrap(connection)).isSameAs(readConnection);
+        }
+    }
+
+    /**
+     * Given: the sqlite-perf read and write pools over a SQLite database
+     *
+     * When: a read-only transaction reads, a read-write transaction writes, and a write runs
+     * outside any transaction
+     *
+     * Then: the read and the routed write should succeed, and the write that landed on the read
+     * pool should be refused
+     */
+    @Test
+    void sqliteReadPoolRefusesWrites(@TempDir Path directory) throws Exception {
+        var url = "jdbc:sqlite:" + Files.createFile(directory.resolve("routing.sqlite"));
+        var properties = new SqlitePerformanceProperties();
+        // The writer first, as in SqlitePerformanceConfig
+        var writePool = SqlitePerformanceConfig.createPool(url, properties, "test-write", 1, false);
+        var readPool = SqlitePerformanceConfig.createPool(url, properties, "test-read", 2, true);
+        try (var routing = new ReadWriteRoutingDataSource(readPool, writePool)) {
+            routing.afterPropertiesSet();
+            var sqlite = new LazyConnectionDataSourceProxy(routing);
+            var jdbcTemplate = new JdbcTemplate(sqlite);
+            var readWrite = new TransactionTemplate(new DataSourceTransactionManager(sqlite));
+            var readOnly = new TransactionTemplate(new DataSourceTransactionManager(sqlite));
+            readOnly.setReadOnly(true);
+
+            readWrite.executeWithoutResult(status -> {
+                jdbcTemplate.execute("CREATE TABLE writes (id INTEGER PRIMARY KEY)");
+                jdbcTemplate.update("INSERT INTO writes (id) VALUES (1)");
+            });
+
+            Integer count = readOnly.execute(status -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM writes", Integer.class));
+            assertThat(count).isEqualTo(1);
+            assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO writes (id) VALUES (2)"))
+                    .isInstanceOf(DataAccessException.class);
+        }
+    }
+
+    private Connection targetConnectionInTransaction() {
+        var target = new AtomicReference<Connection>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                target.set(unwrap(DataSourceUtils.getConnection(dataSource)));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return target.get();
+    }
+
+    /* Touching the lazy proxy's target is what triggers the routing decision */
+    private static Connection unwrap(Connection connection) throws SQLException {
+        return ((ConnectionProxy) connection)
+                .getTargetConnection();
+    }
+}
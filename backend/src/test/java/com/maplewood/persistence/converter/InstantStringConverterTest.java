@@ -0,0 +1,83 @@
+package com.maplewood.persistence.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class InstantStringConverterTest {
+    private final InstantStringConverter converter = new InstantStringConverter();
+
+    /**
+     * Given: timestamps spread over four centuries, leap days and the ends of days included
+     *
+     * When: they are read in the database's datetime and date layouts
+     *
+     * Then: each should give the same instant as parsing it with java.time
+     */
+    @Test
+    void fixedLayoutsMatchJavaTime() {
+        var random = new Random(42);
+        var start = LocalDateTime.of(1900, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        var end = LocalDateTime.of(2300, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        for (var i = 0; i < 10_000; i++) {
+            assertRoundTrip(LocalDateTime.ofEpochSecond(
+                    start + (long) (random.nextDouble() * (end - start)), 0, ZoneOffset.UTC));
+        }
+        assertRoundTrip(LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+        assertRoundTrip(LocalDateTime.of(2000, 2, 29, 0, 0, 0));
+        assertRoundTrip(LocalDateTime.of(1969, 12, 31, 23, 59, 59));
+        assertRoundTrip(LocalDateTime.of(1970, 1, 1, 0, 0, 0));
+    }
+
+    /**
+     * Given: values outside the two fixed layouts
+     *
+     * When: they are read
+     *
+     * Then: they should be parsed as before, by the formatter or as ISO instants
+     */
+    @Test
+    void otherValuesFallBackToFormatter() {
+        assertThat(converter.convertToEntityAttribute("2026-02-24T06:16:52Z"))
+                .isEqualTo(Instant.parse("2026-02-24T06:16:52Z"));
+        assertThat(converter.convertToEntityAttribute("  2024-08-20 10:00:00 "))
+                .isEqualTo(Instant.parse("2024-08-20T10:00:00Z"));
+        // The formatter's smart resolver clamps an impossible day to the end of the month
+        assertThat(converter.convertToEntityAttribute("2023-02-29"))
+                .isEqualTo(Instant.parse("2023-02-28T00:00:00Z"));
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThat(converter.convertToEntityAttribute("   ")).isNull();
+    }
+
+    /**
+     * Given: a malformed value of the datetime layout's length
+     *
+     * When: it is read
+     *
+     * Then: the formatter should reject it
+     */
+    @Test
+    void malformedValuesAreRejected() {
+        assertThatThrownBy(() -> converter.convertToEntityAttribute("2024-08-20 25:00:00"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> converter.convertToEntityAttribute("2024/08/20 10:00:00"))
+                .isInstanceOf(DateTimeParseException.class);
+    }
+
+    private void assertRoundTrip(LocalDateTime dateTime) {
+        var expected = dateTime.toInstant(ZoneOffset.UTC);
+        var text = dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        assertThat(converter.convertToEntityAttribute(text)).as(text).isEqualTo(expected);
+        assertThat(converter.convertToDatabaseColumn(expected)).isEqualTo(text);
+
+        var date = dateTime.toLocalDate();
+        assertThat(converter.convertToEntityAttribute(date.toString())).as(date.toString())
+                .isEqualTo(date.atStartOfDay().toInstant(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,129 @@
+package com.maplewood.planning;
+
+import static com.maplewood.catalog.TestCourses.course;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CatalogSnapshot;
+import com.maplewood.domain.SemesterOrder;
+import com.maplewood.planning.GraduationPlanner.PlannedSemester;
+
+class GraduationPlannerTest {
+    private static final GraduationPlanner.Start GRADE_12_FALL =
+            new GraduationPlanner.Start(12, SemesterOrder.FALL, 2024);
+
+    /**
+     * Given: three one-credit fall courses, one of which unlocks the only spring course, two
+     * courses per semester and three credits to go
+     *
+     * When: planning from the fall of grade 12
+     *
+     * Then: the fall semester should take the unlocking course so the spring course can follow,
+     * reaching the goal in two semesters
+     */
+    @Test
+    void givenUnlockingCourseWhenPlanningThenItIsTakenFirstAndGoalIsReached() {
+        var algebra = course(1).build();
+        var geometry = course(2).prerequisite(algebra).semester(SemesterOrder.SPRING).build();
+        var snapshot = CatalogSnapshot.of(1, List.of(algebra, geometry,
+                course(3).build(),
+                course(4).build()), List.of());
+
+        var plan = new GraduationPlanner(2, 3.0).plan(snapshot, GRADE_12_FALL, new BitSet(),
+                new BitSet());
+
+        assertThat(plan.reachesGoal()).isTrue();
+        assertThat(plan.creditsPlanned()).isEqualTo(3.0);
+        assertThat(plan.semesters()).extracting(PlannedSemester::semesterOrder,
+                PlannedSemester::year, PlannedSemester::gradeLevel)
+                .containsExactly(tuple(SemesterOrder.FALL, 2024, 12),
+                        tuple(SemesterOrder.SPRING, 2024, 12));
+        assertThat(ids(plan.semesters().get(0))).contains(1).hasSize(2);
+        assertThat(ids(plan.semesters().get(1))).containsExactly(2);
+    }
+
+    /**
+     * Given: a student who passed one course, is enrolled in another, and needs more credits
+     * than the remaining semesters offer
+     *
+     * When: planning with the course limit
+     *
+     * Then: the plan should keep the enrolled course, fill the other slot with the course worth
+     * most credits, and report the credits it gets to without reaching the goal
+     */
+    @Test
+    void givenUnreachableGoalWhenPlanningThenEnrolledCourseIsKeptAndCreditsAreMaximized() {
+        var snapshot = CatalogSnapshot.of(1, List.of(course(1).build(),
+                course(2).credits(0.5).build(),
+                course(3).credits(0.5).build(),
+                course(4).build()), List.of());
+
+        var plan = new GraduationPlanner(2, 30.0).plan(snapshot, GRADE_12_FALL,
+                snapshot.maskOf(Set.of(1)), snapshot.maskOf(Set.of(2)));
+
+        assertThat(plan.reachesGoal()).isFalse();
+        assertThat(plan.creditsEarned()).isEqualTo(1.0);
+        assertThat(plan.creditsPlanned()).isEqualTo(2.5);
+        assertThat(plan.semesters()).hasSize(1);
+        assertThat(ids(plan.semesters().get(0))).containsExactly(2, 4);
+    }
+
+    /**
+     * Given: two one-credit fall courses that each unlock a spring course, the higher ranked
+     * one a half-credit course and the other a two-credit course, one course per semester
+     *
+     * When: planning from the fall of grade 12
+     *
+     * Then: the plan should take the lower ranked fall course, since the course it unlocks is
+     * worth more
+     */
+    @Test
+    void givenLowerRankedCourseUnlockingMoreWhenPlanningThenItIsTaken() {
+        var first = course(1).build();
+        var second = course(3).build();
+        var snapshot = CatalogSnapshot.of(1, List.of(first,
+                course(2).prerequisite(first).semester(SemesterOrder.SPRING).credits(0.5).build(),
+                second,
+                course(4).prerequisite(second).semester(SemesterOrder.SPRING).credits(2.0).build()),
+                List.of());
+
+        var plan = new GraduationPlanner(1, 30.0).plan(snapshot, GRADE_12_FALL, new BitSet(),
+                new BitSet());
+
+        assertThat(plan.creditsPlanned()).isEqualTo(3.0);
+        assertThat(plan.semesters()).extracting(GraduationPlannerTest::ids)
+                .containsExactly(List.of(3), List.of(4));
+    }
+
+    /**
+     * Given: two one-credit fall courses, one offered through grade 12 and one only through
+     * grade 11, one course per semester
+     *
+     * When: planning from the fall of grade 11
+     *
+     * Then: the plan should take the course that is not offered again first and the other one
+     * a year later
+     */
+    @Test
+    void givenCourseOfferedLaterWhenPlanningThenTheLastChanceCourseIsTakenFirst() {
+        var lastChance = course(2).grades(9, 11).build();
+        var snapshot = CatalogSnapshot.of(1, List.of(course(1).build(),
+                lastChance), List.of());
+
+        var plan = new GraduationPlanner(1, 30.0).plan(snapshot,
+                new GraduationPlanner.Start(11, SemesterOrder.FALL, 2023), new BitSet(),
+                new BitSet());
+
+        assertThat(plan.creditsPlanned()).isEqualTo(2.0);
+        assertThat(plan.semesters()).extracting(GraduationPlannerTest::ids)
+                .containsExactly(List.of(2), List.of(), List.of(1));
+    }
+
+    private static List<Integer> ids(PlannedSemester semester) {
+        return semester.courses().stream().map(CatalogCourse::id).toList();
+    }
+}
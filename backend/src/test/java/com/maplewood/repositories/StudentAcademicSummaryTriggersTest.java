@@ -0,0 +1,156 @@
+package com.maplewood.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * The summary is maintained by SQLite triggers (migration V4), which the H2 test schema does not
+ * have, so these run against a scratch copy of the seeded SQLite database.
+ */
+class StudentAcademicSummaryTriggersTest {
+    private static final Path DATABASE = Path.of("../maplewood_school.sqlite");
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) throws Exception {
+        var copy = directory.resolve("maplewood.sqlite");
+        Files.copy(DATABASE, copy, StandardCopyOption.REPLACE_EXISTING);
+        jdbcTemplate = new JdbcTemplate(
+                new SingleConnectionDataSource("jdbc:sqlite:" + copy, true));
+    }
+
+    /**
+     * Given: the seeded database
+     *
+     * When: comparing every summary row with an aggregate over the course history
+     *
+     * Then: earned credits and pass/fail counts should match for every student
+     */
+    @Test
+    void summaryMatchesCourseHistoryAggregate() {
+        var mismatches = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM students s
+                LEFT JOIN student_academic_summary sas ON sas.student_id = s.id
+                WHERE sas.student_id IS NULL
+                    OR ABS(sas.earned_credits - COALESCE((
+                        SELECT SUM(c.credits) FROM student_course_history sch
+                        JOIN courses c ON c.id = sch.course_id
+                        WHERE sch.student_id = s.id AND sch.status = 'passed'), 0)) > 1e-9
+                    OR sas.passed_count != (SELECT COUNT(*) FROM student_course_history sch
+                        WHERE sch.student_id = s.id AND sch.status = 'passed')
+                    OR sas.failed_count != (SELECT COUNT(*) FROM student_course_history sch
+                        WHERE sch.student_id = s.id AND sch.status = 'failed')
+                """, Integer.class);
+
+        assertThat(mismatches).isZero();
+    }
+
+    /**
+     * Given: a student and a course without a prerequisite the student has not taken
+     *
+     * When: a failed attempt is recorded, then changed to passed, then deleted
+     *
+     * Then: credits, counts, GPA and graduation progress should follow each write
+     */
+    @Test
+    void historyWritesUpdateTheSummaryIncrementally() {
+        var studentId = 5;
+        var courseId = untakenCourse(studentId);
+        var credits = jdbcTemplate.queryForObject("SELECT credits FROM courses WHERE id = ?",
+                Double.class, courseId);
+        var before = summary(studentId);
+
+        jdbcTemplate.update("""
+                INSERT INTO student_course_history (student_id, course_id, semester_id, status)
+                VALUES (?, ?, 1, 'failed')
+                """, studentId, courseId);
+        var failed = summary(studentId);
+        assertThat(failed.get("attempted_credits"))
+                .isEqualTo((Double) before.get("attempted_credits") + credits);
+        assertThat(failed.get("earned_credits")).isEqualTo(before.get("earned_credits"));
+        assertThat(failed.get("failed_count"))
+                .isEqualTo((Integer) before.get("failed_count") + 1);
+
+        jdbcTemplate.update("""
+                UPDATE student_course_history SET status = 'passed'
+                WHERE student_id = ? AND course_id = ? AND semester_id = 1
+                """, studentId, courseId);
+        var passed = summary(studentId);
+        var earned = (Double) before.get("earned_credits") + credits;
+        var attempted = (Double) before.get("attempted_credits") + credits;
+        assertThat(passed.get("earned_credits")).isEqualTo(earned);
+        assertThat(passed.get("passed_count"))
+                .isEqualTo((Integer) before.get("passed_count") + 1);
+        assertThat(passed.get("failed_count")).isEqualTo(before.get("failed_count"));
+        assertThat((Double) passed.get("gpa"))
+                .isEqualTo(Math.round(earned / attempted * 4.0 * 100) / 100.0);
+        assertThat((Double) passed.get("graduation_progress"))
+                .isEqualTo(Math.min(earned / 30.0, 1.0));
+
+        jdbcTemplate.update("""
+                DELETE FROM student_course_history
+                WHERE student_id = ? AND course_id = ? AND semester_id = 1
+                """, studentId, courseId);
+        assertThat(summary(studentId)).containsAllEntriesOf(Map.of(
+                "earned_credits", before.get("earned_credits"),
+                "attempted_credits", before.get("attempted_credits"),
+                "passed_count", before.get("passed_count"),
+                "failed_count", before.get("failed_count"),
+                "gpa", before.get("gpa")));
+    }
+
+    /**
+     * Given: a student and a course
+     *
+     * When: the student enrolls and the enrollment is then completed
+     *
+     * Then: the course credits should be counted as enrolled only while the enrollment is open
+     */
+    @Test
+    void enrollmentCompletionReleasesEnrolledCredits() {
+        var studentId = 5;
+        var courseId = untakenCourse(studentId);
+        var credits = jdbcTemplate.queryForObject("SELECT credits FROM courses WHERE id = ?",
+                Double.class, courseId);
+        var before = (Double) summary(studentId).get("enrolled_credits");
+
+        jdbcTemplate.update("""
+                INSERT INTO student_enrollments (student_id, course_id, semester_id, status)
+                VALUES (?, ?, 7, 'enrolled')
+                """, studentId, courseId);
+        assertThat(summary(studentId).get("enrolled_credits")).isEqualTo(before + credits);
+
+        jdbcTemplate.update("""
+                UPDATE student_enrollments SET status = 'completed'
+                WHERE student_id = ? AND course_id = ?
+                """, studentId, courseId);
+        assertThat(summary(studentId).get("enrolled_credits")).isEqualTo(before);
+    }
+
+    private int untakenCourse(int studentId) {
+        return jdbcTemplate.queryForObject("""
+                SELECT MIN(c.id) FROM courses c
+                WHERE c.prerequisite_id IS NULL
+                    AND c.id NOT IN (SELECT course_id FROM student_course_history
+                        WHERE student_id = ?)
+                """, Integer.class, studentId);
+    }
+
+    private Map<String, Object> summary(int studentId) {
+        return jdbcTemplate.queryForMap("""
+                SELECT earned_credits, attempted_credits, passed_count, failed_count, gpa,
+                    graduation_progress, enrolled_credits
+                FROM student_academic_summary WHERE student_id = ?
+                """, studentId);
+    }
+}
@@ -3,10 +3,12 @@ package com.maplewood.repositories;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Comparator;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import com.maplewood.domain.Course;
 import com.maplewood.domain.CourseType;
@@ -24,11 +26,13 @@ class StudentEnrollmentRepositoryTest {
     private StudentEnrollmentRepository studentEnrollmentRepository;
     @Autowired
     private TestEntityManager entityManager;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
 
     /**
      * Given: a student, a course, and an active semester
      *
-     * When: addEnrollment is called with the student and course ids
+     * When: the ADD_ENROLLMENT_SQL insert runs for the student and course ids
      *
      * Then: one enrollment record should be inserted with status enrolled in the active semester
      */
@@ -40,7 +44,7 @@ class StudentEnrollmentRepositoryTest {
         var activeSemester = persistSemester("Fall", 2026, SemesterOrder.FALL, true);
         persistSemester("Spring", 2026, SemesterOrder.SPRING, false);
 
-        var affectedRows = studentEnrollmentRepository.addEnrollment(student.getId(), course.getId());
+        var affectedRows = addEnrollment(student.getId(), course.getId(), 5);
         entityManager.flush();
         entityManager.clear();
 
@@ -65,7 +69,7 @@ class StudentEnrollmentRepositoryTest {
     /**
      * Given: a student and a course but no active semester
      *
-     * When: addEnrollment is called
+     * When: the ADD_ENROLLMENT_SQL insert runs
      *
      * Then: no enrollment should be inserted
      */
@@ -76,7 +80,7 @@ class StudentEnrollmentRepositoryTest {
         var course = persistCourse("MAT101", "Algebra I", specialization);
         persistSemester("Spring", 2027, SemesterOrder.SPRING, false);
 
-        var affectedRows = studentEnrollmentRepository.addEnrollment(student.getId(), course.getId());
+        var affectedRows = addEnrollment(student.getId(), course.getId(), 5);
         entityManager.flush();
         entityManager.clear();
 
@@ -84,6 +88,36 @@ class StudentEnrollmentRepositoryTest {
         assertThat(studentEnrollmentRepository.findAll()).isEmpty();
     }
 
+    /**
+     * Given: a student enrolled in one course in an earlier semester and at the course limit in
+     * the active semester
+     *
+     * When: the ADD_ENROLLMENT_SQL insert runs for the already enrolled course and for a new
+     * course
+     *
+     * Then: neither row should be inserted, and the new course should be accepted once the limit
+     * is raised
+     */
+    @Test
+    void addEnrollmentSkipsDuplicateAndOverLimitEnrollments() {
+        var specialization = persistSpecialization("Arts");
+        var student = persistStudent("enroll-guard@student.test");
+        var painting = persistCourse("ART101", "Painting", specialization);
+        var drawing = persistCourse("ART102", "Drawing", specialization);
+        var sculpture = persistCourse("ART103", "Sculpture", specialization);
+        var activeSemester = persistSemester("Fall", 2030, SemesterOrder.FALL, true);
+        var pastSemester = persistSemester("Spring", 2030, SemesterOrder.SPRING, false);
+
+        persistEnrollment(student, painting, pastSemester, StudentEnrollmentStatus.ENROLLED);
+        persistEnrollment(student, drawing, activeSemester, StudentEnrollmentStatus.ENROLLED);
+        entityManager.flush();
+
+        assertThat(addEnrollment(student.getId(), painting.getId(), 5)).isZero();
+        assertThat(addEnrollment(student.getId(), sculpture.getId(), 1)).isZero();
+        assertThat(addEnrollment(student.getId(), sculpture.getId(), 2)).isEqualTo(1);
+        assertThat(studentEnrollmentRepository.count()).isEqualTo(3);
+    }
+
     /**
      * Given: a target student with enrollments across active and inactive semesters, mixed
      * statuses, and another student's active enrollment
@@ -208,6 +242,49 @@ class StudentEnrollmentRepositoryTest {
         assertThat(enrollmentCount).isZero();
     }
 
+    /**
+     * Given: a target student with enrolled and dropped records across semesters, and another
+     * student's enrollment
+     *
+     * When: findEnrolledCourseIdsByStudentId is called for the target student
+     *
+     * Then: only the course ids of the target student's ENROLLED records should be returned
+     */
+    @Test
+    void findEnrolledCourseIdsByStudentIdReturnsOnlyEnrolledCoursesForStudent() {
+        var specialization = persistSpecialization("Music");
+        var targetStudent = persistStudent("ids-target@student.test");
+        var otherStudent = persistStudent("ids-other@student.test");
+
+        var choir = persistCourse("MUS101", "Choir", specialization);
+        var band = persistCourse("MUS102", "Band", specialization);
+        var theory = persistCourse("MUS103", "Music Theory", specialization);
+
+        var activeSemester = persistSemester("Fall", 2032, SemesterOrder.FALL, true);
+        var inactiveSemester = persistSemester("Spring", 2032, SemesterOrder.SPRING, false);
+
+        persistEnrollment(targetStudent, choir, activeSemester, StudentEnrollmentStatus.ENROLLED);
+        persistEnrollment(targetStudent, band, inactiveSemester, StudentEnrollmentStatus.ENROLLED);
+        persistEnrollment(targetStudent, theory, activeSemester, StudentEnrollmentStatus.DROPPED);
+        persistEnrollment(otherStudent, theory, activeSemester, StudentEnrollmentStatus.ENROLLED);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        var enrolledCourseIds = studentEnrollmentRepository
+                .findEnrolledCourseIdsByStudentId(targetStudent.getId());
+
+        assertThat(enrolledCourseIds).containsExactlyInAnyOrder(choir.getId(), band.getId());
+    }
+
+    /* Run ADD_ENROLLMENT_SQL as the write queue does, returning the inserted row count */
+    private int addEnrollment(Integer studentId, Integer courseId, int maxActiveCourses) {
+        entityManager.flush();
+        return jdbcTemplate.update(StudentEnrollmentRepository.ADD_ENROLLMENT_SQL,
+                Map.of("studentId", studentId, "courseId", courseId,
+                        "maxActiveCourses", maxActiveCourses));
+    }
+
     private Specialization persistSpecialization(String name) {
         var specialization = new Specialization();
         specialization.setName(name);
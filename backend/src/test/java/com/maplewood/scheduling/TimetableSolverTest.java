@@ -0,0 +1,92 @@
+package com.maplewood.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TimetableSolverTest {
+    private static final TimetableProblem.PeriodGrid GRID =
+            new TimetableProblem.PeriodGrid(8 * 60, 50, 10, 8);
+    private static final TimetableSolver.Options OPTIONS =
+            new TimetableSolver.Options(4, 200_000, Duration.ofSeconds(10), 7);
+
+    private final TimetableSolver solver = new TimetableSolver(2);
+
+    /**
+     * Given: two specializations whose sections need most of their teachers' daily periods, and
+     * few rooms of one type
+     *
+     * When: solving the timetable
+     *
+     * Then: every section should be placed without double-booking a teacher or room, breaking a
+     * teacher's daily limit, or meeting twice a day
+     */
+    @Test
+    void givenTightButFeasibleProblemWhenSolvingThenEverySectionIsPlacedWithinConstraints() {
+        var sections = new ArrayList<TimetableProblem.Section>();
+        for (var i = 0; i < 8; i++) {
+            sections.add(new TimetableProblem.Section(100 + i % 3, "%02d".formatted(i), 1, 1, 4));
+        }
+        for (var i = 0; i < 6; i++) {
+            sections.add(new TimetableProblem.Section(200, "%02d".formatted(i), 2, 2, 5));
+        }
+        var teachers = List.of(
+                new TimetableProblem.Teacher(1, 1, 4), new TimetableProblem.Teacher(2, 1, 4),
+                new TimetableProblem.Teacher(3, 2, 4), new TimetableProblem.Teacher(4, 2, 3));
+        var rooms = List.of(new TimetableProblem.Room(1, 1, 10),
+                new TimetableProblem.Room(2, 2, 10));
+        var problem = new TimetableProblem(sections, teachers, rooms, GRID);
+
+        var solution = solver.solve(problem, OPTIONS);
+
+        assertThat(solution.isFeasible()).isTrue();
+        assertThat(solution.placements()).hasSize(sections.size());
+        var teacherPeriods = new HashSet<String>();
+        var roomPeriods = new HashSet<String>();
+        var teacherDayLoad = new HashMap<String, Integer>();
+        for (var placement : solution.placements()) {
+            var teacher = teachers.stream().filter(t -> t.id() == placement.teacherId())
+                    .findFirst().orElseThrow();
+            assertThat(teacher.specializationId())
+                    .isEqualTo(placement.section().specializationId());
+            assertThat(placement.meetings()).hasSize(placement.section().meetingsPerWeek());
+            var sectionDays = new HashSet<Integer>();
+            for (var meeting : placement.meetings()) {
+                var day = meeting.weekPeriod() / GRID.periodsPerDay();
+                assertThat(sectionDays.add(day)).isTrue();
+                assertThat(teacherPeriods.add(teacher.id() + "@" + meeting.weekPeriod())).isTrue();
+                assertThat(roomPeriods.add(meeting.roomId() + "@" + meeting.weekPeriod())).isTrue();
+                assertThat(teacherDayLoad.merge(teacher.id() + "@" + day, 1, Integer::sum))
+                        .isLessThanOrEqualTo(teacher.maxDailyPeriods());
+            }
+        }
+    }
+
+    /**
+     * Given: more sections than a specialization's only teacher can teach in a week
+     *
+     * When: solving the timetable
+     *
+     * Then: the solution should place as many as fit and report the rest as unscheduled
+     */
+    @Test
+    void givenTooFewTeachersWhenSolvingThenOverflowIsReportedUnscheduled() {
+        var sections = new ArrayList<TimetableProblem.Section>();
+        for (var i = 0; i < 6; i++) {
+            sections.add(new TimetableProblem.Section(100, "%02d".formatted(i), 1, 1, 4));
+        }
+        var problem = new TimetableProblem(sections, List.of(new TimetableProblem.Teacher(1, 1, 4)),
+                List.of(new TimetableProblem.Room(1, 1, 10)), GRID);
+
+        var solution = solver.solve(problem, OPTIONS);
+
+        assertThat(solution.isFeasible()).isFalse();
+        assertThat(solution.placements()).hasSize(5);
+        assertThat(solution.unscheduled()).hasSize(1);
+        assertThat(solution.restarts()).isEqualTo(OPTIONS.restarts());
+    }
+}
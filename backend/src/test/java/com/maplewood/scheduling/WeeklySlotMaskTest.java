@@ -0,0 +1,78 @@
+package com.maplewood.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.DayOfWeek;
+import org.junit.jupiter.api.Test;
+
+class WeeklySlotMaskTest {
+
+    /**
+     * Given: two meetings on the same day that share ten minutes
+     *
+     * When: checking their masks for a conflict
+     *
+     * Then: the masks should intersect, as the interval comparison does
+     */
+    @Test
+    void givenOverlappingMeetingsWhenCheckingThenMasksIntersect() {
+        var first = new MeetingTime(DayOfWeek.TUESDAY, 9 * 60, 9 * 60 + 50);
+        var second = new MeetingTime(DayOfWeek.TUESDAY, 9 * 60 + 40, 10 * 60 + 30);
+
+        assertThat(WeeklySlotMask.of(first).intersects(WeeklySlotMask.of(second))).isTrue();
+        assertThat(first.overlaps(second)).isTrue();
+    }
+
+    /**
+     * Given: back-to-back meetings, and meetings at the same time on different days
+     *
+     * When: checking their masks for a conflict
+     *
+     * Then: none of them should intersect
+     */
+    @Test
+    void givenAdjacentOrOtherDayMeetingsWhenCheckingThenMasksDoNotIntersect() {
+        var mondayFirst = WeeklySlotMask.of(new MeetingTime(DayOfWeek.MONDAY, 540, 590));
+        var mondaySecond = WeeklySlotMask.of(new MeetingTime(DayOfWeek.MONDAY, 590, 640));
+        var friday = WeeklySlotMask.of(new MeetingTime(DayOfWeek.FRIDAY, 540, 590));
+
+        assertThat(mondayFirst.intersects(mondaySecond)).isFalse();
+        assertThat(mondayFirst.intersects(friday)).isFalse();
+        assertThat(mondayFirst.intersects(WeeklySlotMask.empty())).isFalse();
+    }
+
+    /**
+     * Given: a schedule built by merging meetings one mask at a time
+     *
+     * When: comparing it to the mask built from all meetings at once
+     *
+     * Then: both should be equal and cover every slot of every meeting
+     */
+    @Test
+    void givenMergedMasksWhenComparingThenUnionMatchesMaskOfAllMeetings() {
+        var first = new MeetingTime(DayOfWeek.MONDAY, 7 * 60, 8 * 60);
+        var last = new MeetingTime(DayOfWeek.FRIDAY, 18 * 60, 19 * 60);
+
+        var merged = WeeklySlotMask.empty().or(WeeklySlotMask.of(first))
+                .or(WeeklySlotMask.of(last));
+
+        assertThat(merged).isEqualTo(WeeklySlotMask.of(first, last));
+        assertThat(merged.slotCount()).isEqualTo(24);
+        assertThat(merged.intersects(WeeklySlotMask.of(last))).isTrue();
+    }
+
+    /**
+     * Given: meetings on a weekend or running past the end of the school day
+     *
+     * When: building a mask
+     *
+     * Then: they should be rejected rather than wrapped into another day
+     */
+    @Test
+    void givenMeetingOutsideSchoolHoursWhenBuildingMaskThenRejected() {
+        assertThatThrownBy(() -> WeeklySlotMask.of(new MeetingTime(DayOfWeek.SATURDAY, 540, 590)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WeeklySlotMask.of(new MeetingTime(DayOfWeek.MONDAY, 1110, 1150)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -2,11 +2,10 @@ package com.maplewood.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,12 +14,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CatalogSnapshot;
+import com.maplewood.catalog.CourseCatalog;
 import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
 import com.maplewood.domain.Semester;
 import com.maplewood.domain.SemesterOrder;
+import com.maplewood.domain.Specialization;
 import com.maplewood.domain.Student;
 import com.maplewood.repositories.CourseRepository;
 import com.maplewood.repositories.SemesterRepository;
@@ -40,6 +43,9 @@ class CourseServiceTest {
     @Mock
     private SemesterRepository semesterRepository;
 
+    @Mock
+    private CourseCatalog courseCatalog;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -48,25 +54,26 @@ class CourseServiceTest {
      *
      * When: findCoursesForActiveSemester is called
      *
-     * Then: courses should be fetched using the active semester order from DB
+     * Then: the catalog's FALL course list should be returned as-is
      */
     @Test
     void findCoursesForActiveSemesterUsesActiveSemesterFromDatabase() {
         var activeSemester = new Semester();
         activeSemester.setOrderInYear(SemesterOrder.FALL);
 
-        var pageable = PageRequest.of(0, 10);
-        var expectedPage = new PageImpl<Course>(List.of());
+        var fallCourse = catalogCourse(0, 10, SemesterOrder.FALL);
+        var springCourse = catalogCourse(1, 20, SemesterOrder.SPRING);
+        var snapshot = snapshotOf(fallCourse, springCourse);
 
         when(semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc())
                 .thenReturn(Optional.of(activeSemester));
-        when(courseRepository.findAllBySemesterOrder(SemesterOrder.FALL, pageable))
-                .thenReturn(expectedPage);
+        when(courseCatalog.snapshot()).thenReturn(snapshot);
 
-        var result = courseService.findCoursesForActiveSemester(pageable);
+        var result = courseService.findCoursesForActiveSemester();
 
-        assertThat(result).isEqualTo(expectedPage);
-        verify(courseRepository).findAllBySemesterOrder(SemesterOrder.FALL, pageable);
+        assertThat(result).extracting(CatalogCourse::id).containsExactly(10);
+        assertThat(result).isSameAs(snapshot.coursesFor(SemesterOrder.FALL));
+        verifyNoInteractions(courseRepository);
     }
 
     /**
@@ -81,7 +88,7 @@ class CourseServiceTest {
         when(semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc())
                 .thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> courseService.findCoursesForActiveSemester(PageRequest.of(0, 10)))
+        assertThatThrownBy(() -> courseService.findCoursesForActiveSemester())
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("No active semester found for courses");
     }
@@ -91,7 +98,8 @@ class CourseServiceTest {
      *
      * When: findCoursesForStudent is called
      *
-     * Then: only eligible active-semester courses should be returned
+     * Then: only eligible active-semester courses should be returned, paged in memory without
+     * querying courses
      */
     @Test
     void findCoursesForStudentFiltersEligibleCoursesFromActiveSemester() {
@@ -101,29 +109,83 @@ class CourseServiceTest {
         var activeSemester = new Semester();
         activeSemester.setOrderInYear(SemesterOrder.SPRING);
 
-        var eligibleCourse = new Course();
-        eligibleCourse.setId(10);
-
-        var ineligibleCourse = new Course();
-        ineligibleCourse.setId(20);
+        var eligibleCourse = catalogCourse(0, 10, SemesterOrder.SPRING);
+        var ineligibleCourse = catalogCourse(1, 20, SemesterOrder.SPRING);
+        var snapshot = snapshotOf(eligibleCourse, ineligibleCourse);
 
         var pageable = PageRequest.of(0, 10);
-        var expectedPage = new PageImpl<Course>(List.of(eligibleCourse));
 
         when(studentService.findStudentById(7)).thenReturn(student);
         when(semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc())
                 .thenReturn(Optional.of(activeSemester));
-        when(courseRepository.findAllCoursesBySemesterOrder(SemesterOrder.SPRING))
-                .thenReturn(List.of(eligibleCourse, ineligibleCourse));
-        when(studentService.canTakeCourse(student, eligibleCourse)).thenReturn(Optional.empty());
-        when(studentService.canTakeCourse(student, ineligibleCourse))
-                .thenReturn(Optional.of(StudentService.EnrollmentErrorCode.PREREQUISITE_NOT_MET));
-        when(courseRepository.findByIdIn(eq(List.of(10)), any())).thenReturn(expectedPage);
+        when(courseCatalog.snapshot()).thenReturn(snapshot);
+        when(studentService.findEligibleCourses(student, snapshot,
+                snapshot.coursesFor(SemesterOrder.SPRING)))
+                .thenReturn(List.of(snapshot.courseAt(0)));
 
         var result = courseService.findCoursesForStudent(7, pageable);
 
-        assertThat(result).isEqualTo(expectedPage);
-        verify(courseRepository).findAllCoursesBySemesterOrder(SemesterOrder.SPRING);
-        verify(courseRepository).findByIdIn(eq(List.of(10)), any());
+        assertThat(result.getContent()).extracting(CatalogCourse::id).containsExactly(10);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verifyNoInteractions(courseRepository);
+    }
+
+    /**
+     * Given: more eligible courses than fit on one page
+     *
+     * When: findCoursesForStudent is called for the second page
+     *
+     * Then: the page should hold the remaining courses and report the full total
+     */
+    @Test
+    void findCoursesForStudentPagesEligibleCoursesInMemory() {
+        var student = new Student();
+        student.setId(7);
+
+        var activeSemester = new Semester();
+        activeSemester.setOrderInYear(SemesterOrder.FALL);
+
+        var snapshot = snapshotOf(catalogCourse(0, 1, SemesterOrder.FALL),
+                catalogCourse(1, 2, SemesterOrder.FALL), catalogCourse(2, 3, SemesterOrder.FALL));
+        var courses = snapshot.coursesFor(SemesterOrder.FALL);
+
+        when(studentService.findStudentById(7)).thenReturn(student);
+        when(semesterRepository.findFirstByActiveTrueOrderByYearDescOrderInYearDesc())
+                .thenReturn(Optional.of(activeSemester));
+        when(courseCatalog.snapshot()).thenReturn(snapshot);
+        when(studentService.findEligibleCourses(student, snapshot, courses)).thenReturn(courses);
+
+        var result = courseService.findCoursesForStudent(7, PageRequest.of(1, 2));
+
+        assertThat(result.getContent()).extracting(CatalogCourse::id).containsExactly(3);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+    }
+
+    private CatalogCourse catalogCourse(int index, Integer id, SemesterOrder semesterOrder) {
+        return new CatalogCourse(index, id, "C" + id, "Course " + id, null, 1.0, 4, 1, "Science",
+                null, null, CourseType.CORE, 9, 12, semesterOrder);
+    }
+
+    private CatalogSnapshot snapshotOf(CatalogCourse... courses) {
+        var specialization = new Specialization();
+        specialization.setId(1);
+        specialization.setName("Science");
+
+        var entities = Arrays.stream(courses).map(catalogCourse -> {
+            var course = new Course();
+            course.setId(catalogCourse.id());
+            course.setCode(catalogCourse.code());
+            course.setName(catalogCourse.name());
+            course.setCredits(catalogCourse.credits());
+            course.setHoursPerWeek(catalogCourse.hoursPerWeek());
+            course.setSpecialization(specialization);
+            course.setCourseType(catalogCourse.courseType());
+            course.setGradeLevelMin(catalogCourse.gradeLevelMin());
+            course.setGradeLevelMax(catalogCourse.gradeLevelMax());
+            course.setSemesterOrder(catalogCourse.semesterOrder());
+            return course;
+        }).toList();
+        return CatalogSnapshot.of(1, entities, List.of(specialization));
     }
 }
@@ -0,0 +1,105 @@
+package com.maplewood.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.maplewood.domain.Course;
+import com.maplewood.domain.Student;
+import com.maplewood.domain.StudentAcademicSummary;
+
+@ExtendWith(MockitoExtension.class)
+class StudentDashboardServiceTest {
+    @Mock
+    private StudentService studentService;
+
+    @Mock
+    private StudentCourseHistoryService studentCourseHistoryService;
+
+    @Mock
+    private StudentEnrollmentService studentEnrollmentService;
+
+    private ExecutorService executor;
+    private StudentDashboardService studentDashboardService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        studentDashboardService = new StudentDashboardService(studentService,
+                studentCourseHistoryService, studentEnrollmentService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Given: four dashboard reads that each wait until all four are running
+     *
+     * When: getStudentDashboardSummary is called
+     *
+     * Then: the reads should run concurrently and their results be combined
+     */
+    @Test
+    void getStudentDashboardSummaryLoadsAllPartsConcurrently() {
+        var barrier = new CyclicBarrier(4);
+        var student = new Student();
+        student.setId(7);
+        var enrolled = new Course();
+        var academicSummary = StudentAcademicSummary.empty(7);
+
+        when(studentService.findStudentById(7)).thenAnswer(invocation -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return student;
+        });
+        when(studentService.getAcademicSummary(7)).thenAnswer(invocation -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return academicSummary;
+        });
+        when(studentCourseHistoryService.getStudentCourseHistory(7)).thenAnswer(invocation -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(studentEnrollmentService.getActiveSemesterEnrollments(7)).thenAnswer(invocation -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return List.of(enrolled);
+        });
+
+        var summary = studentDashboardService.getStudentDashboardSummary(7);
+
+        assertThat(summary.student()).isSameAs(student);
+        assertThat(summary.academicSummary()).isSameAs(academicSummary);
+        assertThat(summary.courseHistory()).isEmpty();
+        assertThat(summary.enrolledCourses()).containsExactly(enrolled);
+    }
+
+    /**
+     * Given: a student id that does not exist
+     *
+     * When: getStudentDashboardSummary is called
+     *
+     * Then: the exception thrown by the failing read should be rethrown as is
+     */
+    @Test
+    void getStudentDashboardSummaryRethrowsReadFailure() {
+        when(studentService.findStudentById(7)).thenThrow(new RuntimeException("Student not found"));
+
+        assertThatThrownBy(() -> studentDashboardService.getStudentDashboardSummary(7))
+                .isExactlyInstanceOf(RuntimeException.class)
+                .hasMessage("Student not found");
+    }
+}
@@ -2,21 +2,34 @@ package com.maplewood.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.maplewood.catalog.CatalogCourse;
+import com.maplewood.catalog.CatalogSnapshot;
 import com.maplewood.domain.Course;
+import com.maplewood.domain.CourseType;
+import com.maplewood.domain.SemesterOrder;
 import com.maplewood.domain.Student;
+import com.maplewood.domain.StudentAcademicSummary;
 import com.maplewood.domain.StudentEnrollmentStatus;
+import com.maplewood.repositories.StudentAcademicSummaryRepository;
 import com.maplewood.repositories.StudentCourseHistoryRepository;
 import com.maplewood.repositories.StudentEnrollmentRepository;
 import com.maplewood.repositories.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class StudentServiceTest {
@@ -26,30 +39,57 @@ class StudentServiceTest {
     private StudentCourseHistoryRepository studentCourseHistoryRepository;
     @Mock
     private StudentEnrollmentRepository studentEnrollmentRepository;
+    @Mock
+    private StudentAcademicSummaryRepository studentAcademicSummaryRepository;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private EnrollmentMetrics enrollmentMetrics = new EnrollmentMetrics(meterRegistry);
 
     @InjectMocks
     private StudentService studentService;
 
     /**
-     * Given: a student that exists and repository-calculated earned credits
+     * Given: a student that exists and a materialized academic summary row
      *
      * When: getStudentDashboardInformation is called
      *
-     * Then: the response should include both the student and earned credits
+     * Then: the response should include the student and the summary, without aggregating history
      */
     @Test
-    void getStudentDashboardInformationReturnsStudentAndEarnedCredits() {
+    void getStudentDashboardInformationReturnsStudentAndAcademicSummary() {
         var student = buildStudent(7, 11);
+        var summary = StudentAcademicSummary.empty(7);
+        summary.setEarnedCredits(18.0);
+        summary.setGpa(3.6);
 
         when(studentRepository.findById(7)).thenReturn(java.util.Optional.of(student));
-        when(studentCourseHistoryRepository.findEarnedCreditsByStudentId(7)).thenReturn(18.0);
+        when(studentAcademicSummaryRepository.findById(7)).thenReturn(java.util.Optional.of(summary));
 
         var dashboardInformation = studentService.getStudentDashboardInformation(7);
 
         assertThat(dashboardInformation.student().getId()).isEqualTo(7);
-        assertThat(dashboardInformation.earnedCredits()).isEqualTo(18.0);
+        assertThat(dashboardInformation.academicSummary().getEarnedCredits()).isEqualTo(18.0);
+        assertThat(dashboardInformation.academicSummary().getGpa()).isEqualTo(3.6);
         verify(studentRepository).findById(7);
-        verify(studentCourseHistoryRepository).findEarnedCreditsByStudentId(7);
+        verifyNoInteractions(studentCourseHistoryRepository);
+    }
+
+    /**
+     * Given: a student without a summary row
+     *
+     * When: getAcademicSummary is called
+     *
+     * Then: an empty summary should be returned
+     */
+    @Test
+    void getAcademicSummaryDefaultsToEmptySummary() {
+        when(studentAcademicSummaryRepository.findById(7)).thenReturn(java.util.Optional.empty());
+
+        var summary = studentService.getAcademicSummary(7);
+
+        assertThat(summary.getStudentId()).isEqualTo(7);
+        assertThat(summary.getEarnedCredits()).isZero();
+        assertThat(summary.getGpa()).isZero();
     }
 
     /**
@@ -68,7 +108,7 @@ class StudentServiceTest {
                 .hasMessage("Student not found");
 
         verify(studentRepository).findById(99);
-        verify(studentCourseHistoryRepository, never()).findEarnedCreditsByStudentId(99);
+        verifyNoInteractions(studentAcademicSummaryRepository);
     }
 
     /**
@@ -200,6 +240,158 @@ class StudentServiceTest {
         assertThat(eligible).isEmpty();
     }
 
+    /**
+     * Given: one student who can take a course and one who is outside its grade range
+     *
+     * When: canTakeCourse is called for both
+     *
+     * Then: each outcome should be counted under its own tag
+     */
+    @Test
+    void canTakeCourseCountsOutcomes() {
+        var course = buildCourse(101, 10, 12, null);
+
+        when(studentCourseHistoryRepository.findPassedCourseIdsByStudentId(1)).thenReturn(Set.of());
+        when(studentEnrollmentRepository.existsByStudentIdAndCourseIdAndStatus(1, 101,
+                StudentEnrollmentStatus.ENROLLED)).thenReturn(false);
+        when(studentEnrollmentRepository.countEnrolledCoursesByStudentIdInActiveSemester(1))
+                .thenReturn(0L);
+
+        studentService.canTakeCourse(buildStudent(1, 10), course);
+        studentService.canTakeCourse(buildStudent(2, 9), course);
+
+        assertThat(meterRegistry.get("enrollment.eligibility").tag("outcome", "ELIGIBLE")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("enrollment.eligibility")
+                .tag("outcome", "GRADE_LEVEL_MISMATCH").counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * Given: a preloaded eligibility context with one passed and one enrolled course
+     *
+     * When: canTakeCourse is called with the context for several courses
+     *
+     * Then: it should return the same error codes as the per-course checks without querying the
+     * repositories again
+     */
+    @Test
+    void canTakeCourseWithContextReturnsSameCodesWithoutQuerying() {
+        var student = buildStudent(1, 10);
+        var passed = buildCatalogCourse(100, 9, 12, null);
+        var enrolled = buildCatalogCourse(101, 9, 12, null);
+        var unlocked = buildCatalogCourse(102, 9, 12, passed);
+        var locked = buildCatalogCourse(103, 9, 12, enrolled);
+        var seniorOnly = buildCatalogCourse(104, 12, 12, null);
+        var context = new StudentService.EligibilityContext(Set.of(100), Set.of(101), 2L);
+
+        assertThat(studentService.canTakeCourse(student, passed, context))
+                .contains(StudentService.EnrollmentErrorCode.COURSE_ALREADY_PASSED);
+        assertThat(studentService.canTakeCourse(student, enrolled, context))
+                .contains(StudentService.EnrollmentErrorCode.COURSE_ALREADY_ENROLLED);
+        assertThat(studentService.canTakeCourse(student, unlocked, context)).isEmpty();
+        assertThat(studentService.canTakeCourse(student, locked, context))
+                .contains(StudentService.EnrollmentErrorCode.PREREQUISITE_NOT_MET);
+        assertThat(studentService.canTakeCourse(student, seniorOnly, context))
+                .contains(StudentService.EnrollmentErrorCode.GRADE_LEVEL_MISMATCH);
+        verifyNoInteractions(studentCourseHistoryRepository, studentEnrollmentRepository);
+    }
+
+    /**
+     * Given: a student with passed, enrolled and active-semester count data
+     *
+     * When: findEligibleCourses is called for a list of courses
+     *
+     * Then: the student's data should be loaded once and only eligible courses returned in order
+     */
+    @Test
+    void findEligibleCoursesLoadsStudentDataOnce() {
+        var student = buildStudent(1, 10);
+        var prerequisite = buildCourse(100, 9, 12, null);
+        var first = buildCourse(101, 9, 12, prerequisite);
+        var second = buildCourse(102, 9, 12, null);
+        var enrolled = buildCourse(103, 9, 12, null);
+        var snapshot = CatalogSnapshot.of(1, List.of(prerequisite, first, second, enrolled),
+                List.of());
+
+        when(studentCourseHistoryRepository.findPassedCourseIdsByStudentId(1))
+                .thenReturn(Set.of(100));
+        when(studentEnrollmentRepository.findEnrolledCourseIdsByStudentId(1))
+                .thenReturn(Set.of(103));
+        when(studentEnrollmentRepository.countEnrolledCoursesByStudentIdInActiveSemester(1))
+                .thenReturn(1L);
+
+        var eligible = studentService.findEligibleCourses(student, snapshot, snapshot.courses());
+
+        assertThat(eligible).extracting(CatalogCourse::id).containsExactly(101, 102);
+        verify(studentCourseHistoryRepository, times(1)).findPassedCourseIdsByStudentId(1);
+        verify(studentEnrollmentRepository, times(1)).findEnrolledCourseIdsByStudentId(1);
+        verify(studentEnrollmentRepository, times(1))
+                .countEnrolledCoursesByStudentIdInActiveSemester(1);
+        verify(studentEnrollmentRepository, never()).existsByStudentIdAndCourseIdAndStatus(any(),
+                any(), any());
+    }
+
+    /**
+     * Given: a student already at the active-semester course limit
+     *
+     * When: findEligibleCourses is called
+     *
+     * Then: no course should be returned
+     */
+    @Test
+    void findEligibleCoursesReturnsEmptyWhenActiveSemesterLimitReached() {
+        var student = buildStudent(1, 10);
+        var snapshot = CatalogSnapshot.of(1, List.of(buildCourse(101, 9, 12, null)), List.of());
+
+        when(studentCourseHistoryRepository.findPassedCourseIdsByStudentId(1)).thenReturn(Set.of());
+        when(studentEnrollmentRepository.findEnrolledCourseIdsByStudentId(1)).thenReturn(Set.of());
+        when(studentEnrollmentRepository.countEnrolledCoursesByStudentIdInActiveSemester(1))
+                .thenReturn(5L);
+
+        assertThat(studentService.findEligibleCourses(student, snapshot, snapshot.courses()))
+                .isEmpty();
+    }
+
+    /**
+     * Given: a catalog with prerequisite chains and mixed grade windows, and several student
+     * histories
+     *
+     * When: filterEligibleCourses is called for every grade level
+     *
+     * Then: the bitmask result should match checking each course with canTakeCourse
+     */
+    @Test
+    void filterEligibleCoursesMatchesPerCourseChecks() {
+        var courses = new ArrayList<Course>();
+        for (var id = 100; id < 140; id++) {
+            var gradeLevelMin = 9 + id % 4;
+            var gradeLevelMax = Math.min(12, gradeLevelMin + id % 3);
+            var prerequisite = id % 3 == 0 || courses.isEmpty() ? null
+                    : courses.get((id * 7) % courses.size());
+            courses.add(buildCourse(id, gradeLevelMin, gradeLevelMax, prerequisite));
+        }
+        var snapshot = CatalogSnapshot.of(1, courses, List.of());
+        var contexts = List.of(
+                new StudentService.EligibilityContext(Set.of(), Set.of(), 0L),
+                new StudentService.EligibilityContext(Set.of(100, 103, 106, 111), Set.of(101), 2L),
+                new StudentService.EligibilityContext(Set.of(100, 101, 102, 104, 105, 107, 110,
+                        113, 117, 121, 125), Set.of(130, 131, 999), 4L));
+
+        for (var gradeLevel = 8; gradeLevel <= 13; gradeLevel++) {
+            var student = buildStudent(1, gradeLevel);
+            for (var context : contexts) {
+                var expected = snapshot.courses().stream()
+                        .filter(course -> studentService.canTakeCourse(student, course, context)
+                                .isEmpty())
+                        .toList();
+
+                assertThat(studentService.filterEligibleCourses(student, snapshot,
+                        snapshot.courses(), context)).containsExactlyElementsOf(expected);
+            }
+        }
+        verifyNoInteractions(studentCourseHistoryRepository, studentEnrollmentRepository);
+    }
+
     private Student buildStudent(Integer id, Integer gradeLevel) {
         var student = new Student();
         student.setId(id);
@@ -216,4 +408,12 @@ class StudentServiceTest {
         course.setPrerequisite(prerequisite);
         return course;
     }
+
+    private CatalogCourse buildCatalogCourse(Integer id, Integer gradeLevelMin,
+            Integer gradeLevelMax, CatalogCourse prerequisite) {
+        return new CatalogCourse(id - 100, id, "C" + id, "Course " + id, null, 1.0, 4, null, null,
+                prerequisite == null ? null : prerequisite.id(),
+                prerequisite == null ? null : prerequisite.name(), CourseType.CORE, gradeLevelMin,
+                gradeLevelMax, SemesterOrder.FALL);
+    }
 }
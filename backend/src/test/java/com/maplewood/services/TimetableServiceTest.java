@@ -0,0 +1,72 @@
+package com.maplewood.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.maplewood.scheduling.TimetableProblem;
+import com.maplewood.services.TimetableService.CourseDemand;
+
+class TimetableServiceTest {
+    private static final TimetableProblem.PeriodGrid GRID =
+            new TimetableProblem.PeriodGrid(8 * 60, 50, 10, 8);
+    private static final List<TimetableProblem.Room> ROOMS =
+            List.of(new TimetableProblem.Room(1, 1, 10), new TimetableProblem.Room(2, 1, 8));
+
+    /**
+     * Given: courses with demand for 25 seats, for 3 seats and with no demand at all
+     *
+     * When: planning sections with plenty of teachers
+     *
+     * Then: each course should get enough sections of the largest room's capacity, and at least
+     * one, with numbered codes
+     */
+    @Test
+    void givenDemandWhenPlanningThenSectionsCoverDemandAtRoomCapacity() {
+        var courses = List.of(new CourseDemand(1, 1, 1, 4), new CourseDemand(2, 1, 1, 4),
+                new CourseDemand(3, 1, 1, 4));
+        var teachers = List.of(new TimetableProblem.Teacher(1, 1, 4),
+                new TimetableProblem.Teacher(2, 1, 4));
+
+        var sections = TimetableService.planSections(courses, Map.of(1, 25.0, 2, 3.0), teachers,
+                ROOMS, GRID, 1.0);
+
+        assertThat(sectionsPerCourse(sections)).containsExactlyInAnyOrderEntriesOf(
+                Map.of(1, 3L, 2, 1L, 3, 1L));
+        assertThat(sections).filteredOn(section -> section.courseId() == 1)
+                .extracting(TimetableProblem.Section::code)
+                .containsExactly("01", "02", "03");
+    }
+
+    /**
+     * Given: demand for more periods than a specialization's only teacher can teach
+     *
+     * When: planning sections at 90% teacher load
+     *
+     * Then: sections should be dropped from the course with the most seats per student first,
+     * until the periods fit
+     */
+    @Test
+    void givenMoreDemandThanTeachersWhenPlanningThenMostOverProvisionedCourseIsTrimmed() {
+        var courses = List.of(new CourseDemand(1, 1, 1, 4), new CourseDemand(2, 1, 1, 2));
+        var teachers = List.of(new TimetableProblem.Teacher(1, 1, 4));
+
+        // 4 sections of 4 periods and 3 of 2 periods: 22 periods against 18 available
+        var sections = TimetableService.planSections(courses, Map.of(1, 40.0, 2, 21.0), teachers,
+                ROOMS, GRID, 0.9);
+
+        assertThat(sectionsPerCourse(sections)).containsExactlyInAnyOrderEntriesOf(
+                Map.of(1, 3L, 2, 2L));
+        assertThat(sections.stream().mapToInt(TimetableProblem.Section::meetingsPerWeek).sum())
+                .isLessThanOrEqualTo(18);
+    }
+
+    private static Map<Integer, Long> sectionsPerCourse(List<TimetableProblem.Section> sections) {
+        return sections.stream().collect(Collectors.groupingBy(
+                TimetableProblem.Section::courseId, Collectors.counting()));
+    }
+}
@@ -30,6 +30,7 @@ export const EnrollmentFailureCodeZod = z.enum([
   "COURSE_ALREADY_ENROLLED",
   "PREREQUISITE_NOT_MET",
   "MAX_COURSES_REACHED",
+  "SCHEDULE_CONFLICT",
   "UNKNOWN",
 ]);
 
@@ -15,6 +15,7 @@ const enrollmentFailureMessageByCode: Record<EnrollmentFailureCode, string> = {
   COURSE_ALREADY_ENROLLED: "You are already enrolled in this course.",
   PREREQUISITE_NOT_MET: "You need to complete the prerequisite course first.",
   MAX_COURSES_REACHED: "You have already reached the maximum number of active semester courses.",
+  SCHEDULE_CONFLICT: "This section meets at the same time as one of your enrolled sections.",
   UNKNOWN: "Enrollment could not be completed due to a course rule conflict.",
 };
 